@@ -0,0 +1,110 @@
+package com.github.bradjacobs.logging.jdbc.benchmarks;
+
+import com.github.bradjacobs.logging.jdbc.FanOutDispatcher;
+import com.github.bradjacobs.logging.jdbc.ListenerCircuitBreaker;
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.ExecutorLoggingListener;
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Caller-side cost of handing an event to a blocking listener (simulated 50us of I/O) from 1k request threads.
+ *
+ *   virtualThreads:  ExecutorLoggingListener on virtual threads (falls back to cached platform threads before JDK 21)
+ *   platformThreads: ExecutorLoggingListener on a fixed pool of platform threads
+ *   fanOut:          FanOutDispatcher (single platform consumer thread per listener, drops on overrun)
+ *
+ * Also compare the 'dropped' counts printed at teardown, a mode that drops more is doing less work.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@Threads(1000)
+@State(Scope.Benchmark)
+public class AsyncListenerBenchmark {
+    private static final long BLOCKING_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Param({"virtualThreads", "platformThreads", "fanOut"})
+    public String mode;
+
+    private LoggingListener listener;
+    private FanOutDispatcher fanOutDispatcher;
+    private final LoggingEvent event = new LoggingEvent() {
+        @Override
+        public String getMessage() {
+            return "SELECT * FROM tbl WHERE id = 42";
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setup() {
+        LoggingListener blockingListener = sql -> LockSupport.parkNanos(BLOCKING_NANOS);
+        switch (mode) {
+            case "virtualThreads":
+                listener = ExecutorLoggingListener.virtualThreads(blockingListener, 1024, Duration.ofMillis(10));
+                break;
+            case "platformThreads":
+                listener = ExecutorLoggingListener.platformThreads(blockingListener, 64, 1024, Duration.ofMillis(10));
+                break;
+            case "fanOut":
+                fanOutDispatcher = new FanOutDispatcher(
+                        Collections.singletonList(new ListenerCircuitBreaker(blockingListener, 5, Duration.ZERO,
+                                ListenerCircuitBreaker.DEFAULT_OPEN_DURATION)), FanOutDispatcher.DEFAULT_RING_SIZE);
+                listener = new LoggingListener() {
+                    @Override
+                    public void log(String sql) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public void log(LoggingEvent event) {
+                        fanOutDispatcher.publish(event);
+                    }
+                };
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (listener instanceof ExecutorLoggingListener) {
+            ExecutorLoggingListener executorListener = (ExecutorLoggingListener) listener;
+            System.out.printf("%n%s (virtual threads supported: %s): delivered=%,d dropped=%,d%n", mode,
+                    ExecutorLoggingListener.isVirtualThreadSupported(),
+                    executorListener.getDeliveredCount(), executorListener.getDroppedCount());
+            executorListener.close();
+        }
+        if (fanOutDispatcher != null) {
+            FanOutDispatcher.Consumer consumer = fanOutDispatcher.getConsumers().get(0);
+            System.out.printf("%n%s: delivered=%,d dropped=%,d%n", mode, consumer.getConsumedCount(), consumer.getDroppedCount());
+            fanOutDispatcher.close();
+        }
+    }
+
+    @Benchmark
+    public void log() {
+        listener.log(event);
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.bradjacobs.logging.jdbc.benchmarks;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.file.BatchFileLoggingListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of the BatchFileLoggingListener when handed whole batches vs. one event per call.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchFileListenerBenchmark {
+    private static final int BATCH_SIZE = 256;
+
+    private File file;
+    private BatchFileLoggingListener listener;
+    private List<LoggingEvent> events;
+
+    @Setup
+    public void setup() throws IOException {
+        file = File.createTempFile("batch-benchmark", ".log");
+        listener = new BatchFileLoggingListener(file);
+        events = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            String message = "SELECT * FROM tbl WHERE id = " + i + " AND name = 'Bob'";
+            events.add(new LoggingEvent() {
+                @Override
+                public String getMessage() {
+                    return message;
+                }
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        listener.close();
+        file.delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void perEvent() {
+        for (LoggingEvent event : events) {
+            listener.log(event);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void batched() {
+        listener.logBatch(events);
+    }
+}
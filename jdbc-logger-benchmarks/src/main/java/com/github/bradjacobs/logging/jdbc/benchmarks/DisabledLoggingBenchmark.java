@@ -0,0 +1,86 @@
+package com.github.bradjacobs.logging.jdbc.benchmarks;
+
+import com.github.bradjacobs.logging.jdbc.LoggingConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of an already wrapped PreparedStatement (set params + query) when nothing gets logged,
+ *   compared to the raw driver and to logging to a no-op listener.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DisabledLoggingBenchmark {
+    @Param({"raw", "disabled", "threadScoped", "enabled"})
+    public String mode;
+
+    private Connection connection;
+    private PreparedStatement preparedStatement;
+    private int counter = 0;
+
+    @Setup
+    public void setup() throws SQLException {
+        Connection innerConnection = DriverManager.getConnection("jdbc:hsqldb:mem:benchDB", "SA", "");
+        try (Statement stmt = innerConnection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS bench (id INT PRIMARY KEY, name VARCHAR(30))");
+            stmt.execute("DELETE FROM bench");
+            for (int i = 0; i < 100; i++) {
+                stmt.execute("INSERT INTO bench VALUES (" + i + ", 'name" + i + "')");
+            }
+        }
+        switch (mode) {
+            case "raw":
+                connection = innerConnection;
+                break;
+            case "disabled":
+                LoggingConnection disabled = LoggingConnection.builder(innerConnection).loggingListener(sql -> { }).build();
+                disabled.reconfigure(builder -> builder.enabled(false));
+                connection = disabled;
+                break;
+            case "threadScoped":
+                connection = LoggingConnection.builder(innerConnection).loggingListener(sql -> { })
+                        .threadScopedLogging(true).build();
+                break;
+            default:
+                connection = LoggingConnection.builder(innerConnection).loggingListener(sql -> { }).build();
+        }
+        preparedStatement = connection.prepareStatement("SELECT name FROM bench WHERE id = ? AND name <> ?");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        preparedStatement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public String query() throws SQLException {
+        preparedStatement.setInt(1, (counter++ & 63));
+        preparedStatement.setString(2, "none");
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+            return (resultSet.next() ? resultSet.getString(1) : null);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.bradjacobs.logging.jdbc.benchmarks;
+
+import com.github.bradjacobs.logging.jdbc.SqlTemplate;
+import com.github.bradjacobs.logging.jdbc.StatementFlightRecorder;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-statement cost of recording into the StatementFlightRecorder.
+ *   (the event creation is measured separately, since that cost exists w/ or w/o the recorder)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightRecorderBenchmark {
+    private StatementFlightRecorder flightRecorder;
+    private StatementEvent event;
+    private SqlTemplate template;
+    private Map<Integer, Object> params;
+
+    @Setup
+    public void setup() {
+        flightRecorder = new StatementFlightRecorder(StatementFlightRecorder.DEFAULT_CAPACITY,
+                sql -> { }, Duration.ZERO);
+        template = new SqlTemplate(1, "SELECT * FROM tbl WHERE id = ? AND name = ?");
+        params = new HashMap<>();
+        params.put(1, 42);
+        params.put(2, "Bob");
+        event = new StatementEvent(template, params, null, 1000L, 0);
+    }
+
+    @Benchmark
+    public void record() {
+        flightRecorder.record(event);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        flightRecorder.record(event);
+    }
+
+    @Benchmark
+    public StatementEvent createEvent() {
+        return new StatementEvent(template, params, null, 1000L, 0);
+    }
+
+    @Benchmark
+    public void createAndRecord() {
+        flightRecorder.record(new StatementEvent(template, params, null, 1000L, 0));
+    }
+}
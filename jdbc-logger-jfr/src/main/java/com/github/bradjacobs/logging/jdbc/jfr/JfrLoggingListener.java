@@ -0,0 +1,59 @@
+package com.github.bradjacobs.logging.jdbc.jfr;
+
+import com.github.bradjacobs.logging.jdbc.SqlTemplate;
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.ExecutionListener;
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+
+/**
+ * LoggingListener that emits a JDK Flight Recorder event for every executed statement
+ *   (see SqlStatementJfrEvent), so the SQL can be correlated w/ GC, lock and CPU samples in JMC.
+ *
+ * The JFR event is begun right before the statement is executed and committed right after it, on the executing thread,
+ *   thus it lines up w/ the execution in the JFR timeline.  For a query w/ resultSetTracking, the event is committed
+ *   once its ResultSet has finished (so it also covers the fetching of the rows).
+ *
+ * When JFR is not recording (or the event is disabled), this is just an 'isEnabled' check.
+ *   The logged events themselves are ignored.
+ */
+public class JfrLoggingListener implements LoggingListener, ExecutionListener {
+
+    @Override
+    public void log(String sql) {
+        // the JFR events are emitted around the execution, see executionStarted/executionEnded
+    }
+
+    @Override
+    public void log(LoggingEvent event) {
+        // the JFR events are emitted around the execution, see executionStarted/executionEnded
+    }
+
+    @Override
+    public Object executionStarted() {
+        SqlStatementJfrEvent jfrEvent = new SqlStatementJfrEvent();
+        if (!jfrEvent.isEnabled()) {
+            return null;
+        }
+        jfrEvent.begin();
+        return jfrEvent;
+    }
+
+    @Override
+    public void executionEnded(Object context, StatementEvent statementEvent) {
+        SqlStatementJfrEvent jfrEvent = (SqlStatementJfrEvent) context;
+        jfrEvent.end();
+        if (!jfrEvent.shouldCommit()) {
+            return;
+        }
+        SqlTemplate template = statementEvent.getSqlTemplate();
+        jfrEvent.template = template.getSql();
+        jfrEvent.fingerprint = Long.toHexString(template.getFingerprint());
+        jfrEvent.executionTime = statementEvent.getElapsedNanos();
+        jfrEvent.rowCount = statementEvent.getRowCount();
+        jfrEvent.fetchTime = statementEvent.getFetchNanos();
+        jfrEvent.batchSize = statementEvent.getBatchSize();
+        jfrEvent.connectionId = statementEvent.getConnectionId();
+        jfrEvent.commit();
+    }
+}
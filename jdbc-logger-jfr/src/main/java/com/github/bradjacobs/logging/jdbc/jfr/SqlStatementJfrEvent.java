@@ -0,0 +1,44 @@
+package com.github.bradjacobs.logging.jdbc.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for a single executed SQL statement.
+ *   (the sql is the template w/ tags/question marks, the parameter values are not recorded)
+ */
+@Name("com.github.bradjacobs.logging.jdbc.SqlStatement")
+@Label("SQL Statement")
+@Category({"JDBC", "Statements"})
+@Description("SQL statement executed through a LoggingConnection")
+@StackTrace(false)
+class SqlStatementJfrEvent extends jdk.jfr.Event {
+    @Label("SQL Template")
+    String template;
+
+    @Label("Fingerprint")
+    @Description("Hash of the normalized sql (same for statements that only differ by literal values)")
+    String fingerprint;
+
+    @Label("Execution Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long executionTime;
+
+    @Label("Rows Fetched")
+    @Description("Number of rows fetched from the ResultSet (-1 if not tracked)")
+    long rowCount;
+
+    @Label("Fetch Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long fetchTime;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("Connection Id")
+    long connectionId;
+}
@@ -0,0 +1,63 @@
+package com.github.bradjacobs.logging.jdbc.jfr;
+
+import com.github.bradjacobs.logging.jdbc.SqlTemplate;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JfrLoggingListenerTest {
+    private static final String EVENT_NAME = "com.github.bradjacobs.logging.jdbc.SqlStatement";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testStatementEventRecorded() throws Exception {
+        JfrLoggingListener listener = new JfrLoggingListener();
+        SqlTemplate template = new SqlTemplate(1, "SELECT * FROM tbl WHERE id = ?");
+
+        // not recording, so nothing happens.
+        assertNull(listener.executionStarted(), "expected no jfr event when not recording");
+
+        Path recordingFile = tempDir.resolve("test.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT_NAME).withThreshold(Duration.ZERO);
+            recording.start();
+            Object context = listener.executionStarted();
+            Thread.sleep(20);
+            listener.executionEnded(context, new StatementEvent(template, Collections.singletonMap(1, 5), null, 1234L, 3));
+            // logged events are ignored
+            listener.log(new StatementEvent(template, Collections.singletonMap(1, 5), null, 1234L, 3));
+            listener.log("-- plain message is ignored");
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(e -> e.getEventType().getName().equals(EVENT_NAME))
+                .collect(Collectors.toList());
+        assertEquals(1, events.size(), "mismatch expected jfr event count");
+        RecordedEvent event = events.get(0);
+        assertEquals("SELECT * FROM tbl WHERE id = ?", event.getString("template"));
+        assertEquals(Long.toHexString(template.getFingerprint()), event.getString("fingerprint"));
+        assertEquals(1234L, event.getDuration("executionTime").toNanos());
+        assertEquals(3, event.getInt("batchSize"));
+        assertEquals(-1L, event.getLong("rowCount"));
+        // the jfr event spans the execution, on the executing thread
+        assertTrue(event.getDuration().toMillis() >= 20, "unexpected duration: " + event.getDuration());
+        assertEquals(Thread.currentThread().getName(), event.getThread().getJavaName());
+    }
+}
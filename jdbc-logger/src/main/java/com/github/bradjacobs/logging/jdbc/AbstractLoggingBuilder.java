@@ -3,6 +3,7 @@ package com.github.bradjacobs.logging.jdbc;
 import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
 import com.github.bradjacobs.logging.jdbc.listeners.Slf4jLoggingListener;
 
+import java.time.Duration;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -21,11 +22,36 @@ import static com.github.bradjacobs.logging.jdbc.DatabaseType.DEFAULT;
 // TODO ---  NEED A BETTER CLASS NAME!!
 abstract public class AbstractLoggingBuilder<T extends AbstractLoggingBuilder<T>> {
     public static final ZoneId DEFAULT_ZONE = ZoneId.of("UTC");
+    public static final Duration DEFAULT_DEDUP_WINDOW = Duration.ofSeconds(10);
+    public static final int DEFAULT_LEAK_STACK_SAMPLE_RATE = 10;
 
     protected ZoneId zoneId = DEFAULT_ZONE;
     protected List<LoggingListener> loggingListeners = new ArrayList<>();
     protected boolean clobParamLogging = false;
     protected DatabaseType dbType = DEFAULT;
+    protected DedupMode dedupMode = DedupMode.NONE;
+    protected Duration dedupWindow = DEFAULT_DEDUP_WINDOW;
+    protected int nPlusOneThreshold = 0;
+    protected SqlTemplateRegistry sqlTemplateRegistry = null;
+    protected boolean transactionTracking = false;
+    protected SlowTransactionLog slowTransactionLog = null;
+    protected boolean connectionTracking = false;
+    protected Duration leakDetectionThreshold = Duration.ZERO;
+    protected int leakStackSampleRate = DEFAULT_LEAK_STACK_SAMPLE_RATE;
+    ConnectionMonitor connectionMonitor = null;
+    protected boolean resultSetTracking = false;
+    protected StatementFlightRecorder flightRecorder = null;
+    protected int listenerFailureThreshold = ListenerCircuitBreaker.DEFAULT_FAILURE_THRESHOLD;
+    protected Duration listenerSlowCallThreshold = ListenerCircuitBreaker.DEFAULT_SLOW_CALL_THRESHOLD;
+    protected Duration listenerDisabledDuration = ListenerCircuitBreaker.DEFAULT_OPEN_DURATION;
+    protected int fanOutRingSize = 0;
+    protected double sampleRate = 1.0d;
+    protected boolean threadScopedLogging = false;
+    protected StatementFilter statementFilter = null;
+    protected ParameterMasking parameterMasking = null;
+    protected boolean outParameterLogging = false;
+    protected int multiRowInsertSize = 0;
+    LiveConfiguration liveConfiguration = null;
 
     public AbstractLoggingBuilder() { }
 
@@ -74,5 +100,299 @@ abstract public class AbstractLoggingBuilder<T extends AbstractLoggingBuilder<T>
         return self();
     }
 
+    /**
+     * Collapse consecutive identical statements into a single summary line.
+     * @param dedupMode how statements are matched (NONE disables)
+     * @return builder
+     */
+    public T dedupMode(DedupMode dedupMode) {
+        this.dedupMode = (dedupMode != null ? dedupMode : DedupMode.NONE);
+        return self();
+    }
+
+    /**
+     * Max amount of time a run of identical statements is collapsed before a summary line is written.
+     * @param dedupWindow window duration
+     * @return builder
+     */
+    public T dedupWindow(Duration dedupWindow) {
+        this.dedupWindow = (dedupWindow != null ? dedupWindow : DEFAULT_DEDUP_WINDOW);
+        return self();
+    }
+
+    /**
+     * Warn when a single sql template is executed more than 'threshold' times (with differing parameters)
+     *   on the same connection between commit/rollback/close.
+     * @param nPlusOneThreshold max executions per template before a warning is logged (0 to disable)
+     * @return builder
+     */
+    public T nPlusOneThreshold(int nPlusOneThreshold) {
+        if (nPlusOneThreshold < 0) {
+            throw new IllegalArgumentException("nPlusOneThreshold cannot be negative.");
+        }
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        return self();
+    }
+
+    /**
+     * Registry used to assign ids to sql templates (allows sharing the registry across data sources)
+     * @param sqlTemplateRegistry registry
+     * @return builder
+     */
+    public T sqlTemplateRegistry(SqlTemplateRegistry sqlTemplateRegistry) {
+        this.sqlTemplateRegistry = sqlTemplateRegistry;
+        return self();
+    }
+
+    /**
+     * Log transaction boundaries (begin/commit/rollback) w/ timings and keep track of the slowest transactions.
+     * @param transactionTracking true to enable
+     * @return builder
+     */
+    public T transactionTracking(boolean transactionTracking) {
+        this.transactionTracking = transactionTracking;
+        return self();
+    }
+
+    /**
+     * Where the slowest transactions get recorded (only used when transactionTracking is enabled)
+     *   if not set, a default SlowTransactionLog is created.
+     * @param slowTransactionLog slowTransactionLog
+     * @return builder
+     */
+    public T slowTransactionLog(SlowTransactionLog slowTransactionLog) {
+        this.slowTransactionLog = slowTransactionLog;
+        return self();
+    }
+
+    /**
+     * Measure connection acquisition latency and hold time (see ConnectionMetrics)
+     * @param connectionTracking true to enable
+     * @return builder
+     */
+    public T connectionTracking(boolean connectionTracking) {
+        this.connectionTracking = connectionTracking;
+        return self();
+    }
+
+    /**
+     * Report connections that are held (not closed) longer than the threshold.
+     *   Enabling leak detection also enables connectionTracking.
+     * @param leakDetectionThreshold threshold (zero to disable)
+     * @return builder
+     */
+    public T leakDetectionThreshold(Duration leakDetectionThreshold) {
+        this.leakDetectionThreshold = (leakDetectionThreshold != null ? leakDetectionThreshold : Duration.ZERO);
+        if (!this.leakDetectionThreshold.isZero()) {
+            this.connectionTracking = true;
+        }
+        return self();
+    }
+
+    /**
+     * Capture the stack trace of the borrowing code on 1 of every N connection borrows
+     *   (only used for leak detection).  Use 1 to capture on every borrow.
+     * @param leakStackSampleRate sample rate
+     * @return builder
+     */
+    public T leakStackSampleRate(int leakStackSampleRate) {
+        if (leakStackSampleRate <= 0) {
+            throw new IllegalArgumentException("leakStackSampleRate must be greater than zero.");
+        }
+        this.leakStackSampleRate = leakStackSampleRate;
+        return self();
+    }
+
+    /**
+     * Wrap query ResultSets to count the fetched rows and time spent fetching.
+     *   The query is then logged when the ResultSet is closed (instead of right after the execute),
+     *   or at the latest when the transaction ends (commit/rollback) or the connection is closed.
+     * @param resultSetTracking true to enable
+     * @return builder
+     */
+    public T resultSetTracking(boolean resultSetTracking) {
+        this.resultSetTracking = resultSetTracking;
+        return self();
+    }
+
+    /**
+     * Record every statement into a ring buffer that can be dumped on demand (or on a statement failure)
+     *   Statements are recorded before any dedup/filtering/sampling (but only while logging is active).
+     * @param flightRecorder flightRecorder (null to disable)
+     * @return builder
+     */
+    public T flightRecorder(StatementFlightRecorder flightRecorder) {
+        this.flightRecorder = flightRecorder;
+        return self();
+    }
+
+    /**
+     * Number of consecutive failed (or slow) calls to a listener before the listener is temporarily disabled.
+     * @param listenerFailureThreshold threshold
+     * @return builder
+     */
+    public T listenerFailureThreshold(int listenerFailureThreshold) {
+        if (listenerFailureThreshold <= 0) {
+            throw new IllegalArgumentException("listenerFailureThreshold must be greater than zero.");
+        }
+        this.listenerFailureThreshold = listenerFailureThreshold;
+        return self();
+    }
+
+    /**
+     * Listener calls that take longer than this are counted as failures.
+     * @param listenerSlowCallThreshold threshold (zero to disable)
+     * @return builder
+     */
+    public T listenerSlowCallThreshold(Duration listenerSlowCallThreshold) {
+        this.listenerSlowCallThreshold = (listenerSlowCallThreshold != null ? listenerSlowCallThreshold : Duration.ZERO);
+        return self();
+    }
+
+    /**
+     * How long a failing listener stays disabled before it gets probed again.
+     * @param listenerDisabledDuration duration
+     * @return builder
+     */
+    public T listenerDisabledDuration(Duration listenerDisabledDuration) {
+        this.listenerDisabledDuration =
+                (listenerDisabledDuration != null ? listenerDisabledDuration : ListenerCircuitBreaker.DEFAULT_OPEN_DURATION);
+        return self();
+    }
+
+    /**
+     * Hand the events off to the listeners asynchronously, each listener consumes them on its own thread
+     *   (see FanOutDispatcher).  A listener that falls more than 'ringSize' events behind will skip events.
+     *   The dispatcher (and its thread per listener) is shared: by all the connections of a LoggingDataSource,
+     *   or by the open connections built from the same LoggingConnection.Builder.
+     * @param fanOutRingSize number of events in the ring (0 to call the listeners synchronously)
+     * @return builder
+     */
+    public T fanOutRingSize(int fanOutRingSize) {
+        if (fanOutRingSize < 0) {
+            throw new IllegalArgumentException("fanOutRingSize cannot be negative.");
+        }
+        this.fanOutRingSize = fanOutRingSize;
+        return self();
+    }
+
+    /**
+     * Only log a random fraction of the statements.
+     *   Sampling is applied after the flight recorder, transaction tracking and N+1 detection, which still see every statement.
+     * @param sampleRate fraction of statements to log (between 0.0 and 1.0)
+     * @return builder
+     */
+    public T sampleRate(double sampleRate) {
+        if (!(sampleRate >= 0.0d && sampleRate <= 1.0d)) {
+            throw new IllegalArgumentException("sampleRate must be between 0.0 and 1.0");
+        }
+        this.sampleRate = sampleRate;
+        return self();
+    }
+
+    /**
+     * Only log the statements executed by a thread w/ an open LoggingScope, all other statements
+     *   skip the tracking and rendering altogether.
+     *   A parameter bound outside the scope is logged as {_UNCAPTURED_} (its value was never captured).
+     * @param threadScopedLogging true to enable
+     * @return builder
+     */
+    public T threadScopedLogging(boolean threadScopedLogging) {
+        this.threadScopedLogging = threadScopedLogging;
+        return self();
+    }
+
+    /**
+     * Only log the statements accepted by the filter (i.e. by statement type, table name or regex).
+     *   The decision is made once per sql template, before any sql gets rendered.
+     *   The flight recorder, transaction tracking and N+1 detection still see every statement.
+     * @param statementFilter filter (null for no filtering)
+     * @return builder
+     */
+    public T statementFilter(StatementFilter statementFilter) {
+        this.statementFilter = statementFilter;
+        return self();
+    }
+
+    /**
+     * Mask sensitive parameter values (i.e. by column name, parameter index or value regex)
+     *   The values are replaced before the statement event is created, thus no listener ever sees them.
+     * @param parameterMasking masking rules (null for no masking)
+     * @return builder
+     */
+    public T parameterMasking(ParameterMasking parameterMasking) {
+        this.parameterMasking = parameterMasking;
+        return self();
+    }
+
+    /**
+     * Log the OUT/INOUT values of stored procedure calls (as an OutParametersEvent)
+     *   Only the values that the application reads (via CallableStatement.getX) are logged,
+     *   the event is published once the application is done w/ the call (next execution, clearParameters or close)
+     * @param outParameterLogging true to enable
+     * @return builder
+     */
+    public T outParameterLogging(boolean outParameterLogging) {
+        this.outParameterLogging = outParameterLogging;
+        return self();
+    }
+
+    /**
+     * Log a batch of single row INSERTs (i.e. "INSERT INTO t (a, b) VALUES (?, ?)") as multi-row INSERT statements
+     *   (as a MultiRowInsertEvent), instead of one statement per row.  The logged statement uses the multi-row
+     *   VALUES syntax, which not every database supports (it's never applied for DatabaseType.ORACLE).
+     *   The event still has the StatementEvent of each row (i.e. a journal or workload capture stays per statement).
+     *   Other batches are logged per statement as usual.
+     * @param multiRowInsertSize max rows per logged INSERT statement (0 to disable)
+     * @return builder
+     */
+    public T multiRowInsertSize(int multiRowInsertSize) {
+        if (multiRowInsertSize < 0) {
+            throw new IllegalArgumentException("multiRowInsertSize cannot be negative.");
+        }
+        this.multiRowInsertSize = multiRowInsertSize;
+        return self();
+    }
+
+    // allows multiple connections to share the same (live) configuration (i.e. a LoggingDataSource)
+    T liveConfiguration(LiveConfiguration liveConfiguration) {
+        this.liveConfiguration = liveConfiguration;
+        return self();
+    }
+
+    LiveConfiguration createLiveConfiguration() {
+        return new LiveConfiguration(LoggingConfiguration.create(this));
+    }
+
+    // allows multiple connections to share the same monitor (i.e. a LoggingDataSource)
+    T connectionMonitor(ConnectionMonitor connectionMonitor) {
+        this.connectionMonitor = connectionMonitor;
+        return self();
+    }
+
+    ConnectionMonitor createConnectionMonitor() {
+        return new ConnectionMonitor(leakDetectionThreshold.toMillis(), leakStackSampleRate);
+    }
+
+    /**
+     * Creates the objects that are meant to be shared by all connections created from this builder
+     *   (unless they were already set explicitly).
+     */
+    void createSharedObjects() {
+        // all connections share the same template registry.
+        if (sqlTemplateRegistry == null) {
+            sqlTemplateRegistry(new SqlTemplateRegistry());
+        }
+        if (transactionTracking && slowTransactionLog == null) {
+            slowTransactionLog(new SlowTransactionLog());
+        }
+        if (connectionTracking && connectionMonitor == null) {
+            connectionMonitor(createConnectionMonitor());
+        }
+        if (liveConfiguration == null) {
+            liveConfiguration(createLiveConfiguration());
+        }
+    }
+
     abstract protected T self();
 }
@@ -0,0 +1,98 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection lifecycle counters:
+ *   acquisition latency (time spent in the target DataSource getConnection)
+ *   hold time (getConnection through close)
+ */
+public class ConnectionMetrics {
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanosTotal = new LongAdder();
+    private final AtomicLong acquireNanosMax = new AtomicLong();
+
+    private final LongAdder releaseCount = new LongAdder();
+    private final LongAdder holdNanosTotal = new LongAdder();
+    private final AtomicLong holdNanosMax = new AtomicLong();
+
+    private final LongAdder openCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+
+    void recordAcquire(long nanos) {
+        acquireCount.increment();
+        acquireNanosTotal.add(nanos);
+        acquireNanosMax.accumulateAndGet(nanos, Math::max);
+    }
+
+    void recordOpen() {
+        openCount.increment();
+    }
+
+    void recordRelease(long holdNanos) {
+        openCount.decrement();
+        releaseCount.increment();
+        holdNanosTotal.add(holdNanos);
+        holdNanosMax.accumulateAndGet(holdNanos, Math::max);
+    }
+
+    void recordLeak() {
+        leakCount.increment();
+    }
+
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    public long getAcquireNanosTotal() {
+        return acquireNanosTotal.sum();
+    }
+
+    public long getAcquireNanosMax() {
+        return acquireNanosMax.get();
+    }
+
+    public long getReleaseCount() {
+        return releaseCount.sum();
+    }
+
+    public long getHoldNanosTotal() {
+        return holdNanosTotal.sum();
+    }
+
+    public long getHoldNanosMax() {
+        return holdNanosMax.get();
+    }
+
+    /**
+     * @return number of connections that are currently open (i.e. borrowed and not yet closed)
+     */
+    public long getOpenCount() {
+        return openCount.sum();
+    }
+
+    /**
+     * @return number of connections that were reported as suspected leaks.
+     */
+    public long getLeakCount() {
+        return leakCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        long acquires = getAcquireCount();
+        long releases = getReleaseCount();
+        return String.format(Locale.ROOT,
+                "acquired=%d (avg %.3fms, max %.3fms), released=%d (avg hold %.3fms, max hold %.3fms), open=%d, leaks=%d",
+                acquires, toMillis(acquires > 0 ? getAcquireNanosTotal() / acquires : 0L), toMillis(getAcquireNanosMax()),
+                releases, toMillis(releases > 0 ? getHoldNanosTotal() / releases : 0L), toMillis(getHoldNanosMax()),
+                getOpenCount(), getLeakCount());
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
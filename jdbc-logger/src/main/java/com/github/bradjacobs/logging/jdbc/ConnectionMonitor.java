@@ -0,0 +1,141 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.event.ConnectionLeakEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records connection borrow/return and (optionally) reports connections that are held too long.
+ *
+ * Capturing a stack trace on every borrow is too expensive, so only every Nth borrow captures
+ *   a stack trace. A leak on a borrow that was not sampled is still reported, just without the stack.
+ */
+class ConnectionMonitor {
+    private static final long MIN_SCAN_INTERVAL_MILLIS = 500L;
+
+    // shared by all monitors, the scan itself is cheap.
+    private static volatile ScheduledThreadPoolExecutor leakScanner = null;
+
+    private final ConnectionMetrics connectionMetrics = new ConnectionMetrics();
+    private final long leakThresholdNanos;
+    private final int stackSampleRate;
+    private final AtomicLong borrowCounter = new AtomicLong(0L);
+    private final Set<Borrow> openBorrows = ConcurrentHashMap.newKeySet();
+    private final ScheduledFuture<?> leakScan;
+
+    /**
+     * Constructor
+     * @param leakThresholdMillis how long a connection can be held before it's reported (0 to disable leak detection)
+     * @param stackSampleRate capture the borrow stack trace on 1 of every N borrows.
+     */
+    ConnectionMonitor(long leakThresholdMillis, int stackSampleRate) {
+        this.leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(leakThresholdMillis);
+        this.stackSampleRate = Math.max(stackSampleRate, 1);
+
+        if (leakThresholdMillis > 0) {
+            long scanIntervalMillis = Math.max(leakThresholdMillis / 2, MIN_SCAN_INTERVAL_MILLIS);
+            this.leakScan = getLeakScanner().scheduleWithFixedDelay(
+                    this::scanForLeaks, scanIntervalMillis, scanIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        else {
+            this.leakScan = null;
+        }
+    }
+
+    /**
+     * Stops the leak scan of this monitor (otherwise the scanner keeps the monitor reachable forever).
+     *   Only called for a monitor owned by a single connection, a shared monitor lives as long as its DataSource/Driver.
+     */
+    void shutdown() {
+        if (leakScan != null) {
+            leakScan.cancel(false);
+        }
+    }
+
+    ConnectionMetrics getConnectionMetrics() {
+        return connectionMetrics;
+    }
+
+    void recordAcquire(long acquireNanos) {
+        connectionMetrics.recordAcquire(acquireNanos);
+    }
+
+    Borrow opened(LoggingConnection connection) {
+        Throwable stack = null;
+        if (leakThresholdNanos > 0 && borrowCounter.getAndIncrement() % stackSampleRate == 0) {
+            stack = new Throwable("Connection borrowed here");
+        }
+        Borrow borrow = new Borrow(connection, Thread.currentThread().getName(), stack);
+        if (leakThresholdNanos > 0) {
+            openBorrows.add(borrow);
+        }
+        connectionMetrics.recordOpen();
+        return borrow;
+    }
+
+    void closed(Borrow borrow) {
+        if (!borrow.closed.compareAndSet(false, true)) {
+            return;
+        }
+        openBorrows.remove(borrow);
+        connectionMetrics.recordRelease(System.nanoTime() - borrow.borrowNanos);
+    }
+
+    private void scanForLeaks() {
+        long now = System.nanoTime();
+        for (Borrow borrow : openBorrows) {
+            long heldNanos = now - borrow.borrowNanos;
+            if (!borrow.reported && heldNanos > leakThresholdNanos) {
+                borrow.reported = true;
+                connectionMetrics.recordLeak();
+                try {
+                    borrow.connection.publish(
+                            new ConnectionLeakEvent(borrow.borrowTimestamp, heldNanos, borrow.threadName, borrow.stack));
+                }
+                catch (RuntimeException e) {
+                    // don't let a listener error kill the scanner
+                }
+            }
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor getLeakScanner() {
+        if (leakScanner == null) {
+            synchronized (ConnectionMonitor.class) {
+                if (leakScanner == null) {
+                    ScheduledThreadPoolExecutor scanner = new ScheduledThreadPoolExecutor(1, r -> {
+                        Thread thread = new Thread(r, "jdbc-logger-leak-detector");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    // a cancelled scan must not linger in the queue (holding on to its monitor)
+                    scanner.setRemoveOnCancelPolicy(true);
+                    leakScanner = scanner;
+                }
+            }
+        }
+        return leakScanner;
+    }
+
+    static class Borrow {
+        private final LoggingConnection connection;
+        private final long borrowNanos = System.nanoTime();
+        private final long borrowTimestamp = System.currentTimeMillis();
+        private final String threadName;
+        private final Throwable stack;
+        private volatile boolean reported = false;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private Borrow(LoggingConnection connection, String threadName, Throwable stack) {
+            this.connection = connection;
+            this.threadName = threadName;
+            this.stack = stack;
+        }
+    }
+}
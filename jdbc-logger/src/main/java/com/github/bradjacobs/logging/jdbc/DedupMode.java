@@ -0,0 +1,13 @@
+package com.github.bradjacobs.logging.jdbc;
+
+/**
+ * Controls how consecutive identical statements are collapsed into a single summary line.
+ */
+public enum DedupMode {
+    /** every statement is logged (default) */
+    NONE,
+    /** statements are considered identical when both the sql and parameter values match */
+    TEMPLATE_AND_PARAMS,
+    /** statements are considered identical when the sql matches (parameter values are ignored) */
+    TEMPLATE_ONLY
+}
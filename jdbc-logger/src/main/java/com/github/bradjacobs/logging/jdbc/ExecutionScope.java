@@ -0,0 +1,56 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.ExecutionListener;
+
+import java.util.List;
+
+/**
+ * The ExecutionListeners (and their contexts) of a single statement execution.
+ */
+final class ExecutionScope {
+    private final List<ExecutionListener> executionListeners;
+    private final Object[] contexts;
+
+    private ExecutionScope(List<ExecutionListener> executionListeners) {
+        this.executionListeners = executionListeners;
+        this.contexts = new Object[executionListeners.size()];
+    }
+
+    /**
+     * @param executionListeners listeners
+     * @return the started scope (null if there are no listeners)
+     */
+    static ExecutionScope start(List<ExecutionListener> executionListeners) {
+        if (executionListeners.isEmpty()) {
+            return null;
+        }
+        ExecutionScope scope = new ExecutionScope(executionListeners);
+        for (int i = 0; i < scope.contexts.length; i++) {
+            try {
+                scope.contexts[i] = executionListeners.get(i).executionStarted();
+            }
+            catch (RuntimeException e) {
+                // a listener never fails the database call
+            }
+        }
+        return scope;
+    }
+
+    /**
+     * @param event the executed statement
+     */
+    void end(StatementEvent event) {
+        for (int i = 0; i < contexts.length; i++) {
+            if (contexts[i] == null) {
+                continue;
+            }
+            try {
+                executionListeners.get(i).executionEnded(contexts[i], event);
+            }
+            catch (RuntimeException e) {
+                // a listener never fails the database call
+            }
+        }
+    }
+}
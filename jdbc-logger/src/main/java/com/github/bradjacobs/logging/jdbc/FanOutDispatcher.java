@@ -0,0 +1,310 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.event.ListenerDisabledEvent;
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.BatchLoggingListener;
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes each event once into a ring buffer, from which every listener consumes on its own thread.
+ *   Thus a slow listener never delays the caller or any of the other listeners.
+ *
+ * A BatchLoggingListener gets the events in batches of whatever is available (up to its max batch size).
+ *
+ * The ring never blocks the publisher: a consumer that falls more than a full ring behind skips ahead
+ *   to the oldest available event, and the skipped events are counted as 'dropped' for that consumer.
+ *
+ * Every slot has a published sequence next to it, a consumer only takes the event if the slot's sequence
+ *   is the one it's expecting, both before and after reading the event.  (A publisher marks the slot as
+ *   'in progress' before overwriting it.)
+ */
+public class FanOutDispatcher implements Closeable {
+    public static final int DEFAULT_RING_SIZE = 8192;
+
+    private static final long IN_PROGRESS = -1L;
+    private static final int SPIN_TRIES = 100;
+    // max time close() waits for all of the consumers together
+    private static final long CLOSE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final AtomicReferenceArray<LoggingEvent> events;
+    private final AtomicLongArray publishedSequences;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(0L);
+    private final List<Consumer> consumers;
+    private volatile boolean running = true;
+
+    /**
+     * Constructor
+     * @param circuitBreakers the listeners (each gets its own consumer thread)
+     * @param ringSize number of events in the ring (rounded up to a power of 2)
+     */
+    public FanOutDispatcher(List<ListenerCircuitBreaker> circuitBreakers, int ringSize) {
+        if (circuitBreakers == null || circuitBreakers.isEmpty()) {
+            throw new IllegalArgumentException("Must provide at least one listener.");
+        }
+        if (ringSize <= 0 || ringSize > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid ring size: " + ringSize);
+        }
+        int size = (ringSize == 1 ? 1 : Integer.highestOneBit(ringSize - 1) << 1);
+        this.events = new AtomicReferenceArray<>(size);
+        this.publishedSequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            publishedSequences.set(i, IN_PROGRESS);
+        }
+        this.mask = size - 1;
+
+        List<Consumer> consumerList = new ArrayList<>(circuitBreakers.size());
+        for (ListenerCircuitBreaker circuitBreaker : circuitBreakers) {
+            consumerList.add(new Consumer(circuitBreaker));
+        }
+        this.consumers = Collections.unmodifiableList(consumerList);
+        for (Consumer consumer : consumers) {
+            consumer.thread.start();
+        }
+    }
+
+    /**
+     * Publishes the event to all the listeners (never blocks)
+     * @param event logging event
+     */
+    public void publish(LoggingEvent event) {
+        if (!running) {
+            return;
+        }
+        long sequence = cursor.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        publishedSequences.set(slot, IN_PROGRESS);
+        events.set(slot, event);
+        publishedSequences.set(slot, sequence);
+
+        for (Consumer consumer : consumers) {
+            if (consumer.waiting) {
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    /**
+     * @return consumer (w/ lag metrics) for each of the listeners
+     */
+    public List<Consumer> getConsumers() {
+        return consumers;
+    }
+
+    /**
+     * @return number of events published so far
+     */
+    public long getPublishedCount() {
+        return cursor.get();
+    }
+
+    /**
+     * Stops accepting events, and waits (a little) for the consumers to finish the already published events.
+     *   The wait is at most 5 seconds in total (not per consumer), a consumer that is still busy after that
+     *   (i.e. a hanging listener) is left to finish on its own.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+        }
+        long deadline = System.nanoTime() + CLOSE_TIMEOUT_NANOS;
+        for (Consumer consumer : consumers) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return;
+            }
+            try {
+                consumer.thread.join(remainingMillis);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Consumes the ring on behalf of a single listener.
+     */
+    public class Consumer implements Runnable {
+        private final ListenerCircuitBreaker circuitBreaker;
+        private final Thread thread;
+        private final LongAdder droppedCount = new LongAdder();
+        private final LongAdder consumedCount = new LongAdder();
+        private volatile long nextSequence = 0L;
+        private volatile boolean waiting = false;
+
+        private Consumer(ListenerCircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            this.thread = new Thread(this, "jdbc-logger-fan-out-" + circuitBreaker.getListener().getClass().getSimpleName());
+            this.thread.setDaemon(true);
+        }
+
+        public LoggingListener getListener() {
+            return circuitBreaker.getListener();
+        }
+
+        /**
+         * @return number of published events this listener has not consumed yet
+         */
+        public long getLag() {
+            return Math.max(0L, cursor.get() - nextSequence);
+        }
+
+        /**
+         * @return number of events this listener skipped b/c it fell more than a full ring behind
+         */
+        public long getDroppedCount() {
+            return droppedCount.sum();
+        }
+
+        /**
+         * @return number of events given to this listener (counted once the listener call has returned)
+         */
+        public long getConsumedCount() {
+            return consumedCount.sum();
+        }
+
+        @Override
+        public void run() {
+            LoggingListener listener = circuitBreaker.getListener();
+            if (listener instanceof BatchLoggingListener) {
+                runBatched((BatchLoggingListener) listener);
+                return;
+            }
+            int idleCount = 0;
+            while (true) {
+                LoggingEvent event = poll();
+                if (event != null) {
+                    deliver(event);
+                    idleCount = 0;
+                    continue;
+                }
+                if (!running && nextSequence >= cursor.get()) {
+                    return;
+                }
+                idleWait(idleCount++, 0L);
+            }
+        }
+
+        private void runBatched(BatchLoggingListener listener) {
+            int maxBatchSize = Math.max(1, listener.getMaxBatchSize());
+            long maxLingerNanos = (listener.getMaxLinger() != null ? listener.getMaxLinger().toNanos() : 0L);
+            List<LoggingEvent> batch = new ArrayList<>(maxBatchSize);
+            long batchStartNanos = 0L;
+            int idleCount = 0;
+            while (true) {
+                LoggingEvent event = poll();
+                if (event != null) {
+                    if (batch.isEmpty()) {
+                        batchStartNanos = System.nanoTime();
+                    }
+                    batch.add(event);
+                    if (batch.size() >= maxBatchSize) {
+                        deliverBatch(batch);
+                        batch = new ArrayList<>(maxBatchSize);
+                    }
+                    idleCount = 0;
+                    continue;
+                }
+                if (!batch.isEmpty() && (!running || System.nanoTime() - batchStartNanos >= maxLingerNanos)) {
+                    deliverBatch(batch);
+                    batch = new ArrayList<>(maxBatchSize);
+                    continue;
+                }
+                if (!running && nextSequence >= cursor.get()) {
+                    return;
+                }
+                // a pending batch must not wait longer than its linger time
+                long parkNanos = (batch.isEmpty() ? 0L : Math.max(1L, maxLingerNanos - (System.nanoTime() - batchStartNanos)));
+                idleWait(idleCount++, parkNanos);
+            }
+        }
+
+        /**
+         * @return the next event, or null if no event is available yet.
+         */
+        private LoggingEvent poll() {
+            long next = nextSequence;
+            while (true) {
+                int slot = (int) (next & mask);
+                long published = publishedSequences.get(slot);
+                if (published == next) {
+                    LoggingEvent event = events.get(slot);
+                    if (publishedSequences.get(slot) == next) {
+                        nextSequence = next + 1;
+                        return event;
+                    }
+                    // overwritten while reading, it's handled as an overrun below.
+                    published = IN_PROGRESS;
+                }
+                long head = cursor.get();
+                if (head - next > mask + 1 || (published > next)) {
+                    // overrun, skip ahead to the oldest event that is (most likely) still in the ring.
+                    long oldest = Math.max(next + 1, head - (mask + 1));
+                    droppedCount.add(oldest - next);
+                    next = oldest;
+                    nextSequence = next;
+                    continue;
+                }
+                return null;
+            }
+        }
+
+        private void deliver(LoggingEvent event) {
+            if (circuitBreaker.log(event)) {
+                publishDisabled();
+            }
+            consumedCount.increment();
+        }
+
+        private void deliverBatch(List<LoggingEvent> batch) {
+            if (circuitBreaker.logBatch(batch)) {
+                publishDisabled();
+            }
+            consumedCount.add(batch.size());
+        }
+
+        private void publishDisabled() {
+            publish(new ListenerDisabledEvent(circuitBreaker.getListener(), circuitBreaker.getConsecutiveFailures(),
+                    circuitBreaker.getOpenDurationNanos(), circuitBreaker.getLastFailure()));
+        }
+
+        /**
+         * Spins for a while, then parks until the next publish (or close)
+         * @param idleCount number of consecutive idle waits
+         * @param maxParkNanos max time to park (0 to park until unparked)
+         */
+        private void idleWait(int idleCount, long maxParkNanos) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.yield();
+                return;
+            }
+            waiting = true;
+            // re-check after setting the flag, so a publish can't slip by w/o an unpark
+            //   (a publisher increments the cursor before it checks the flag)
+            if (running && cursor.get() == nextSequence) {
+                if (maxParkNanos > 0) {
+                    LockSupport.parkNanos(this, maxParkNanos);
+                }
+                else {
+                    LockSupport.park(this);
+                }
+            }
+            waiting = false;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.BatchLoggingListener;
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Isolates the database calls from a misbehaving LoggingListener.
+ *
+ * Any exception thrown by the listener is caught (and counted).  After 'failureThreshold' consecutive
+ *   failed (or slow) calls, the listener is disabled for 'openDuration', after which a single call is let
+ *   through as a probe: if the probe succeeds the listener is enabled again, otherwise it stays disabled.
+ *
+ * NOTE: a slow call can only be detected after it returns, thus a listener that hangs forever still blocks
+ *   the statement that's logging.  To protect against that, the listeners must be called from another thread,
+ *   i.e. by setting fanOutRingSize (then only the listener's own consumer thread hangs).
+ *   A slow call is recorded as a TimeoutException in getLastFailure.
+ *
+ * A circuit breaker is shared by all the connections of a LoggingDataSource.
+ */
+public class ListenerCircuitBreaker {
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final Duration DEFAULT_SLOW_CALL_THRESHOLD = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    private final LoggingListener listener;
+    private final int failureThreshold;
+    private final long slowCallThresholdNanos;
+    private final long openDurationNanos;
+
+    // 0 means 'closed' (listener is enabled)
+    private final AtomicLong openUntilNanos = new AtomicLong(0L);
+    private final AtomicBoolean probing = new AtomicBoolean(false);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger(0);
+
+    private final LongAdder callCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder slowCallCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder openCount = new LongAdder();
+    private volatile Throwable lastFailure = null;
+
+    public ListenerCircuitBreaker(LoggingListener listener) {
+        this(listener, DEFAULT_FAILURE_THRESHOLD, DEFAULT_SLOW_CALL_THRESHOLD, DEFAULT_OPEN_DURATION);
+    }
+
+    /**
+     * Constructor
+     * @param listener listener to protect
+     * @param failureThreshold number of consecutive failed/slow calls before the listener gets disabled
+     * @param slowCallThreshold calls that take longer than this count as a failure (zero to disable)
+     * @param openDuration how long the listener stays disabled before it gets probed again
+     */
+    public ListenerCircuitBreaker(LoggingListener listener, int failureThreshold,
+                                  Duration slowCallThreshold, Duration openDuration) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Must provide a listener.");
+        }
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold must be greater than zero.");
+        }
+        this.listener = listener;
+        this.failureThreshold = failureThreshold;
+        this.slowCallThresholdNanos = (slowCallThreshold != null ? slowCallThreshold.toNanos() : 0L);
+        this.openDurationNanos = (openDuration != null ? openDuration : DEFAULT_OPEN_DURATION).toNanos();
+    }
+
+    /**
+     * Sends the event to the listener (unless it's currently disabled)
+     * @param event logging event
+     * @return true if this call caused the listener to be disabled
+     */
+    boolean log(LoggingEvent event) {
+        return deliver(event, null);
+    }
+
+    /**
+     * Sends a batch of events to the (batch) listener (unless it's currently disabled)
+     * @param events logging events
+     * @return true if this call caused the listener to be disabled
+     */
+    boolean logBatch(List<LoggingEvent> events) {
+        return deliver(null, events);
+    }
+
+    private boolean deliver(LoggingEvent event, List<LoggingEvent> batch) {
+        boolean probe = false;
+        long openUntil = openUntilNanos.get();
+        if (openUntil != 0L) {
+            // only a single caller gets to probe once the open duration has passed.
+            if (System.nanoTime() - openUntil < 0 || !probing.compareAndSet(false, true)) {
+                rejectedCount.increment();
+                return false;
+            }
+            probe = true;
+        }
+
+        callCount.increment();
+        long startNanos = (slowCallThresholdNanos > 0 ? System.nanoTime() : 0L);
+        boolean failed = false;
+        try {
+            if (batch != null) {
+                ((BatchLoggingListener) listener).logBatch(batch);
+            }
+            else {
+                listener.log(event);
+            }
+        }
+        catch (Exception | LinkageError e) {
+            failed = true;
+            failureCount.increment();
+            lastFailure = e;
+        }
+        if (!failed && slowCallThresholdNanos > 0) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            if (elapsedNanos > slowCallThresholdNanos) {
+                failed = true;
+                slowCallCount.increment();
+                lastFailure = new TimeoutException(String.format(Locale.ROOT, "slow call: %,d ms (threshold %,d ms)",
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos), TimeUnit.NANOSECONDS.toMillis(slowCallThresholdNanos)));
+            }
+        }
+
+        if (probe) {
+            if (failed) {
+                openUntilNanos.set(System.nanoTime() + openDurationNanos);
+            }
+            else {
+                consecutiveFailures.set(0);
+                openUntilNanos.set(0L);
+            }
+            probing.set(false);
+            return false;
+        }
+        if (!failed) {
+            if (consecutiveFailures.get() != 0) {
+                consecutiveFailures.set(0);
+            }
+            return false;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold
+                && openUntilNanos.compareAndSet(0L, System.nanoTime() + openDurationNanos)) {
+            openCount.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public LoggingListener getListener() {
+        return listener;
+    }
+
+    /**
+     * @return true if the listener is currently disabled
+     */
+    public boolean isOpen() {
+        return openUntilNanos.get() != 0L;
+    }
+
+    /**
+     * @return number of calls made to the listener
+     */
+    public long getCallCount() {
+        return callCount.sum();
+    }
+
+    /**
+     * @return number of calls where the listener threw an exception
+     */
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    /**
+     * @return number of calls that took longer than the slow call threshold
+     */
+    public long getSlowCallCount() {
+        return slowCallCount.sum();
+    }
+
+    /**
+     * @return number of events that were not sent to the listener b/c it was disabled
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * @return number of times the listener has been disabled
+     */
+    public long getOpenCount() {
+        return openCount.sum();
+    }
+
+    /**
+     * @return last exception thrown by the listener, or a TimeoutException if the last failure was a slow call (null if none)
+     */
+    public Throwable getLastFailure() {
+        return lastFailure;
+    }
+
+    int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    long getOpenDurationNanos() {
+        return openDurationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s: open=%s, calls=%,d, failures=%,d, slowCalls=%,d, rejected=%,d, opened=%,d",
+                listener.getClass().getName(), isOpen(), getCallCount(), getFailureCount(), getSlowCallCount(),
+                getRejectedCount(), getOpenCount());
+    }
+}
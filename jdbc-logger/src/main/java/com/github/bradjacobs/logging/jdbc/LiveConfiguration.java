@@ -0,0 +1,76 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import java.util.function.Consumer;
+
+/**
+ * Holds the current LoggingConfiguration, shared by a LoggingDataSource and all of its connections
+ *   (or by the open fanOutRingSize connections of a LoggingConnection.Builder).
+ *   Reads are a single volatile read, updates are serialized (they are rare).
+ */
+final class LiveConfiguration {
+    private volatile LoggingConfiguration current;
+    // number of connections that retained (thus will close) this configuration, see retain/release
+    private int retainCount = 0;
+    private boolean closed = false;
+
+    LiveConfiguration(LoggingConfiguration initial) {
+        this.current = initial;
+    }
+
+    LoggingConfiguration get() {
+        return current;
+    }
+
+    /**
+     * Atomically replaces the current configuration.
+     *   The previous dispatcher (if replaced) is closed after the swap, which delivers the events already published to it.
+     * @param changes changes to apply on top of the current configuration
+     * @return the new configuration
+     */
+    synchronized LoggingConfiguration reconfigure(Consumer<LoggingConfiguration.Builder> changes) {
+        LoggingConfiguration previous = current;
+        LoggingConfiguration.Builder builder = previous.toBuilder();
+        changes.accept(builder);
+        LoggingConfiguration next = builder.build(previous);
+        current = next;
+
+        FanOutDispatcher previousDispatcher = previous.getFanOutDispatcher();
+        if (previousDispatcher != null && previousDispatcher != next.getFanOutDispatcher()) {
+            previousDispatcher.close();
+        }
+        return next;
+    }
+
+    /**
+     * Called by a connection that owns (a share of) this configuration.
+     * @return false if the configuration has already been closed
+     */
+    synchronized boolean retain() {
+        if (closed) {
+            return false;
+        }
+        retainCount++;
+        return true;
+    }
+
+    /**
+     * Closes the configuration once all the connections that retained it have released it.
+     *   (a release w/o a matching retain is ignored)
+     */
+    synchronized void release() {
+        if (retainCount == 0) {
+            return;
+        }
+        if (--retainCount == 0) {
+            close();
+        }
+    }
+
+    synchronized void close() {
+        closed = true;
+        FanOutDispatcher dispatcher = current.getFanOutDispatcher();
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+}
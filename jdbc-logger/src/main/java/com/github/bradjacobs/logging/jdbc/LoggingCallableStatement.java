@@ -20,20 +20,170 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * Logging Decorator around CallableStatements
  *
- *  ***** NOTE: *****
- *     Logging ONLY works when setting numeric parameter indexes
- *     i.e. Logging _NOT_ currently supported when setting parameter by name.
+ *  NOTE: a parameter set by name is only logged if the name can be resolved to its parameter index,
+ *     either from a named placeholder in the sql ("{call my_proc(:id_in, :status_out)}")
+ *     or from the procedure metadata of the database ("{call my_proc(?, ?)}", see ProcedureParameters)
  */
 public class LoggingCallableStatement extends LoggingPreparedStatement implements CallableStatement {
     private final CallableStatement callableStatement;
+    private final LoggingConnection loggingConnection;
+    // true while the OUT values read by the application are captured (i.e. after a logged execution)
+    private boolean capturingOut = false;
+    private SortedMap<Integer, Object> outValues = null;
+    // parameter indexes of the procedure parameter names (lazy, only needed when a parameter is set by name)
+    private Map<String, Integer> procedureParameters = null;
 
     public LoggingCallableStatement(CallableStatement callableStatement, LoggingConnection loggingConnection, String sql) {
         super(callableStatement, loggingConnection, sql);
         this.callableStatement = callableStatement;
+        this.loggingConnection = loggingConnection;
+    }
+
+    /**
+     * Starts capturing the OUT values after a logged execution (if configured)
+     */
+    @Override
+    protected void logCurrent(long startNanos) {
+        super.logCurrent(startNanos);
+        capturingOut = (startNanos != NOT_LOGGED && loggingConnection.isOutParameterLoggingEnabled());
+    }
+
+    @Override
+    protected long startTimer() {
+        finishOutCapture();
+        return super.startTimer();
+    }
+
+    /** @inheritDoc */
+    @Override
+    public void clearParameters() throws SQLException {
+        finishOutCapture();
+        super.clearParameters();
+    }
+
+    /** @inheritDoc */
+    @Override
+    public void close() throws SQLException {
+        try {
+            super.close();
+        }
+        finally {
+            finishOutCapture();
+        }
+    }
+
+    /**
+     * Records an OUT value the application read (large/binary values are recorded as a placeholder).
+     *   NOTE: a primitive getter returns 0/false for a SQL NULL, thus it must record null when wasNull() is true.
+     * @param index parameter index
+     * @param value value returned to the application
+     */
+    protected void captureOut(int index, Object value) {
+        if (index <= 0) {
+            return;
+        }
+        if (outValues == null) {
+            outValues = new TreeMap<>();
+        }
+        outValues.put(index, toOutValue(value));
+    }
+
+    protected void captureOut(String parameterName, Object value) {
+        captureOut(resolveParameterIndex(parameterName), value);
+    }
+
+    private static Object toOutValue(Object value) {
+        if (value instanceof byte[]) {
+            return BYTES_VALUE_PLACEHOLDER;
+        }
+        else if (value instanceof Blob) {
+            return BLOB_VALUE_PLACEHOLDER;
+        }
+        else if (value instanceof Clob || value instanceof Reader || value instanceof SQLXML) {
+            // reading the content would consume it before the application gets to.
+            return TEXT_CLOB_VALUE_PLACEHOLDER;
+        }
+        else if (value instanceof Array) {
+            return ARRAY_VALUE_PLACEHOLDER;
+        }
+        else if (value instanceof URL) {
+            return value.toString();
+        }
+        return value;
+    }
+
+    /**
+     * Publishes the OUT values read since the last execution (if any)
+     */
+    private void finishOutCapture() {
+        SortedMap<Integer, Object> values = this.outValues;
+        this.capturingOut = false;
+        this.outValues = null;
+        if (values != null) {
+            loggingConnection.logOutParameters(sqlTracker.getTemplate(), values);
+        }
+    }
+
+    /**
+     * Adds the value of a parameter set by name to the tracker (ignored if the name can't be resolved to an index)
+     * @param parameterName parameter name
+     * @param value parameter value.
+     */
+    protected void setCurrentParameter(String parameterName, Object value) {
+        int index = resolveParameterIndex(parameterName);
+        if (index > 0) {
+            setCurrentParameter(index, value);
+        }
+    }
+
+    protected InputStream setCurrentStreamParameter(String parameterName, InputStream inputStream) {
+        int index = resolveParameterIndex(parameterName);
+        return (index > 0 ? setCurrentStreamParameter(index, inputStream) : inputStream);
+    }
+
+    protected Reader setCurrentReaderParameter(String parameterName, Reader reader) {
+        int index = resolveParameterIndex(parameterName);
+        return (index > 0 ? setCurrentReaderParameter(index, reader) : reader);
+    }
+
+    /**
+     * @param parameterName parameter name
+     * @return parameter index of the name (or -1 if not known)
+     */
+    protected int resolveParameterIndex(String parameterName) {
+        SqlTemplate template = sqlTracker.getTemplate();
+        int index = template.getPlaceholders().getSlot(parameterName);
+        if (index > 0 || parameterName == null || !isLoggingActive()) {
+            return index;
+        }
+        if (procedureParameters == null) {
+            procedureParameters = getProcedureParameters(template);
+        }
+        Integer procedureIndex = procedureParameters.get(ProcedureParameters.toKey(parameterName));
+        return (procedureIndex != null ? procedureIndex : -1);
+    }
+
+    /**
+     * @return parameter indexes of the procedure parameter names (looked up once per sql, then cached on the template)
+     */
+    private Map<String, Integer> getProcedureParameters(SqlTemplate template) {
+        Map<String, Integer> result = template.procedureParameters;
+        if (result == null) {
+            try {
+                result = ProcedureParameters.resolve(callableStatement.getConnection(), template.getSql());
+            }
+            catch (SQLException e) {
+                result = ProcedureParameters.UNRESOLVED;
+            }
+            template.procedureParameters = result;
+        }
+        return result;
     }
 
     // todo: can easily convert below into cache (will do so iff demand requires it)
@@ -72,140 +222,232 @@ public class LoggingCallableStatement extends LoggingPreparedStatement implement
     /** @inheritDoc */
     @Override
     public String getString(int parameterIndex) throws SQLException {
-        return callableStatement.getString(parameterIndex);
+        String value = callableStatement.getString(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public boolean getBoolean(int parameterIndex) throws SQLException {
-        return callableStatement.getBoolean(parameterIndex);
+        boolean value = callableStatement.getBoolean(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public byte getByte(int parameterIndex) throws SQLException {
-        return callableStatement.getByte(parameterIndex);
+        byte value = callableStatement.getByte(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public short getShort(int parameterIndex) throws SQLException {
-        return callableStatement.getShort(parameterIndex);
+        short value = callableStatement.getShort(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public int getInt(int parameterIndex) throws SQLException {
-        return callableStatement.getInt(parameterIndex);
+        int value = callableStatement.getInt(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public long getLong(int parameterIndex) throws SQLException {
-        return callableStatement.getLong(parameterIndex);
+        long value = callableStatement.getLong(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public float getFloat(int parameterIndex) throws SQLException {
-        return callableStatement.getFloat(parameterIndex);
+        float value = callableStatement.getFloat(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public double getDouble(int parameterIndex) throws SQLException {
-        return callableStatement.getDouble(parameterIndex);
+        double value = callableStatement.getDouble(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     @Deprecated
     public BigDecimal getBigDecimal(int parameterIndex, int scale) throws SQLException {
-        return callableStatement.getBigDecimal(parameterIndex, scale);
+        BigDecimal value = callableStatement.getBigDecimal(parameterIndex, scale);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public byte[] getBytes(int parameterIndex) throws SQLException {
-        return callableStatement.getBytes(parameterIndex);
+        byte[] value = callableStatement.getBytes(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Date getDate(int parameterIndex) throws SQLException {
-        return callableStatement.getDate(parameterIndex);
+        Date value = callableStatement.getDate(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Time getTime(int parameterIndex) throws SQLException {
-        return callableStatement.getTime(parameterIndex);
+        Time value = callableStatement.getTime(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Timestamp getTimestamp(int parameterIndex) throws SQLException {
-        return callableStatement.getTimestamp(parameterIndex);
+        Timestamp value = callableStatement.getTimestamp(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Object getObject(int parameterIndex) throws SQLException {
-        return callableStatement.getObject(parameterIndex);
+        Object value = callableStatement.getObject(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public BigDecimal getBigDecimal(int parameterIndex) throws SQLException {
-        return callableStatement.getBigDecimal(parameterIndex);
+        BigDecimal value = callableStatement.getBigDecimal(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Object getObject(int parameterIndex, Map<String, Class<?>> map) throws SQLException {
-        return callableStatement.getObject(parameterIndex, map);
+        Object value = callableStatement.getObject(parameterIndex, map);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Ref getRef(int parameterIndex) throws SQLException {
-        return callableStatement.getRef(parameterIndex);
+        Ref value = callableStatement.getRef(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Blob getBlob(int parameterIndex) throws SQLException {
-        return callableStatement.getBlob(parameterIndex);
+        Blob value = callableStatement.getBlob(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Clob getClob(int parameterIndex) throws SQLException {
-        return callableStatement.getClob(parameterIndex);
+        Clob value = callableStatement.getClob(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Array getArray(int parameterIndex) throws SQLException {
-        return callableStatement.getArray(parameterIndex);
+        Array value = callableStatement.getArray(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Date getDate(int parameterIndex, Calendar cal) throws SQLException {
-        return callableStatement.getDate(parameterIndex, cal);
+        Date value = callableStatement.getDate(parameterIndex, cal);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Time getTime(int parameterIndex, Calendar cal) throws SQLException {
-        return callableStatement.getTime(parameterIndex, cal);
+        Time value = callableStatement.getTime(parameterIndex, cal);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Timestamp getTimestamp(int parameterIndex, Calendar cal) throws SQLException {
-        return callableStatement.getTimestamp(parameterIndex, cal);
+        Timestamp value = callableStatement.getTimestamp(parameterIndex, cal);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
@@ -218,325 +460,457 @@ public class LoggingCallableStatement extends LoggingPreparedStatement implement
     /** @inheritDoc */
     @Override
     public void registerOutParameter(String parameterName, int sqlType) throws SQLException {
+        setCurrentParameter(parameterName, generatePlaceholderName(sqlType));
         callableStatement.registerOutParameter(parameterName, sqlType);
     }
 
     /** @inheritDoc */
     @Override
     public void registerOutParameter(String parameterName, int sqlType, int scale) throws SQLException {
+        setCurrentParameter(parameterName, generatePlaceholderName(sqlType));
         callableStatement.registerOutParameter(parameterName, sqlType, scale);
     }
 
     /** @inheritDoc */
     @Override
     public void registerOutParameter(String parameterName, int sqlType, String typeName) throws SQLException {
+        setCurrentParameter(parameterName, generatePlaceholderName(sqlType));
         callableStatement.registerOutParameter(parameterName, sqlType, typeName);
     }
 
     /** @inheritDoc */
     @Override
     public URL getURL(int parameterIndex) throws SQLException {
-        return callableStatement.getURL(parameterIndex);
+        URL value = callableStatement.getURL(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public void setURL(String parameterName, URL val) throws SQLException {
+        setCurrentParameter(parameterName, (val != null ? val.toString() : null));
         callableStatement.setURL(parameterName, val);
     }
 
     /** @inheritDoc */
     @Override
     public void setNull(String parameterName, int sqlType) throws SQLException {
+        setCurrentParameter(parameterName, null);
         callableStatement.setNull(parameterName, sqlType);
     }
 
     /** @inheritDoc */
     @Override
     public void setBoolean(String parameterName, boolean x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setBoolean(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setByte(String parameterName, byte x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setByte(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setShort(String parameterName, short x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setShort(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setInt(String parameterName, int x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setInt(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setLong(String parameterName, long x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setLong(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setFloat(String parameterName, float x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setFloat(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setDouble(String parameterName, double x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setDouble(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setBigDecimal(String parameterName, BigDecimal x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setBigDecimal(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setString(String parameterName, String x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setString(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setBytes(String parameterName, byte[] x) throws SQLException {
+        setCurrentParameter(parameterName, (x != null ? BYTES_VALUE_PLACEHOLDER : null));
         callableStatement.setBytes(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setDate(String parameterName, Date x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setDate(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setTime(String parameterName, Time x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setTime(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setTimestamp(String parameterName, Timestamp x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setTimestamp(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setAsciiStream(String parameterName, InputStream x, int length) throws SQLException {
+        x = setCurrentStreamParameter(parameterName, x);
         callableStatement.setAsciiStream(parameterName, x, length);
     }
 
     /** @inheritDoc */
     @Override
     public void setBinaryStream(String parameterName, InputStream x, int length) throws SQLException {
+        setCurrentParameter(parameterName, (x != null ? BINARY_STREAM_VALUE_PLACEHOLDER : null));
         callableStatement.setBinaryStream(parameterName, x, length);
     }
 
     /** @inheritDoc */
     @Override
     public void setObject(String parameterName, Object x, int targetSqlType, int scale) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setObject(parameterName, x, targetSqlType, scale);
     }
 
     /** @inheritDoc */
     @Override
     public void setObject(String parameterName, Object x, int targetSqlType) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setObject(parameterName, x, targetSqlType);
     }
 
     /** @inheritDoc */
     @Override
     public void setObject(String parameterName, Object x) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setObject(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setCharacterStream(String parameterName, Reader reader, int length) throws SQLException {
+        reader = setCurrentReaderParameter(parameterName, reader);
         callableStatement.setCharacterStream(parameterName, reader, length);
     }
 
     /** @inheritDoc */
     @Override
     public void setDate(String parameterName, Date x, Calendar cal) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setDate(parameterName, x, cal);
     }
 
     /** @inheritDoc */
     @Override
     public void setTime(String parameterName, Time x, Calendar cal) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setTime(parameterName, x, cal);
     }
 
     /** @inheritDoc */
     @Override
     public void setTimestamp(String parameterName, Timestamp x, Calendar cal) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setTimestamp(parameterName, x, cal);
     }
 
     /** @inheritDoc */
     @Override
     public void setNull(String parameterName, int sqlType, String typeName) throws SQLException {
+        setCurrentParameter(parameterName, null);
         callableStatement.setNull(parameterName, sqlType, typeName);
     }
 
     /** @inheritDoc */
     @Override
     public String getString(String parameterName) throws SQLException {
-        return callableStatement.getString(parameterName);
+        String value = callableStatement.getString(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public boolean getBoolean(String parameterName) throws SQLException {
-        return callableStatement.getBoolean(parameterName);
+        boolean value = callableStatement.getBoolean(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public byte getByte(String parameterName) throws SQLException {
-        return callableStatement.getByte(parameterName);
+        byte value = callableStatement.getByte(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public short getShort(String parameterName) throws SQLException {
-        return callableStatement.getShort(parameterName);
+        short value = callableStatement.getShort(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public int getInt(String parameterName) throws SQLException {
-        return callableStatement.getInt(parameterName);
+        int value = callableStatement.getInt(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public long getLong(String parameterName) throws SQLException {
-        return callableStatement.getLong(parameterName);
+        long value = callableStatement.getLong(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public float getFloat(String parameterName) throws SQLException {
-        return callableStatement.getFloat(parameterName);
+        float value = callableStatement.getFloat(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public double getDouble(String parameterName) throws SQLException {
-        return callableStatement.getDouble(parameterName);
+        double value = callableStatement.getDouble(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, (callableStatement.wasNull() ? null : value));
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public byte[] getBytes(String parameterName) throws SQLException {
-        return callableStatement.getBytes(parameterName);
+        byte[] value = callableStatement.getBytes(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Date getDate(String parameterName) throws SQLException {
-        return callableStatement.getDate(parameterName);
+        Date value = callableStatement.getDate(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Time getTime(String parameterName) throws SQLException {
-        return callableStatement.getTime(parameterName);
+        Time value = callableStatement.getTime(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Timestamp getTimestamp(String parameterName) throws SQLException {
-        return callableStatement.getTimestamp(parameterName);
+        Timestamp value = callableStatement.getTimestamp(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Object getObject(String parameterName) throws SQLException {
-        return callableStatement.getObject(parameterName);
+        Object value = callableStatement.getObject(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public BigDecimal getBigDecimal(String parameterName) throws SQLException {
-        return callableStatement.getBigDecimal(parameterName);
+        BigDecimal value = callableStatement.getBigDecimal(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Object getObject(String parameterName, Map<String, Class<?>> map) throws SQLException {
-        return callableStatement.getObject(parameterName, map);
+        Object value = callableStatement.getObject(parameterName, map);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Ref getRef(String parameterName) throws SQLException {
-        return callableStatement.getRef(parameterName);
+        Ref value = callableStatement.getRef(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Blob getBlob(String parameterName) throws SQLException {
-        return callableStatement.getBlob(parameterName);
+        Blob value = callableStatement.getBlob(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Clob getClob(String parameterName) throws SQLException {
-        return callableStatement.getClob(parameterName);
+        Clob value = callableStatement.getClob(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Array getArray(String parameterName) throws SQLException {
-        return callableStatement.getArray(parameterName);
+        Array value = callableStatement.getArray(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Date getDate(String parameterName, Calendar cal) throws SQLException {
-        return callableStatement.getDate(parameterName, cal);
+        Date value = callableStatement.getDate(parameterName, cal);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Time getTime(String parameterName, Calendar cal) throws SQLException {
-        return callableStatement.getTime(parameterName, cal);
+        Time value = callableStatement.getTime(parameterName, cal);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Timestamp getTimestamp(String parameterName, Calendar cal) throws SQLException {
-        return callableStatement.getTimestamp(parameterName, cal);
+        Timestamp value = callableStatement.getTimestamp(parameterName, cal);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public URL getURL(String parameterName) throws SQLException {
-        return callableStatement.getURL(parameterName);
+        URL value = callableStatement.getURL(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public RowId getRowId(int parameterIndex) throws SQLException {
-        return callableStatement.getRowId(parameterIndex);
+        RowId value = callableStatement.getRowId(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public RowId getRowId(String parameterName) throws SQLException {
-        return callableStatement.getRowId(parameterName);
+        RowId value = callableStatement.getRowId(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
@@ -548,198 +922,267 @@ public class LoggingCallableStatement extends LoggingPreparedStatement implement
     /** @inheritDoc */
     @Override
     public void setNString(String parameterName, String value) throws SQLException {
+        setCurrentParameter(parameterName, value);
         callableStatement.setNString(parameterName, value);
     }
 
     /** @inheritDoc */
     @Override
     public void setNCharacterStream(String parameterName, Reader value, long length) throws SQLException {
+        value = setCurrentReaderParameter(parameterName, value);
         callableStatement.setNCharacterStream(parameterName, value, length);
     }
 
     /** @inheritDoc */
     @Override
     public void setNClob(String parameterName, NClob value) throws SQLException {
+        setCurrentParameter(parameterName, getClobString(value));
         callableStatement.setNClob(parameterName, value);
     }
 
     /** @inheritDoc */
     @Override
     public void setClob(String parameterName, Reader reader, long length) throws SQLException {
+        reader = setCurrentReaderParameter(parameterName, reader);
         callableStatement.setClob(parameterName, reader, length);
     }
 
     /** @inheritDoc */
     @Override
     public void setBlob(String parameterName, InputStream inputStream, long length) throws SQLException {
+        setCurrentParameter(parameterName, (inputStream != null ? BLOB_VALUE_PLACEHOLDER : null));
         callableStatement.setBlob(parameterName, inputStream, length);
     }
 
     /** @inheritDoc */
     @Override
     public void setNClob(String parameterName, Reader reader, long length) throws SQLException {
+        reader = setCurrentReaderParameter(parameterName, reader);
         callableStatement.setNClob(parameterName, reader, length);
     }
 
     /** @inheritDoc */
     @Override
     public NClob getNClob(int parameterIndex) throws SQLException {
-        return callableStatement.getNClob(parameterIndex);
+        NClob value = callableStatement.getNClob(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public NClob getNClob(String parameterName) throws SQLException {
-        return callableStatement.getNClob(parameterName);
+        NClob value = callableStatement.getNClob(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public void setSQLXML(String parameterName, SQLXML xmlObject) throws SQLException {
+        setCurrentParameter(parameterName, getSqlXmlString(xmlObject));
         callableStatement.setSQLXML(parameterName, xmlObject);
     }
 
     /** @inheritDoc */
     @Override
     public SQLXML getSQLXML(int parameterIndex) throws SQLException {
-        return callableStatement.getSQLXML(parameterIndex);
+        SQLXML value = callableStatement.getSQLXML(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public SQLXML getSQLXML(String parameterName) throws SQLException {
-        return callableStatement.getSQLXML(parameterName);
+        SQLXML value = callableStatement.getSQLXML(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public String getNString(int parameterIndex) throws SQLException {
-        return callableStatement.getNString(parameterIndex);
+        String value = callableStatement.getNString(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public String getNString(String parameterName) throws SQLException {
-        return callableStatement.getNString(parameterName);
+        String value = callableStatement.getNString(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Reader getNCharacterStream(int parameterIndex) throws SQLException {
-        return callableStatement.getNCharacterStream(parameterIndex);
+        Reader value = callableStatement.getNCharacterStream(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Reader getNCharacterStream(String parameterName) throws SQLException {
-        return callableStatement.getNCharacterStream(parameterName);
+        Reader value = callableStatement.getNCharacterStream(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Reader getCharacterStream(int parameterIndex) throws SQLException {
-        return callableStatement.getCharacterStream(parameterIndex);
+        Reader value = callableStatement.getCharacterStream(parameterIndex);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public Reader getCharacterStream(String parameterName) throws SQLException {
-        return callableStatement.getCharacterStream(parameterName);
+        Reader value = callableStatement.getCharacterStream(parameterName);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public void setBlob(String parameterName, Blob x) throws SQLException {
+        setCurrentParameter(parameterName, (x != null ? BLOB_VALUE_PLACEHOLDER : null));
         callableStatement.setBlob(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setClob(String parameterName, Clob x) throws SQLException {
+        setCurrentParameter(parameterName, getClobString(x));
         callableStatement.setClob(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setAsciiStream(String parameterName, InputStream x, long length) throws SQLException {
+        x = setCurrentStreamParameter(parameterName, x);
         callableStatement.setAsciiStream(parameterName, x, length);
     }
 
     /** @inheritDoc */
     @Override
     public void setBinaryStream(String parameterName, InputStream x, long length) throws SQLException {
+        setCurrentParameter(parameterName, (x != null ? BINARY_STREAM_VALUE_PLACEHOLDER : null));
         callableStatement.setBinaryStream(parameterName, x, length);
     }
 
     /** @inheritDoc */
     @Override
     public void setCharacterStream(String parameterName, Reader reader, long length) throws SQLException {
+        reader = setCurrentReaderParameter(parameterName, reader);
         callableStatement.setCharacterStream(parameterName, reader, length);
     }
 
     /** @inheritDoc */
     @Override
     public void setAsciiStream(String parameterName, InputStream x) throws SQLException {
+        x = setCurrentStreamParameter(parameterName, x);
         callableStatement.setAsciiStream(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setBinaryStream(String parameterName, InputStream x) throws SQLException {
+        setCurrentParameter(parameterName, (x != null ? BINARY_STREAM_VALUE_PLACEHOLDER : null));
         callableStatement.setBinaryStream(parameterName, x);
     }
 
     /** @inheritDoc */
     @Override
     public void setCharacterStream(String parameterName, Reader reader) throws SQLException {
+        reader = setCurrentReaderParameter(parameterName, reader);
         callableStatement.setCharacterStream(parameterName, reader);
     }
 
     /** @inheritDoc */
     @Override
     public void setNCharacterStream(String parameterName, Reader value) throws SQLException {
+        value = setCurrentReaderParameter(parameterName, value);
         callableStatement.setNCharacterStream(parameterName, value);
     }
 
     /** @inheritDoc */
     @Override
     public void setClob(String parameterName, Reader reader) throws SQLException {
+        reader = setCurrentReaderParameter(parameterName, reader);
         callableStatement.setClob(parameterName, reader);
     }
 
     /** @inheritDoc */
     @Override
     public void setBlob(String parameterName, InputStream inputStream) throws SQLException {
+        setCurrentParameter(parameterName, (inputStream != null ? BLOB_VALUE_PLACEHOLDER : null));
         callableStatement.setBlob(parameterName, inputStream);
     }
 
     /** @inheritDoc */
     @Override
     public void setNClob(String parameterName, Reader reader) throws SQLException {
+        reader = setCurrentReaderParameter(parameterName, reader);
         callableStatement.setNClob(parameterName, reader);
     }
 
     /** @inheritDoc */
     @Override
     public <T> T getObject(int parameterIndex, Class<T> type) throws SQLException {
-        return callableStatement.getObject(parameterIndex, type);
+        T value = callableStatement.getObject(parameterIndex, type);
+        if (capturingOut) {
+            captureOut(parameterIndex, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public <T> T getObject(String parameterName, Class<T> type) throws SQLException {
-        return callableStatement.getObject(parameterName, type);
+        T value = callableStatement.getObject(parameterName, type);
+        if (capturingOut) {
+            captureOut(parameterName, value);
+        }
+        return value;
     }
 
     /** @inheritDoc */
     @Override
     public void setObject(String parameterName, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setObject(parameterName, x, targetSqlType, scaleOrLength);
     }
 
     /** @inheritDoc */
     @Override
     public void setObject(String parameterName, Object x, SQLType targetSqlType) throws SQLException {
+        setCurrentParameter(parameterName, x);
         callableStatement.setObject(parameterName, x, targetSqlType);
     }
 
@@ -767,18 +1210,21 @@ public class LoggingCallableStatement extends LoggingPreparedStatement implement
     /** @inheritDoc */
     @Override
     public void registerOutParameter(String parameterName, SQLType sqlType) throws SQLException {
+        setCurrentParameter(parameterName, generatePlaceholderName(sqlType));
         callableStatement.registerOutParameter(parameterName, sqlType);
     }
 
     /** @inheritDoc */
     @Override
     public void registerOutParameter(String parameterName, SQLType sqlType, int scale) throws SQLException {
+        setCurrentParameter(parameterName, generatePlaceholderName(sqlType));
         callableStatement.registerOutParameter(parameterName, sqlType, scale);
     }
 
     /** @inheritDoc */
     @Override
     public void registerOutParameter(String parameterName, SQLType sqlType, String typeName) throws SQLException {
+        setCurrentParameter(parameterName, generatePlaceholderName(sqlType));
         callableStatement.registerOutParameter(parameterName, sqlType, typeName);
     }
 }
@@ -0,0 +1,398 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.listeners.ExecutionListener;
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+import com.github.bradjacobs.logging.jdbc.param.SqlTagFiller;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of the settings that can be changed while connections are open
+ *   (see LoggingDataSource.reconfigure).
+ *
+ * Connections read the current snapshot through a single volatile reference for every statement,
+ *   thus a change applies to the already open connections right away, w/o any locking.
+ */
+public final class LoggingConfiguration {
+    private final boolean enabled;
+    private final List<LoggingListener> loggingListeners;
+    private final List<ExecutionListener> executionListeners;
+    private final DatabaseType dbType;
+    private final ZoneId zoneId;
+    private final boolean clobParamLogging;
+    private final double sampleRate;
+    private final boolean threadScopedLogging;
+    private final StatementFilter statementFilter;
+    private final ParameterMasking parameterMasking;
+    private final boolean outParameterLogging;
+    private final int multiRowInsertSize;
+    private final int listenerFailureThreshold;
+    private final Duration listenerSlowCallThreshold;
+    private final Duration listenerDisabledDuration;
+    private final int fanOutRingSize;
+
+    // derived from the settings above
+    private final SqlTagFiller sqlTagFiller;
+    private final List<ListenerCircuitBreaker> listenerCircuitBreakers;
+    private final FanOutDispatcher fanOutDispatcher;
+
+    private LoggingConfiguration(Builder builder, List<ListenerCircuitBreaker> listenerCircuitBreakers,
+                                 FanOutDispatcher fanOutDispatcher) {
+        this.enabled = builder.enabled;
+        this.loggingListeners = Collections.unmodifiableList(new ArrayList<>(builder.loggingListeners));
+        List<ExecutionListener> executionListenerList = new ArrayList<>();
+        for (LoggingListener loggingListener : loggingListeners) {
+            if (loggingListener instanceof ExecutionListener) {
+                executionListenerList.add((ExecutionListener) loggingListener);
+            }
+        }
+        this.executionListeners = Collections.unmodifiableList(executionListenerList);
+        this.dbType = builder.dbType;
+        this.zoneId = builder.zoneId;
+        this.clobParamLogging = builder.clobParamLogging;
+        this.sampleRate = builder.sampleRate;
+        this.threadScopedLogging = builder.threadScopedLogging;
+        this.statementFilter = builder.statementFilter;
+        this.parameterMasking = builder.parameterMasking;
+        this.outParameterLogging = builder.outParameterLogging;
+        this.multiRowInsertSize = builder.multiRowInsertSize;
+        this.listenerFailureThreshold = builder.listenerFailureThreshold;
+        this.listenerSlowCallThreshold = builder.listenerSlowCallThreshold;
+        this.listenerDisabledDuration = builder.listenerDisabledDuration;
+        this.fanOutRingSize = builder.fanOutRingSize;
+        this.sqlTagFiller = new SqlTagFiller(dbType, zoneId);
+        this.listenerCircuitBreakers = listenerCircuitBreakers;
+        this.fanOutDispatcher = fanOutDispatcher;
+    }
+
+    /**
+     * Creates the initial configuration from the (connection/datasource) builder.
+     */
+    static LoggingConfiguration create(AbstractLoggingBuilder<?> source) {
+        Builder builder = new Builder();
+        builder.enabled = true;
+        builder.loggingListeners = new ArrayList<>(source.loggingListeners);
+        builder.dbType = source.dbType;
+        builder.zoneId = source.zoneId;
+        builder.clobParamLogging = source.clobParamLogging;
+        builder.sampleRate = source.sampleRate;
+        builder.threadScopedLogging = source.threadScopedLogging;
+        builder.statementFilter = source.statementFilter;
+        builder.parameterMasking = source.parameterMasking;
+        builder.outParameterLogging = source.outParameterLogging;
+        builder.multiRowInsertSize = source.multiRowInsertSize;
+        builder.listenerFailureThreshold = source.listenerFailureThreshold;
+        builder.listenerSlowCallThreshold = source.listenerSlowCallThreshold;
+        builder.listenerDisabledDuration = source.listenerDisabledDuration;
+        builder.fanOutRingSize = source.fanOutRingSize;
+        return builder.build(null);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<LoggingListener> getLoggingListeners() {
+        return loggingListeners;
+    }
+
+    /**
+     * @return the logging listeners that also implement ExecutionListener
+     */
+    public List<ExecutionListener> getExecutionListeners() {
+        return executionListeners;
+    }
+
+    public DatabaseType getDbType() {
+        return dbType;
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    public boolean isClobParamLoggingEnabled() {
+        return clobParamLogging;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @return true if only the statements of threads w/ an open LoggingScope are logged
+     */
+    public boolean isThreadScopedLogging() {
+        return threadScopedLogging;
+    }
+
+    /**
+     * @return true if a statement executed by the current thread should be logged
+     */
+    public boolean isLoggingActive() {
+        return enabled && (!threadScopedLogging || LoggingScope.isActive());
+    }
+
+    /**
+     * @return filter of the statements to log (null if not filtered)
+     */
+    public StatementFilter getStatementFilter() {
+        return statementFilter;
+    }
+
+    /**
+     * @param template sql template
+     * @return true if statements of the template pass the statement filter (if any)
+     */
+    boolean isAccepted(SqlTemplate template) {
+        return statementFilter == null || statementFilter.accept(template);
+    }
+
+    /**
+     * @return masking rules of the sensitive parameters (null if none)
+     */
+    public ParameterMasking getParameterMasking() {
+        return parameterMasking;
+    }
+
+    /**
+     * @return true if the OUT values of stored procedure calls are logged
+     */
+    public boolean isOutParameterLoggingEnabled() {
+        return outParameterLogging;
+    }
+
+    /**
+     * @return max rows per logged multi-row INSERT statement (0 if batched INSERTs are logged per row)
+     */
+    public int getMultiRowInsertSize() {
+        return multiRowInsertSize;
+    }
+
+    public int getListenerFailureThreshold() {
+        return listenerFailureThreshold;
+    }
+
+    public Duration getListenerSlowCallThreshold() {
+        return listenerSlowCallThreshold;
+    }
+
+    public Duration getListenerDisabledDuration() {
+        return listenerDisabledDuration;
+    }
+
+    public int getFanOutRingSize() {
+        return fanOutRingSize;
+    }
+
+    public SqlTagFiller getSqlTagFiller() {
+        return sqlTagFiller;
+    }
+
+    /**
+     * @return failure/slow call counters of each logging listener
+     */
+    public List<ListenerCircuitBreaker> getListenerCircuitBreakers() {
+        return listenerCircuitBreakers;
+    }
+
+    /**
+     * @return dispatcher used to hand events off to the listeners asynchronously (null if fanOutRingSize not set)
+     */
+    public FanOutDispatcher getFanOutDispatcher() {
+        return fanOutDispatcher;
+    }
+
+    /**
+     * @return builder initialized with the current settings
+     */
+    Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.enabled = enabled;
+        builder.loggingListeners = new ArrayList<>(loggingListeners);
+        builder.dbType = dbType;
+        builder.zoneId = zoneId;
+        builder.clobParamLogging = clobParamLogging;
+        builder.sampleRate = sampleRate;
+        builder.threadScopedLogging = threadScopedLogging;
+        builder.statementFilter = statementFilter;
+        builder.parameterMasking = parameterMasking;
+        builder.outParameterLogging = outParameterLogging;
+        builder.multiRowInsertSize = multiRowInsertSize;
+        builder.listenerFailureThreshold = listenerFailureThreshold;
+        builder.listenerSlowCallThreshold = listenerSlowCallThreshold;
+        builder.listenerDisabledDuration = listenerDisabledDuration;
+        builder.fanOutRingSize = fanOutRingSize;
+        return builder;
+    }
+
+    /**
+     * Changes to apply to a live configuration (see LoggingDataSource.reconfigure)
+     *   Settings that are not set keep their current value.
+     */
+    public static class Builder {
+        private boolean enabled;
+        private List<LoggingListener> loggingListeners;
+        private DatabaseType dbType;
+        private ZoneId zoneId;
+        private boolean clobParamLogging;
+        private double sampleRate;
+        private boolean threadScopedLogging;
+        private StatementFilter statementFilter;
+        private ParameterMasking parameterMasking;
+        private boolean outParameterLogging;
+        private int multiRowInsertSize;
+        private int listenerFailureThreshold;
+        private Duration listenerSlowCallThreshold;
+        private Duration listenerDisabledDuration;
+        private int fanOutRingSize;
+
+        private Builder() { }
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Replaces the current listeners.
+         * @param loggingListeners listeners
+         * @return builder
+         */
+        public Builder loggingListeners(LoggingListener... loggingListeners) {
+            return loggingListeners(Arrays.asList(loggingListeners));
+        }
+
+        /**
+         * Replaces the current listeners.
+         * @param loggingListeners listeners
+         * @return builder
+         */
+        public Builder loggingListeners(Collection<LoggingListener> loggingListeners) {
+            if (loggingListeners == null || loggingListeners.isEmpty() || loggingListeners.contains(null)) {
+                throw new IllegalArgumentException("Must provide at least one loggingListener.");
+            }
+            this.loggingListeners = new ArrayList<>(loggingListeners);
+            return this;
+        }
+
+        public Builder dbType(DatabaseType dbType) {
+            this.dbType = (dbType != null ? dbType : DatabaseType.DEFAULT);
+            return this;
+        }
+
+        public Builder zoneId(ZoneId zoneId) {
+            this.zoneId = (zoneId != null ? zoneId : AbstractLoggingBuilder.DEFAULT_ZONE);
+            return this;
+        }
+
+        public Builder clobParamLogging(boolean clobParamLogging) {
+            this.clobParamLogging = clobParamLogging;
+            return this;
+        }
+
+        public Builder sampleRate(double sampleRate) {
+            if (!(sampleRate >= 0.0d && sampleRate <= 1.0d)) {
+                throw new IllegalArgumentException("sampleRate must be between 0.0 and 1.0");
+            }
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        public Builder threadScopedLogging(boolean threadScopedLogging) {
+            this.threadScopedLogging = threadScopedLogging;
+            return this;
+        }
+
+        /**
+         * @param statementFilter filter of the statements to log (null for no filtering)
+         * @return builder
+         */
+        public Builder statementFilter(StatementFilter statementFilter) {
+            this.statementFilter = statementFilter;
+            return this;
+        }
+
+        /**
+         * @param parameterMasking masking rules of the sensitive parameters (null for no masking)
+         * @return builder
+         */
+        public Builder parameterMasking(ParameterMasking parameterMasking) {
+            this.parameterMasking = parameterMasking;
+            return this;
+        }
+
+        public Builder outParameterLogging(boolean outParameterLogging) {
+            this.outParameterLogging = outParameterLogging;
+            return this;
+        }
+
+        public Builder multiRowInsertSize(int multiRowInsertSize) {
+            if (multiRowInsertSize < 0) {
+                throw new IllegalArgumentException("multiRowInsertSize cannot be negative.");
+            }
+            this.multiRowInsertSize = multiRowInsertSize;
+            return this;
+        }
+
+        public Builder listenerFailureThreshold(int listenerFailureThreshold) {
+            if (listenerFailureThreshold <= 0) {
+                throw new IllegalArgumentException("listenerFailureThreshold must be greater than zero.");
+            }
+            this.listenerFailureThreshold = listenerFailureThreshold;
+            return this;
+        }
+
+        public Builder listenerSlowCallThreshold(Duration listenerSlowCallThreshold) {
+            this.listenerSlowCallThreshold = (listenerSlowCallThreshold != null ? listenerSlowCallThreshold : Duration.ZERO);
+            return this;
+        }
+
+        public Builder listenerDisabledDuration(Duration listenerDisabledDuration) {
+            this.listenerDisabledDuration =
+                    (listenerDisabledDuration != null ? listenerDisabledDuration : ListenerCircuitBreaker.DEFAULT_OPEN_DURATION);
+            return this;
+        }
+
+        public Builder fanOutRingSize(int fanOutRingSize) {
+            if (fanOutRingSize < 0) {
+                throw new IllegalArgumentException("fanOutRingSize cannot be negative.");
+            }
+            this.fanOutRingSize = fanOutRingSize;
+            return this;
+        }
+
+        /**
+         * @param previous the configuration being replaced (null if none),
+         *                 its circuit breakers and dispatcher are kept if the listener settings did not change.
+         */
+        LoggingConfiguration build(LoggingConfiguration previous) {
+            if (previous != null && sameListenerSettings(previous)) {
+                return new LoggingConfiguration(this, previous.listenerCircuitBreakers, previous.fanOutDispatcher);
+            }
+            List<ListenerCircuitBreaker> circuitBreakers = new ArrayList<>(loggingListeners.size());
+            for (LoggingListener loggingListener : loggingListeners) {
+                circuitBreakers.add(new ListenerCircuitBreaker(loggingListener, listenerFailureThreshold,
+                        listenerSlowCallThreshold, listenerDisabledDuration));
+            }
+            circuitBreakers = Collections.unmodifiableList(circuitBreakers);
+            FanOutDispatcher dispatcher = (fanOutRingSize > 0 ? new FanOutDispatcher(circuitBreakers, fanOutRingSize) : null);
+            return new LoggingConfiguration(this, circuitBreakers, dispatcher);
+        }
+
+        private boolean sameListenerSettings(LoggingConfiguration previous) {
+            return previous.loggingListeners.equals(loggingListeners)
+                    && previous.listenerFailureThreshold == listenerFailureThreshold
+                    && Objects.equals(previous.listenerSlowCallThreshold, listenerSlowCallThreshold)
+                    && Objects.equals(previous.listenerDisabledDuration, listenerDisabledDuration)
+                    && previous.fanOutRingSize == fanOutRingSize;
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package com.github.bradjacobs.logging.jdbc;
 
+import com.github.bradjacobs.logging.jdbc.event.ListenerDisabledEvent;
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.event.MultiRowInsertEvent;
+import com.github.bradjacobs.logging.jdbc.event.OutParametersEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.event.TransactionEvent;
 import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
 import com.github.bradjacobs.logging.jdbc.param.SqlTagFiller;
 
@@ -18,18 +24,42 @@ import java.sql.SQLXML;
 import java.sql.Savepoint;
 import java.sql.Statement;
 import java.sql.Struct;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public class LoggingConnection implements Connection {
-    private final Connection targetConnection;
+    private static final AtomicLong CONNECTION_ID_SEQUENCE = new AtomicLong(0L);
 
-    private final boolean clobParamLoggingEnabled;
-    private final List<LoggingListener> loggingListeners;
-    private final SqlTagFiller sqlTagFiller;
+    private final Connection targetConnection;
+    private final long connectionId = CONNECTION_ID_SEQUENCE.incrementAndGet();
+
+    private final LiveConfiguration liveConfiguration;
+    private final boolean ownsLiveConfiguration;
+    private final SqlTemplateRegistry sqlTemplateRegistry;
+    private final StatementDeduplicator statementDeduplicator;
+    private final NPlusOneDetector nPlusOneDetector;
+    private final TransactionTracker transactionTracker;
+    private final ConnectionMonitor connectionMonitor;
+    private final boolean ownsConnectionMonitor;
+    private final StatementFlightRecorder flightRecorder;
+    // true if something other than the listeners needs to see every statement
+    private final boolean hasStatementObservers;
+    private final ConnectionMonitor.Borrow borrow;
+    // result sets that have not been closed yet (null if resultSetTracking not enabled)
+    private final Set<LoggingResultSet> openResultSets;
+    // close is a no-op once the connection is closed (i.e. the shared configuration is only released once)
+    private final AtomicBoolean closed = new AtomicBoolean(false);
 
     public static Builder builder(Connection targetConnection) {
         return new Builder(targetConnection);
@@ -37,6 +67,8 @@ public class LoggingConnection implements Connection {
 
     public static class Builder extends AbstractLoggingBuilder<Builder> {
         private Connection targetConnection;
+        private LiveConfiguration fanOutConfiguration = null;
+
         private Builder(Connection targetConnection) {
             this.targetConnection = targetConnection;
         }
@@ -50,6 +82,23 @@ public class LoggingConnection implements Connection {
             return new LoggingConnection(targetConnection, this);
         }
 
+        /**
+         * @return retained configuration for a connection of this builder.  Connections w/ fanOutRingSize share
+         *   a single configuration (thus a single dispatcher and consumer threads) while any of them is open.
+         */
+        synchronized LiveConfiguration retainLiveConfiguration() {
+            if (fanOutRingSize == 0) {
+                LiveConfiguration configuration = createLiveConfiguration();
+                configuration.retain();
+                return configuration;
+            }
+            if (fanOutConfiguration == null || !fanOutConfiguration.retain()) {
+                fanOutConfiguration = createLiveConfiguration();
+                fanOutConfiguration.retain();
+            }
+            return fanOutConfiguration;
+        }
+
         @Override
         protected Builder self() {
             return this;
@@ -64,21 +113,376 @@ public class LoggingConnection implements Connection {
             throw new IllegalArgumentException("Must provide at least one loggingListener.");
         }
         this.targetConnection = targetConnection;
-        this.loggingListeners = Collections.unmodifiableList(builder.loggingListeners);
-        this.clobParamLoggingEnabled = builder.clobParamLogging;
-        this.sqlTagFiller = new SqlTagFiller(builder.dbType, builder.zoneId);
+        if (builder.liveConfiguration != null) {
+            this.liveConfiguration = builder.liveConfiguration;
+            this.ownsLiveConfiguration = false;
+        }
+        else {
+            this.liveConfiguration = builder.retainLiveConfiguration();
+            this.ownsLiveConfiguration = true;
+        }
+        this.sqlTemplateRegistry =
+                (builder.sqlTemplateRegistry != null ? builder.sqlTemplateRegistry : new SqlTemplateRegistry());
+
+        if (builder.dedupMode != DedupMode.NONE) {
+            this.statementDeduplicator =
+                    new StatementDeduplicator(builder.dedupMode, builder.dedupWindow.toNanos(), this::publish);
+        }
+        else {
+            this.statementDeduplicator = null;
+        }
+
+        if (builder.nPlusOneThreshold > 0) {
+            this.nPlusOneDetector = new NPlusOneDetector(builder.nPlusOneThreshold, this::publish);
+        }
+        else {
+            this.nPlusOneDetector = null;
+        }
+
+        if (builder.transactionTracking) {
+            SlowTransactionLog slowTransactionLog =
+                    (builder.slowTransactionLog != null ? builder.slowTransactionLog : new SlowTransactionLog());
+            this.transactionTracker = new TransactionTracker(readAutoCommit(targetConnection), slowTransactionLog, this::publish);
+        }
+        else {
+            this.transactionTracker = null;
+        }
+
+        this.flightRecorder = builder.flightRecorder;
+        this.hasStatementObservers = (flightRecorder != null || transactionTracker != null || nPlusOneDetector != null);
+        this.openResultSets =
+                (builder.resultSetTracking ? Collections.newSetFromMap(new IdentityHashMap<>()) : null);
+
+        if (builder.connectionTracking) {
+            // a connection built directly (not via a DataSource/Driver) owns its monitor
+            this.ownsConnectionMonitor = (builder.connectionMonitor == null);
+            this.connectionMonitor =
+                    (builder.connectionMonitor != null ? builder.connectionMonitor : builder.createConnectionMonitor());
+            this.borrow = connectionMonitor.opened(this);
+        }
+        else {
+            this.ownsConnectionMonitor = false;
+            this.connectionMonitor = null;
+            this.borrow = null;
+        }
+    }
+
+    private static boolean readAutoCommit(Connection connection) {
+        try {
+            return connection.getAutoCommit();
+        }
+        catch (SQLException e) {
+            // JDBC default
+            return true;
+        }
     }
 
     public boolean isClobParamLoggingEnabled() {
-        return clobParamLoggingEnabled;
+        return liveConfiguration.get().isClobParamLoggingEnabled();
+    }
+
+    public boolean isOutParameterLoggingEnabled() {
+        return liveConfiguration.get().isOutParameterLoggingEnabled();
+    }
+
+    public boolean isResultSetTrackingEnabled() {
+        return openResultSets != null;
     }
 
     public List<LoggingListener> getLoggingListeners() {
-        return loggingListeners;
+        return liveConfiguration.get().getLoggingListeners();
+    }
+
+    /**
+     * @return failure/slow call counters of each logging listener
+     */
+    public List<ListenerCircuitBreaker> getListenerCircuitBreakers() {
+        return liveConfiguration.get().getListenerCircuitBreakers();
+    }
+
+    /**
+     * @return the current configuration (shared w/ the LoggingDataSource, if created from one)
+     */
+    public LoggingConfiguration getConfiguration() {
+        return liveConfiguration.get();
+    }
+
+    /**
+     * Changes the configuration of this connection while it's open.
+     *   NOTE: for a connection created by a LoggingDataSource this changes the configuration of the data source
+     *   (i.e. all of its connections), see LoggingDataSource.reconfigure.  Likewise, connections built w/ fanOutRingSize
+     *   share the configuration w/ the other open connections of the same builder.
+     * @param changes changes to apply on top of the current configuration
+     * @return the new configuration
+     */
+    public LoggingConfiguration reconfigure(Consumer<LoggingConfiguration.Builder> changes) {
+        return liveConfiguration.reconfigure(changes);
+    }
+
+    /**
+     * @return id that is unique for every LoggingConnection within this JVM
+     */
+    public long getConnectionId() {
+        return connectionId;
+    }
+
+    /**
+     * @return true if a statement executed by the current thread should be tracked and logged
+     */
+    public boolean isLoggingActive() {
+        LoggingConfiguration configuration = liveConfiguration.get();
+        // w/ a zero sample rate, nothing can reach a listener (unless something else needs to see every statement)
+        return configuration.isLoggingActive() && (configuration.getSampleRate() > 0.0d || hasStatementObservers);
+    }
+
+    /**
+     * @param template sql template about to be executed
+     * @return true if a statement of the template executed by the current thread should be tracked and logged
+     */
+    boolean isLoggingActive(SqlTemplate template) {
+        LoggingConfiguration configuration = liveConfiguration.get();
+        if (!configuration.isLoggingActive()) {
+            return false;
+        }
+        if (hasStatementObservers) {
+            return true;
+        }
+        return configuration.getSampleRate() > 0.0d && configuration.isAccepted(template);
     }
 
     public SqlTagFiller getSqlTagFiller() {
-        return sqlTagFiller;
+        return liveConfiguration.get().getSqlTagFiller();
+    }
+
+    /**
+     * @return masking rules of the sensitive parameters (null if none)
+     */
+    public ParameterMasking getParameterMasking() {
+        return liveConfiguration.get().getParameterMasking();
+    }
+
+    public SqlTemplateRegistry getSqlTemplateRegistry() {
+        return sqlTemplateRegistry;
+    }
+
+    /**
+     * @return connection acquisition/hold metrics (null if connectionTracking not enabled)
+     */
+    public ConnectionMetrics getConnectionMetrics() {
+        return (connectionMonitor != null ? connectionMonitor.getConnectionMetrics() : null);
+    }
+
+    /**
+     * @return the slowest transactions (null if transactionTracking not enabled)
+     */
+    public SlowTransactionLog getSlowTransactionLog() {
+        return (transactionTracker != null ? transactionTracker.getSlowTransactionLog() : null);
+    }
+
+    /**
+     * Entry point for statements executed on this connection.
+     * @param event statement event
+     */
+    void log(StatementEvent event) {
+        LoggingConfiguration configuration = liveConfiguration.get();
+        if (!configuration.isLoggingActive()) {
+            return;
+        }
+        observe(event);
+        // filtered before the event is sampled/rendered (the decision is cached on the template)
+        if (!configuration.isAccepted(event.getSqlTemplate())) {
+            return;
+        }
+        double sampleRate = configuration.getSampleRate();
+        if (sampleRate < 1.0d && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        if (statementDeduplicator != null) {
+            statementDeduplicator.log(event);
+        }
+        else {
+            publish(configuration, event);
+        }
+    }
+
+    /**
+     * Entry point for the statements of an executed batch.
+     *   A batch of single row INSERTs is published as multi-row INSERTs when multiRowInsertSize is set,
+     *   anything else is logged per statement.  (Oracle has no multi-row VALUES syntax, so it's never collapsed there.)
+     * @param events statement events of the batch (in batch order)
+     */
+    void logBatch(List<StatementEvent> events) {
+        LoggingConfiguration configuration = liveConfiguration.get();
+        int multiRowInsertSize = configuration.getMultiRowInsertSize();
+        if (multiRowInsertSize == 0 || configuration.getDbType() == DatabaseType.ORACLE
+                || events.size() < 2 || !isMultiRowInsert(events)) {
+            for (StatementEvent event : events) {
+                log(event);
+            }
+            return;
+        }
+        if (!configuration.isLoggingActive()) {
+            return;
+        }
+        for (StatementEvent event : events) {
+            observe(event);
+        }
+        // the whole batch is filtered/sampled as one
+        SqlTemplate template = events.get(0).getSqlTemplate();
+        if (!configuration.isAccepted(template)) {
+            return;
+        }
+        double sampleRate = configuration.getSampleRate();
+        if (sampleRate < 1.0d && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        int batchSize = events.size();
+        for (int start = 0; start < batchSize; start += multiRowInsertSize) {
+            int end = Math.min(start + multiRowInsertSize, batchSize);
+            publish(configuration, new MultiRowInsertEvent(template, new ArrayList<>(events.subList(start, end)),
+                    configuration.getSqlTagFiller(), batchSize, connectionId));
+        }
+    }
+
+    /**
+     * @return true if all events are of the same single row INSERT template
+     */
+    private static boolean isMultiRowInsert(List<StatementEvent> events) {
+        SqlTemplate template = events.get(0).getSqlTemplate();
+        if (template.getMultiRowInsert() == null) {
+            return false;
+        }
+        for (StatementEvent event : events) {
+            if (event.getSqlTemplate() != template) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hands the event to everything that needs to see every statement (regardless of filtering/sampling)
+     */
+    private void observe(StatementEvent event) {
+        if (flightRecorder != null) {
+            flightRecorder.record(event);
+        }
+        if (transactionTracker != null) {
+            transactionTracker.record(event);
+        }
+        if (nPlusOneDetector != null) {
+            nPlusOneDetector.record(event);
+        }
+    }
+
+    /**
+     * Publishes the OUT values of a stored procedure call (masked the same way as the IN values)
+     * @param template sql template of the call
+     * @param values values keyed by parameter index
+     */
+    void logOutParameters(SqlTemplate template, SortedMap<Integer, Object> values) {
+        LoggingConfiguration configuration = liveConfiguration.get();
+        if (!configuration.isLoggingActive() || !configuration.isAccepted(template)) {
+            return;
+        }
+        ParameterMasking parameterMasking = configuration.getParameterMasking();
+        if (parameterMasking != null) {
+            parameterMasking.mask(template, values);
+        }
+        publish(configuration, new OutParametersEvent(template, values, configuration.getSqlTagFiller(), connectionId));
+    }
+
+    /**
+     * Called right before a statement is executed (only when the execution is logged)
+     * @return scope to end once the execution has finished (null if there are no ExecutionListeners)
+     */
+    ExecutionScope executionStarted() {
+        return ExecutionScope.start(liveConfiguration.get().getExecutionListeners());
+    }
+
+    /**
+     * Called when a statement execution fails (after the failed statement was logged)
+     */
+    void executionFailed(SQLException e) {
+        if (flightRecorder != null) {
+            flightRecorder.executionFailed(e);
+        }
+    }
+
+    /**
+     * Called on transaction boundaries (commit/rollback/close)
+     */
+    private void flushTransactionStats() {
+        if (nPlusOneDetector != null) {
+            nPlusOneDetector.flush();
+        }
+        if (statementDeduplicator != null) {
+            statementDeduplicator.flush();
+        }
+    }
+
+    void resultSetOpened(LoggingResultSet loggingResultSet) {
+        synchronized (openResultSets) {
+            openResultSets.add(loggingResultSet);
+        }
+    }
+
+    void resultSetFinished(LoggingResultSet loggingResultSet) {
+        synchronized (openResultSets) {
+            openResultSets.remove(loggingResultSet);
+        }
+    }
+
+    /**
+     * Logs any result sets that were never closed by the application.
+     */
+    private void finishOpenResultSets() {
+        if (openResultSets == null) {
+            return;
+        }
+        List<LoggingResultSet> resultSetList;
+        synchronized (openResultSets) {
+            resultSetList = new ArrayList<>(openResultSets);
+        }
+        for (LoggingResultSet loggingResultSet : resultSetList) {
+            loggingResultSet.finish();
+        }
+    }
+
+    private void endTransaction(TransactionEvent.Type type, long startNanos) {
+        if (transactionTracker != null) {
+            transactionTracker.end(type, startNanos);
+        }
+    }
+
+    void publish(LoggingEvent event) {
+        publish(liveConfiguration.get(), event);
+    }
+
+    private void publish(LoggingConfiguration configuration, LoggingEvent event) {
+        FanOutDispatcher fanOutDispatcher = configuration.getFanOutDispatcher();
+        if (fanOutDispatcher != null) {
+            fanOutDispatcher.publish(event);
+            return;
+        }
+        // NOTE: a failing listener never fails the database call, see ListenerCircuitBreaker
+        List<ListenerCircuitBreaker> listenerCircuitBreakers = configuration.getListenerCircuitBreakers();
+        for (ListenerCircuitBreaker circuitBreaker : listenerCircuitBreakers) {
+            if (circuitBreaker.log(event)) {
+                publishListenerDisabled(listenerCircuitBreakers, circuitBreaker);
+            }
+        }
+    }
+
+    private void publishListenerDisabled(List<ListenerCircuitBreaker> listenerCircuitBreakers,
+                                         ListenerCircuitBreaker disabled) {
+        ListenerDisabledEvent event = new ListenerDisabledEvent(disabled.getListener(),
+                disabled.getConsecutiveFailures(), disabled.getOpenDurationNanos(), disabled.getLastFailure());
+        for (ListenerCircuitBreaker circuitBreaker : listenerCircuitBreakers) {
+            if (circuitBreaker != disabled) {
+                circuitBreaker.log(event);
+            }
+        }
     }
 
     private Statement logWrap(Statement statement) {
@@ -174,7 +578,13 @@ public class LoggingConnection implements Connection {
     /** @inheritDoc */
     @Override
     public void setAutoCommit(boolean autoCommit) throws SQLException {
+        if (transactionTracker == null) {
+            targetConnection.setAutoCommit(autoCommit);
+            return;
+        }
+        long startNanos = System.nanoTime();
         targetConnection.setAutoCommit(autoCommit);
+        transactionTracker.autoCommitChanged(autoCommit, startNanos);
     }
 
     /** @inheritDoc */
@@ -186,19 +596,50 @@ public class LoggingConnection implements Connection {
     /** @inheritDoc */
     @Override
     public void commit() throws SQLException {
+        // an open result set's query belongs to this transaction, so it's logged now
+        finishOpenResultSets();
+        flushTransactionStats();
+        long startNanos = System.nanoTime();
+        // a failed commit leaves the transaction open (it typically gets rolled back next)
         targetConnection.commit();
+        endTransaction(TransactionEvent.Type.COMMIT, startNanos);
     }
 
     /** @inheritDoc */
     @Override
     public void rollback() throws SQLException {
+        finishOpenResultSets();
+        flushTransactionStats();
+        long startNanos = System.nanoTime();
         targetConnection.rollback();
+        endTransaction(TransactionEvent.Type.ROLLBACK, startNanos);
     }
 
     /** @inheritDoc */
     @Override
     public void close() throws SQLException {
-        targetConnection.close();
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        finishOpenResultSets();
+        flushTransactionStats();
+        long startNanos = System.nanoTime();
+        try {
+            targetConnection.close();
+        }
+        finally {
+            // closing with an open transaction is a rollback for most drivers/pools
+            endTransaction(TransactionEvent.Type.ROLLBACK, startNanos);
+            if (connectionMonitor != null) {
+                connectionMonitor.closed(borrow);
+                if (ownsConnectionMonitor) {
+                    connectionMonitor.shutdown();
+                }
+            }
+            if (ownsLiveConfiguration) {
+                liveConfiguration.release();
+            }
+        }
     }
 
     /** @inheritDoc */
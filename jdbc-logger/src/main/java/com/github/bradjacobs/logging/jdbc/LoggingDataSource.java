@@ -6,6 +6,8 @@ import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -16,7 +18,6 @@ public class LoggingDataSource implements DataSource {
     private final DataSource targetDataSource;
     // hold onto a loggingConnectionBuilder because it will be used to make multiple logging connections.
     private final LoggingConnection.Builder loggingConnectionBuilder;
-    private boolean enabled = true;
 
     public static Builder builder(DataSource targetDataSource) {
         return new Builder(targetDataSource);
@@ -39,6 +40,27 @@ public class LoggingDataSource implements DataSource {
                             .clobParamLogging(this.clobParamLogging)
                             .zoneId(this.zoneId)
                             .dbType(this.dbType)
+                            .dedupMode(this.dedupMode)
+                            .dedupWindow(this.dedupWindow)
+                            .nPlusOneThreshold(this.nPlusOneThreshold)
+                            .sqlTemplateRegistry(this.sqlTemplateRegistry)
+                            .transactionTracking(this.transactionTracking)
+                            .slowTransactionLog(this.slowTransactionLog)
+                            .connectionTracking(this.connectionTracking)
+                            .leakDetectionThreshold(this.leakDetectionThreshold)
+                            .leakStackSampleRate(this.leakStackSampleRate)
+                            .resultSetTracking(this.resultSetTracking)
+                            .flightRecorder(this.flightRecorder)
+                            .listenerFailureThreshold(this.listenerFailureThreshold)
+                            .listenerSlowCallThreshold(this.listenerSlowCallThreshold)
+                            .listenerDisabledDuration(this.listenerDisabledDuration)
+                            .fanOutRingSize(this.fanOutRingSize)
+                            .sampleRate(this.sampleRate)
+                            .threadScopedLogging(this.threadScopedLogging)
+                            .statementFilter(this.statementFilter)
+                            .parameterMasking(this.parameterMasking)
+                            .outParameterLogging(this.outParameterLogging)
+                            .multiRowInsertSize(this.multiRowInsertSize)
                             .loggingListeners(this.loggingListeners);
             return new LoggingDataSource(targetDataSource, loggingConnectionBuilder);
         }
@@ -58,22 +80,33 @@ public class LoggingDataSource implements DataSource {
         validateParams(targetDataSource, loggingConnectionBuilder);
         this.targetDataSource = targetDataSource;
         this.loggingConnectionBuilder = loggingConnectionBuilder;
+        loggingConnectionBuilder.createSharedObjects();
     }
 
     /** @inheritDoc */
     @Override
     public Connection getConnection() throws SQLException {
+        long startNanos = System.nanoTime();
         Connection innerConnection = targetDataSource.getConnection();
+        recordAcquire(startNanos);
         return createConnection(innerConnection);
     }
 
     /** @inheritDoc */
     @Override
     public Connection getConnection(String username, String password) throws SQLException {
+        long startNanos = System.nanoTime();
         Connection innerConnection = targetDataSource.getConnection(username, password);
+        recordAcquire(startNanos);
         return createConnection(innerConnection);
     }
 
+    private void recordAcquire(long startNanos) {
+        if (loggingConnectionBuilder.connectionMonitor != null) {
+            loggingConnectionBuilder.connectionMonitor.recordAcquire(System.nanoTime() - startNanos);
+        }
+    }
+
     /**
      * Creates a new LoggingConnection.
      *   if 'disabled', then will just get back the passed in connection.
@@ -81,28 +114,87 @@ public class LoggingDataSource implements DataSource {
      * @return loggingConnection.
      */
     private Connection createConnection(Connection innerConnection) {
-        if (!enabled) {
+        if (!isEnabled()) {
             return innerConnection;
         }
-        loggingConnectionBuilder.targetConnection(innerConnection);
-        return loggingConnectionBuilder.build();
+        // NOTE: not using builder.targetConnection(..).build(), since the builder is shared by all threads.
+        return new LoggingConnection(innerConnection, loggingConnectionBuilder);
     }
 
     /**
      *  Returns if Sql Connection Logging is enabled.
      *  A 'false' means logging disabled and calls to 'getConnection'
      *  will return the original Connection instead of a LoggingConnection
+     *  (the already open LoggingConnections stop logging as well).
      * @return isEnabled.
      */
     public boolean isEnabled() {
-        return enabled;
+        return getConfiguration().isEnabled();
     }
 
     /**
-     * Enables SQL logging
+     * Enables SQL logging, this also applies to the already open connections.
      */
     public void setEnabled(boolean enabled) {
-        this.enabled = enabled;
+        reconfigure(builder -> builder.enabled(enabled));
+    }
+
+    /**
+     * @return the current configuration (shared by all connections)
+     */
+    public LoggingConfiguration getConfiguration() {
+        return loggingConnectionBuilder.liveConfiguration.get();
+    }
+
+    /**
+     * Atomically changes the configuration of this data source,
+     *   which applies to the already open connections right away (on their next statement).
+     *
+     * e.g.  dataSource.reconfigure(builder -> builder.sampleRate(0.1).dbType(DatabaseType.ORACLE));
+     *
+     * If the listeners (or listener settings) are changed, the previous listeners stop receiving events
+     *   once their pending events were delivered.
+     * @param changes changes to apply on top of the current configuration
+     * @return the new configuration
+     */
+    public LoggingConfiguration reconfigure(Consumer<LoggingConfiguration.Builder> changes) {
+        return loggingConnectionBuilder.liveConfiguration.reconfigure(changes);
+    }
+
+    /**
+     * @return the slowest transactions across all connections (null if transactionTracking not enabled)
+     */
+    public SlowTransactionLog getSlowTransactionLog() {
+        return loggingConnectionBuilder.transactionTracking ? loggingConnectionBuilder.slowTransactionLog : null;
+    }
+
+    /**
+     * @return connection acquisition/hold metrics (null if connectionTracking not enabled)
+     */
+    public ConnectionMetrics getConnectionMetrics() {
+        ConnectionMonitor connectionMonitor = loggingConnectionBuilder.connectionMonitor;
+        return (connectionMonitor != null ? connectionMonitor.getConnectionMetrics() : null);
+    }
+
+    /**
+     * @return failure/slow call counters of each logging listener (shared by all connections)
+     */
+    public List<ListenerCircuitBreaker> getListenerCircuitBreakers() {
+        return getConfiguration().getListenerCircuitBreakers();
+    }
+
+    /**
+     * @return dispatcher used to hand events off to the listeners asynchronously (null if fanOutRingSize not set)
+     */
+    public FanOutDispatcher getFanOutDispatcher() {
+        return getConfiguration().getFanOutDispatcher();
+    }
+
+    /**
+     * @return the flight recorder shared by all connections (null if not configured)
+     */
+    public StatementFlightRecorder getFlightRecorder() {
+        return loggingConnectionBuilder.flightRecorder;
     }
 
     /** @inheritDoc */
@@ -0,0 +1,252 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+import com.github.bradjacobs.logging.jdbc.listeners.Slf4jLoggingListener;
+import com.github.bradjacobs.logging.jdbc.listeners.SystemOutLogListener;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC Driver that wraps the connections of the 'real' driver in LoggingConnections.
+ *   Add "log:" after the "jdbc:" of the original url, i.e.
+ *      jdbc:hsqldb:mem:x  ==>  jdbc:log:hsqldb:mem:x
+ *
+ * The driver registers itself via the java.sql.Driver service file, thus no code changes are needed.
+ *
+ * Options can be given as url parameters or connection properties (properties take precedence),
+ *   all option names start with "log." and are removed before calling the real driver:
+ *      log.listener       comma separated: 'slf4j' (default), 'stdout' or a LoggingListener class name
+ *      log.logger         slf4j logger name
+ *      log.level          slf4j log level (default DEBUG)
+ *      log.dbType         database type (default is derived from the url)
+ *      log.zone           zone id used to render dates
+ *      log.sampleRate     fraction of statements to log (0.0 to 1.0)
+ *      log.clobParams     true to log clob parameters
+ *      log.fanOutRingSize deliver to the listeners asynchronously (see builder option 'fanOutRingSize')
+ *      log.enabled        false to return the real connection (i.e. to measure the logging overhead)
+ *
+ *  e.g.  jdbc:log:hsqldb:mem:x;log.listener=stdout;log.sampleRate=0.1
+ *        jdbc:log:postgresql://host/db?log.level=INFO&amp;user=bob
+ *
+ * Connections with identical options share the same listeners (and other shared objects),
+ *   like the connections of a LoggingDataSource.
+ */
+public class LoggingDriver implements Driver {
+    public static final String URL_PREFIX = "jdbc:log:";
+    public static final String OPTION_PREFIX = "log.";
+    public static final String DEFAULT_LOGGER_NAME = "com.github.bradjacobs.logging.jdbc";
+
+    private static final Pattern URL_OPTION_PATTERN = Pattern.compile("([;?&])log\\.(\\w+)=([^;&]*)");
+
+    private final ConcurrentMap<Map<String, String>, LoggingConnection.Builder> builders = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            DriverManager.registerDriver(new LoggingDriver());
+        }
+        catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** @inheritDoc */
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        Map<String, String> options = new TreeMap<>();
+        String targetUrl = extractUrlOptions(url, options);
+        Properties targetInfo = extractPropertyOptions(info, options);
+
+        Connection targetConnection = DriverManager.getConnection(targetUrl, targetInfo);
+        if (!Boolean.parseBoolean(options.getOrDefault("enabled", "true"))) {
+            return targetConnection;
+        }
+        try {
+            // the (resolved) dbType is part of the key, the same options for another kind of database need another builder
+            options.putIfAbsent("dbType", DatabaseType.identifyDatabaseType(targetUrl).name());
+            LoggingConnection.Builder builder = builders.computeIfAbsent(Collections.unmodifiableMap(options),
+                    LoggingDriver::createBuilder);
+            return new LoggingConnection(targetConnection, builder);
+        }
+        catch (RuntimeException e) {
+            // i.e. a malformed number, unknown listener class or invalid zone
+            SQLException sqlException = new SQLException("Invalid logging option for url: " + url, e);
+            try {
+                targetConnection.close();
+            }
+            catch (SQLException closeException) {
+                sqlException.addSuppressed(closeException);
+            }
+            throw sqlException;
+        }
+    }
+
+    /** @inheritDoc */
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    /** @inheritDoc */
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return new DriverPropertyInfo[0];
+        }
+        String targetUrl = extractUrlOptions(url, new TreeMap<>());
+        Properties targetInfo = extractPropertyOptions(info, new TreeMap<>());
+        return DriverManager.getDriver(targetUrl).getPropertyInfo(targetUrl, targetInfo);
+    }
+
+    /** @inheritDoc */
+    @Override
+    public int getMajorVersion() {
+        return 0;
+    }
+
+    /** @inheritDoc */
+    @Override
+    public int getMinorVersion() {
+        return 1;
+    }
+
+    /** @inheritDoc */
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    /** @inheritDoc */
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * Removes the "log." options from the url.
+     * @param url jdbc:log: url
+     * @param options receives the options (w/o the "log." prefix)
+     * @return url for the real driver
+     */
+    static String extractUrlOptions(String url, Map<String, String> options) {
+        String targetUrl = "jdbc:" + url.substring(URL_PREFIX.length());
+        Matcher matcher = URL_OPTION_PATTERN.matcher(targetUrl);
+        StringBuilder sb = new StringBuilder(targetUrl.length());
+        int position = 0;
+        boolean queryRemoved = false;
+        while (matcher.find()) {
+            queryRemoved = appendRemaining(sb, targetUrl.substring(position, matcher.start()), queryRemoved);
+            if ("?".equals(matcher.group(1))) {
+                queryRemoved = true;
+            }
+            options.put(matcher.group(2), matcher.group(3));
+            position = matcher.end();
+        }
+        appendRemaining(sb, targetUrl.substring(position), queryRemoved);
+        return sb.toString();
+    }
+
+    // if the '?' was removed along w/ an option, the next parameter starts the query string instead.
+    private static boolean appendRemaining(StringBuilder sb, String text, boolean queryRemoved) {
+        if (queryRemoved && text.startsWith("&")) {
+            sb.append('?').append(text, 1, text.length());
+            return false;
+        }
+        sb.append(text);
+        return queryRemoved;
+    }
+
+    /**
+     * Moves the "log." properties into the options.
+     * @return copy of the properties for the real driver
+     */
+    private static Properties extractPropertyOptions(Properties info, Map<String, String> options) {
+        Properties targetInfo = new Properties();
+        if (info == null) {
+            return targetInfo;
+        }
+        for (String name : info.stringPropertyNames()) {
+            String value = info.getProperty(name);
+            if (name.startsWith(OPTION_PREFIX)) {
+                options.put(name.substring(OPTION_PREFIX.length()), value);
+            }
+            else {
+                targetInfo.setProperty(name, value);
+            }
+        }
+        return targetInfo;
+    }
+
+    private static LoggingConnection.Builder createBuilder(Map<String, String> options) {
+        LoggingConnection.Builder builder = LoggingConnection.builder(null);
+        builder.loggingListeners(createListeners(options));
+        builder.dbType(DatabaseType.valueOf(options.get("dbType").toUpperCase(Locale.ROOT)));
+        if (options.containsKey("zone")) {
+            builder.zone(options.get("zone"));
+        }
+        if (options.containsKey("sampleRate")) {
+            builder.sampleRate(Double.parseDouble(options.get("sampleRate")));
+        }
+        if (options.containsKey("clobParams")) {
+            builder.clobParamLogging(Boolean.parseBoolean(options.get("clobParams")));
+        }
+        if (options.containsKey("fanOutRingSize")) {
+            builder.fanOutRingSize(Integer.parseInt(options.get("fanOutRingSize")));
+        }
+        builder.createSharedObjects();
+        return builder;
+    }
+
+    private static List<LoggingListener> createListeners(Map<String, String> options) {
+        List<LoggingListener> listeners = new ArrayList<>();
+        for (String name : options.getOrDefault("listener", "slf4j").split(",")) {
+            name = name.trim();
+            if (name.equalsIgnoreCase("slf4j")) {
+                Level level = Level.valueOf(options.getOrDefault("level", "DEBUG").toUpperCase(Locale.ROOT));
+                listeners.add(new Slf4jLoggingListener(
+                        LoggerFactory.getLogger(options.getOrDefault("logger", DEFAULT_LOGGER_NAME)), level));
+            }
+            else if (name.equalsIgnoreCase("stdout")) {
+                listeners.add(new SystemOutLogListener());
+            }
+            else if (!name.isEmpty()) {
+                listeners.add(instantiateListener(name));
+            }
+        }
+        return listeners;
+    }
+
+    private static LoggingListener instantiateListener(String className) {
+        try {
+            Class<?> clazz = Class.forName(className, true, LoggingDriver.class.getClassLoader());
+            if (!LoggingListener.class.isAssignableFrom(clazz)) {
+                throw new IllegalArgumentException("Class is not a LoggingListener: " + className);
+            }
+            return (LoggingListener) clazz.getConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Unable to create LoggingListener: " + className, e);
+        }
+    }
+}
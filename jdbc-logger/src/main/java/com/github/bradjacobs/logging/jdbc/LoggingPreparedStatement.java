@@ -1,5 +1,6 @@
 package com.github.bradjacobs.logging.jdbc;
 
+import com.github.bradjacobs.logging.jdbc.param.MaskedValue;
 import org.apache.commons.io.IOUtils;
 
 import java.io.ByteArrayInputStream;
@@ -36,23 +37,35 @@ import java.util.Calendar;
 public class LoggingPreparedStatement extends LoggingStatement implements PreparedStatement {
     // "PLACEHOLDERS" for certain parameters,
     //     because logging blobs and streams is typically not very useful.
-    private static final String BINARY_STREAM_VALUE_PLACEHOLDER = "{_BINARYSTREAM_}";
-    private static final String BLOB_VALUE_PLACEHOLDER = "{_BLOB_}";
-    private static final String UNICODE_STREAM_PLACEHOLDER = "{_UNICODESTREAM_}";
-    private static final String BYTES_VALUE_PLACEHOLDER = "{_BYTES_}";
-    private static final String TEXT_CLOB_VALUE_PLACEHOLDER = "{_CLOB_}";
+    protected static final String BINARY_STREAM_VALUE_PLACEHOLDER = "{_BINARYSTREAM_}";
+    protected static final String BLOB_VALUE_PLACEHOLDER = "{_BLOB_}";
+    protected static final String UNICODE_STREAM_PLACEHOLDER = "{_UNICODESTREAM_}";
+    protected static final String BYTES_VALUE_PLACEHOLDER = "{_BYTES_}";
+    protected static final String TEXT_CLOB_VALUE_PLACEHOLDER = "{_CLOB_}";
 
     // todo: use temp array placeholder until 'true' fix
     //    i.e. this _could_ throw exception if user were to set the wrong type:  myArray.toString()
-    private static final String ARRAY_VALUE_PLACEHOLDER = "{_ARRAY_}";
+    protected static final String ARRAY_VALUE_PLACEHOLDER = "{_ARRAY_}";
+
+    // a parameter that was set while logging was not active (rendered as-is, never replayed)
+    protected static final MaskedValue UNCAPTURED_VALUE = new MaskedValue("{_UNCAPTURED_}");
 
     private final PreparedStatement preparedStatement;
-    private final boolean clobParamLoggingEnabled;
+    private final LoggingConnection loggingConnection;
 
     public LoggingPreparedStatement(PreparedStatement preparedStatement, LoggingConnection loggingConnection, String sql) {
         super(preparedStatement, loggingConnection, sql);
         this.preparedStatement = preparedStatement;
-        this.clobParamLoggingEnabled = loggingConnection.isClobParamLoggingEnabled();
+        this.loggingConnection = loggingConnection;
+    }
+
+    /**
+     * @return true if the current execution should be tracked and logged
+     *   (a prepared statement always executes the same template, thus the statement filter is applied up front)
+     */
+    @Override
+    protected boolean isLoggingActive() {
+        return loggingConnection.isLoggingActive(sqlTracker.getTemplate());
     }
 
     /**
@@ -61,7 +74,17 @@ public class LoggingPreparedStatement extends LoggingStatement implements Prepar
      * @param value parameter value.
      */
     protected void setCurrentParameter(int index, Object value) {
-        this.sqlTracker.setParameter(index, value);
+        // if the statement gets executed w/ logging active later on (i.e. inside a LoggingScope),
+        //   the value is logged as not captured instead of as a stale value or a bare '?'
+        this.sqlTracker.setParameter(index, isLoggingActive() ? value : UNCAPTURED_VALUE);
+    }
+
+    /**
+     * @return true if the actual CLOB (stream/reader/SQLXML) values should be read for logging
+     *   (they're never read if the statement won't get logged)
+     */
+    protected boolean isClobCaptureActive() {
+        return loggingConnection.isClobParamLoggingEnabled() && isLoggingActive();
     }
 
     protected void clearLogParameters() {
@@ -85,29 +108,66 @@ public class LoggingPreparedStatement extends LoggingStatement implements Prepar
     /** @inheritDoc */
     @Override
     public boolean execute() throws SQLException {
-        logCurrent();
-        return preparedStatement.execute();
+        long startNanos = startTimer();
+        try {
+            return preparedStatement.execute();
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public ResultSet executeQuery() throws SQLException {
-        logCurrent();
-        return preparedStatement.executeQuery();
+        long startNanos = startTimer();
+        ResultSet resultSet;
+        try {
+            resultSet = preparedStatement.executeQuery();
+        }
+        catch (SQLException e) {
+            executionFailed(e);
+            logCurrent(startNanos);
+            throw e;
+        }
+        catch (Throwable t) {
+            logCurrent(startNanos);
+            throw t;
+        }
+        return logCurrentQuery(resultSet, startNanos);
     }
 
     /** @inheritDoc */
     @Override
     public int executeUpdate() throws SQLException {
-        logCurrent();
-        return preparedStatement.executeUpdate();
+        long startNanos = startTimer();
+        try {
+            return preparedStatement.executeUpdate();
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public long executeLargeUpdate() throws SQLException {
-        logCurrent();
-        return preparedStatement.executeLargeUpdate();
+        long startNanos = startTimer();
+        try {
+            return preparedStatement.executeLargeUpdate();
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
@@ -426,23 +486,7 @@ public class LoggingPreparedStatement extends LoggingStatement implements Prepar
     /** @inheritDoc */
     @Override
     public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
-        //  Note: this is a bit of a guess b/c many drivers don't support it
-        String sqlXmlString = null;
-        if (xmlObject != null) {
-            if (clobParamLoggingEnabled) {
-                try {
-                    sqlXmlString = xmlObject.getString();
-                }
-                catch (Exception e) {
-                    // if exception then throw a different error to show it occurred during the SQL logging process.
-                    throw new SQLException("Error attempting to get string value from SQLXML for Logging: " + e.getMessage(), e);
-                }
-            }
-            else {
-                sqlXmlString = TEXT_CLOB_VALUE_PLACEHOLDER;
-            }
-        }
-        setCurrentParameter(parameterIndex, sqlXmlString);
+        setCurrentParameter(parameterIndex, getSqlXmlString(xmlObject));
         preparedStatement.setSQLXML(parameterIndex, xmlObject);
     }
 
@@ -505,7 +549,7 @@ public class LoggingPreparedStatement extends LoggingStatement implements Prepar
     protected InputStream setCurrentStreamParameter(int index, InputStream inputStream) {
         String strValue = null;
         if (inputStream != null) {
-            if (clobParamLoggingEnabled) {
+            if (isClobCaptureActive()) {
                 strValue = extractString(inputStream);
                 inputStream = new ByteArrayInputStream(strValue.getBytes(StandardCharsets.UTF_8));
             }
@@ -529,7 +573,7 @@ public class LoggingPreparedStatement extends LoggingStatement implements Prepar
     protected Reader setCurrentReaderParameter(int index, Reader reader) {
         String strValue = null;
         if (reader != null) {
-            if (clobParamLoggingEnabled) {
+            if (isClobCaptureActive()) {
                 strValue = extractString(reader);
                 reader = new StringReader(strValue);
             }
@@ -544,7 +588,7 @@ public class LoggingPreparedStatement extends LoggingStatement implements Prepar
     protected String getClobString(Clob clob) throws SQLException {
         String clobString = null;
         if (clob != null) {
-            if (clobParamLoggingEnabled) {
+            if (isClobCaptureActive()) {
                 try {
                     long length = clob.length();
 
@@ -566,6 +610,26 @@ public class LoggingPreparedStatement extends LoggingStatement implements Prepar
         return clobString;
     }
 
+    protected String getSqlXmlString(SQLXML xmlObject) throws SQLException {
+        //  Note: this is a bit of a guess b/c many drivers don't support it
+        String sqlXmlString = null;
+        if (xmlObject != null) {
+            if (isClobCaptureActive()) {
+                try {
+                    sqlXmlString = xmlObject.getString();
+                }
+                catch (Exception e) {
+                    // if exception then throw a different error to show it occurred during the SQL logging process.
+                    throw new SQLException("Error attempting to get string value from SQLXML for Logging: " + e.getMessage(), e);
+                }
+            }
+            else {
+                sqlXmlString = TEXT_CLOB_VALUE_PLACEHOLDER;
+            }
+        }
+        return sqlXmlString;
+    }
+
     protected String extractString(Reader reader) {
         if (reader == null) {
             return null;
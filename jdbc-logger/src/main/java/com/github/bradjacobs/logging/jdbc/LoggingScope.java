@@ -0,0 +1,49 @@
+package com.github.bradjacobs.logging.jdbc;
+
+/**
+ * Turns on logging for the current thread only, for connections configured w/ 'threadScopedLogging'.
+ *   Statements executed on other threads (or outside of a scope) are not tracked, rendered or logged.
+ *
+ *   try (LoggingScope scope = LoggingScope.open()) {
+ *       // statements executed by this thread get logged
+ *   }
+ *
+ * Scopes can be nested, logging stays on until the outermost scope is closed.
+ * NOTE: a scope must be closed on the same thread that opened it.
+ */
+public final class LoggingScope implements AutoCloseable {
+    // nesting depth of the open scopes of the thread (a mutable holder, so an open scope is just a get)
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final int[] depth;
+    private boolean closed = false;
+
+    private LoggingScope(int[] depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * Opens a logging scope for the current thread.
+     * @return scope, to be closed when done
+     */
+    public static LoggingScope open() {
+        int[] depth = DEPTH.get();
+        depth[0]++;
+        return new LoggingScope(depth);
+    }
+
+    /**
+     * @return true if the current thread has an open logging scope
+     */
+    public static boolean isActive() {
+        return DEPTH.get()[0] > 0;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            depth[0]--;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.github.bradjacobs.logging.jdbc;
 
-import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
@@ -13,10 +13,17 @@ import java.util.List;
  * Logging Decorator around Statements
  */
 public class LoggingStatement implements Statement {
+    // 'startNanos' of an execution that is not logged
+    protected static final long NOT_LOGGED = Long.MIN_VALUE;
+
     private final Statement statement;
-    private final List<LoggingListener> loggingListeners;
     private final LoggingConnection loggingConnection;
     protected final SqlStatementTracker sqlTracker;
+    private LoggingResultSet currentResultSet = null;
+    // ExecutionListeners of the current execution, and of the query of the currentResultSet
+    private ExecutionScope executionScope = null;
+    private ExecutionScope resultSetScope = null;
+    private SQLException executionError = null;
 
     public LoggingStatement(Statement statement, LoggingConnection loggingConnection) {
         this(statement, loggingConnection, null);
@@ -26,54 +33,172 @@ public class LoggingStatement implements Statement {
         validateParams(statement, loggingConnection);
         this.statement = statement;
         this.loggingConnection = loggingConnection;
-        this.loggingListeners = loggingConnection.getLoggingListeners();
 
         if (sql != null) {
-            this.sqlTracker = new SqlStatementTracker(sql, loggingConnection.getSqlTagFiller());
+            this.sqlTracker = new SqlStatementTracker(sql, loggingConnection::getSqlTagFiller,
+                    loggingConnection::getParameterMasking,
+                    loggingConnection.getSqlTemplateRegistry(), loggingConnection.getConnectionId());
         }
         else {
-            this.sqlTracker = new SqlStatementTracker();
+            this.sqlTracker = new SqlStatementTracker(loggingConnection.getSqlTemplateRegistry(),
+                    loggingConnection.getConnectionId());
+        }
+    }
+
+    /**
+     * @return true if the current execution should be tracked and logged
+     *   (when false, all tracking is skipped, see LoggingScope)
+     */
+    protected boolean isLoggingActive() {
+        return loggingConnection.isLoggingActive();
+    }
+
+    /**
+     * Called right before the statement is executed.
+     * @return System.nanoTime() or NOT_LOGGED if the execution won't be logged (thus all tracking is skipped)
+     */
+    protected long startTimer() {
+        if (!isLoggingActive()) {
+            return NOT_LOGGED;
         }
+        executionScope = loggingConnection.executionStarted();
+        return System.nanoTime();
     }
 
-    protected void setAndLogCurrent(String sql) {
-        sqlTracker.setSql(sql);
-        logCurrent();
+    protected void setCurrentSql(String sql) {
+        if (isLoggingActive()) {
+            sqlTracker.setSql(sql);
+        }
     }
-    protected void logAndClearBatch() {
-        logCurrentBatch();
+    protected void logAndClearBatch(long startNanos) {
+        if (startNanos != NOT_LOGGED) {
+            logCurrentBatch(startNanos);
+        }
+        else {
+            executionError = null;
+        }
         sqlTracker.clearBatch();
     }
     protected void addLogBatch() {
-        sqlTracker.addBatch();
+        if (isLoggingActive()) {
+            sqlTracker.addBatch();
+        }
     }
     protected void addLogBatch(String sql) {
-        sqlTracker.addBatch(sql);
+        if (isLoggingActive()) {
+            sqlTracker.addBatch(sql);
+        }
     }
     protected void clearLogBatch() {
         sqlTracker.clearBatch();
     }
 
-    protected void logCurrent() {
-        log( sqlTracker.generateSql() );
+    /**
+     * Logs the current statement
+     * @param startNanos System.nanoTime() from right before the statement was executed (see startTimer).
+     */
+    protected void logCurrent(long startNanos) {
+        if (startNanos == NOT_LOGGED) {
+            executionError = null;
+            return;
+        }
+        StatementEvent event = sqlTracker.createEvent(System.nanoTime() - startNanos);
+        endExecution(event);
+        log(event);
+        reportExecutionError();
+    }
+
+    /**
+     * Logs all the statements of the current batch
+     * @param startNanos System.nanoTime() from right before the batch was executed.
+     */
+    protected void logCurrentBatch(long startNanos) {
+        List<StatementEvent> batchEventList = sqlTracker.createBatchEvents(System.nanoTime() - startNanos);
+        if (!batchEventList.isEmpty()) {
+            endExecution(batchEventList.get(0));
+        }
+        loggingConnection.logBatch(batchEventList);
+        reportExecutionError();
     }
 
-    protected void logCurrentBatch() {
-        List<String> batchSqlList = sqlTracker.generateBatchSql();
-        if (batchSqlList != null && batchSqlList.size() > 0) {
-            for (String sql : batchSqlList) {
-                log( sql );
-            }
+    /**
+     * Remembers the failure of the current execution, it gets reported once the statement itself has been logged.
+     * @param e exception from the statement execution
+     * @return the same exception (to be rethrown)
+     */
+    protected SQLException executionFailed(SQLException e) {
+        this.executionError = e;
+        return e;
+    }
+
+    private void endExecution(StatementEvent event) {
+        ExecutionScope scope = this.executionScope;
+        if (scope != null) {
+            this.executionScope = null;
+            scope.end(event);
         }
     }
 
-    protected void log(String sql) {
-        if (this.loggingListeners != null) {
-            for (LoggingListener loggingListener : loggingListeners) {
-                // NOTE: TBD to try/catch this or not
-                loggingListener.log(sql);
+    private void reportExecutionError() {
+        SQLException error = this.executionError;
+        if (error != null) {
+            this.executionError = null;
+            loggingConnection.executionFailed(error);
+        }
+    }
+
+    /**
+     * Logs the current query statement.
+     *   If ResultSet tracking is enabled, then the logging is deferred until the returned ResultSet is closed.
+     * @param resultSet resultSet from the query execution
+     * @param startNanos System.nanoTime() from right before the query was executed.
+     * @return the ResultSet to be given back to the caller.
+     */
+    protected ResultSet logCurrentQuery(ResultSet resultSet, long startNanos) {
+        if (!loggingConnection.isResultSetTrackingEnabled() || resultSet == null || startNanos == NOT_LOGGED) {
+            logCurrent(startNanos);
+            return resultSet;
+        }
+        // executing a statement implicitly closes its previous ResultSet
+        finishCurrentResultSet();
+
+        StatementEvent event = sqlTracker.createEvent(System.nanoTime() - startNanos);
+        LoggingResultSet loggingResultSet = new LoggingResultSet(resultSet, this, event);
+        loggingConnection.resultSetOpened(loggingResultSet);
+        this.currentResultSet = loggingResultSet;
+        // the ExecutionListeners see the query once its rows have been fetched
+        this.resultSetScope = this.executionScope;
+        this.executionScope = null;
+        return loggingResultSet;
+    }
+
+    /**
+     * Called by LoggingResultSet when it has finished
+     * @param loggingResultSet the resultSet
+     * @param event statement event, which now contains the fetch stats
+     */
+    void logFetched(LoggingResultSet loggingResultSet, StatementEvent event) {
+        if (currentResultSet == loggingResultSet) {
+            currentResultSet = null;
+            ExecutionScope scope = this.resultSetScope;
+            if (scope != null) {
+                this.resultSetScope = null;
+                scope.end(event);
             }
         }
+        loggingConnection.resultSetFinished(loggingResultSet);
+        log(event);
+    }
+
+    private void finishCurrentResultSet() {
+        LoggingResultSet resultSet = this.currentResultSet;
+        if (resultSet != null) {
+            resultSet.finish();
+        }
+    }
+
+    protected void log(StatementEvent event) {
+        loggingConnection.log(event);
     }
 
     /** @inheritDoc */
@@ -98,7 +223,12 @@ public class LoggingStatement implements Statement {
     /** @inheritDoc */
     @Override
     public void close() throws SQLException {
-        statement.close();
+        try {
+            statement.close();
+        }
+        finally {
+            finishCurrentResultSet();
+        }
     }
 
     /** @inheritDoc */
@@ -117,106 +247,244 @@ public class LoggingStatement implements Statement {
     /** @inheritDoc */
     @Override
     public boolean execute(String sql) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.execute(sql);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        try {
+            return statement.execute(sql);
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.execute(sql, autoGeneratedKeys);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        try {
+            return statement.execute(sql, autoGeneratedKeys);
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public boolean execute(String sql, int[] columnIndexes) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.execute(sql, columnIndexes);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        try {
+            return statement.execute(sql, columnIndexes);
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public boolean execute(String sql, String[] columnNames) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.execute(sql, columnNames);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        try {
+            return statement.execute(sql, columnNames);
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public int[] executeBatch() throws SQLException {
-        logAndClearBatch();
-        return statement.executeBatch();
+        long startNanos = startTimer();
+        try {
+            return statement.executeBatch();
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logAndClearBatch(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public ResultSet executeQuery(String sql) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.executeQuery(sql);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        ResultSet resultSet;
+        try {
+            resultSet = statement.executeQuery(sql);
+        }
+        catch (SQLException e) {
+            executionFailed(e);
+            logCurrent(startNanos);
+            throw e;
+        }
+        catch (Throwable t) {
+            logCurrent(startNanos);
+            throw t;
+        }
+        return logCurrentQuery(resultSet, startNanos);
     }
 
     /** @inheritDoc */
     @Override
     public int executeUpdate(String sql) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.executeUpdate(sql);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        try {
+            return statement.executeUpdate(sql);
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.executeUpdate(sql, autoGeneratedKeys);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        try {
+            return statement.executeUpdate(sql, autoGeneratedKeys);
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.executeUpdate(sql, columnIndexes);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        try {
+            return statement.executeUpdate(sql, columnIndexes);
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public int executeUpdate(String sql, String[] columnNames) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.executeUpdate(sql, columnNames);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        try {
+            return statement.executeUpdate(sql, columnNames);
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public long[] executeLargeBatch() throws SQLException {
-        logAndClearBatch();
-        return statement.executeLargeBatch();
+        long startNanos = startTimer();
+        try {
+            return statement.executeLargeBatch();
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logAndClearBatch(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public long executeLargeUpdate(String sql) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.executeLargeUpdate(sql);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        try {
+            return statement.executeLargeUpdate(sql);
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.executeLargeUpdate(sql, autoGeneratedKeys);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        try {
+            return statement.executeLargeUpdate(sql, autoGeneratedKeys);
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.executeLargeUpdate(sql, columnIndexes);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        try {
+            return statement.executeLargeUpdate(sql, columnIndexes);
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
     @Override
     public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
-        setAndLogCurrent(sql);
-        return statement.executeLargeUpdate(sql, columnNames);
+        setCurrentSql(sql);
+        long startNanos = startTimer();
+        try {
+            return statement.executeLargeUpdate(sql, columnNames);
+        }
+        catch (SQLException e) {
+            throw executionFailed(e);
+        }
+        finally {
+            logCurrent(startNanos);
+        }
     }
 
     /** @inheritDoc */
@@ -0,0 +1,146 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.event.NPlusOneEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Counts executions per sql template on a single connection between transaction boundaries
+ *   (commit / rollback / close).  Any template executed more than 'threshold' times with differing
+ *   parameters gets reported as a single NPlusOneEvent when the boundary is reached.
+ *
+ * Counters are kept in a small open-addressing table keyed by the template id (parallel primitive arrays),
+ *   so that recording an execution does not allocate.
+ *   Templates that didn't fit in the SqlTemplateRegistry (no id) are keyed by their sql hash instead,
+ *   thus detection keeps working when the registry is full.
+ */
+class NPlusOneDetector {
+    private static final int INITIAL_CAPACITY = 32;  // must be a power of 2
+
+    private final int threshold;
+    private final Consumer<LoggingEvent> downstream;
+
+    // slot is empty when templates[i] == null
+    private SqlTemplate[] templates = new SqlTemplate[INITIAL_CAPACITY];
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private int[] executionCounts = new int[INITIAL_CAPACITY];
+    private int[] distinctParamCounts = new int[INITIAL_CAPACITY];
+    private int[] lastParamHashes = new int[INITIAL_CAPACITY];
+    private long[] elapsedNanos = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    NPlusOneDetector(int threshold, Consumer<LoggingEvent> downstream) {
+        this.threshold = threshold;
+        this.downstream = downstream;
+    }
+
+    synchronized void record(StatementEvent event) {
+        SqlTemplate template = event.getSqlTemplate();
+        int key = toKey(template);
+        int slot = findSlot(templates, keys, key, template);
+        if (templates[slot] == null) {
+            if ((size + 1) * 2 > templates.length) {
+                resize();
+                slot = findSlot(templates, keys, key, template);
+            }
+            templates[slot] = template;
+            keys[slot] = key;
+            size++;
+        }
+
+        int paramHash = event.getParams().hashCode();
+        if (executionCounts[slot] == 0 || lastParamHashes[slot] != paramHash) {
+            distinctParamCounts[slot]++;
+        }
+        lastParamHashes[slot] = paramHash;
+        executionCounts[slot]++;
+        elapsedNanos[slot] += event.getElapsedNanos();
+    }
+
+    /**
+     * Report any suspicious templates and reset all the counters.
+     *   Called on commit, rollback and close.
+     */
+    synchronized void flush() {
+        if (size == 0) {
+            return;
+        }
+        for (int i = 0; i < templates.length; i++) {
+            // 'distinct' includes the very first execution, so need more than 1 to say the parameters differed.
+            if (templates[i] != null && executionCounts[i] > threshold && distinctParamCounts[i] > 1) {
+                downstream.accept(new NPlusOneEvent(templates[i], executionCounts[i], distinctParamCounts[i], elapsedNanos[i]));
+            }
+        }
+        Arrays.fill(templates, null);
+        Arrays.fill(executionCounts, 0);
+        Arrays.fill(distinctParamCounts, 0);
+        Arrays.fill(elapsedNanos, 0L);
+        size = 0;
+    }
+
+    /**
+     * @return the template id, or a (negative) key based on the sql for an unregistered template
+     */
+    private static int toKey(SqlTemplate template) {
+        if (template.isRegistered()) {
+            return template.getId();
+        }
+        String sql = template.getSql();
+        return (sql != null ? sql.hashCode() : 0) | 0x80000000;
+    }
+
+    private static int findSlot(SqlTemplate[] table, int[] tableKeys, int key, SqlTemplate template) {
+        int mask = table.length - 1;
+        int slot = mix(key) & mask;
+        while (table[slot] != null && !isMatch(table[slot], tableKeys[slot], key, template)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static boolean isMatch(SqlTemplate slotTemplate, int slotKey, int key, SqlTemplate template) {
+        if (slotKey != key) {
+            return false;
+        }
+        // registered ids are unique, while different unregistered sql strings can share a hash
+        return key >= 0 || slotTemplate == template || Objects.equals(slotTemplate.getSql(), template.getSql());
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void resize() {
+        SqlTemplate[] oldTemplates = templates;
+        int[] oldKeys = keys;
+        int[] oldExecutionCounts = executionCounts;
+        int[] oldDistinctParamCounts = distinctParamCounts;
+        int[] oldLastParamHashes = lastParamHashes;
+        long[] oldElapsedNanos = elapsedNanos;
+
+        int newCapacity = oldTemplates.length * 2;
+        templates = new SqlTemplate[newCapacity];
+        keys = new int[newCapacity];
+        executionCounts = new int[newCapacity];
+        distinctParamCounts = new int[newCapacity];
+        lastParamHashes = new int[newCapacity];
+        elapsedNanos = new long[newCapacity];
+
+        for (int i = 0; i < oldTemplates.length; i++) {
+            if (oldTemplates[i] != null) {
+                int slot = findSlot(templates, keys, oldKeys[i], oldTemplates[i]);
+                templates[slot] = oldTemplates[i];
+                keys[slot] = oldKeys[i];
+                executionCounts[slot] = oldExecutionCounts[i];
+                distinctParamCounts[slot] = oldDistinctParamCounts[i];
+                lastParamHashes[slot] = oldLastParamHashes[i];
+                elapsedNanos[slot] = oldElapsedNanos[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.param.MaskedValue;
+import com.github.bradjacobs.logging.jdbc.param.PlaceholderTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Masks sensitive parameter values (passwords, SSNs, card numbers, etc) before a statement gets logged.
+ *   A parameter is masked if any of the following rules apply:
+ *     - its column name is a masked column.  The column is resolved from the INSERT column list
+ *         or from the comparison/assignment it's part of (i.e. "password = ?", "ssn IN (?, ?)").
+ *         Works for every placeholder syntax (see PlaceholderTemplate), i.e. "password = :pwd" masks the slot of ':pwd'.
+ *     - its parameter index is masked for the given sql template.
+ *     - its (String) value matches a masked value regex.
+ *
+ * The column and index rules are compiled once per sql template into a bitmask (cached on the template).
+ *   A masked value is replaced w/ a MaskedValue placeholder right when the statement event is created,
+ *   thus the original value is never converted to a string, nor is it visible to any listener.
+ *
+ * NOTE: only the parameters of prepared/callable statements are masked, literal values in a plain sql string are not.
+ */
+public final class ParameterMasking {
+    public static final String DEFAULT_PLACEHOLDER = "{_MASKED_}";
+
+    private static final Set<String> COMPARISON_OPERATORS =
+            new HashSet<>(Arrays.asList("=", "<>", "!=", "<", ">", "<=", ">=", "like"));
+
+    private final Set<String> columns;
+    private final Map<String, int[]> templateIndexes;
+    private final List<Pattern> valuePatterns;
+    private final MaskedValue maskedValue;
+
+    private ParameterMasking(Builder builder) {
+        this.columns = Collections.unmodifiableSet(new HashSet<>(builder.columns));
+        this.templateIndexes = Collections.unmodifiableMap(new HashMap<>(builder.templateIndexes));
+        this.valuePatterns = Collections.unmodifiableList(new ArrayList<>(builder.valuePatterns));
+        this.maskedValue = new MaskedValue(builder.placeholder);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Replaces the masked values in the param map.
+     * @param template sql template of the params
+     * @param params parameter values (a copy owned by the caller, it gets modified)
+     */
+    void mask(SqlTemplate template, Map<Integer, Object> params) {
+        BitSet maskedIndexes = getMask(template).maskedIndexes;
+        for (int index = maskedIndexes.nextSetBit(0); index >= 0; index = maskedIndexes.nextSetBit(index + 1)) {
+            if (params.containsKey(index)) {
+                params.put(index, maskedValue);
+            }
+        }
+        if (valuePatterns.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Integer, Object> entry : params.entrySet()) {
+            Object value = entry.getValue();
+            // only String values are checked (other types would have to be converted first)
+            if (value instanceof String && matchesValuePattern((String) value)) {
+                entry.setValue(maskedValue);
+            }
+        }
+    }
+
+    /**
+     * @param template sql template
+     * @return the parameter indexes masked by the column/index rules (cached on the template)
+     */
+    BitSet getMaskedIndexes(SqlTemplate template) {
+        return (BitSet) getMask(template).maskedIndexes.clone();
+    }
+
+    private Mask getMask(SqlTemplate template) {
+        Mask mask = template.parameterMask;
+        if (mask == null || mask.masking != this) {
+            mask = new Mask(this, compile(template));
+            template.parameterMask = mask;
+        }
+        return mask;
+    }
+
+    private BitSet compile(SqlTemplate template) {
+        BitSet maskedIndexes = new BitSet();
+        String sql = template.getSql();
+        if (sql == null) {
+            return maskedIndexes;
+        }
+        if (!columns.isEmpty()) {
+            // the columns are resolved by placeholder (in sql order), then mapped to the placeholder's parameter slot
+            PlaceholderTemplate placeholders = template.getPlaceholders();
+            List<String> parameterColumns = resolveParameterColumns(placeholders.toPositionalSql());
+            int count = Math.min(parameterColumns.size(), placeholders.getPlaceholderCount());
+            for (int i = 0; i < count; i++) {
+                if (columns.contains(parameterColumns.get(i))) {
+                    maskedIndexes.set(placeholders.getPlaceholderSlot(i));
+                }
+            }
+        }
+        int[] indexes = templateIndexes.get(sql.trim());
+        if (indexes != null) {
+            for (int index : indexes) {
+                maskedIndexes.set(index);
+            }
+        }
+        return maskedIndexes;
+    }
+
+    private boolean matchesValuePattern(String value) {
+        for (Pattern valuePattern : valuePatterns) {
+            if (valuePattern.matcher(value).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compiled masking rules of a single template
+     *   (the masking reference guards against a different/swapped ParameterMasking).
+     */
+    static final class Mask {
+        private final ParameterMasking masking;
+        private final BitSet maskedIndexes;
+
+        private Mask(ParameterMasking masking, BitSet maskedIndexes) {
+            this.masking = masking;
+            this.maskedIndexes = maskedIndexes;
+        }
+    }
+
+    /**
+     * Finds the column of each parameter tag/question mark.
+     * @param sql sql string with tags/question marks
+     * @return the column name (lower case, w/o table/schema) of each parameter in order (null if not known)
+     */
+    static List<String> resolveParameterColumns(String sql) {
+        List<String> tokens = tokenize(sql);
+        String[] tokenColumns = new String[tokens.size()];
+        resolveInsertColumns(tokens, tokenColumns);
+
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            if (!tokens.get(i).equals("?")) {
+                continue;
+            }
+            String column = tokenColumns[i];
+            if (column == null) {
+                column = resolveComparisonColumn(tokens, i);
+            }
+            result.add(column);
+        }
+        return result;
+    }
+
+    /**
+     * i.e. "INSERT INTO tbl (a, b) VALUES (?, ?), (?, ?)"
+     */
+    private static void resolveInsertColumns(List<String> tokens, String[] tokenColumns) {
+        int i = tokens.indexOf("into");
+        if (i < 0 || i + 2 >= tokens.size() || !tokens.get(i + 2).equals("(")) {
+            return;
+        }
+        List<String> columnList = new ArrayList<>();
+        i += 3;
+        while (i < tokens.size() && !tokens.get(i).equals(")")) {
+            if (!tokens.get(i).equals(",")) {
+                columnList.add(tokens.get(i));
+            }
+            i++;
+        }
+        i++;
+        if (i >= tokens.size() || !tokens.get(i).equals("values")) {
+            return;
+        }
+        int depth = 0;
+        int element = 0;
+        for (i = i + 1; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (token.equals("(")) {
+                if (depth == 0) {
+                    element = 0;
+                }
+                depth++;
+            }
+            else if (token.equals(")")) {
+                depth--;
+                if (depth < 0) {
+                    return;
+                }
+            }
+            else if (depth == 0) {
+                if (!token.equals(",")) {
+                    // end of the value list (i.e. ON DUPLICATE KEY UPDATE, RETURNING)
+                    return;
+                }
+            }
+            else if (token.equals(",") && depth == 1) {
+                element++;
+            }
+            else if (token.equals("?") && element < columnList.size()) {
+                tokenColumns[i] = columnList.get(element);
+            }
+        }
+    }
+
+    /**
+     * i.e. "col = ?", "? = col", "col LIKE ?", "col IN (?, ?)", "col NOT IN (?)"
+     */
+    private static String resolveComparisonColumn(List<String> tokens, int tagIndex) {
+        String previous = tokenAt(tokens, tagIndex - 1);
+        if (COMPARISON_OPERATORS.contains(previous)) {
+            return identifierAt(tokens, tagIndex - 2);
+        }
+        if (previous.equals("(") || previous.equals(",")) {
+            // walk back to the start of the list
+            int i = tagIndex - 1;
+            while (i >= 0 && !tokens.get(i).equals("(")) {
+                String token = tokens.get(i);
+                if (!token.equals(",") && !token.equals("?")) {
+                    return null;
+                }
+                i--;
+            }
+            if (tokenAt(tokens, i - 1).equals("in")) {
+                int columnIndex = (tokenAt(tokens, i - 2).equals("not") ? i - 3 : i - 2);
+                return identifierAt(tokens, columnIndex);
+            }
+            return null;
+        }
+        if (COMPARISON_OPERATORS.contains(tokenAt(tokens, tagIndex + 1))) {
+            return identifierAt(tokens, tagIndex + 2);
+        }
+        return null;
+    }
+
+    private static String tokenAt(List<String> tokens, int index) {
+        return (index >= 0 && index < tokens.size() ? tokens.get(index) : "");
+    }
+
+    private static String identifierAt(List<String> tokens, int index) {
+        String token = tokenAt(tokens, index);
+        if (token.isEmpty()) {
+            return null;
+        }
+        char c = token.charAt(0);
+        return (Character.isLetter(c) || c == '_' ? token : null);
+    }
+
+    /**
+     * Splits the sql into lower case tokens, w/o comments and string literals (a literal becomes a single "'" token).
+     *   Qualified names are reduced to their last part (i.e. "app.users.password" becomes "password")
+     */
+    private static List<String> tokenize(String sql) {
+        List<String> tokens = new ArrayList<>();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            }
+            else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                int end = sql.indexOf('\n', i);
+                i = (end < 0 ? length : end + 1);
+            }
+            else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = (end < 0 ? length : end + 2);
+            }
+            else if (c == '\'') {
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                tokens.add("'");
+            }
+            else if (isNameStart(c)) {
+                String name = null;
+                while (i < length && isNameStart(sql.charAt(i))) {
+                    int start = i;
+                    char quote = sql.charAt(i);
+                    if (quote == '"' || quote == '`' || quote == '[') {
+                        char closing = (quote == '[' ? ']' : quote);
+                        int end = sql.indexOf(closing, i + 1);
+                        end = (end < 0 ? length : end);
+                        name = sql.substring(start + 1, end);
+                        i = Math.min(end + 1, length);
+                    }
+                    else {
+                        while (i < length && isNamePart(sql.charAt(i))) {
+                            i++;
+                        }
+                        name = sql.substring(start, i);
+                    }
+                    // qualified name
+                    if (i + 1 < length && sql.charAt(i) == '.' && isNameStart(sql.charAt(i + 1))) {
+                        i++;
+                    }
+                    else {
+                        break;
+                    }
+                }
+                tokens.add(name.toLowerCase(Locale.ROOT));
+            }
+            else if (Character.isDigit(c)) {
+                int start = i;
+                while (i < length && (isNamePart(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(sql.substring(start, i));
+            }
+            else if (c == '<' || c == '>' || c == '!' || c == '=') {
+                int start = i;
+                while (i < length && "<>!=".indexOf(sql.charAt(i)) >= 0) {
+                    i++;
+                }
+                tokens.add(sql.substring(start, i));
+            }
+            else {
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isNameStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '"' || c == '`' || c == '[';
+    }
+
+    private static boolean isNamePart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+    }
+
+    public static class Builder {
+        private final Set<String> columns = new HashSet<>();
+        private final Map<String, int[]> templateIndexes = new HashMap<>();
+        private final List<Pattern> valuePatterns = new ArrayList<>();
+        private String placeholder = DEFAULT_PLACEHOLDER;
+
+        private Builder() { }
+
+        /**
+         * Mask the parameters of these columns (case-insensitive, w/o table/schema)
+         * @param columns column names
+         * @return builder
+         */
+        public Builder columns(String... columns) {
+            return columns(Arrays.asList(columns));
+        }
+
+        public Builder columns(Collection<String> columns) {
+            for (String column : columns) {
+                if (column == null || column.trim().isEmpty()) {
+                    throw new IllegalArgumentException("Column name cannot be null or empty.");
+                }
+                this.columns.add(column.trim().toLowerCase(Locale.ROOT));
+            }
+            return this;
+        }
+
+        /**
+         * Mask the parameters at the given indexes of a specific sql template.
+         * @param sql sql template (with tags/question marks), as passed to prepareStatement/prepareCall
+         * @param parameterIndexes parameter indexes (1-based)
+         * @return builder
+         */
+        public Builder parameters(String sql, int... parameterIndexes) {
+            if (sql == null || sql.trim().isEmpty()) {
+                throw new IllegalArgumentException("Must provide a sql template.");
+            }
+            for (int parameterIndex : parameterIndexes) {
+                if (parameterIndex <= 0) {
+                    throw new IllegalArgumentException("Parameter index must be greater than zero.");
+                }
+            }
+            this.templateIndexes.merge(sql.trim(), parameterIndexes.clone(), (existing, added) -> {
+                int[] combined = Arrays.copyOf(existing, existing.length + added.length);
+                System.arraycopy(added, 0, combined, existing.length, added.length);
+                return combined;
+            });
+            return this;
+        }
+
+        /**
+         * Mask any String parameter value where the regex is found (i.e. a card number pattern)
+         *   NOTE: this rule needs to check each value, unlike the column/index rules.
+         * @param regex regular expression
+         * @return builder
+         */
+        public Builder valuePattern(String regex) {
+            return valuePattern(Pattern.compile(regex));
+        }
+
+        public Builder valuePattern(Pattern pattern) {
+            this.valuePatterns.add(pattern);
+            return this;
+        }
+
+        /**
+         * @param placeholder logged instead of a masked value (default: {_MASKED_})
+         * @return builder
+         */
+        public Builder placeholder(String placeholder) {
+            if (placeholder == null) {
+                throw new IllegalArgumentException("Must provide a placeholder.");
+            }
+            this.placeholder = placeholder;
+            return this;
+        }
+
+        public ParameterMasking build() {
+            return new ParameterMasking(this);
+        }
+    }
+}
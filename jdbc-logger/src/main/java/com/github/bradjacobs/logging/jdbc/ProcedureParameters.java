@@ -0,0 +1,173 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maps the parameter names of a stored procedure call to their parameter indexes (i.e. for CallableStatement.setInt("id_in", 1))
+ *   The names come from the procedure metadata of the database, since JDBC's ParameterMetaData doesn't have any names.
+ *
+ * NOTE: only calls where every argument is a '?' are resolved (i.e. "{call my_proc(?, ?)}" or "{? = call my_func(?)}"),
+ *   otherwise the names can't be reliably matched to the question marks.
+ */
+final class ProcedureParameters {
+    /** result when the parameter names could not be resolved */
+    static final Map<String, Integer> UNRESOLVED = Collections.emptyMap();
+
+    private static final Pattern CALL_PATTERN = Pattern.compile(
+            "^\\s*\\{?\\s*(\\?\\s*=\\s*)?call\\s+([\\w$#.\"]+)\\s*(?:\\((.*)\\))?\\s*}?\\s*;?\\s*$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private ProcedureParameters() { }
+
+    /**
+     * @param parameterName parameter name
+     * @return lookup key of the name (lower case, w/o a sql server '@' prefix)
+     */
+    static String toKey(String parameterName) {
+        String name = parameterName.trim();
+        if (name.startsWith("@") || name.startsWith(":")) {
+            name = name.substring(1);
+        }
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param connection connection used for the metadata lookup
+     * @param sql the stored procedure call
+     * @return parameter index keyed by parameter name (see toKey), or UNRESOLVED
+     */
+    static Map<String, Integer> resolve(Connection connection, String sql) {
+        Matcher matcher = CALL_PATTERN.matcher(sql != null ? sql : "");
+        if (!matcher.matches()) {
+            return UNRESOLVED;
+        }
+        boolean hasReturnValue = (matcher.group(1) != null);
+        int argumentCount = countArguments(matcher.group(3));
+        if (argumentCount < 0) {
+            return UNRESOLVED;
+        }
+
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String[] nameParts = matcher.group(2).split("\\.");
+            String procedureName = toIdentifier(metaData, nameParts[nameParts.length - 1]);
+            String schema = (nameParts.length > 1 ? toIdentifier(metaData, nameParts[nameParts.length - 2]) : null);
+            String catalog = (nameParts.length > 2 ? toIdentifier(metaData, nameParts[nameParts.length - 3]) : null);
+
+            // the schema and procedure name are search patterns, thus an '_' (or '%') in the name must be escaped
+            //   (the catalog is not a pattern)
+            String escape = metaData.getSearchStringEscape();
+            String schemaPattern = toSearchPattern(schema, escape);
+            String procedurePattern = toSearchPattern(procedureName, escape);
+            if (procedurePattern == null || (schema != null && schemaPattern == null)) {
+                return UNRESOLVED;
+            }
+
+            String returnName = null;
+            List<String> argumentNames = new ArrayList<>();
+            try (ResultSet resultSet = metaData.getProcedureColumns(catalog, schemaPattern, procedurePattern, "%")) {
+                while (resultSet.next()) {
+                    // in case the driver doesn't honor the escape
+                    if (!procedureName.equalsIgnoreCase(resultSet.getString("PROCEDURE_NAME"))) {
+                        continue;
+                    }
+                    String columnName = resultSet.getString("COLUMN_NAME");
+                    short columnType = resultSet.getShort("COLUMN_TYPE");
+                    if (columnType == DatabaseMetaData.procedureColumnReturn) {
+                        returnName = columnName;
+                    }
+                    else if (columnType != DatabaseMetaData.procedureColumnResult) {
+                        argumentNames.add(columnName);
+                    }
+                }
+            }
+            // i.e. an overloaded procedure, or a call relying on default values
+            if (argumentNames.size() != argumentCount) {
+                return UNRESOLVED;
+            }
+
+            Map<String, Integer> indexes = new HashMap<>();
+            int offset = 0;
+            if (hasReturnValue) {
+                offset = 1;
+                if (returnName != null) {
+                    indexes.put(toKey(returnName), 1);
+                }
+            }
+            for (int i = 0; i < argumentNames.size(); i++) {
+                if (argumentNames.get(i) != null) {
+                    indexes.put(toKey(argumentNames.get(i)), offset + i + 1);
+                }
+            }
+            return Collections.unmodifiableMap(indexes);
+        }
+        catch (SQLException | RuntimeException e) {
+            // the metadata is optional for logging, thus a failure just means the names won't get logged.
+            return UNRESOLVED;
+        }
+    }
+
+    /**
+     * @return number of arguments (-1 if any argument is something other than a '?')
+     */
+    private static int countArguments(String arguments) {
+        if (arguments == null || arguments.trim().isEmpty()) {
+            return 0;
+        }
+        String[] argumentList = arguments.split(",", -1);
+        for (String argument : argumentList) {
+            if (!argument.trim().equals("?")) {
+                return -1;
+            }
+        }
+        return argumentList.length;
+    }
+
+    /**
+     * @return the name w/ its search pattern characters escaped (null if the name can't be escaped)
+     */
+    static String toSearchPattern(String name, String escape) {
+        if (name == null) {
+            return null;
+        }
+        if (name.indexOf('_') < 0 && name.indexOf('%') < 0 && (escape == null || !name.contains(escape))) {
+            return name;
+        }
+        if (escape == null || escape.isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(name.length() + 8);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '_' || c == '%' || escape.indexOf(c) >= 0) {
+                sb.append(escape);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static String toIdentifier(DatabaseMetaData metaData, String name) throws SQLException {
+        if (name.startsWith("\"") && name.endsWith("\"") && name.length() > 1) {
+            return name.substring(1, name.length() - 1);
+        }
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+        if (metaData.storesLowerCaseIdentifiers()) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+        return name;
+    }
+}
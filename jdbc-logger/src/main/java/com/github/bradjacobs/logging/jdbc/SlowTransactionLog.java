@@ -0,0 +1,78 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.event.TransactionEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the N slowest (completed) transactions, along with their statement breakdown.
+ *   Typically shared by all the connections of a LoggingDataSource.
+ */
+public class SlowTransactionLog {
+    public static final int DEFAULT_CAPACITY = 10;
+
+    private static final Comparator<TransactionEvent> DURATION_COMPARATOR =
+            Comparator.comparingLong(TransactionEvent::getDurationNanos);
+
+    private final int capacity;
+    private final PriorityQueue<TransactionEvent> slowestQueue;  // min heap, i.e. the 'fastest' of the slow is at the head
+
+    // allows skipping the lock for transactions that are too fast to make the list.
+    private volatile long minDurationNanos = 0L;
+
+    public SlowTransactionLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SlowTransactionLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than zero.");
+        }
+        this.capacity = capacity;
+        this.slowestQueue = new PriorityQueue<>(capacity, DURATION_COMPARATOR);
+    }
+
+    /**
+     * Offer a completed transaction
+     * @param event COMMIT or ROLLBACK transaction event
+     */
+    public void offer(TransactionEvent event) {
+        if (event.getDurationNanos() <= minDurationNanos) {
+            return;
+        }
+        synchronized (slowestQueue) {
+            if (slowestQueue.size() >= capacity) {
+                if (event.getDurationNanos() <= slowestQueue.peek().getDurationNanos()) {
+                    return;
+                }
+                slowestQueue.poll();
+            }
+            slowestQueue.add(event);
+            if (slowestQueue.size() >= capacity) {
+                minDurationNanos = slowestQueue.peek().getDurationNanos();
+            }
+        }
+    }
+
+    /**
+     * @return the slowest transactions (slowest first)
+     */
+    public List<TransactionEvent> getSlowestTransactions() {
+        List<TransactionEvent> resultList;
+        synchronized (slowestQueue) {
+            resultList = new ArrayList<>(slowestQueue);
+        }
+        resultList.sort(DURATION_COMPARATOR.reversed());
+        return resultList;
+    }
+
+    public void clear() {
+        synchronized (slowestQueue) {
+            slowestQueue.clear();
+            minDurationNanos = 0L;
+        }
+    }
+}
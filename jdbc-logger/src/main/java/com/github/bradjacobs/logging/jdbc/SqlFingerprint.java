@@ -0,0 +1,125 @@
+package com.github.bradjacobs.logging.jdbc;
+
+/**
+ * Computes a 'fingerprint' of a sql string, such that statements that only differ by their
+ *   literal values, whitespace, keyword case or the length of an IN list get the same fingerprint.
+ *
+ * Example, all of these:
+ *     SELECT * FROM tbl WHERE id IN (?, ?) AND name = ?
+ *     select *  from tbl where id in (1, 2, 3) and name = 'Bob'
+ * normalize to:
+ *     select * from tbl where id in (?) and name = ?
+ */
+final class SqlFingerprint {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SqlFingerprint() { }
+
+    /**
+     * @param sql sql string
+     * @return 64-bit (FNV-1a) hash of the normalized sql
+     */
+    static long fingerprint(String sql) {
+        String normalized = normalize(sql);
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    static String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        int length = sql.length();
+        StringBuilder sb = new StringBuilder(length);
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+            }
+            else if (c == '\'') {
+                // string literal ('' is an escaped quote)
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                appendPlaceholder(sb);
+            }
+            else if (c == '"') {
+                // quoted identifier is kept as-is
+                int end = sql.indexOf('"', i + 1);
+                end = (end < 0 ? length : end + 1);
+                sb.append(sql, i, end);
+                i = end;
+            }
+            else if (Character.isDigit(c) && !endsWithIdentifierChar(sb)) {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                appendPlaceholder(sb);
+            }
+            else if (c == '?') {
+                i++;
+                appendPlaceholder(sb);
+            }
+            else {
+                sb.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        // trailing whitespace
+        int end = sb.length();
+        while (end > 0 && sb.charAt(end - 1) == ' ') {
+            end--;
+        }
+        sb.setLength(end);
+        return sb.toString();
+    }
+
+    /**
+     * Appends a '?' placeholder, unless it continues a list of placeholders (i.e. "?, ?, ?" becomes "?")
+     */
+    private static void appendPlaceholder(StringBuilder sb) {
+        int end = sb.length();
+        if (end > 0 && sb.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end > 1 && sb.charAt(end - 1) == ',') {
+            int prev = end - 1;
+            if (prev > 0 && sb.charAt(prev - 1) == ' ') {
+                prev--;
+            }
+            if (prev > 0 && sb.charAt(prev - 1) == '?') {
+                sb.setLength(prev);
+                return;
+            }
+        }
+        sb.append('?');
+    }
+
+    private static boolean endsWithIdentifierChar(StringBuilder sb) {
+        if (sb.length() == 0) {
+            return false;
+        }
+        char c = sb.charAt(sb.length() - 1);
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '"';
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.bradjacobs.logging.jdbc;
 
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
 import com.github.bradjacobs.logging.jdbc.param.SqlTagFiller;
 
 import java.util.ArrayList;
@@ -7,29 +8,56 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 class SqlStatementTracker {
-    private String sql;
-    private final SqlTagFiller sqlTagFiller;
+    private SqlTemplate template;
+    // supplies the current tag filler (null for plain statements, where the sql is logged as-is)
+    private final Supplier<SqlTagFiller> sqlTagFillerSupplier;
+    // supplies the current masking rules of the sensitive parameters (null for plain statements)
+    private final Supplier<ParameterMasking> parameterMaskingSupplier;
+    private final SqlTemplateRegistry templateRegistry;
+    private final long connectionId;
 
     private List<BatchItem> batchItems = null;
     private Map<Integer, Object> paramMap = null;
 
-    public SqlStatementTracker() {
-        this("", null);
+    public SqlStatementTracker(SqlTemplateRegistry templateRegistry, long connectionId) {
+        this("", null, null, templateRegistry, connectionId);
     }
 
-    public SqlStatementTracker(String sql, SqlTagFiller sqlTagFiller) {
-        this.sql = sql;
-        this.sqlTagFiller = sqlTagFiller;
+    public SqlStatementTracker(String sql, Supplier<SqlTagFiller> sqlTagFillerSupplier,
+                               Supplier<ParameterMasking> parameterMaskingSupplier,
+                               SqlTemplateRegistry templateRegistry, long connectionId) {
+        this.templateRegistry = templateRegistry;
+        this.connectionId = connectionId;
+        this.template = templateRegistry.getTemplate(sql);
+        this.sqlTagFillerSupplier = sqlTagFillerSupplier;
+        this.parameterMaskingSupplier = parameterMaskingSupplier;
+    }
+
+    public SqlTemplate getTemplate() {
+        return template;
+    }
+
+    private SqlTagFiller currentSqlTagFiller() {
+        return (sqlTagFillerSupplier != null ? sqlTagFillerSupplier.get() : null);
+    }
+
+    private ParameterMasking currentParameterMasking() {
+        return (parameterMaskingSupplier != null ? parameterMaskingSupplier.get() : null);
     }
 
     public void setSql(String sql) {
-        this.sql = sql;
+        // a plain Statement will often execute the same sql over and over, so skip the registry lookup.
+        if (!Objects.equals(sql, template.getSql())) {
+            this.template = templateRegistry.getTemplate(sql);
+        }
     }
 
     public void addBatch(String sql) {
-        this.sql = sql;
+        setSql(sql);
         addBatch();
     }
 
@@ -37,7 +65,8 @@ class SqlStatementTracker {
         if (this.batchItems == null) {
             this.batchItems = new ArrayList<>();
         }
-        this.batchItems.add(new BatchItem(sql, this.paramMap, this.sqlTagFiller));
+        this.batchItems.add(new BatchItem(template, this.paramMap, currentSqlTagFiller(),
+                currentParameterMasking(), this.connectionId));
     }
 
     public void clearBatch() {
@@ -46,22 +75,43 @@ class SqlStatementTracker {
         }
     }
 
-    public String generateSql() {
-        if (sqlTagFiller == null) {
-            return sql;
+    public StatementEvent createEvent(long elapsedNanos) {
+        SqlTagFiller sqlTagFiller = currentSqlTagFiller();
+        Map<Integer, Object> paramCopy = null;
+        if (sqlTagFiller != null && paramMap != null) {
+            // event makes its own copy of the params, so they don't get side-effected/modified.
+            paramCopy = new HashMap<>(paramMap);
+            maskParameters(this.template, paramCopy, currentParameterMasking());
         }
-        return sqlTagFiller.replace(this.sql, this.paramMap);
+        return new StatementEvent(this.template, paramCopy, sqlTagFiller, elapsedNanos, 0, this.connectionId);
     }
 
-    public List<String> generateBatchSql() {
+    /**
+     * Create an event for each statement in the current batch
+     * @param elapsedNanos execution time of the entire batch (gets divided evenly among the batch items)
+     * @return list of events
+     */
+    public List<StatementEvent> createBatchEvents(long elapsedNanos) {
         if (this.batchItems == null || this.batchItems.size() == 0) {
             return Collections.emptyList();
         }
-        List<String> sqlList = new ArrayList<>();
+        int batchSize = batchItems.size();
+        long itemElapsedNanos = elapsedNanos / batchSize;
+        List<StatementEvent> eventList = new ArrayList<>(batchSize);
         for (BatchItem batchItem : batchItems) {
-            sqlList.add(batchItem.generateSqlString());
+            eventList.add(batchItem.createEvent(itemElapsedNanos, batchSize));
+        }
+        return eventList;
+    }
+
+    /**
+     * Replaces the sensitive values in the (copied) params, before they get handed to an event.
+     */
+    private static void maskParameters(SqlTemplate template, Map<Integer, Object> paramCopy,
+                                       ParameterMasking parameterMasking) {
+        if (parameterMasking != null) {
+            parameterMasking.mask(template, paramCopy);
         }
-        return sqlList;
     }
 
     public void setParameter(int index, Object parameter) {
@@ -80,27 +130,28 @@ class SqlStatementTracker {
      * Represents each entry when 'batch' is used.
      */
     protected static class BatchItem {
-        private final String sql;
+        private final SqlTemplate template;
         private final Map<Integer, Object> paramMap;
         private final SqlTagFiller sqlTagFiller;
+        private final long connectionId;
 
-        public BatchItem(String sql, Map<Integer, Object> paramMap, SqlTagFiller sqlTagFiller) {
-            this.sql = sql;
+        public BatchItem(SqlTemplate template, Map<Integer, Object> paramMap, SqlTagFiller sqlTagFiller,
+                         ParameterMasking parameterMasking, long connectionId) {
+            this.template = template;
             this.sqlTagFiller = sqlTagFiller;
+            this.connectionId = connectionId;
             if (sqlTagFiller != null && paramMap != null) {
                 // batchItem makes its own copy of the params, so they don't get side-effected/modified.
                 this.paramMap = new HashMap<>(paramMap);
+                maskParameters(template, this.paramMap, parameterMasking);
             }
             else {
                 this.paramMap = null;
             }
         }
 
-        public String generateSqlString() {
-            if (sqlTagFiller == null) {
-                return sql;
-            }
-            return sqlTagFiller.replace(this.sql, this.paramMap);
+        public StatementEvent createEvent(long elapsedNanos, int batchSize) {
+            return new StatementEvent(this.template, this.paramMap, this.sqlTagFiller, elapsedNanos, batchSize, this.connectionId);
         }
     }
 }
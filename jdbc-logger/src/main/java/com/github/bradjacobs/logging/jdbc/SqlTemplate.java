@@ -0,0 +1,84 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.param.MultiRowInsertTemplate;
+import com.github.bradjacobs.logging.jdbc.param.PlaceholderTemplate;
+
+import java.util.Map;
+
+/**
+ * A sql string (with tags/question marks) along with a compact numeric id.
+ *   The id allows per-template bookkeeping to use primitive counters instead of string keys.
+ */
+public class SqlTemplate {
+    /** id given to sql strings that were not (or could not be) added to the registry */
+    public static final int UNREGISTERED_ID = -1;
+
+    private final int id;
+    private final String sql;
+    private volatile long fingerprint = 0L;   // lazy, 0 means 'not yet computed'
+    private volatile PlaceholderTemplate placeholders = null;   // lazy
+    volatile StatementFilter.Decision filterDecision = null;   // lazy, see StatementFilter
+    volatile ParameterMasking.Mask parameterMask = null;   // lazy, see ParameterMasking
+    volatile Map<String, Integer> procedureParameters = null;   // lazy, see ProcedureParameters
+    private MultiRowInsertTemplate multiRowInsert = null;
+    private volatile boolean multiRowInsertParsed = false;   // lazy (the template itself can be null)
+
+    public SqlTemplate(int id, String sql) {
+        this.id = id;
+        this.sql = sql;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return hash of the normalized sql, which is the same for statements that only differ
+     *   by literal values, whitespace, keyword case, etc.  (see SqlFingerprint)
+     */
+    public long getFingerprint() {
+        long result = fingerprint;
+        if (result == 0L) {
+            result = SqlFingerprint.fingerprint(sql);
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the parameter placeholders of the sql (parsed once, on first use)
+     */
+    public PlaceholderTemplate getPlaceholders() {
+        PlaceholderTemplate result = placeholders;
+        if (result == null) {
+            result = PlaceholderTemplate.parse(sql);
+            placeholders = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the sql as a multi-row INSERT template (parsed once, on first use),
+     *   or null if the sql is not a single row INSERT w/ placeholders
+     */
+    public MultiRowInsertTemplate getMultiRowInsert() {
+        if (!multiRowInsertParsed) {
+            multiRowInsert = MultiRowInsertTemplate.parse(sql);
+            multiRowInsertParsed = true;
+        }
+        return multiRowInsert;
+    }
+
+    public boolean isRegistered() {
+        return id != UNREGISTERED_ID;
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
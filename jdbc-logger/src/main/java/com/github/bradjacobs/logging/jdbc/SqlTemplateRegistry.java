@@ -0,0 +1,57 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out a SqlTemplate (with a dense numeric id) for each distinct sql string.
+ *   Shared by all the connections created from the same builder.
+ *
+ * NOTE: plain Statements w/ literal values can produce an unbounded number of distinct sql strings,
+ *   thus once 'maxTemplates' is reached any new sql string gets an 'unregistered' template instead.
+ */
+public class SqlTemplateRegistry {
+    public static final int DEFAULT_MAX_TEMPLATES = 10_000;
+
+    private final int maxTemplates;
+    private final ConcurrentMap<String, SqlTemplate> templateMap = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(0);
+
+    public SqlTemplateRegistry() {
+        this(DEFAULT_MAX_TEMPLATES);
+    }
+
+    public SqlTemplateRegistry(int maxTemplates) {
+        if (maxTemplates < 0) {
+            throw new IllegalArgumentException("maxTemplates cannot be negative.");
+        }
+        this.maxTemplates = maxTemplates;
+    }
+
+    /**
+     * Get the template for the given sql string
+     * @param sql sql string
+     * @return SqlTemplate
+     */
+    public SqlTemplate getTemplate(String sql) {
+        if (sql == null) {
+            return new SqlTemplate(SqlTemplate.UNREGISTERED_ID, null);
+        }
+        SqlTemplate template = templateMap.get(sql);
+        if (template != null) {
+            return template;
+        }
+        if (templateMap.size() >= maxTemplates) {
+            return new SqlTemplate(SqlTemplate.UNREGISTERED_ID, sql);
+        }
+        return templateMap.computeIfAbsent(sql, s -> new SqlTemplate(nextId.getAndIncrement(), s));
+    }
+
+    /**
+     * @return number of registered templates
+     */
+    public int size() {
+        return templateMap.size();
+    }
+}
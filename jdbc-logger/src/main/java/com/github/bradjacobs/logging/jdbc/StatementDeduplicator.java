@@ -0,0 +1,116 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.event.RepeatSummaryEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collapses runs of identical statements (i.e. N+1 loops)
+ *   The first statement of a run is passed along as normal, then the repeats
+ *   are only counted until the run ends, at which point a single summary event is passed along.
+ * A run ends when a different statement arrives, the window expires, or the transaction ends (commit/rollback/close).
+ *   The window expiry is also checked in the background, thus the summary of the last run is never held back
+ *   until the next statement (which may never come on an idle pooled connection).
+ */
+class StatementDeduplicator {
+    // shared by all deduplicators, only used to flush a run once its window has expired.
+    private static volatile ScheduledThreadPoolExecutor expiryScheduler = null;
+
+    private final DedupMode dedupMode;
+    private final long windowNanos;
+    private final Consumer<LoggingEvent> downstream;
+
+    private StatementEvent firstEvent = null;
+    private long windowStartNanos = 0L;
+    private int repeatCount = 0;
+    private long repeatElapsedNanos = 0L;
+    private ScheduledFuture<?> expiryFlush = null;
+
+    StatementDeduplicator(DedupMode dedupMode, long windowNanos, Consumer<LoggingEvent> downstream) {
+        this.dedupMode = dedupMode;
+        this.windowNanos = windowNanos;
+        this.downstream = downstream;
+    }
+
+    synchronized void log(StatementEvent event) {
+        long now = System.nanoTime();
+        if (firstEvent != null && (now - windowStartNanos) < windowNanos && isRepeat(event)) {
+            repeatCount++;
+            repeatElapsedNanos += event.getElapsedNanos();
+            if (expiryFlush == null) {
+                StatementEvent runEvent = firstEvent;
+                long delayNanos = windowNanos - (now - windowStartNanos);
+                expiryFlush = getExpiryScheduler().schedule(() -> expire(runEvent), delayNanos, TimeUnit.NANOSECONDS);
+            }
+            return;
+        }
+        flush();
+        firstEvent = event;
+        windowStartNanos = now;
+        downstream.accept(event);
+    }
+
+    /**
+     * Passes along the summary for the current run (if there were any repeats).
+     */
+    synchronized void flush() {
+        if (expiryFlush != null) {
+            expiryFlush.cancel(false);
+            expiryFlush = null;
+        }
+        if (repeatCount > 0) {
+            downstream.accept(new RepeatSummaryEvent(firstEvent, repeatCount, repeatElapsedNanos));
+        }
+        firstEvent = null;
+        repeatCount = 0;
+        repeatElapsedNanos = 0L;
+    }
+
+    /**
+     * Flushes the run once its window has expired (unless the run already ended)
+     * @param runEvent first event of the run the expiry was scheduled for
+     */
+    private synchronized void expire(StatementEvent runEvent) {
+        if (firstEvent != runEvent) {
+            return;
+        }
+        expiryFlush = null;
+        try {
+            flush();
+        }
+        catch (RuntimeException e) {
+            // don't let a listener error kill the scheduler
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor getExpiryScheduler() {
+        if (expiryScheduler == null) {
+            synchronized (StatementDeduplicator.class) {
+                if (expiryScheduler == null) {
+                    ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+                        Thread thread = new Thread(r, "jdbc-logger-dedup-flusher");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    // most runs end before their window expires, their cancelled flush must not linger in the queue
+                    scheduler.setRemoveOnCancelPolicy(true);
+                    expiryScheduler = scheduler;
+                }
+            }
+        }
+        return expiryScheduler;
+    }
+
+    private boolean isRepeat(StatementEvent event) {
+        if (!Objects.equals(firstEvent.getTemplate(), event.getTemplate())) {
+            return false;
+        }
+        return dedupMode == DedupMode.TEMPLATE_ONLY || firstEvent.getParams().equals(event.getParams());
+    }
+}
@@ -0,0 +1,283 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which statements get logged, by statement type, table name and/or regex.
+ *   All the configured criteria must match (an unset criteria matches anything),
+ *   use 'or' to combine filters, i.e. "DML on the orders table, or any DDL":
+ *
+ *   StatementFilter.builder().statementTypes(INSERT, UPDATE, DELETE).tables("orders").build()
+ *       .or(StatementFilter.builder().statementTypes(DDL).build());
+ *
+ * The decision is made once per sql template and cached on the template,
+ *   thus the per-execution cost is a single field read (and no sql gets rendered for a filtered statement).
+ *
+ * NOTE: table names are found with a simple scan for the table after FROM/JOIN/INTO/UPDATE/TABLE/USING,
+ *   so tables referenced in other ways (i.e. a subquery w/o FROM, a view, a procedure) are not seen.
+ */
+public final class StatementFilter {
+    private final Set<StatementType> statementTypes;
+    private final Set<String> tables;
+    private final List<Pattern> includePatterns;
+    private final List<Pattern> excludePatterns;
+    private final List<StatementFilter> alternatives;
+
+    private StatementFilter(Set<StatementType> statementTypes, Set<String> tables, List<Pattern> includePatterns,
+                            List<Pattern> excludePatterns, List<StatementFilter> alternatives) {
+        this.statementTypes = statementTypes;
+        this.tables = tables;
+        this.includePatterns = includePatterns;
+        this.excludePatterns = excludePatterns;
+        this.alternatives = alternatives;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param other another filter
+     * @return filter that accepts a statement if either this or the other filter accepts it
+     */
+    public StatementFilter or(StatementFilter other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Must provide a statementFilter.");
+        }
+        List<StatementFilter> combined = new ArrayList<>(alternatives);
+        combined.add(other);
+        return new StatementFilter(statementTypes, tables, includePatterns, excludePatterns,
+                Collections.unmodifiableList(combined));
+    }
+
+    /**
+     * @param template sql template
+     * @return true if statements of this template should be logged (cached on the template)
+     */
+    public boolean accept(SqlTemplate template) {
+        Decision decision = template.filterDecision;
+        if (decision != null && decision.filter == this) {
+            return decision.accepted;
+        }
+        boolean accepted = accept(template.getSql());
+        template.filterDecision = new Decision(this, accepted);
+        return accepted;
+    }
+
+    /**
+     * @param sql sql string
+     * @return true if the statement should be logged (not cached)
+     */
+    public boolean accept(String sql) {
+        return matches(new ParsedSql(sql));
+    }
+
+    private boolean matches(ParsedSql parsed) {
+        if (matchesCriteria(parsed)) {
+            return true;
+        }
+        for (StatementFilter alternative : alternatives) {
+            if (alternative.matches(parsed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesCriteria(ParsedSql parsed) {
+        if (!statementTypes.isEmpty() && !statementTypes.contains(parsed.getStatementType())) {
+            return false;
+        }
+        if (!tables.isEmpty() && Collections.disjoint(tables, parsed.getTables())) {
+            return false;
+        }
+        if (!includePatterns.isEmpty() && !anyMatch(includePatterns, parsed.sql)) {
+            return false;
+        }
+        return !anyMatch(excludePatterns, parsed.sql);
+    }
+
+    private static boolean anyMatch(List<Pattern> patterns, String sql) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(sql).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cached decision of a filter for a template (the filter reference guards against a different/swapped filter).
+     */
+    static final class Decision {
+        private final StatementFilter filter;
+        private final boolean accepted;
+
+        private Decision(StatementFilter filter, boolean accepted) {
+            this.filter = filter;
+            this.accepted = accepted;
+        }
+    }
+
+    /**
+     * Statement type and table names of a sql string (the tables are only extracted when needed)
+     */
+    private static final class ParsedSql {
+        private static final Set<String> TABLE_KEYWORDS =
+                new HashSet<>(Arrays.asList("from", "join", "into", "update", "table", "using"));
+
+        private final String sql;
+        private StatementType statementType = null;
+        private Set<String> tables = null;
+
+        private ParsedSql(String sql) {
+            this.sql = (sql != null ? sql : "");
+        }
+
+        private StatementType getStatementType() {
+            if (statementType == null) {
+                statementType = StatementType.of(sql);
+            }
+            return statementType;
+        }
+
+        /**
+         * @return the referenced table names (lower case), each with and w/o its schema qualifier.
+         */
+        private Set<String> getTables() {
+            if (tables == null) {
+                tables = extractTables(SqlFingerprint.normalize(sql));
+            }
+            return tables;
+        }
+
+        private static Set<String> extractTables(String normalized) {
+            Set<String> result = new HashSet<>();
+            String[] tokens = normalized.split("[\\s(),;]+");
+            for (int i = 0; i < tokens.length; i++) {
+                if (!TABLE_KEYWORDS.contains(tokens[i])) {
+                    continue;
+                }
+                int next = i + 1;
+                // i.e. "drop table if exists tbl"
+                while (next < tokens.length && (tokens[next].equals("if") || tokens[next].equals("not")
+                        || tokens[next].equals("exists") || tokens[next].equals("only"))) {
+                    next++;
+                }
+                if (next < tokens.length) {
+                    addTable(result, tokens[next]);
+                }
+            }
+            // comma separated FROM list, i.e. "from a x, b y"
+            String[] fromLists = normalized.split("\\bfrom\\b");
+            for (int f = 1; f < fromLists.length; f++) {
+                String[] entries = fromLists[f].split("\\b(where|group|order|having|limit|union|join|on)\\b")[0].split(",");
+                for (int i = 1; i < entries.length; i++) {
+                    String entry = entries[i].trim();
+                    if (!entry.isEmpty() && !entry.startsWith("?") && !entry.startsWith("(")) {
+                        addTable(result, entry.split("\\s+")[0]);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static void addTable(Set<String> result, String name) {
+            String table = name.replace("\"", "").toLowerCase(Locale.ROOT);
+            if (table.isEmpty() || table.equals("?")) {
+                return;
+            }
+            result.add(table);
+            int dot = table.lastIndexOf('.');
+            if (dot >= 0 && dot < table.length() - 1) {
+                result.add(table.substring(dot + 1));
+            }
+        }
+    }
+
+    public static class Builder {
+        private final Set<StatementType> statementTypes = EnumSet.noneOf(StatementType.class);
+        private final Set<String> tables = new HashSet<>();
+        private final List<Pattern> includePatterns = new ArrayList<>();
+        private final List<Pattern> excludePatterns = new ArrayList<>();
+
+        private Builder() { }
+
+        /**
+         * Only log statements of these types.
+         * @param statementTypes statement types
+         * @return builder
+         */
+        public Builder statementTypes(StatementType... statementTypes) {
+            this.statementTypes.addAll(Arrays.asList(statementTypes));
+            return this;
+        }
+
+        /**
+         * Only log statements that reference (at least one of) these tables.
+         *   Names are case-insensitive, and can be given w/ or w/o schema.
+         * @param tables table names
+         * @return builder
+         */
+        public Builder tables(String... tables) {
+            return tables(Arrays.asList(tables));
+        }
+
+        public Builder tables(Collection<String> tables) {
+            for (String table : tables) {
+                if (table == null || table.trim().isEmpty()) {
+                    throw new IllegalArgumentException("Table name cannot be null or empty.");
+                }
+                this.tables.add(table.trim().toLowerCase(Locale.ROOT));
+            }
+            return this;
+        }
+
+        /**
+         * Only log statements where (at least one of) the include regexes is found in the sql (template).
+         * @param regex regular expression
+         * @return builder
+         */
+        public Builder include(String regex) {
+            return include(Pattern.compile(regex));
+        }
+
+        public Builder include(Pattern pattern) {
+            this.includePatterns.add(pattern);
+            return this;
+        }
+
+        /**
+         * Don't log statements where the regex is found in the sql (template).
+         * @param regex regular expression
+         * @return builder
+         */
+        public Builder exclude(String regex) {
+            return exclude(Pattern.compile(regex));
+        }
+
+        public Builder exclude(Pattern pattern) {
+            this.excludePatterns.add(pattern);
+            return this;
+        }
+
+        public StatementFilter build() {
+            return new StatementFilter(
+                    Collections.unmodifiableSet(EnumSet.copyOf(statementTypes.isEmpty() ?
+                            EnumSet.noneOf(StatementType.class) : statementTypes)),
+                    Collections.unmodifiableSet(new HashSet<>(tables)),
+                    Collections.unmodifiableList(new ArrayList<>(includePatterns)),
+                    Collections.unmodifiableList(new ArrayList<>(excludePatterns)),
+                    Collections.emptyList());
+        }
+    }
+}
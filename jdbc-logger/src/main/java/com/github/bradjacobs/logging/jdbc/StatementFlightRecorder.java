@@ -0,0 +1,169 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Always-on, fixed size ring buffer of the most recent statements.
+ *   Statements are recorded 'as-is' (template + params), the SQL strings are only rendered when the buffer is dumped.
+ *
+ * Recording is a single atomic increment plus an array store, so it is cheap enough to leave enabled all the time.
+ *   A recorder can be shared by many connections (i.e. a LoggingDataSource)
+ *
+ * The buffer can be dumped on demand, and (optionally) whenever a statement execution fails.
+ *   A dump triggered by a failure is written on a background thread (from a snapshot taken at the time of the failure),
+ *   thus the failing call never waits on the dumpListener, nor sees any of its errors.
+ *
+ * NOTE: statements are only recorded while logging is active, i.e. nothing is recorded while logging is disabled
+ *   (or, w/ threadScopedLogging, for threads outside a LoggingScope).
+ */
+public class StatementFlightRecorder {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static volatile ExecutorService dumpExecutor = null;
+
+    private final AtomicReferenceArray<StatementEvent> slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong(0L);
+
+    private final LoggingListener dumpListener;
+    private final long errorDumpIntervalNanos;
+    private final AtomicLong lastErrorDumpNanos = new AtomicLong();
+    private volatile boolean errorDumped = false;
+
+    public StatementFlightRecorder(LoggingListener dumpListener) {
+        this(DEFAULT_CAPACITY, dumpListener, Duration.ZERO);
+    }
+
+    /**
+     * Constructor
+     * @param capacity number of statements to keep (rounded up to a power of 2)
+     * @param dumpListener where the statements are written to when the recorder is dumped
+     * @param errorDumpInterval min time between dumps triggered by a failed statement (zero to never dump on errors)
+     */
+    public StatementFlightRecorder(int capacity, LoggingListener dumpListener, Duration errorDumpInterval) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        if (dumpListener == null) {
+            throw new IllegalArgumentException("Must provide a dumpListener.");
+        }
+        int size = (capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.dumpListener = dumpListener;
+        this.errorDumpIntervalNanos = (errorDumpInterval != null ? errorDumpInterval.toNanos() : 0L);
+    }
+
+    /**
+     * Records the statement (overwriting the oldest statement once the buffer is full)
+     * @param event statement event
+     */
+    public void record(StatementEvent event) {
+        long index = sequence.getAndIncrement();
+        // NOTE: lazySet is enough, a dump doesn't need to see a statement that is recorded at the same time.
+        slots.lazySet((int) (index & mask), event);
+    }
+
+    /**
+     * @return number of statements recorded since creation (including the ones that were overwritten)
+     */
+    public long getRecordedCount() {
+        return sequence.get();
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Get a snapshot of the recorded statements.
+     *   NOTE: statements recorded while taking the snapshot might be missing (or overwritten)
+     * @return statements, oldest first
+     */
+    public List<StatementEvent> getRecentStatements() {
+        long end = sequence.get();
+        long start = Math.max(0L, end - slots.length());
+        List<StatementEvent> events = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            StatementEvent event = slots.get((int) (i & mask));
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Writes the recorded statements to the dumpListener (this is where the SQL gets rendered)
+     */
+    public void dump() {
+        dump("requested");
+    }
+
+    private void dump(String reason) {
+        dump(reason, getRecentStatements());
+    }
+
+    private void dump(String reason, List<StatementEvent> events) {
+        dumpListener.log(String.format(Locale.ROOT, "-- FLIGHT RECORDER DUMP (%s): last %,d statements", reason, events.size()));
+        for (StatementEvent event : events) {
+            dumpListener.log(event);
+        }
+        dumpListener.log("-- END FLIGHT RECORDER DUMP");
+    }
+
+    /**
+     * Called when a statement execution fails (after the failed statement was recorded)
+     * @param e the exception from the statement execution
+     */
+    void executionFailed(SQLException e) {
+        if (errorDumpIntervalNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = lastErrorDumpNanos.get();
+        if (errorDumped && now - last < errorDumpIntervalNanos) {
+            return;
+        }
+        // only one thread gets to do the dump
+        if (lastErrorDumpNanos.compareAndSet(last, now)) {
+            errorDumped = true;
+            String reason = "statement failed: " + e.getMessage();
+            List<StatementEvent> events = getRecentStatements();
+            getDumpExecutor().execute(() -> {
+                try {
+                    dump(reason, events);
+                }
+                catch (RuntimeException ex) {
+                    // don't let a listener error kill the dump thread
+                }
+            });
+        }
+    }
+
+    private static ExecutorService getDumpExecutor() {
+        if (dumpExecutor == null) {
+            synchronized (StatementFlightRecorder.class) {
+                if (dumpExecutor == null) {
+                    dumpExecutor = Executors.newSingleThreadExecutor(r -> {
+                        Thread thread = new Thread(r, "jdbc-logger-flight-recorder");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return dumpExecutor;
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import java.util.Locale;
+
+/**
+ * Kind of sql statement, based on its leading keyword.
+ */
+public enum StatementType {
+    SELECT,
+    INSERT,
+    UPDATE,
+    DELETE,
+    DDL,
+    CALL,
+    OTHER;
+
+    /**
+     * @param sql sql string
+     * @return statement type (OTHER if not recognized)
+     */
+    public static StatementType of(String sql) {
+        return ofKeyword(leadingKeyword(sql));
+    }
+
+    private static StatementType ofKeyword(String keyword) {
+        switch (keyword) {
+            case "select":
+            case "with":
+            case "values":
+                return SELECT;
+            case "insert":
+                return INSERT;
+            case "update":
+                return UPDATE;
+            case "delete":
+                return DELETE;
+            case "create":
+            case "alter":
+            case "drop":
+            case "truncate":
+            case "rename":
+            case "comment":
+            case "grant":
+            case "revoke":
+                return DDL;
+            case "call":
+            case "exec":
+            case "execute":
+                return CALL;
+            default:
+                return OTHER;
+        }
+    }
+
+    /**
+     * @return the first keyword of the sql (lower case), skipping comments, parentheses and the jdbc call escape syntax.
+     */
+    static String leadingKeyword(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c) || c == '(' || c == '{' || c == '?' || c == '=') {
+                // i.e. "{call proc(?)}" or "{? = call proc(?)}"
+                i++;
+            }
+            else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                int end = sql.indexOf('\n', i);
+                i = (end < 0 ? length : end + 1);
+            }
+            else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = (end < 0 ? length : end + 2);
+            }
+            else {
+                break;
+            }
+        }
+        int start = i;
+        while (i < length && Character.isLetter(sql.charAt(i))) {
+            i++;
+        }
+        return sql.substring(start, i).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.event.TemplateStats;
+import com.github.bradjacobs.logging.jdbc.event.TransactionEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the transaction boundaries of a single connection.
+ *   A transaction 'begins' with the first statement executed while autoCommit is off
+ *   and ends on commit, rollback, setAutoCommit(true) or close.
+ */
+class TransactionTracker {
+    private final Consumer<LoggingEvent> downstream;
+    private final SlowTransactionLog slowTransactionLog;
+
+    private boolean autoCommit;
+    private boolean active = false;
+    private long beginNanos = 0L;
+    private long beginTimestamp = 0L;
+    private int statementCount = 0;
+    private long statementElapsedNanos = 0L;
+    // keyed by template sql (unregistered templates don't have a usable id)
+    private final Map<String, TemplateCounter> templateCounters = new HashMap<>();
+
+    TransactionTracker(boolean autoCommit, SlowTransactionLog slowTransactionLog, Consumer<LoggingEvent> downstream) {
+        this.autoCommit = autoCommit;
+        this.slowTransactionLog = slowTransactionLog;
+        this.downstream = downstream;
+    }
+
+    SlowTransactionLog getSlowTransactionLog() {
+        return slowTransactionLog;
+    }
+
+    synchronized void record(StatementEvent event) {
+        if (autoCommit) {
+            return;
+        }
+        if (!active) {
+            active = true;
+            // statement has already executed, so the transaction started right before it.
+            //   (the event can arrive well after the execution, i.e. once its ResultSet was closed)
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(event.getElapsedNanos());
+            beginNanos = event.getStartNanos();
+            beginTimestamp = event.getTimestamp() - elapsedMillis;
+            downstream.accept(new TransactionEvent(beginTimestamp));
+        }
+        statementCount++;
+        statementElapsedNanos += event.getElapsedNanos();
+
+        TemplateCounter counter = templateCounters.get(event.getTemplate());
+        if (counter == null) {
+            counter = new TemplateCounter(event.getSqlTemplate());
+            templateCounters.put(event.getTemplate(), counter);
+        }
+        counter.executionCount++;
+        counter.elapsedNanos += event.getElapsedNanos();
+    }
+
+    /**
+     * Called after the connection autoCommit value was changed.
+     * @param newAutoCommit new autoCommit value
+     * @param startNanos System.nanoTime() from right before setAutoCommit was called
+     */
+    synchronized void autoCommitChanged(boolean newAutoCommit, long startNanos) {
+        // per JDBC spec, turning autoCommit back on commits the active transaction.
+        if (newAutoCommit && !autoCommit) {
+            end(TransactionEvent.Type.COMMIT, startNanos);
+        }
+        this.autoCommit = newAutoCommit;
+    }
+
+    /**
+     * Ends the active transaction (if any)
+     * @param type COMMIT or ROLLBACK
+     * @param startNanos System.nanoTime() from right before the commit/rollback was called.
+     */
+    synchronized void end(TransactionEvent.Type type, long startNanos) {
+        if (!active) {
+            return;
+        }
+        long endNanos = System.nanoTime();
+        List<TemplateStats> breakdown = new ArrayList<>(templateCounters.size());
+        for (TemplateCounter counter : templateCounters.values()) {
+            breakdown.add(new TemplateStats(counter.template, counter.executionCount, counter.elapsedNanos));
+        }
+        breakdown.sort(Comparator.comparingLong(TemplateStats::getTotalElapsedNanos).reversed());
+
+        TransactionEvent event = new TransactionEvent(type, beginTimestamp, statementCount, statementElapsedNanos,
+                endNanos - startNanos, endNanos - beginNanos, breakdown);
+
+        active = false;
+        statementCount = 0;
+        statementElapsedNanos = 0L;
+        templateCounters.clear();
+
+        if (slowTransactionLog != null) {
+            slowTransactionLog.offer(event);
+        }
+        downstream.accept(event);
+    }
+
+    private static class TemplateCounter {
+        private final SqlTemplate template;
+        private int executionCount = 0;
+        private long elapsedNanos = 0L;
+
+        private TemplateCounter(SqlTemplate template) {
+            this.template = template;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.bradjacobs.logging.jdbc.event;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warning that a connection has been held (not closed) longer than the configured leak detection threshold.
+ */
+public class ConnectionLeakEvent extends LoggingEvent {
+    private final long borrowTimestamp;
+    private final long heldNanos;
+    private final String threadName;
+    private final Throwable borrowStack;
+
+    /**
+     * Constructor
+     * @param borrowTimestamp epoch millis of when the connection was borrowed
+     * @param heldNanos how long the connection has been held so far
+     * @param threadName name of the thread that borrowed the connection
+     * @param borrowStack stack trace of the borrow (null if the borrow was not sampled)
+     */
+    public ConnectionLeakEvent(long borrowTimestamp, long heldNanos, String threadName, Throwable borrowStack) {
+        this.borrowTimestamp = borrowTimestamp;
+        this.heldNanos = heldNanos;
+        this.threadName = threadName;
+        this.borrowStack = borrowStack;
+    }
+
+    public long getBorrowTimestamp() {
+        return borrowTimestamp;
+    }
+
+    public long getHeldNanos() {
+        return heldNanos;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * @return stack trace of where the connection was borrowed, or null if the borrow was not sampled.
+     */
+    public Throwable getBorrowStack() {
+        return borrowStack;
+    }
+
+    @Override
+    public String getMessage() {
+        double seconds = heldNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        String message = String.format(Locale.ROOT,
+                "-- WARNING possible connection leak: connection held for %.1fs by thread '%s'", seconds, threadName);
+        if (borrowStack == null) {
+            return message + " (borrow stack trace not sampled)";
+        }
+        StringWriter stringWriter = new StringWriter();
+        borrowStack.printStackTrace(new PrintWriter(stringWriter));
+        return message + System.lineSeparator() + stringWriter;
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.bradjacobs.logging.jdbc.event;
+
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warning that a LoggingListener was (temporarily) disabled after repeated failures or slow calls.
+ *   Sent to all the other listeners.
+ */
+public class ListenerDisabledEvent extends LoggingEvent {
+    private final LoggingListener listener;
+    private final int consecutiveFailures;
+    private final long disabledNanos;
+    private final Throwable lastFailure;
+
+    /**
+     * Constructor
+     * @param listener the disabled listener
+     * @param consecutiveFailures number of consecutive failed/slow calls that caused it to be disabled
+     * @param disabledNanos how long the listener is disabled before it gets re-probed
+     * @param lastFailure last exception thrown by the listener (null if it was disabled due to slow calls)
+     */
+    public ListenerDisabledEvent(LoggingListener listener, int consecutiveFailures, long disabledNanos, Throwable lastFailure) {
+        this.listener = listener;
+        this.consecutiveFailures = consecutiveFailures;
+        this.disabledNanos = disabledNanos;
+        this.lastFailure = lastFailure;
+    }
+
+    public LoggingListener getListener() {
+        return listener;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public long getDisabledNanos() {
+        return disabledNanos;
+    }
+
+    public Throwable getLastFailure() {
+        return lastFailure;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format(Locale.ROOT, "-- WARNING logging listener %s disabled for %,ds after %,d consecutive failed/slow calls%s",
+                listener.getClass().getName(), TimeUnit.NANOSECONDS.toSeconds(disabledNanos), consecutiveFailures,
+                (lastFailure != null ? ": " + lastFailure : ""));
+    }
+}
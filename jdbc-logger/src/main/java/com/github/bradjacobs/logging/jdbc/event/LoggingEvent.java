@@ -0,0 +1,35 @@
+package com.github.bradjacobs.logging.jdbc.event;
+
+/**
+ * Base class for everything that gets handed to a LoggingListener.
+ *   Subclasses carry the structured details, while 'getMessage' is
+ *   the plain log line for listeners that only care about text.
+ */
+public abstract class LoggingEvent {
+    private final long timestamp;
+
+    protected LoggingEvent() {
+        this(System.currentTimeMillis());
+    }
+
+    protected LoggingEvent(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return epoch millis of when the event was created.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the log line representation of this event.
+     */
+    public abstract String getMessage();
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+}
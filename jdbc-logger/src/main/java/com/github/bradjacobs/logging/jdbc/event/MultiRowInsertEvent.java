@@ -0,0 +1,112 @@
+package com.github.bradjacobs.logging.jdbc.event;
+
+import com.github.bradjacobs.logging.jdbc.SqlTemplate;
+import com.github.bradjacobs.logging.jdbc.param.SqlTagFiller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Several rows of a batched single row INSERT, logged as one multi-row INSERT statement.
+ *   i.e. "INSERT INTO t (a, b) VALUES (1, 'x'),(2, 'y'),(3, 'z')"
+ *   Like a StatementEvent, the SQL string is only generated the first time it is requested.
+ *
+ * The StatementEvent of each row is kept as well (see getStatementEvents), for listeners that
+ *   need the individual statements (i.e. a journal or a workload capture).
+ */
+public class MultiRowInsertEvent extends LoggingEvent {
+    private final SqlTemplate template;
+    private final List<StatementEvent> statementEvents;
+    private final List<Map<Integer, Object>> rows;
+    private final SqlTagFiller sqlTagFiller;
+    private final long elapsedNanos;
+    private final int batchSize;
+    private final long connectionId;
+
+    private String sql = null;
+
+    /**
+     * Constructor
+     * @param template sql template of a single row (must have a MultiRowInsertTemplate)
+     * @param statementEvents statement event of each row (the event assumes it now owns this list)
+     * @param sqlTagFiller used to fill in the tags
+     * @param batchSize size of the batch the rows were part of
+     * @param connectionId id of the LoggingConnection that executed the batch
+     */
+    public MultiRowInsertEvent(SqlTemplate template, List<StatementEvent> statementEvents, SqlTagFiller sqlTagFiller,
+                               int batchSize, long connectionId) {
+        this.template = template;
+        this.statementEvents = Collections.unmodifiableList(statementEvents);
+        List<Map<Integer, Object>> rowList = new ArrayList<>(statementEvents.size());
+        long totalNanos = 0L;
+        for (StatementEvent event : statementEvents) {
+            rowList.add(event.getParams());
+            totalNanos += event.getElapsedNanos();
+        }
+        this.rows = Collections.unmodifiableList(rowList);
+        this.sqlTagFiller = sqlTagFiller;
+        this.elapsedNanos = totalNanos;
+        this.batchSize = batchSize;
+        this.connectionId = connectionId;
+    }
+
+    /**
+     * @return sql template of a single row
+     */
+    public SqlTemplate getSqlTemplate() {
+        return template;
+    }
+
+    /**
+     * @return statement event of each row (in batch order)
+     */
+    public List<StatementEvent> getStatementEvents() {
+        return statementEvents;
+    }
+
+    /**
+     * @return parameter values of each row, keyed by parameter index
+     */
+    public List<Map<Integer, Object>> getRows() {
+        return rows;
+    }
+
+    /**
+     * @return execution time in nanoseconds (the batch time divided evenly among the rows)
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return size of the batch that the rows were executed with
+     *   (can be larger than the row count, when a batch is split across several events)
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return id of the LoggingConnection that executed the batch
+     */
+    public long getConnectionId() {
+        return connectionId;
+    }
+
+    /**
+     * @return 'filled in' multi-row INSERT statement.
+     */
+    public String getSql() {
+        if (sql == null) {
+            sql = template.getMultiRowInsert().render(rows, sqlTagFiller);
+        }
+        return sql;
+    }
+
+    @Override
+    public String getMessage() {
+        return getSql();
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.bradjacobs.logging.jdbc.event;
+
+import com.github.bradjacobs.logging.jdbc.SqlTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warning that a single sql template was executed an excessive number of times (with differing parameters)
+ *   within one transaction, which typically indicates an N+1 query pattern.
+ */
+public class NPlusOneEvent extends LoggingEvent {
+    private final SqlTemplate template;
+    private final int executionCount;
+    private final int distinctParamCount;
+    private final long totalElapsedNanos;
+
+    public NPlusOneEvent(SqlTemplate template, int executionCount, int distinctParamCount, long totalElapsedNanos) {
+        this.template = template;
+        this.executionCount = executionCount;
+        this.distinctParamCount = distinctParamCount;
+        this.totalElapsedNanos = totalElapsedNanos;
+    }
+
+    public SqlTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return number of times the template was executed.
+     */
+    public int getExecutionCount() {
+        return executionCount;
+    }
+
+    /**
+     * @return (approximate) number of executions that had different parameter values than the execution before it.
+     */
+    public int getDistinctParamCount() {
+        return distinctParamCount;
+    }
+
+    /**
+     * @return summed execution time of all the executions.
+     */
+    public long getTotalElapsedNanos() {
+        return totalElapsedNanos;
+    }
+
+    @Override
+    public String getMessage() {
+        double seconds = totalElapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        return String.format(Locale.ROOT, "-- WARNING possible N+1 query: executed %,d times (%,d with differing parameters), total %.3fs: %s",
+                executionCount, distinctParamCount, seconds, template.getSql());
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.bradjacobs.logging.jdbc.event;
+
+import com.github.bradjacobs.logging.jdbc.SqlTemplate;
+import com.github.bradjacobs.logging.jdbc.param.SqlTagFiller;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * The OUT/INOUT parameter values of a stored procedure call, as they were read by the application (via getX)
+ *   Only the values the application actually read are included, they're never fetched just for logging.
+ */
+public class OutParametersEvent extends LoggingEvent {
+    private final SqlTemplate template;
+    private final SortedMap<Integer, Object> values;
+    private final SqlTagFiller sqlTagFiller;
+    private final long connectionId;
+
+    /**
+     * Constructor
+     * @param template sql template of the call
+     * @param values values keyed by parameter index (the event assumes it now owns this map)
+     * @param sqlTagFiller used to render the values
+     * @param connectionId id of the LoggingConnection that executed the call
+     */
+    public OutParametersEvent(SqlTemplate template, SortedMap<Integer, Object> values, SqlTagFiller sqlTagFiller,
+                              long connectionId) {
+        this.template = template;
+        this.values = Collections.unmodifiableSortedMap(values);
+        this.sqlTagFiller = sqlTagFiller;
+        this.connectionId = connectionId;
+    }
+
+    public SqlTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return the OUT values keyed by parameter index
+     */
+    public SortedMap<Integer, Object> getValues() {
+        return values;
+    }
+
+    /**
+     * @return id of the LoggingConnection that executed the call
+     */
+    public long getConnectionId() {
+        return connectionId;
+    }
+
+    @Override
+    public String getMessage() {
+        StringBuilder sb = new StringBuilder("-- OUT ");
+        boolean first = true;
+        for (Map.Entry<Integer, Object> entry : values.entrySet()) {
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            sb.append(entry.getKey()).append(" = ").append(sqlTagFiller.toSqlString(entry.getValue()));
+        }
+        return sb.append(": ").append(template.getSql()).toString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.bradjacobs.logging.jdbc.event;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of identical statements that were collapsed instead of being logged individually.
+ */
+public class RepeatSummaryEvent extends LoggingEvent {
+    private final StatementEvent firstEvent;
+    private final int repeatCount;
+    private final long totalElapsedNanos;
+
+    public RepeatSummaryEvent(StatementEvent firstEvent, int repeatCount, long totalElapsedNanos) {
+        this.firstEvent = firstEvent;
+        this.repeatCount = repeatCount;
+        this.totalElapsedNanos = totalElapsedNanos;
+    }
+
+    /**
+     * @return the statement that was logged before the repeats were collapsed.
+     */
+    public StatementEvent getFirstEvent() {
+        return firstEvent;
+    }
+
+    /**
+     * @return number of statements that were collapsed (does NOT include the first logged statement)
+     */
+    public int getRepeatCount() {
+        return repeatCount;
+    }
+
+    /**
+     * @return summed execution time of the collapsed statements
+     */
+    public long getTotalElapsedNanos() {
+        return totalElapsedNanos;
+    }
+
+    @Override
+    public String getMessage() {
+        double seconds = totalElapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        return String.format(Locale.ROOT, "-- repeated %,d times, total %.1fs: %s",
+                repeatCount, seconds, firstEvent.getTemplate());
+    }
+}
@@ -0,0 +1,185 @@
+package com.github.bradjacobs.logging.jdbc.event;
+
+import com.github.bradjacobs.logging.jdbc.SqlTemplate;
+import com.github.bradjacobs.logging.jdbc.param.SqlTagFiller;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a single executed SQL statement.
+ *   The 'real-looking' SQL string is only generated the first time it is requested,
+ *   thus any event that gets filtered/collapsed before reaching a listener never pays the rendering cost.
+ */
+public class StatementEvent extends LoggingEvent {
+    /** row count / fetch time when the value was not tracked */
+    public static final long UNKNOWN = -1L;
+
+    private final SqlTemplate template;
+    private final Map<Integer, Object> params;
+    private final SqlTagFiller sqlTagFiller;
+    private final long elapsedNanos;
+    private final int batchSize;
+    private final long rowCount;
+    private final long fetchNanos;
+    private final long connectionId;
+    private final long threadId;
+    private final long endNanos;
+
+    private String sql = null;
+
+    /**
+     * Constructor
+     * @param template sql template (can contain tags/question marks)
+     * @param params parameter values (the event assumes it now owns this map)
+     * @param sqlTagFiller used to fill in the tags (null means sql is logged as-is)
+     * @param elapsedNanos execution time of the statement.
+     * @param batchSize size of the batch the statement was part of (0 if not a batch statement)
+     */
+    public StatementEvent(SqlTemplate template, Map<Integer, Object> params, SqlTagFiller sqlTagFiller,
+                          long elapsedNanos, int batchSize) {
+        this(template, params, sqlTagFiller, elapsedNanos, batchSize, UNKNOWN);
+    }
+
+    /**
+     * Constructor
+     *   NOTE: must be created on the thread that executed the statement, right after the execution.
+     * @param template sql template (can contain tags/question marks)
+     * @param params parameter values (the event assumes it now owns this map)
+     * @param sqlTagFiller used to fill in the tags (null means sql is logged as-is)
+     * @param elapsedNanos execution time of the statement.
+     * @param batchSize size of the batch the statement was part of (0 if not a batch statement)
+     * @param connectionId id of the LoggingConnection that executed the statement
+     */
+    public StatementEvent(SqlTemplate template, Map<Integer, Object> params, SqlTagFiller sqlTagFiller,
+                          long elapsedNanos, int batchSize, long connectionId) {
+        this.endNanos = System.nanoTime();
+        this.threadId = Thread.currentThread().getId();
+        this.connectionId = connectionId;
+        this.template = template;
+        this.params = (params != null ? Collections.unmodifiableMap(params) : Collections.emptyMap());
+        this.sqlTagFiller = sqlTagFiller;
+        this.elapsedNanos = elapsedNanos;
+        this.batchSize = batchSize;
+        this.rowCount = UNKNOWN;
+        this.fetchNanos = UNKNOWN;
+    }
+
+    private StatementEvent(StatementEvent event, long rowCount, long fetchNanos) {
+        super(event.getTimestamp());
+        this.template = event.template;
+        this.params = event.params;
+        this.sqlTagFiller = event.sqlTagFiller;
+        this.elapsedNanos = event.elapsedNanos;
+        this.batchSize = event.batchSize;
+        this.sql = event.sql;
+        this.connectionId = event.connectionId;
+        this.threadId = event.threadId;
+        this.endNanos = event.endNanos;
+        this.rowCount = rowCount;
+        this.fetchNanos = fetchNanos;
+    }
+
+    /**
+     * Create a copy of this event that includes the ResultSet fetch stats.
+     * @param rowCount number of rows the application fetched from the ResultSet
+     * @param fetchNanos time between the query execution and the ResultSet close
+     * @return new StatementEvent
+     */
+    public StatementEvent withFetchStats(long rowCount, long fetchNanos) {
+        return new StatementEvent(this, rowCount, fetchNanos);
+    }
+
+    /**
+     * @return original sql string with tags/question marks
+     */
+    public String getTemplate() {
+        return template.getSql();
+    }
+
+    /**
+     * @return sql template (includes the numeric template id)
+     */
+    public SqlTemplate getSqlTemplate() {
+        return template;
+    }
+
+    /**
+     * @return parameter values keyed by parameter index
+     */
+    public Map<Integer, Object> getParams() {
+        return params;
+    }
+
+    /**
+     * @return execution time in nanoseconds.
+     *   For a batch, this is the total batch time divided evenly among the batch statements.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return size of the batch that this statement was executed with (or 0 if not part of a batch)
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return number of rows fetched from the ResultSet (UNKNOWN if the ResultSet was not tracked)
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return time between the query execution and the ResultSet close (UNKNOWN if the ResultSet was not tracked)
+     */
+    public long getFetchNanos() {
+        return fetchNanos;
+    }
+
+    /**
+     * @return id of the LoggingConnection that executed the statement (UNKNOWN if not known)
+     */
+    public long getConnectionId() {
+        return connectionId;
+    }
+
+    /**
+     * @return id of the thread that executed the statement
+     */
+    public long getThreadId() {
+        return threadId;
+    }
+
+    /**
+     * @return System.nanoTime() of when the statement execution started
+     *   (only meaningful relative to other System.nanoTime values of the same JVM)
+     */
+    public long getStartNanos() {
+        return endNanos - elapsedNanos;
+    }
+
+    /**
+     * @return 'filled in' SQL string.
+     */
+    public String getSql() {
+        if (sql == null) {
+            sql = (sqlTagFiller != null ? sqlTagFiller.fill(template.getPlaceholders(), params) : template.getSql());
+        }
+        return sql;
+    }
+
+    @Override
+    public String getMessage() {
+        if (rowCount == UNKNOWN) {
+            return getSql();
+        }
+        double fetchMillis = fetchNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        return String.format(Locale.ROOT, "%s -- %,d rows fetched in %.3fms", getSql(), rowCount, fetchMillis);
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.bradjacobs.logging.jdbc.event;
+
+import com.github.bradjacobs.logging.jdbc.SqlTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution count and total time of a single sql template (i.e. one line of a transaction breakdown)
+ */
+public class TemplateStats {
+    private final SqlTemplate template;
+    private final int executionCount;
+    private final long totalElapsedNanos;
+
+    public TemplateStats(SqlTemplate template, int executionCount, long totalElapsedNanos) {
+        this.template = template;
+        this.executionCount = executionCount;
+        this.totalElapsedNanos = totalElapsedNanos;
+    }
+
+    public SqlTemplate getTemplate() {
+        return template;
+    }
+
+    public int getExecutionCount() {
+        return executionCount;
+    }
+
+    public long getTotalElapsedNanos() {
+        return totalElapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        double seconds = totalElapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        return String.format(Locale.ROOT, "%,d x %.3fs: %s", executionCount, seconds, template.getSql());
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.bradjacobs.logging.jdbc.event;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction boundary on a connection (while autoCommit is off).
+ *   A BEGIN event is created for the first statement of the transaction,
+ *   a COMMIT or ROLLBACK event carries the timings and the statement breakdown of the whole transaction.
+ */
+public class TransactionEvent extends LoggingEvent {
+    public enum Type {
+        BEGIN,
+        COMMIT,
+        ROLLBACK
+    }
+
+    private final Type type;
+    private final long beginTimestamp;
+    private final int statementCount;
+    private final long statementElapsedNanos;
+    private final long completionNanos;
+    private final long durationNanos;
+    private final List<TemplateStats> statementBreakdown;
+
+    /**
+     * Creates a BEGIN event
+     * @param beginTimestamp epoch millis of when the transaction began
+     */
+    public TransactionEvent(long beginTimestamp) {
+        this(Type.BEGIN, beginTimestamp, 0, 0L, 0L, 0L, Collections.emptyList());
+    }
+
+    /**
+     * Constructor
+     * @param type event type
+     * @param beginTimestamp epoch millis of when the transaction began
+     * @param statementCount number of statements executed during the transaction
+     * @param statementElapsedNanos summed execution time of the statements
+     * @param completionNanos time it took to commit/rollback
+     * @param durationNanos total wall time of the transaction (begin through commit/rollback)
+     * @param statementBreakdown per template stats, slowest first.
+     */
+    public TransactionEvent(Type type, long beginTimestamp, int statementCount, long statementElapsedNanos,
+                            long completionNanos, long durationNanos, List<TemplateStats> statementBreakdown) {
+        this.type = type;
+        this.beginTimestamp = beginTimestamp;
+        this.statementCount = statementCount;
+        this.statementElapsedNanos = statementElapsedNanos;
+        this.completionNanos = completionNanos;
+        this.durationNanos = durationNanos;
+        this.statementBreakdown = Collections.unmodifiableList(statementBreakdown);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getBeginTimestamp() {
+        return beginTimestamp;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getStatementElapsedNanos() {
+        return statementElapsedNanos;
+    }
+
+    /**
+     * @return time it took to execute the commit/rollback itself
+     */
+    public long getCompletionNanos() {
+        return completionNanos;
+    }
+
+    /**
+     * @return total wall time of the transaction (begin through commit/rollback)
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return per template execution stats, ordered by total time (slowest first)
+     */
+    public List<TemplateStats> getStatementBreakdown() {
+        return statementBreakdown;
+    }
+
+    @Override
+    public String getMessage() {
+        if (type == Type.BEGIN) {
+            return "-- BEGIN TRANSACTION";
+        }
+        return String.format(Locale.ROOT, "-- %s TRANSACTION: %,d statements (%.3fs), %s took %.3fs, total %.3fs",
+                type, statementCount, toSeconds(statementElapsedNanos),
+                type.name().toLowerCase(Locale.ROOT), toSeconds(completionNanos), toSeconds(durationNanos));
+    }
+
+    /**
+     * @return message followed by one line per template of the statement breakdown
+     */
+    public String getDetailedMessage() {
+        StringBuilder sb = new StringBuilder(getMessage());
+        for (TemplateStats templateStats : statementBreakdown) {
+            sb.append(System.lineSeparator()).append("--   ").append(templateStats);
+        }
+        return sb.toString();
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
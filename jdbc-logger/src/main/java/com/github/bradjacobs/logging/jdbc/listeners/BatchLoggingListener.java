@@ -0,0 +1,45 @@
+package com.github.bradjacobs.logging.jdbc.listeners;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LoggingListener that receives the events in batches, so per-call overhead (i.e. a file write,
+ *   a network round trip, etc) can be amortized over many events.
+ *
+ * Batches are only formed when the events are delivered asynchronously (see the 'fanOutRingSize' builder option):
+ *   the consumer drains up to 'maxBatchSize' events at a time, waiting at most 'maxLinger' for a batch to fill up.
+ *   Otherwise, every event is delivered as a batch of one.
+ */
+public interface BatchLoggingListener extends LoggingListener {
+    int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    /**
+     * Receives a batch of events (in the order they were published)
+     * @param events logging events (the listener is free to keep the list)
+     */
+    void logBatch(List<LoggingEvent> events);
+
+    /**
+     * @return max number of events in a single batch
+     */
+    default int getMaxBatchSize() {
+        return DEFAULT_MAX_BATCH_SIZE;
+    }
+
+    /**
+     * @return max time to wait for more events before a partial batch is delivered
+     *   (zero to deliver whatever is available right away)
+     */
+    default Duration getMaxLinger() {
+        return Duration.ZERO;
+    }
+
+    @Override
+    default void log(LoggingEvent event) {
+        logBatch(Collections.singletonList(event));
+    }
+}
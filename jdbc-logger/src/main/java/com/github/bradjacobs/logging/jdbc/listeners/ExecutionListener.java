@@ -0,0 +1,26 @@
+package com.github.bradjacobs.logging.jdbc.listeners;
+
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+
+/**
+ * Optional interface for a LoggingListener that needs to see the statement execution itself,
+ *   i.e. to time it in the timeline of a profiler (a logged event only arrives after the fact, maybe on another thread).
+ *
+ * Both methods are called on the thread that executes the statement, directly (never through the fanOutDispatcher),
+ *   for every logged execution (before any filtering/sampling), thus they must be cheap.
+ *   An exception thrown by either method is ignored.
+ */
+public interface ExecutionListener {
+    /**
+     * Called right before a statement (or batch) is executed.
+     * @return context that is handed back to executionEnded (null if executionEnded doesn't need to be called)
+     */
+    Object executionStarted();
+
+    /**
+     * Called right after the execution.  For a query w/ resultSetTracking, once its ResultSet has finished.
+     * @param context value returned by executionStarted
+     * @param event the executed statement (for a batch, its first statement)
+     */
+    void executionEnded(Object context, StatementEvent event);
+}
@@ -0,0 +1,224 @@
+package com.github.bradjacobs.logging.jdbc.listeners;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoggingListener that delivers each event to a (blocking) delegate listener on an executor,
+ *   i.e. one virtual thread per event on JDK 21+.
+ *
+ * Back-pressure comes from a semaphore of 'maxInFlight' permits instead of an unbounded queue:
+ *   when all the permits are taken the caller waits up to 'maxWait', after which the event is dropped (and counted).
+ *
+ * NOTE: events are delivered concurrently, thus the delegate must be thread-safe and can receive them out of order.
+ */
+public class ExecutorLoggingListener implements LoggingListener, Closeable {
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+
+    private final LoggingListener delegate;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long maxWaitNanos;
+
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+
+    /**
+     * Creates a listener that delivers on virtual threads, or falls back to (cached) platform threads when
+     *   running on a JDK w/o virtual threads.
+     * @param delegate listener that does the actual (blocking) logging
+     * @param maxInFlight max number of events being delivered at the same time
+     * @param maxWait max time the caller waits for a permit before the event is dropped
+     * @return listener
+     */
+    public static ExecutorLoggingListener virtualThreads(LoggingListener delegate, int maxInFlight, Duration maxWait) {
+        ExecutorService executor = newVirtualThreadExecutor();
+        if (executor == null) {
+            // the semaphore keeps the number of threads bounded to maxInFlight
+            executor = Executors.newCachedThreadPool(daemonThreadFactory());
+        }
+        return new ExecutorLoggingListener(delegate, executor, maxInFlight, maxWait);
+    }
+
+    /**
+     * Creates a listener that delivers on a fixed pool of platform threads.
+     * @param delegate listener that does the actual (blocking) logging
+     * @param threadCount number of platform threads
+     * @param maxInFlight max number of events being delivered or queued at the same time
+     * @param maxWait max time the caller waits for a permit before the event is dropped
+     * @return listener
+     */
+    public static ExecutorLoggingListener platformThreads(LoggingListener delegate, int threadCount,
+                                                          int maxInFlight, Duration maxWait) {
+        return new ExecutorLoggingListener(delegate,
+                Executors.newFixedThreadPool(threadCount, daemonThreadFactory()), maxInFlight, maxWait);
+    }
+
+    /**
+     * Constructor
+     * @param delegate listener that does the actual logging
+     * @param executor executor for the delivery (closing this listener shuts it down)
+     * @param maxInFlight max number of events being delivered (or waiting in the executor) at the same time
+     * @param maxWait max time the caller waits for a permit before the event is dropped (zero to never wait)
+     */
+    public ExecutorLoggingListener(LoggingListener delegate, ExecutorService executor, int maxInFlight, Duration maxWait) {
+        if (delegate == null || executor == null) {
+            throw new IllegalArgumentException("Must provide a delegate listener and executor.");
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be greater than zero.");
+        }
+        this.delegate = delegate;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+        this.maxWaitNanos = (maxWait != null ? maxWait.toNanos() : 0L);
+    }
+
+    /**
+     * @return true if virtual threads are available on this JVM
+     */
+    public static boolean isVirtualThreadSupported() {
+        return virtualThreadFactoryMethod() != null;
+    }
+
+    @Override
+    public void log(String sql) {
+        submit(() -> delegate.log(sql));
+    }
+
+    @Override
+    public void log(LoggingEvent event) {
+        submit(() -> delegate.log(event));
+    }
+
+    private void submit(Runnable delivery) {
+        if (!acquirePermit()) {
+            droppedCount.increment();
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    delivery.run();
+                    deliveredCount.increment();
+                }
+                catch (RuntimeException e) {
+                    failureCount.increment();
+                }
+                finally {
+                    permits.release();
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            // executor has been shut down.
+            permits.release();
+            droppedCount.increment();
+        }
+    }
+
+    private boolean acquirePermit() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (maxWaitNanos <= 0) {
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public LoggingListener getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return number of events currently being delivered
+     */
+    public int getInFlightCount() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.sum();
+    }
+
+    /**
+     * @return number of events dropped b/c no permit became available within 'maxWait'
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * @return number of events where the delegate threw an exception
+     */
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    /**
+     * Stops accepting events, and waits (a little) for the in-flight events to be delivered.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // NOTE: looked up reflectively, so this compiles (and runs) on java 8
+    private static ExecutorService newVirtualThreadExecutor() {
+        Method factoryMethod = virtualThreadFactoryMethod();
+        if (factoryMethod == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) factoryMethod.invoke(null);
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Method virtualThreadFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger(0);
+        return r -> {
+            Thread thread = new Thread(r, "jdbc-logger-listener-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
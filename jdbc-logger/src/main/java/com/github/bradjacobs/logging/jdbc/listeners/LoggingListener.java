@@ -1,5 +1,16 @@
 package com.github.bradjacobs.logging.jdbc.listeners;
 
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+
 public interface LoggingListener {
     void log(String sql);
+
+    /**
+     * Receives a structured logging event.
+     *   Default behavior just logs the message string, override to make use of the event details.
+     * @param event logging event
+     */
+    default void log(LoggingEvent event) {
+        log(event.getMessage());
+    }
 }
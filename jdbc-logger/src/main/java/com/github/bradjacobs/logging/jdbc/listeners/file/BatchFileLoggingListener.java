@@ -0,0 +1,128 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.BatchLoggingListener;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BatchLoggingListener that appends each message as a line to a file.
+ *   The whole batch is encoded into a single buffer and written with one write call,
+ *   instead of one write per statement.
+ */
+public class BatchFileLoggingListener implements BatchLoggingListener, Closeable {
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final FileChannel channel;
+    private final int maxBatchSize;
+    private final Duration maxLinger;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private boolean closed = false;
+
+    public BatchFileLoggingListener(File file) {
+        this(file, DEFAULT_MAX_BATCH_SIZE, Duration.ZERO);
+    }
+
+    /**
+     * @param file file to append to
+     * @param maxBatchSize max number of statements written per write call
+     * @param maxLinger max time to wait for a batch to fill up
+     */
+    public BatchFileLoggingListener(File file, int maxBatchSize, Duration maxLinger) {
+        if (file == null) {
+            throw new IllegalArgumentException("Must provide a log file.");
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("MaxBatchSize must be at least 1.");
+        }
+        if (maxLinger == null || maxLinger.isNegative()) {
+            throw new IllegalArgumentException("MaxLinger cannot be null or negative.");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxLinger = maxLinger;
+        try {
+            this.channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to open log file: " + file, e);
+        }
+    }
+
+    @Override
+    public void log(String sql) {
+        write(Collections.singletonList(sql));
+    }
+
+    @Override
+    public void logBatch(List<LoggingEvent> events) {
+        List<String> messages = new ArrayList<>(events.size());
+        for (LoggingEvent event : events) {
+            messages.add(event.getMessage());
+        }
+        write(messages);
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public Duration getMaxLinger() {
+        return maxLinger;
+    }
+
+    private synchronized void write(List<String> messages) {
+        if (closed) {
+            return;
+        }
+        buffer.clear();
+        for (String message : messages) {
+            if (message == null) {
+                continue;
+            }
+            byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(bytes.length + LINE_SEPARATOR.length);
+            buffer.put(bytes).put(LINE_SEPARATOR);
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to write to log file", e);
+        }
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.remaining() < length) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            channel.close();
+        }
+    }
+}
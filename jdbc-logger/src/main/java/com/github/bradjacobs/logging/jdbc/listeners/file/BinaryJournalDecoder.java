@@ -0,0 +1,120 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import com.github.bradjacobs.logging.jdbc.DatabaseType;
+import com.github.bradjacobs.logging.jdbc.param.SqlTagFiller;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Renders a journal written by BinaryJournalListener back into 'real-looking' SQL strings.
+ *
+ * Command line usage:
+ *    BinaryJournalDecoder journalFile [dbType] [zoneId]
+ */
+public class BinaryJournalDecoder {
+    private final SqlTagFiller sqlTagFiller;
+
+    public BinaryJournalDecoder() {
+        this(new SqlTagFiller(DatabaseType.DEFAULT, null));
+    }
+
+    /**
+     * Constructor
+     * @param sqlTagFiller used to fill in the tags (should match the database type/zone of the original logging)
+     */
+    public BinaryJournalDecoder(SqlTagFiller sqlTagFiller) {
+        if (sqlTagFiller == null) {
+            throw new IllegalArgumentException("Must provide a sqlTagFiller.");
+        }
+        this.sqlTagFiller = sqlTagFiller;
+    }
+
+    /**
+     * Decodes all the records in the journal.
+     * @param inputStream journal input stream
+     * @param consumer receives the epochMillis and rendered sql/message of each record
+     * @return number of records decoded
+     */
+    public int decode(InputStream inputStream, BiConsumer<Long, String> consumer) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readLong() != BinaryJournalFormat.MAGIC) {
+            throw new IOException("Not a binary journal file.");
+        }
+        int version = in.readInt();
+        if (!BinaryJournalFormat.isSupportedVersion(version)) {
+            throw new IOException("Unsupported journal version: " + version);
+        }
+
+        Map<Integer, String> templates = new HashMap<>();
+        long timestamp = 0L;
+        int count = 0;
+        while (true) {
+            int recordType = in.read();
+            if (recordType < 0) {
+                return count;
+            }
+            try {
+                switch (recordType) {
+                    case BinaryJournalFormat.TEMPLATE_RECORD:
+                        templates.put(BinaryJournalFormat.readVarInt(in), BinaryJournalFormat.readString(in));
+                        break;
+                    case BinaryJournalFormat.STATEMENT_RECORD:
+                        timestamp += BinaryJournalFormat.readSignedVarLong(in);
+                        consumer.accept(timestamp, readStatement(in, templates));
+                        count++;
+                        break;
+                    case BinaryJournalFormat.MESSAGE_RECORD:
+                        timestamp += BinaryJournalFormat.readSignedVarLong(in);
+                        consumer.accept(timestamp, BinaryJournalFormat.readString(in));
+                        count++;
+                        break;
+                    default:
+                        throw new IOException("Unrecognized journal record type: " + recordType);
+                }
+            }
+            catch (EOFException e) {
+                // the last record was only partially written (i.e. the writer didn't close the journal)
+                return count;
+            }
+        }
+    }
+
+    private String readStatement(DataInputStream in, Map<Integer, String> templates) throws IOException {
+        int templateId = BinaryJournalFormat.readVarInt(in);
+        BinaryJournalFormat.readVarLong(in);  // elapsedNanos
+        BinaryJournalFormat.readVarInt(in);   // batchSize
+        Map<Integer, Object> params = BinaryJournalFormat.readParams(in);
+
+        String template = templates.get(templateId);
+        if (template == null) {
+            throw new IOException("Journal references an unknown template id: " + templateId);
+        }
+        return sqlTagFiller.replace(template, params);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: BinaryJournalDecoder <journalFile> [dbType] [zoneId]");
+            System.exit(1);
+        }
+        DatabaseType dbType = (args.length > 1 ? DatabaseType.identifyDatabaseType(args[1]) : DatabaseType.DEFAULT);
+        ZoneId zoneId = (args.length > 2 ? ZoneId.of(args[2]) : null);
+
+        BinaryJournalDecoder decoder = new BinaryJournalDecoder(new SqlTagFiller(dbType, zoneId));
+        try (InputStream inputStream = new FileInputStream(new File(args[0]))) {
+            decoder.decode(inputStream, (timestamp, sql) ->
+                    System.out.println(Instant.ofEpochMilli(timestamp) + " " + sql));
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import com.github.bradjacobs.logging.jdbc.param.MaskedValue;
+import com.github.bradjacobs.logging.jdbc.param.RawValue;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Layout of the binary journal written by BinaryJournalListener.
+ *
+ *   file header:  long MAGIC | int VERSION
+ *   records:      byte recordType | ...
+ *
+ *   TEMPLATE:   varint templateId | string sql     (written once, before the first statement that uses it)
+ *   STATEMENT:  varlong timestampDelta | varint templateId | varlong elapsedNanos | varint batchSize
+ *               | varint paramCount | paramCount x (varint paramIndex | byte typeTag | value)
+ *   MESSAGE:    varlong timestampDelta | string message   (any non-statement event)
+ *
+ * Integers are written as 7-bit variable length values, so small numbers only take a byte or two.
+ *   Timestamps are the (zigzag encoded) difference in millis from the previous record's timestamp,
+ *   the records are not guaranteed to be in timestamp order when multiple threads are logging.
+ * Strings are written as varint length | utf8 bytes (DataOutput.writeUTF is limited to 64K)
+ *
+ * Version 2 added the MASKED value type tag (version 1 files can still be read).
+ */
+final class BinaryJournalFormat {
+    static final long MAGIC = 0x4A44424A524E4C31L;  // "JDBJRNL1"
+    static final int VERSION = 2;
+
+    static final byte TEMPLATE_RECORD = 'T';
+    static final byte STATEMENT_RECORD = 'S';
+    static final byte MESSAGE_RECORD = 'M';
+
+    // parameter value type tags
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte BYTE = 3;
+    private static final byte SHORT = 4;
+    private static final byte INTEGER = 5;
+    private static final byte LONG = 6;
+    private static final byte FLOAT = 7;
+    private static final byte DOUBLE = 8;
+    private static final byte BIG_DECIMAL = 9;
+    private static final byte BIG_INTEGER = 10;
+    private static final byte SQL_DATE = 11;
+    private static final byte SQL_TIME = 12;
+    private static final byte SQL_TIMESTAMP = 13;
+    private static final byte UTIL_DATE = 14;
+    // stored as its String.valueOf (which is what the default param converter renders, unquoted), read back as a RawValue
+    private static final byte OTHER = 15;
+    private static final byte MASKED = 16;  // MaskedValue, stored as its placeholder
+
+    private BinaryJournalFormat() { }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length value.");
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    /** variable length value that can be negative (zigzag encoded, so small negative numbers stay small) */
+    static void writeSignedVarLong(DataOutput out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readSignedVarLong(DataInput in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param version version from the file header
+     * @return true if the version can be read
+     */
+    static boolean isSupportedVersion(int version) {
+        return version >= 1 && version <= VERSION;
+    }
+
+    static void writeHeader(DataOutput out, long magic) throws IOException {
+        out.writeLong(magic);
+        out.writeInt(VERSION);
+    }
+
+    /**
+     * Writes the parameters as:  varint paramCount | paramCount x (varint paramIndex | byte typeTag | value)
+     */
+    static void writeParams(DataOutput out, Map<Integer, Object> params) throws IOException {
+        writeVarInt(out, params.size());
+        for (Map.Entry<Integer, Object> entry : params.entrySet()) {
+            writeVarInt(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    static Map<Integer, Object> readParams(DataInput in) throws IOException {
+        int paramCount = readVarInt(in);
+        Map<Integer, Object> params = new HashMap<>(paramCount * 2);
+        for (int i = 0; i < paramCount; i++) {
+            int paramIndex = readVarInt(in);
+            params.put(paramIndex, readValue(in));
+        }
+        return params;
+    }
+
+    static void writeValue(DataOutput out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        }
+        else if (value instanceof MaskedValue) {
+            out.writeByte(MASKED);
+            writeString(out, ((MaskedValue) value).getPlaceholder());
+        }
+        else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        }
+        else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        }
+        else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        }
+        else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        }
+        else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            writeSignedVarLong(out, (Integer) value);
+        }
+        else if (value instanceof Long) {
+            out.writeByte(LONG);
+            writeSignedVarLong(out, (Long) value);
+        }
+        else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        }
+        else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        }
+        else if (value instanceof BigDecimal) {
+            out.writeByte(BIG_DECIMAL);
+            writeString(out, value.toString());
+        }
+        else if (value instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER);
+            writeString(out, value.toString());
+        }
+        else if (value instanceof java.sql.Date) {
+            out.writeByte(SQL_DATE);
+            out.writeLong(((Date) value).getTime());
+        }
+        else if (value instanceof Time) {
+            out.writeByte(SQL_TIME);
+            out.writeLong(((Date) value).getTime());
+        }
+        else if (value instanceof Timestamp) {
+            out.writeByte(SQL_TIMESTAMP);
+            out.writeLong(((Date) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        }
+        else if (value instanceof Date) {
+            out.writeByte(UTIL_DATE);
+            out.writeLong(((Date) value).getTime());
+        }
+        else {
+            out.writeByte(OTHER);
+            writeString(out, String.valueOf(value));
+        }
+    }
+
+    static Object readValue(DataInput in) throws IOException {
+        byte typeTag = in.readByte();
+        switch (typeTag) {
+            case NULL: return null;
+            case STRING: return readString(in);
+            case BOOLEAN: return in.readBoolean();
+            case BYTE: return in.readByte();
+            case SHORT: return in.readShort();
+            case INTEGER: return (int) readSignedVarLong(in);
+            case LONG: return readSignedVarLong(in);
+            case FLOAT: return in.readFloat();
+            case DOUBLE: return in.readDouble();
+            case BIG_DECIMAL: return new BigDecimal(readString(in));
+            case BIG_INTEGER: return new BigInteger(readString(in));
+            case SQL_DATE: return new java.sql.Date(in.readLong());
+            case SQL_TIME: return new Time(in.readLong());
+            case SQL_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            }
+            case UTIL_DATE: return new Date(in.readLong());
+            case OTHER: return new RawValue(readString(in));
+            case MASKED: return new MaskedValue(readString(in));
+            default:
+                throw new IOException("Unrecognized parameter type tag: " + typeTag);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.event.MultiRowInsertEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * LoggingListener that writes statements to a compact binary journal (see BinaryJournalFormat)
+ *   instead of rendering the 'real-looking' SQL string.
+ *
+ * Each distinct sql template is written once into the journal's dictionary, after that a statement is
+ *   just the template id plus the raw parameter values.  Use BinaryJournalDecoder to render the journal
+ *   back into SQL strings offline.
+ */
+public class BinaryJournalListener implements LoggingListener, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+
+    private final TemplateDictionary templateDictionary = new TemplateDictionary();
+
+    private long lastTimestamp = 0L;
+    private boolean closed = false;
+
+    public BinaryJournalListener(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("Must provide a journal file.");
+        }
+        try {
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+            BinaryJournalFormat.writeHeader(out, BinaryJournalFormat.MAGIC);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to create journal file: " + file, e);
+        }
+    }
+
+    @Override
+    public void log(String sql) {
+        writeMessage(System.currentTimeMillis(), sql);
+    }
+
+    @Override
+    public void log(LoggingEvent event) {
+        if (event instanceof StatementEvent) {
+            writeStatement((StatementEvent) event);
+        }
+        else if (event instanceof MultiRowInsertEvent) {
+            // journal the rows as individual statements, so they can be read back per statement
+            for (StatementEvent statementEvent : ((MultiRowInsertEvent) event).getStatementEvents()) {
+                writeStatement(statementEvent);
+            }
+        }
+        else {
+            writeMessage(event.getTimestamp(), event.getMessage());
+        }
+    }
+
+    private synchronized void writeStatement(StatementEvent event) {
+        if (closed) {
+            return;
+        }
+        try {
+            int templateId = templateDictionary.templateId(out, event.getTemplate());
+            out.writeByte(BinaryJournalFormat.STATEMENT_RECORD);
+            writeTimestamp(event.getTimestamp());
+            BinaryJournalFormat.writeVarInt(out, templateId);
+            BinaryJournalFormat.writeVarLong(out, event.getElapsedNanos());
+            BinaryJournalFormat.writeVarInt(out, event.getBatchSize());
+            BinaryJournalFormat.writeParams(out, event.getParams());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to write to journal", e);
+        }
+    }
+
+    private synchronized void writeMessage(long timestamp, String message) {
+        if (closed || message == null) {
+            return;
+        }
+        try {
+            out.writeByte(BinaryJournalFormat.MESSAGE_RECORD);
+            writeTimestamp(timestamp);
+            BinaryJournalFormat.writeString(out, message);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to write to journal", e);
+        }
+    }
+
+    private void writeTimestamp(long timestamp) throws IOException {
+        BinaryJournalFormat.writeSignedVarLong(out, timestamp - lastTimestamp);
+        lastTimestamp = timestamp;
+    }
+
+    /**
+     * Flushes any buffered records to the journal file.
+     */
+    public synchronized void flush() {
+        try {
+            out.flush();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to flush journal", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A single statement read back from a workload capture file.
+ */
+public class CapturedStatement {
+    private final long startOffsetNanos;
+    private final long connectionId;
+    private final long threadId;
+    private final String sql;
+    private final Map<Integer, Object> params;
+    private final long elapsedNanos;
+    private final int batchSize;
+
+    public CapturedStatement(long startOffsetNanos, long connectionId, long threadId, String sql,
+                             Map<Integer, Object> params, long elapsedNanos, int batchSize) {
+        this.startOffsetNanos = startOffsetNanos;
+        this.connectionId = connectionId;
+        this.threadId = threadId;
+        this.sql = sql;
+        this.params = Collections.unmodifiableMap(params);
+        this.elapsedNanos = elapsedNanos;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return when the statement started, relative to the start of the capture.
+     */
+    public long getStartOffsetNanos() {
+        return startOffsetNanos;
+    }
+
+    public long getConnectionId() {
+        return connectionId;
+    }
+
+    public long getThreadId() {
+        return threadId;
+    }
+
+    /**
+     * @return original sql string with tags/question marks
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return parameter values keyed by parameter index
+     */
+    public Map<Integer, Object> getParams() {
+        return params;
+    }
+
+    /**
+     * @return execution time of the statement when it was captured.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return size of the batch that this statement was executed with (or 0 if not part of a batch)
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
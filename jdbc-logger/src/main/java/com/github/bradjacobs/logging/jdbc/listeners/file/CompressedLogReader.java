@@ -0,0 +1,127 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.function.BiConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the segment files written by CompressedRollingFileListener.
+ *
+ * Command line usage:
+ *    CompressedLogReader directory prefix
+ */
+public class CompressedLogReader {
+    private final File directory;
+    private final String prefix;
+
+    public CompressedLogReader(File directory, String prefix) {
+        this.directory = directory;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Reads all the records of all the segments (oldest first)
+     * @param consumer receives the epochMillis and message of each record
+     * @return number of records read
+     */
+    public int readAll(BiConsumer<Long, String> consumer) throws IOException {
+        int count = 0;
+        for (long sequence : MappedSegmentFormat.existingSequences(directory, prefix, CompressedSegmentFormat.FILE_SUFFIX)) {
+            count += readSegment(
+                MappedSegmentFormat.segmentFile(directory, prefix, sequence, CompressedSegmentFormat.FILE_SUFFIX), consumer);
+        }
+        return count;
+    }
+
+    /**
+     * Reads all the records of a single segment file
+     * @param file segment file
+     * @param consumer receives the epochMillis and message of each record
+     * @return number of records read
+     */
+    public static int readSegment(File file, BiConsumer<Long, String> consumer) throws IOException {
+        Inflater inflater = new Inflater();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readLong() != CompressedSegmentFormat.MAGIC) {
+                throw new IOException("Not a compressed log segment: " + file);
+            }
+            int version = in.readInt();
+            if (version != CompressedSegmentFormat.VERSION) {
+                throw new IOException("Unsupported segment version: " + version);
+            }
+            byte[] dictionary = new byte[in.readInt()];
+            in.readFully(dictionary);
+
+            int count = 0;
+            while (true) {
+                int rawLength;
+                try {
+                    rawLength = in.readInt();
+                }
+                catch (EOFException e) {
+                    return count;
+                }
+                byte[] compressed = new byte[in.readInt()];
+                in.readFully(compressed);
+                count += readBlock(inflater, dictionary, compressed, rawLength, consumer);
+            }
+        }
+        finally {
+            inflater.end();
+        }
+    }
+
+    private static int readBlock(Inflater inflater, byte[] dictionary, byte[] compressed, int rawLength,
+                                 BiConsumer<Long, String> consumer) throws IOException {
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int length = 0;
+            while (length < rawLength) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(dictionary);
+                    }
+                    else if (inflater.finished() || inflater.needsInput()) {
+                        throw new IOException("Truncated compressed block");
+                    }
+                }
+                length += inflated;
+            }
+        }
+        catch (DataFormatException e) {
+            throw new IOException("Corrupt compressed block", e);
+        }
+
+        int count = 0;
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        while (in.available() > 0) {
+            long timestamp = in.readLong();
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            consumer.accept(timestamp, new String(bytes, StandardCharsets.UTF_8));
+            count++;
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: CompressedLogReader <directory> <prefix>");
+            System.exit(1);
+        }
+        new CompressedLogReader(new File(args[0]), args[1]).readAll((timestamp, message) ->
+                System.out.println(Instant.ofEpochMilli(timestamp) + " " + message));
+    }
+}
@@ -0,0 +1,308 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.event.MultiRowInsertEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.BatchLoggingListener;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * BatchLoggingListener that writes block-compressed segment files (see CompressedSegmentFormat),
+ *   rolling over to a new segment by size and by age.  Use CompressedLogReader to read them back.
+ *
+ * Each segment carries a preset deflate dictionary made of the most recently seen sql templates.
+ *   Since most statements are a template with a few values filled in, the dictionary gives a much
+ *   higher ratio than plain deflate, even at the fastest compression level.
+ *
+ * Compression is done on the thread calling the listener, so it's intended to be used with the
+ *   async fan-out (i.e. builder option 'fanOutRingSize'), where that's the listener's consumer thread.
+ *
+ * NOTE: a partially filled block is only compressed once it's older than 'maxBlockDelay' AND another
+ *   batch arrives (or on flush/close), there is no timer thread.
+ */
+public class CompressedRollingFileListener implements BatchLoggingListener, Closeable {
+    public static final long DEFAULT_MAX_SEGMENT_BYTES = 64L * 1024 * 1024;
+    public static final Duration DEFAULT_MAX_SEGMENT_AGE = Duration.ofHours(1);
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+    public static final Duration DEFAULT_MAX_BLOCK_DELAY = Duration.ofSeconds(1);
+
+    private static final int MAX_DICTIONARY_TEMPLATES = 512;
+
+    private final File directory;
+    private final String prefix;
+    private final long maxSegmentBytes;
+    private final long maxSegmentAgeNanos;
+    private final int blockSize;
+    private final long maxBlockDelayNanos;
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final ByteArrayOutputStream rawBlock;
+    private final DataOutputStream rawBlockOut;
+    private byte[] compressed;
+
+    // most recently used templates last (access order)
+    private final Map<String, Boolean> recentTemplates =
+        new LinkedHashMap<String, Boolean>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > MAX_DICTIONARY_TEMPLATES;
+            }
+        };
+
+    private long nextSequence;
+    private DataOutputStream segmentOut = null;
+    private byte[] dictionary = null;
+    private long segmentBytes = 0L;
+    private long segmentStartNanos = 0L;
+    private long blockStartNanos = 0L;
+
+    private long rawByteCount = 0L;
+    private long compressedByteCount = 0L;
+    private boolean closed = false;
+
+    public CompressedRollingFileListener(File directory, String prefix) {
+        this(directory, prefix, DEFAULT_MAX_SEGMENT_BYTES, DEFAULT_MAX_SEGMENT_AGE,
+                DEFAULT_BLOCK_SIZE, DEFAULT_MAX_BLOCK_DELAY);
+    }
+
+    /**
+     * @param directory directory for the segment files
+     * @param prefix segment file name prefix
+     * @param maxSegmentBytes roll over to a new segment once the segment reaches this size (compressed)
+     * @param maxSegmentAge roll over to a new segment once the segment is this old
+     * @param blockSize uncompressed size of a block
+     * @param maxBlockDelay max time a statement waits in a partially filled block (see class note)
+     */
+    public CompressedRollingFileListener(File directory, String prefix, long maxSegmentBytes, Duration maxSegmentAge,
+                                         int blockSize, Duration maxBlockDelay) {
+        if (directory == null || prefix == null || prefix.isEmpty()) {
+            throw new IllegalArgumentException("Must provide a directory and file prefix.");
+        }
+        if (maxSegmentBytes <= 0 || blockSize <= 0) {
+            throw new IllegalArgumentException("MaxSegmentBytes and blockSize must be positive.");
+        }
+        if (maxSegmentAge == null || maxSegmentAge.isNegative() || maxSegmentAge.isZero()) {
+            throw new IllegalArgumentException("MaxSegmentAge must be positive.");
+        }
+        if (maxBlockDelay == null || maxBlockDelay.isNegative()) {
+            throw new IllegalArgumentException("MaxBlockDelay cannot be null or negative.");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new UncheckedIOException(new IOException("Unable to create directory: " + directory));
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegmentAgeNanos = maxSegmentAge.toNanos();
+        this.blockSize = blockSize;
+        this.maxBlockDelayNanos = maxBlockDelay.toNanos();
+        this.rawBlock = new ByteArrayOutputStream(blockSize + 1024);
+        this.rawBlockOut = new DataOutputStream(rawBlock);
+        this.compressed = new byte[blockSize];
+
+        long[] sequences = MappedSegmentFormat.existingSequences(directory, prefix, CompressedSegmentFormat.FILE_SUFFIX);
+        this.nextSequence = (sequences.length > 0 ? sequences[sequences.length - 1] + 1 : 1L);
+    }
+
+    @Override
+    public void log(String sql) {
+        write(null, System.currentTimeMillis(), sql);
+    }
+
+    @Override
+    public void log(LoggingEvent event) {
+        write(event, event.getTimestamp(), event.getMessage());
+    }
+
+    @Override
+    public synchronized void logBatch(List<LoggingEvent> events) {
+        if (closed) {
+            return;
+        }
+        try {
+            for (LoggingEvent event : events) {
+                append(event, event.getTimestamp(), event.getMessage());
+            }
+            flushIfDue();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to write compressed segment", e);
+        }
+    }
+
+    private synchronized void write(LoggingEvent event, long timestamp, String message) {
+        if (closed) {
+            return;
+        }
+        try {
+            append(event, timestamp, message);
+            flushIfDue();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to write compressed segment", e);
+        }
+    }
+
+    private void append(LoggingEvent event, long timestamp, String message) throws IOException {
+        if (message == null) {
+            return;
+        }
+        if (event instanceof StatementEvent) {
+            recentTemplates.put(((StatementEvent) event).getTemplate(), Boolean.TRUE);
+        }
+        else if (event instanceof MultiRowInsertEvent) {
+            recentTemplates.put(((MultiRowInsertEvent) event).getSqlTemplate().getSql(), Boolean.TRUE);
+        }
+        if (rawBlock.size() == 0) {
+            blockStartNanos = System.nanoTime();
+        }
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        rawBlockOut.writeLong(timestamp);
+        rawBlockOut.writeInt(bytes.length);
+        rawBlockOut.write(bytes);
+        if (rawBlock.size() >= blockSize) {
+            writeBlock();
+        }
+    }
+
+    private void flushIfDue() throws IOException {
+        if (rawBlock.size() > 0 && System.nanoTime() - blockStartNanos >= maxBlockDelayNanos) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Compresses and writes out any pending (partial) block.
+     */
+    public synchronized void flush() throws IOException {
+        if (!closed && rawBlock.size() > 0) {
+            writeBlock();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (segmentOut != null && (segmentBytes >= maxSegmentBytes
+                || System.nanoTime() - segmentStartNanos >= maxSegmentAgeNanos)) {
+            closeSegment();
+        }
+        if (segmentOut == null) {
+            openSegment();
+        }
+
+        int rawLength = rawBlock.size();
+        deflater.reset();
+        if (dictionary.length > 0) {
+            deflater.setDictionary(dictionary);
+        }
+        deflater.setInput(rawBlock.toByteArray());
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                byte[] larger = new byte[compressed.length * 2];
+                System.arraycopy(compressed, 0, larger, 0, compressedLength);
+                compressed = larger;
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+
+        segmentOut.writeInt(rawLength);
+        segmentOut.writeInt(compressedLength);
+        segmentOut.write(compressed, 0, compressedLength);
+        segmentOut.flush();
+
+        segmentBytes += 2 * Integer.BYTES + compressedLength;
+        rawByteCount += rawLength;
+        compressedByteCount += compressedLength;
+        rawBlock.reset();
+    }
+
+    private void openSegment() throws IOException {
+        File file = MappedSegmentFormat.segmentFile(directory, prefix, nextSequence++, CompressedSegmentFormat.FILE_SUFFIX);
+        dictionary = buildDictionary();
+        segmentOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), blockSize));
+        segmentOut.writeLong(CompressedSegmentFormat.MAGIC);
+        segmentOut.writeInt(CompressedSegmentFormat.VERSION);
+        segmentOut.writeInt(dictionary.length);
+        segmentOut.write(dictionary);
+        segmentBytes = Long.BYTES + 2 * Integer.BYTES + dictionary.length;
+        segmentStartNanos = System.nanoTime();
+    }
+
+    /**
+     * The dictionary is built from the recently seen templates (including the ones in the pending block),
+     *   with the most recently used ones at the end, since deflate finds those with the shortest distances.
+     */
+    private byte[] buildDictionary() {
+        List<byte[]> entries = new ArrayList<>();
+        int size = 0;
+        List<String> templates = new ArrayList<>(recentTemplates.keySet());
+        for (int i = templates.size() - 1; i >= 0; i--) {
+            byte[] bytes = templates.get(i).getBytes(StandardCharsets.UTF_8);
+            if (size + bytes.length + 1 > CompressedSegmentFormat.MAX_DICTIONARY_SIZE) {
+                break;
+            }
+            entries.add(bytes);
+            size += bytes.length + 1;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            out.write(entries.get(i), 0, entries.get(i).length);
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+
+    private void closeSegment() throws IOException {
+        if (segmentOut != null) {
+            segmentOut.close();
+            segmentOut = null;
+        }
+    }
+
+    /**
+     * @return number of message bytes written so far (before compression)
+     */
+    public synchronized long getRawByteCount() {
+        return rawByteCount;
+    }
+
+    /**
+     * @return number of compressed block bytes written so far
+     */
+    public synchronized long getCompressedByteCount() {
+        return compressedByteCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (rawBlock.size() > 0) {
+                writeBlock();
+            }
+            closeSegment();
+        }
+        finally {
+            closed = true;
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+/**
+ * Layout of the compressed segment files shared by the writer and reader.
+ *
+ *   segment = long MAGIC | int VERSION | int dictLength | byte[dictLength] dictionary | block*
+ *   block   = int rawLength | int compressedLength | byte[compressedLength] deflated records
+ *   record  = long epochMillis | int length | byte[length] utf8 message
+ *
+ * Every block is deflated independently with the segment's preset dictionary,
+ *   thus a block can be decoded without the blocks before it.
+ */
+final class CompressedSegmentFormat {
+    static final long MAGIC = 0x4A4442435A4C4731L;  // "JDBCZLG1"
+    static final int VERSION = 1;
+    static final String FILE_SUFFIX = ".sqlz";
+
+    // deflate can't reference anything further back than its 32K window.
+    static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    private CompressedSegmentFormat() { }
+}
@@ -0,0 +1,228 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LoggingListener that appends each message to memory-mapped segment files (see MappedSegmentFormat)
+ *   Bypasses the logging framework (formatting/appender locks) entirely.
+ *
+ * Writers reserve their space in the current segment with a CAS on the segment write cursor,
+ *   so concurrent writers never wait on each other.  A lock is only taken when rolling over to a new segment.
+ *
+ * Nothing on the write path forces the data to disk, the OS writes back the dirty pages on its own.
+ *   An optional flush interval will also force the current segment from a background thread.
+ *
+ * Use MappedFileReader to read/tail the segment files.
+ */
+public class MappedFileLoggingListener implements LoggingListener, Closeable {
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024L * 1024L;
+
+    private final File directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final ScheduledExecutorService flushExecutor;
+    private final Object rollLock = new Object();
+
+    private volatile Segment currentSegment;
+    private volatile boolean closed = false;
+
+    public MappedFileLoggingListener(File directory, String prefix) {
+        this(directory, prefix, DEFAULT_SEGMENT_SIZE, Duration.ZERO);
+    }
+
+    /**
+     * Constructor
+     * @param directory directory for the segment files
+     * @param prefix segment file name prefix
+     * @param segmentSize size of each segment file in bytes
+     * @param flushInterval how often to force the current segment to disk in the background (zero to leave it to the OS)
+     */
+    public MappedFileLoggingListener(File directory, String prefix, long segmentSize, Duration flushInterval) {
+        if (directory == null || prefix == null) {
+            throw new IllegalArgumentException("Must provide a directory and prefix.");
+        }
+        if (segmentSize <= MappedSegmentFormat.HEADER_SIZE * 2 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Unable to create directory: " + directory);
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = (int) segmentSize;
+
+        long[] existingSequences = MappedSegmentFormat.existingSequences(directory, prefix);
+        long firstSequence = (existingSequences.length > 0 ? existingSequences[existingSequences.length - 1] + 1 : 1L);
+        this.currentSegment = openSegment(firstSequence);
+
+        if (flushInterval != null && !flushInterval.isZero() && !flushInterval.isNegative()) {
+            this.flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "jdbc-logger-mapped-file-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = flushInterval.toMillis();
+            flushExecutor.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        else {
+            this.flushExecutor = null;
+        }
+    }
+
+    @Override
+    public void log(String sql) {
+        write(System.currentTimeMillis(), sql);
+    }
+
+    @Override
+    public void log(LoggingEvent event) {
+        write(event.getTimestamp(), event.getMessage());
+    }
+
+    private void write(long timestamp, String message) {
+        // NOTE: empty messages are skipped, a zero length means 'not yet written' to the reader.
+        if (closed || message == null || message.isEmpty()) {
+            return;
+        }
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        // always leave room for the end marker of the segment
+        int maxMessageSize = segmentSize - MappedSegmentFormat.HEADER_SIZE - Integer.BYTES;
+        int length = Math.min(bytes.length, maxMessageSize);
+        int recordSize = MappedSegmentFormat.HEADER_SIZE + length;
+
+        while (true) {
+            Segment segment = currentSegment;
+            long position = segment.reserve(recordSize);
+            if (position >= 0) {
+                segment.write((int) position, timestamp, bytes, length);
+                return;
+            }
+            roll(segment);
+            if (closed) {
+                return;
+            }
+        }
+    }
+
+    private void roll(Segment fullSegment) {
+        synchronized (rollLock) {
+            if (currentSegment != fullSegment || closed) {
+                return;  // another thread already rolled
+            }
+            currentSegment = openSegment(fullSegment.sequence + 1);
+        }
+    }
+
+    private Segment openSegment(long sequence) {
+        File file = MappedSegmentFormat.segmentFile(directory, prefix, sequence);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            // mapping stays valid after the channel is closed.
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            return new Segment(sequence, buffer, segmentSize);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to create segment file: " + file, e);
+        }
+    }
+
+    /**
+     * Forces the current segment to disk.
+     */
+    public void flush() {
+        currentSegment.buffer.force();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+        }
+        synchronized (rollLock) {
+            // lets a reader know that nothing else gets written to this segment
+            currentSegment.seal();
+            currentSegment.buffer.force();
+        }
+    }
+
+    private static class Segment {
+        private final long sequence;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final AtomicLong cursor = new AtomicLong(0L);
+
+        private Segment(long sequence, MappedByteBuffer buffer, int capacity) {
+            this.sequence = sequence;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Reserve space for a record.
+         * @return position of the reserved space, or -1 if the segment is full.
+         */
+        private long reserve(int recordSize) {
+            // last Integer.BYTES of the segment are reserved for the end marker
+            long limit = capacity - Integer.BYTES;
+            while (true) {
+                long position = cursor.get();
+                if (position > limit) {
+                    return -1L;  // already marked as full
+                }
+                if (position + recordSize <= limit) {
+                    if (cursor.compareAndSet(position, position + recordSize)) {
+                        return position;
+                    }
+                }
+                else if (cursor.compareAndSet(position, limit + 1)) {
+                    // this thread 'won' the end of the segment, so it writes the end marker.
+                    buffer.putInt((int) position, MappedSegmentFormat.END_MARKER);
+                    return -1L;
+                }
+            }
+        }
+
+        /**
+         * Marks the segment as full (writes the end marker right after the last reserved record)
+         */
+        private void seal() {
+            long limit = capacity - Integer.BYTES;
+            while (true) {
+                long position = cursor.get();
+                if (position > limit) {
+                    return;  // already marked as full
+                }
+                if (cursor.compareAndSet(position, limit + 1)) {
+                    buffer.putInt((int) position, MappedSegmentFormat.END_MARKER);
+                    return;
+                }
+            }
+        }
+
+        private void write(int position, long timestamp, byte[] bytes, int length) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(position + Integer.BYTES);
+            view.putLong(timestamp);
+            view.put(bytes, 0, length);
+            // length goes last, it's the 'commit' of the record for any reader.
+            buffer.putInt(position, length);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads (and optionally tails) the segment files written by MappedFileLoggingListener.
+ *
+ * A record that was reserved but not (yet) written blocks the reader, since its length is unknown.
+ *   Normally that's just a writer that is still busy, thus it is only treated as a 'hole'
+ *   (i.e. a writer that failed after reserving) once it stays empty for 'holeTimeout'
+ *   after the writer moved on to the next segment.  The rest of that segment is then skipped.
+ *
+ * Command line usage:
+ *    MappedFileReader directory prefix [--follow]
+ */
+public class MappedFileReader {
+    private static final long POLL_MILLIS = 200L;
+    public static final Duration DEFAULT_HOLE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final File directory;
+    private final String prefix;
+    private final long holeTimeoutMillis;
+
+    private long sequence;
+    private MappedByteBuffer buffer = null;
+    private int position = 0;
+
+    // the empty record currently blocking the reader
+    private long holeSequence = -1L;
+    private int holePosition = -1;
+    private long holeSeenMillis = 0L;
+
+    public MappedFileReader(File directory, String prefix) {
+        this(directory, prefix, DEFAULT_HOLE_TIMEOUT);
+    }
+
+    /**
+     * Constructor
+     * @param directory directory of the segment files
+     * @param prefix segment file name prefix
+     * @param holeTimeout how long an unwritten record can block the reader (once the writer moved on to the next segment)
+     */
+    public MappedFileReader(File directory, String prefix, Duration holeTimeout) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.holeTimeoutMillis = holeTimeout.toMillis();
+        long[] sequences = MappedSegmentFormat.existingSequences(directory, prefix);
+        this.sequence = (sequences.length > 0 ? sequences[0] : 1L);
+    }
+
+    /**
+     * Reads all the records that are currently available.
+     * @param consumer receives the epochMillis and message of each record
+     * @return number of records read
+     */
+    public int readAvailable(BiConsumer<Long, String> consumer) throws IOException {
+        int count = 0;
+        while (true) {
+            if (buffer == null && !openSegment()) {
+                return count;
+            }
+            if (position + Integer.BYTES > buffer.capacity()) {
+                nextSegment();
+                continue;
+            }
+            int length = buffer.getInt(position);
+            if (length == MappedSegmentFormat.END_MARKER) {
+                nextSegment();
+                continue;
+            }
+            if (length == 0) {
+                // not written yet (the next call re-reads it), unless it turns out to be a hole.
+                if (isHole()) {
+                    nextSegment();
+                    continue;
+                }
+                return count;
+            }
+            long timestamp = buffer.getLong(position + Integer.BYTES);
+            byte[] bytes = new byte[length];
+            ByteBuffer view = buffer.duplicate();
+            view.position(position + MappedSegmentFormat.HEADER_SIZE);
+            view.get(bytes);
+            position += MappedSegmentFormat.HEADER_SIZE + length;
+            consumer.accept(timestamp, new String(bytes, StandardCharsets.UTF_8));
+            count++;
+        }
+    }
+
+    /**
+     * Keeps reading records as they are written (never returns unless interrupted)
+     * @param consumer receives the epochMillis and message of each record
+     */
+    public void tail(BiConsumer<Long, String> consumer) throws IOException, InterruptedException {
+        while (!Thread.currentThread().isInterrupted()) {
+            if (readAvailable(consumer) == 0) {
+                Thread.sleep(POLL_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * @return true if the empty record at the current position has been empty for too long
+     *   (only once the writer has moved on to a later segment)
+     */
+    private boolean isHole() {
+        if (!MappedSegmentFormat.segmentFile(directory, prefix, sequence + 1).exists()) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (holeSequence != sequence || holePosition != position) {
+            holeSequence = sequence;
+            holePosition = position;
+            holeSeenMillis = now;
+        }
+        return now - holeSeenMillis >= holeTimeoutMillis;
+    }
+
+    private boolean openSegment() throws IOException {
+        File file = MappedSegmentFormat.segmentFile(directory, prefix, sequence);
+        if (!file.exists()) {
+            return false;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        position = 0;
+        return true;
+    }
+
+    private void nextSegment() {
+        sequence++;
+        buffer = null;
+        position = 0;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: MappedFileReader <directory> <prefix> [--follow]");
+            System.exit(1);
+        }
+        MappedFileReader reader = new MappedFileReader(new File(args[0]), args[1]);
+        BiConsumer<Long, String> printer = (timestamp, message) ->
+                System.out.println(Instant.ofEpochMilli(timestamp) + " " + message);
+
+        if (args.length > 2 && "--follow".equals(args[2])) {
+            reader.tail(printer);
+        }
+        else {
+            reader.readAvailable(printer);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Layout of the memory-mapped segment files shared by the writer and reader.
+ *
+ *   segment = record* [END_MARKER]
+ *   record  = int length | long epochMillis | byte[length] utf8 message
+ *
+ * A length of zero means the record has not been written (yet).
+ * The length is written last, thus a reader will never see a partially written message.
+ */
+final class MappedSegmentFormat {
+    static final int END_MARKER = -1;
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    static final String FILE_SUFFIX = ".seg";
+
+    private MappedSegmentFormat() { }
+
+    static File segmentFile(File directory, String prefix, long sequence) {
+        return segmentFile(directory, prefix, sequence, FILE_SUFFIX);
+    }
+
+    static File segmentFile(File directory, String prefix, long sequence, String suffix) {
+        return new File(directory, String.format(Locale.ROOT, "%s-%08d%s", prefix, sequence, suffix));
+    }
+
+    /**
+     * @return sequence numbers of the existing segment files, sorted ascending
+     */
+    static long[] existingSequences(File directory, String prefix) {
+        return existingSequences(directory, prefix, FILE_SUFFIX);
+    }
+
+    static long[] existingSequences(File directory, String prefix, String suffix) {
+        Pattern pattern = Pattern.compile(Pattern.quote(prefix) + "-(\\d+)" + Pattern.quote(suffix));
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return new long[0];
+        }
+        return Arrays.stream(files)
+                .map(f -> pattern.matcher(f.getName()))
+                .filter(Matcher::matches)
+                .mapToLong(m -> Long.parseLong(m.group(1)))
+                .sorted()
+                .toArray();
+    }
+}
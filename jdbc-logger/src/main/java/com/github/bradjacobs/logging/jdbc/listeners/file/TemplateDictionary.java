@@ -0,0 +1,54 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writer side of the template dictionary of a binary journal/capture file (see BinaryJournalFormat)
+ *   Each distinct sql string is written once as a TEMPLATE record, after that it's referenced by its id.
+ *
+ * The dictionary is capped, since plain Statements w/ inlined literals produce a new 'template' for nearly every call.
+ *   Once full, any new sql string (re)uses one overflow id, with its TEMPLATE record written right before
+ *   each statement (a reader simply keeps the latest sql for an id).
+ */
+final class TemplateDictionary {
+    static final int DEFAULT_MAX_TEMPLATES = 10_000;
+
+    private final int maxTemplates;
+    // keyed by the sql string itself, since not every template is registered
+    private final Map<String, Integer> templateIds = new HashMap<>();
+
+    TemplateDictionary() {
+        this(DEFAULT_MAX_TEMPLATES);
+    }
+
+    TemplateDictionary(int maxTemplates) {
+        this.maxTemplates = maxTemplates;
+    }
+
+    /**
+     * Lookup the id of the sql template, writing the template to the dictionary if needed.
+     * @param out file output
+     * @param sql sql template
+     * @return template id
+     */
+    int templateId(DataOutput out, String sql) throws IOException {
+        Integer templateId = templateIds.get(sql);
+        if (templateId != null) {
+            return templateId;
+        }
+        if (templateIds.size() < maxTemplates) {
+            templateId = templateIds.size();
+            templateIds.put(sql, templateId);
+        }
+        else {
+            templateId = maxTemplates;  // overflow id
+        }
+        out.writeByte(BinaryJournalFormat.TEMPLATE_RECORD);
+        BinaryJournalFormat.writeVarInt(out, templateId);
+        BinaryJournalFormat.writeString(out, (sql != null ? sql : ""));
+        return templateId;
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.event.MultiRowInsertEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * LoggingListener that captures the executed statements, so they can be replayed later (see WorkloadReplayer)
+ *
+ * Along with the sql template and parameters, each statement records when it started (relative to the
+ *   start of the capture) and which connection/thread executed it.  Non-statement events are ignored.
+ *
+ * File layout is the same as the binary journal (see BinaryJournalFormat), except for the header
+ *   and the statement records:
+ *
+ *   file header:  long CAPTURE_MAGIC | int VERSION
+ *   STATEMENT:  varlong startOffsetNanos | varlong connectionId | varlong threadId | varint templateId
+ *               | varlong elapsedNanos | varint batchSize | varint paramCount
+ *               | paramCount x (varint paramIndex | byte typeTag | value)
+ */
+public class WorkloadCaptureListener implements LoggingListener, Closeable {
+    static final long CAPTURE_MAGIC = 0x4A44424341505431L;  // "JDBCAPT1"
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final long captureStartNanos;
+    private final TemplateDictionary templateDictionary = new TemplateDictionary();
+    private boolean closed = false;
+
+    public WorkloadCaptureListener(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("Must provide a capture file.");
+        }
+        try {
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+            BinaryJournalFormat.writeHeader(out, CAPTURE_MAGIC);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to create capture file: " + file, e);
+        }
+        this.captureStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void log(String sql) {
+        // only statement events can be replayed.
+    }
+
+    @Override
+    public void log(LoggingEvent event) {
+        if (event instanceof StatementEvent) {
+            write((StatementEvent) event);
+        }
+        else if (event instanceof MultiRowInsertEvent) {
+            // replay the rows as they were executed
+            for (StatementEvent statementEvent : ((MultiRowInsertEvent) event).getStatementEvents()) {
+                write(statementEvent);
+            }
+        }
+    }
+
+    private synchronized void write(StatementEvent event) {
+        if (closed) {
+            return;
+        }
+        try {
+            int templateId = templateDictionary.templateId(out, event.getTemplate());
+            out.writeByte(BinaryJournalFormat.STATEMENT_RECORD);
+            BinaryJournalFormat.writeVarLong(out, Math.max(0L, event.getStartNanos() - captureStartNanos));
+            BinaryJournalFormat.writeSignedVarLong(out, event.getConnectionId());
+            BinaryJournalFormat.writeVarLong(out, event.getThreadId());
+            BinaryJournalFormat.writeVarInt(out, templateId);
+            BinaryJournalFormat.writeVarLong(out, event.getElapsedNanos());
+            BinaryJournalFormat.writeVarInt(out, event.getBatchSize());
+            BinaryJournalFormat.writeParams(out, event.getParams());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to write to capture file", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the statements from a file written by WorkloadCaptureListener.
+ */
+public class WorkloadCaptureReader {
+
+    private WorkloadCaptureReader() { }
+
+    public static List<CapturedStatement> read(File file) throws IOException {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            return read(inputStream);
+        }
+    }
+
+    /**
+     * Reads all the statements of the capture
+     * @param inputStream capture file input stream
+     * @return statements in the order they were written (which is not necessarily their start order)
+     */
+    public static List<CapturedStatement> read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readLong() != WorkloadCaptureListener.CAPTURE_MAGIC) {
+            throw new IOException("Not a workload capture file.");
+        }
+        int version = in.readInt();
+        if (!BinaryJournalFormat.isSupportedVersion(version)) {
+            throw new IOException("Unsupported capture version: " + version);
+        }
+
+        Map<Integer, String> templates = new HashMap<>();
+        List<CapturedStatement> statements = new ArrayList<>();
+        while (true) {
+            int recordType = in.read();
+            if (recordType < 0) {
+                return statements;
+            }
+            try {
+                switch (recordType) {
+                    case BinaryJournalFormat.TEMPLATE_RECORD:
+                        templates.put(BinaryJournalFormat.readVarInt(in), BinaryJournalFormat.readString(in));
+                        break;
+                    case BinaryJournalFormat.STATEMENT_RECORD:
+                        statements.add(readStatement(in, templates));
+                        break;
+                    default:
+                        throw new IOException("Unrecognized capture record type: " + recordType);
+                }
+            }
+            catch (EOFException e) {
+                // the last record was only partially written (i.e. the writer didn't close the capture)
+                return statements;
+            }
+        }
+    }
+
+    private static CapturedStatement readStatement(DataInputStream in, Map<Integer, String> templates) throws IOException {
+        long startOffsetNanos = BinaryJournalFormat.readVarLong(in);
+        long connectionId = BinaryJournalFormat.readSignedVarLong(in);
+        long threadId = BinaryJournalFormat.readVarLong(in);
+        int templateId = BinaryJournalFormat.readVarInt(in);
+        long elapsedNanos = BinaryJournalFormat.readVarLong(in);
+        int batchSize = BinaryJournalFormat.readVarInt(in);
+        Map<Integer, Object> params = BinaryJournalFormat.readParams(in);
+
+        String sql = templates.get(templateId);
+        if (sql == null) {
+            throw new IOException("Capture references an unknown template id: " + templateId);
+        }
+        return new CapturedStatement(startOffsetNanos, connectionId, threadId, sql, params, elapsedNanos, batchSize);
+    }
+}
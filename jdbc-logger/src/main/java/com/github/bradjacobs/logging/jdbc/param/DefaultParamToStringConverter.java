@@ -34,6 +34,12 @@ public class DefaultParamToStringConverter implements ParamToStringConverter {
         if (paramValue == null) {
             return convertNull();
         }
+        else if (paramValue instanceof MaskedValue) {
+            return ((MaskedValue)paramValue).getPlaceholder();
+        }
+        else if (paramValue instanceof RawValue) {
+            return ((RawValue)paramValue).getText();
+        }
         else if (paramValue instanceof String) {
             return convertString((String)paramValue);
         }
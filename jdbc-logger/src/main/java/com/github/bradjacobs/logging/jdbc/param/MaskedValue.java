@@ -0,0 +1,25 @@
+package com.github.bradjacobs.logging.jdbc.param;
+
+/**
+ * Stands in for a sensitive parameter value (see ParameterMasking),
+ *   the original value is dropped before the statement event is created, thus it never gets converted to a string.
+ */
+public final class MaskedValue {
+    private final String placeholder;
+
+    public MaskedValue(String placeholder) {
+        if (placeholder == null) {
+            throw new IllegalArgumentException("Must provide a placeholder.");
+        }
+        this.placeholder = placeholder;
+    }
+
+    public String getPlaceholder() {
+        return placeholder;
+    }
+
+    @Override
+    public String toString() {
+        return placeholder;
+    }
+}
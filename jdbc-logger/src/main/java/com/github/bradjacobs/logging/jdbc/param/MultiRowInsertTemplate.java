@@ -0,0 +1,171 @@
+package com.github.bradjacobs.logging.jdbc.param;
+
+import com.github.bradjacobs.logging.jdbc.StatementType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single row INSERT split into the parts needed to render several rows as one multi-row INSERT.
+ *   i.e. "INSERT INTO t (a, b) VALUES (?, ?)" becomes "INSERT INTO t (a, b) VALUES (1, 'x'),(2, 'y')"
+ *
+ * Only applies when the sql is an INSERT with exactly one VALUES tuple, and every placeholder is inside that tuple.
+ *   (anything after the tuple, like "ON CONFLICT DO NOTHING", is kept after the last row)
+ */
+public final class MultiRowInsertTemplate {
+    private static final String VALUES_KEYWORD = "values";
+
+    // everything up to (and including) the VALUES keyword plus whitespace
+    private final String prefix;
+    private final PlaceholderTemplate row;
+    private final String suffix;
+
+    private MultiRowInsertTemplate(String prefix, PlaceholderTemplate row, String suffix) {
+        this.prefix = prefix;
+        this.row = row;
+        this.suffix = suffix;
+    }
+
+    /**
+     * @return the VALUES tuple of a single row (with its placeholders)
+     */
+    public PlaceholderTemplate getRow() {
+        return row;
+    }
+
+    /**
+     * Renders the rows as one INSERT statement
+     * @param rows parameter values of each row, keyed by parameter slot
+     * @param sqlTagFiller used to fill in the row placeholders
+     * @return the multi-row INSERT statement
+     */
+    public String render(List<Map<Integer, Object>> rows, SqlTagFiller sqlTagFiller) {
+        StringBuilder sb = new StringBuilder(
+                prefix.length() + suffix.length() + rows.size() * (row.getSql().length() + 16 * row.getPlaceholderCount()));
+        sb.append(prefix);
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sqlTagFiller.fill(sb, row, rows.get(i));
+        }
+        return sb.append(suffix).toString();
+    }
+
+    /**
+     * @param sql sql string
+     * @return the multi-row INSERT template, or null if the sql is not a single row INSERT w/ placeholders
+     */
+    public static MultiRowInsertTemplate parse(String sql) {
+        if (sql == null || StatementType.of(sql) != StatementType.INSERT) {
+            return null;
+        }
+        int valuesEnd = findValuesKeyword(sql);
+        if (valuesEnd < 0) {
+            return null;
+        }
+        int rowStart = valuesEnd;
+        while (rowStart < sql.length() && Character.isWhitespace(sql.charAt(rowStart))) {
+            rowStart++;
+        }
+        if (rowStart >= sql.length() || sql.charAt(rowStart) != '(') {
+            return null;
+        }
+        int rowEnd = findClosingParenthesis(sql, rowStart);
+        if (rowEnd < 0) {
+            return null;
+        }
+
+        String prefix = sql.substring(0, rowStart);
+        String suffix = sql.substring(rowEnd);
+        // i.e. "VALUES (?, ?), (?, ?)" is already multi-row
+        if (suffix.trim().startsWith(",")) {
+            return null;
+        }
+        PlaceholderTemplate row = PlaceholderTemplate.parse(sql.substring(rowStart, rowEnd));
+        if (row.getPlaceholderCount() == 0
+                || PlaceholderTemplate.parse(prefix).getPlaceholderCount() != 0
+                || PlaceholderTemplate.parse(suffix).getPlaceholderCount() != 0) {
+            return null;
+        }
+        // a trailing ';' would end the statement after the first row, so it's kept at the very end.
+        return new MultiRowInsertTemplate(prefix, row, suffix);
+    }
+
+    /**
+     * @return index right after the (first) VALUES keyword, or -1 if there is none
+     */
+    private static int findValuesKeyword(String sql) {
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            int skipTo = skipQuotedOrComment(sql, i);
+            if (skipTo > i) {
+                i = skipTo;
+            }
+            else if (Character.isLetter(c) && (i == 0 || !isNamePart(sql.charAt(i - 1)))) {
+                int end = i + 1;
+                while (end < length && isNamePart(sql.charAt(end))) {
+                    end++;
+                }
+                if (end - i == VALUES_KEYWORD.length() && sql.regionMatches(true, i, VALUES_KEYWORD, 0, end - i)) {
+                    return end;
+                }
+                i = end;
+            }
+            else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return index right after the parenthesis that closes the one at 'start', or -1 if it is never closed
+     */
+    private static int findClosingParenthesis(String sql, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < sql.length()) {
+            int skipTo = skipQuotedOrComment(sql, i);
+            if (skipTo > i) {
+                i = skipTo;
+                continue;
+            }
+            char c = sql.charAt(i++);
+            if (c == '(') {
+                depth++;
+            }
+            else if (c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return index right after the string literal / quoted identifier / comment starting at 'i' (or 'i' if there is none)
+     */
+    private static int skipQuotedOrComment(String sql, int i) {
+        int length = sql.length();
+        char c = sql.charAt(i);
+        if (c == '\'' || c == '"' || c == '`') {
+            int end = sql.indexOf(c, i + 1);
+            return (end < 0 ? length : end + 1);
+        }
+        else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+            int end = sql.indexOf('\n', i);
+            return (end < 0 ? length : end + 1);
+        }
+        else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+            int end = sql.indexOf("*/", i + 2);
+            return (end < 0 ? length : end + 2);
+        }
+        return i;
+    }
+
+    private static boolean isNamePart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
@@ -0,0 +1,312 @@
+package com.github.bradjacobs.logging.jdbc.param;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The parameter placeholders of a sql string, each mapped to its parameter slot (index).
+ *   Supported placeholder syntaxes:
+ *     ?        positional    (slots 1, 2, 3, ... in order)
+ *     $1, :1   numbered      (slot is the number)
+ *     @p1      numbered      (sql server style, slot is the number)
+ *     :name    named         (each distinct name gets the next slot, in order of first appearance)
+ *     @name    named
+ *
+ * If the sql contains any '?' then only the positional placeholders are used (the others are just sql text),
+ *   thus an existing positional statement never changes meaning.
+ * Placeholders inside string literals, quoted identifiers and comments are ignored,
+ *   as are '::' casts and '@@' system variables.
+ * Backslash escaped quotes are understood as well (always inside E'...' strings), and if the literals still
+ *   can't be made sense of (i.e. an unterminated literal) then simply every '?' is used, in order.
+ */
+public final class PlaceholderTemplate {
+    private static final int POSITIONAL = 0;
+    private static final int NUMBERED = 1;
+    private static final int NAMED = 2;
+
+    private final String sql;
+    // sql text before each placeholder (the text after the last placeholder is the last entry)
+    private final String[] fragments;
+    private final String[] placeholders;
+    private final int[] slots;
+    // lower case name (w/o the ':' or '@' prefix) to slot
+    private final Map<String, Integer> namedSlots;
+
+    private PlaceholderTemplate(String sql, String[] fragments, String[] placeholders, int[] slots,
+                                Map<String, Integer> namedSlots) {
+        this.sql = sql;
+        this.fragments = fragments;
+        this.placeholders = placeholders;
+        this.slots = slots;
+        this.namedSlots = namedSlots;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return number of placeholders (a named placeholder used twice counts twice)
+     */
+    public int getPlaceholderCount() {
+        return slots.length;
+    }
+
+    /**
+     * @param placeholderIndex index of the placeholder (0-based, in sql order)
+     * @return the parameter slot of the placeholder
+     */
+    public int getPlaceholderSlot(int placeholderIndex) {
+        return slots[placeholderIndex];
+    }
+
+    /**
+     * @return the sql w/ every placeholder replaced by a '?' (thus the placeholder order is kept)
+     */
+    public String toPositionalSql() {
+        if (sql == null || slots.length == 0) {
+            return sql;
+        }
+        StringBuilder sb = new StringBuilder(sql.length());
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(fragments[i]).append('?');
+        }
+        return sb.append(fragments[slots.length]).toString();
+    }
+
+    /**
+     * @param parameterName name of a named placeholder (case-insensitive, w/ or w/o the ':' or '@' prefix)
+     * @return the parameter slot of the name (-1 if the sql has no such named placeholder)
+     */
+    public int getSlot(String parameterName) {
+        if (parameterName == null || namedSlots.isEmpty()) {
+            return -1;
+        }
+        String name = parameterName;
+        if (name.startsWith(":") || name.startsWith("@")) {
+            name = name.substring(1);
+        }
+        Integer slot = namedSlots.get(name.toLowerCase(Locale.ROOT));
+        return (slot != null ? slot : -1);
+    }
+
+    /**
+     * Replaces the placeholders w/ the given values
+     * @param paramMap parameter values keyed by slot
+     * @param paramToStringConverter converts a value to its sql string
+     * @return the 'filled in' SQL string (placeholders w/o a value are left as-is)
+     */
+    String fill(Map<Integer, Object> paramMap, ParamToStringConverter paramToStringConverter) {
+        if (slots.length == 0 || paramMap == null || paramMap.isEmpty()) {
+            return sql;
+        }
+        StringBuilder sb = new StringBuilder(sql.length() + 16 * slots.length);
+        fill(sb, paramMap, paramToStringConverter);
+        return sb.toString();
+    }
+
+    /**
+     * Same as fill, but appends to the given builder (i.e. when several statements are rendered into one string)
+     */
+    void fill(StringBuilder sb, Map<Integer, Object> paramMap, ParamToStringConverter paramToStringConverter) {
+        if (slots.length == 0 || paramMap == null || paramMap.isEmpty()) {
+            sb.append(sql);
+            return;
+        }
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(fragments[i]);
+            int slot = slots[i];
+            // distinguish b/w having a null value for a given key vs there's a missing entry in the map
+            if (paramMap.containsKey(slot)) {
+                sb.append(paramToStringConverter.convertToString(paramMap.get(slot)));
+            }
+            else {
+                sb.append(placeholders[i]);
+            }
+        }
+        sb.append(fragments[slots.length]);
+    }
+
+    /**
+     * @param sql sql string
+     * @return the parsed placeholders
+     */
+    public static PlaceholderTemplate parse(String sql) {
+        if (sql == null) {
+            return new PlaceholderTemplate(null, new String[] {null}, new String[0], new int[0], Collections.emptyMap());
+        }
+        List<int[]> found = scan(sql, false);
+        if (found == null || sql.indexOf('\\') >= 0) {
+            // maybe backslash escaped quotes (i.e. mysql's default mode), keep whichever reading finds more placeholders
+            List<int[]> escapedFound = scan(sql, true);
+            if (found == null || (escapedFound != null && escapedFound.size() > found.size())) {
+                found = escapedFound;
+            }
+        }
+        if (found == null) {
+            // the literals can't be made sense of, simply use every '?' (in order)
+            found = new ArrayList<>();
+            for (int i = sql.indexOf('?'); i >= 0; i = sql.indexOf('?', i + 1)) {
+                found.add(new int[] {i, i + 1, POSITIONAL});
+            }
+        }
+        boolean hasPositional = false;
+        for (int[] placeholder : found) {
+            if (placeholder[2] == POSITIONAL) {
+                hasPositional = true;
+                break;
+            }
+        }
+
+        List<int[]> placeholderList = new ArrayList<>();
+        for (int[] placeholder : found) {
+            if (hasPositional == (placeholder[2] == POSITIONAL)) {
+                placeholderList.add(placeholder);
+            }
+        }
+
+        int count = placeholderList.size();
+        String[] fragments = new String[count + 1];
+        String[] placeholders = new String[count];
+        int[] slots = new int[count];
+        Map<String, Integer> namedSlots = new HashMap<>();
+        int namedCount = 0;
+        int lastEnd = 0;
+        for (int p = 0; p < count; p++) {
+            int[] placeholder = placeholderList.get(p);
+            fragments[p] = sql.substring(lastEnd, placeholder[0]);
+            placeholders[p] = sql.substring(placeholder[0], placeholder[1]);
+            String name = placeholders[p].substring(1).toLowerCase(Locale.ROOT);
+            if (placeholder[2] == POSITIONAL) {
+                slots[p] = p + 1;
+            }
+            else if (placeholder[2] == NUMBERED) {
+                slots[p] = Integer.parseInt(isNumber(name) ? name : name.substring(1));
+                if (!isNumber(name)) {
+                    namedSlots.put(name, slots[p]);
+                }
+            }
+            else {
+                Integer slot = namedSlots.get(name);
+                if (slot == null) {
+                    slot = ++namedCount;
+                    namedSlots.put(name, slot);
+                }
+                slots[p] = slot;
+            }
+            lastEnd = placeholder[1];
+        }
+        fragments[count] = sql.substring(lastEnd);
+        return new PlaceholderTemplate(sql, fragments, placeholders, slots, Collections.unmodifiableMap(namedSlots));
+    }
+
+    /**
+     * @param sql sql string
+     * @param backslashEscapes true if a backslash escapes the next character inside a quoted literal
+     * @return the placeholders found, {start, end, kind} each
+     *   (null if a quoted literal or comment is not terminated, i.e. the sql uses some other escape convention)
+     */
+    private static List<int[]> scan(String sql, boolean backslashEscapes) {
+        List<int[]> found = new ArrayList<>();   // {start, end, kind}
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                // postgres E'...' strings always use backslash escapes
+                boolean escapeString = (c == '\'' && i > 0 && (sql.charAt(i - 1) == 'E' || sql.charAt(i - 1) == 'e')
+                        && (i == 1 || !isNamePart(sql.charAt(i - 2))));
+                int end = endOfQuoted(sql, i, c != '`' && (backslashEscapes || escapeString));
+                if (end < 0) {
+                    return null;
+                }
+                i = end + 1;
+            }
+            else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                int end = sql.indexOf('\n', i);
+                i = (end < 0 ? length : end + 1);
+            }
+            else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                if (end < 0) {
+                    return null;
+                }
+                i = end + 2;
+            }
+            else if (c == '?') {
+                found.add(new int[] {i, i + 1, POSITIONAL});
+                i++;
+            }
+            else if ((c == ':' || c == '@') && i + 1 < length && sql.charAt(i + 1) == c) {
+                // '::' cast or '@@' system variable
+                i += 2;
+            }
+            else if ((c == '$' || c == ':' || c == '@') && i + 1 < length && (i == 0 || !isNamePart(sql.charAt(i - 1)))) {
+                int end = i + 1;
+                while (end < length && isNamePart(sql.charAt(end))) {
+                    end++;
+                }
+                String name = sql.substring(i + 1, end);
+                if (isNumber(name) && c != '@') {
+                    found.add(new int[] {i, end, NUMBERED});
+                }
+                else if (c != '$' && !name.isEmpty() && !Character.isDigit(name.charAt(0))) {
+                    found.add(new int[] {i, end, isSqlServerNumbered(name) ? NUMBERED : NAMED});
+                }
+                i = Math.max(end, i + 1);
+            }
+            else {
+                i++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return index of the closing quote (-1 if not terminated)
+     */
+    private static int endOfQuoted(String sql, int start, boolean backslashEscapes) {
+        char quote = sql.charAt(start);
+        int length = sql.length();
+        for (int i = start + 1; i < length; i++) {
+            char c = sql.charAt(i);
+            if (c == '\\' && backslashEscapes) {
+                i++;
+            }
+            else if (c == quote) {
+                // '' (or "") is an escaped quote
+                if (i + 1 < length && sql.charAt(i + 1) == quote) {
+                    i++;
+                }
+                else {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isNamePart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean isNumber(String s) {
+        if (s.isEmpty() || s.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSqlServerNumbered(String name) {
+        return (name.charAt(0) == 'p' || name.charAt(0) == 'P') && isNumber(name.substring(1));
+    }
+}
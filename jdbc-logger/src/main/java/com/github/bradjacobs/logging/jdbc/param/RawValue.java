@@ -0,0 +1,25 @@
+package com.github.bradjacobs.logging.jdbc.param;
+
+/**
+ * A parameter value that is only known by its already rendered sql text (i.e. a value decoded from a binary journal),
+ *   it gets rendered as-is, the same way the original value was rendered.
+ */
+public final class RawValue {
+    private final String text;
+
+    public RawValue(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Must provide the text.");
+        }
+        this.text = text;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
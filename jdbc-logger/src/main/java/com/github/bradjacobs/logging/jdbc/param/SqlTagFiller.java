@@ -34,6 +34,9 @@ public class SqlTagFiller {
         if (source == null) {
             return null;
         }
+        if (tag.equals(DEFAULT_TAG)) {
+            return PlaceholderTemplate.parse(source).fill(paramMap, paramToStringConverter);
+        }
 
         int tagIdx = source.indexOf(tag);
 
@@ -65,4 +68,40 @@ public class SqlTagFiller {
         sb.append(source.substring(lastIdx));
         return sb.toString();
     }
+
+    /**
+     * Appends the 'filled in' SQL string of an already parsed sql string to the builder.
+     * @param sb builder to append to
+     * @param template parsed sql string
+     * @param paramMap parameter values keyed by parameter slot
+     */
+    public void fill(StringBuilder sb, PlaceholderTemplate template, Map<Integer, Object> paramMap) {
+        if (!tag.equals(DEFAULT_TAG)) {
+            sb.append(replace(template.getSql(), paramMap));
+            return;
+        }
+        template.fill(sb, paramMap, paramToStringConverter);
+    }
+
+    /**
+     * @param value parameter value
+     * @return the value as it would appear in the 'filled in' SQL string.
+     */
+    public String toSqlString(Object value) {
+        return paramToStringConverter.convertToString(value);
+    }
+
+    /**
+     * Replaces the placeholders of an already parsed sql string (see PlaceholderTemplate)
+     *   supports the positional '?' as well as the numbered ($1, :1, @p1) and named (:name, @name) placeholders.
+     * @param template parsed sql string
+     * @param paramMap parameter values keyed by parameter slot
+     * @return the 'filled in' SQL string.
+     */
+    public String fill(PlaceholderTemplate template, Map<Integer, Object> paramMap) {
+        if (!tag.equals(DEFAULT_TAG)) {
+            return replace(template.getSql(), paramMap);
+        }
+        return template.fill(paramMap, paramToStringConverter);
+    }
 }
@@ -0,0 +1,95 @@
+package com.github.bradjacobs.logging.jdbc.replay;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a WorkloadReplayer run.
+ */
+public class ReplayResult {
+    private final int connectionCount;
+    private final long statementCount;
+    private final long errorCount;
+    private final long skippedCount;
+    private final long capturedElapsedNanos;
+    private final long replayedElapsedNanos;
+    private final long wallClockNanos;
+    private final List<String> errorMessages;
+
+    ReplayResult(int connectionCount, long statementCount, long errorCount, long skippedCount, long capturedElapsedNanos,
+                 long replayedElapsedNanos, long wallClockNanos, List<String> errorMessages) {
+        this.connectionCount = connectionCount;
+        this.statementCount = statementCount;
+        this.errorCount = errorCount;
+        this.skippedCount = skippedCount;
+        this.capturedElapsedNanos = capturedElapsedNanos;
+        this.replayedElapsedNanos = replayedElapsedNanos;
+        this.wallClockNanos = wallClockNanos;
+        this.errorMessages = Collections.unmodifiableList(errorMessages);
+    }
+
+    /**
+     * @return number of captured connections that were replayed (at most WorkloadReplayer 'maxConnections' at a time)
+     */
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    /**
+     * @return number of statements that were replayed (including the ones that failed, excluding the skipped ones)
+     */
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * @return number of statements that were not executed, b/c a parameter value was masked
+     *   or its type was only captured as its string representation.
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * @return total execution time of the statements when they were captured
+     */
+    public long getCapturedElapsedNanos() {
+        return capturedElapsedNanos;
+    }
+
+    /**
+     * @return total execution time of the statements during the replay
+     */
+    public long getReplayedElapsedNanos() {
+        return replayedElapsedNanos;
+    }
+
+    /**
+     * @return wall clock time of the entire replay
+     */
+    public long getWallClockNanos() {
+        return wallClockNanos;
+    }
+
+    /**
+     * @return messages of the first errors encountered (capped at WorkloadReplayer.MAX_ERROR_MESSAGES)
+     */
+    public List<String> getErrorMessages() {
+        return errorMessages;
+    }
+
+    @Override
+    public String toString() {
+        double nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+        return String.format(Locale.ROOT,
+                "replayed %,d statements on %,d connections (%,d errors, %,d skipped) in %.3fs, execution time %.3fs (captured %.3fs)",
+                statementCount, connectionCount, errorCount, skippedCount, wallClockNanos / nanosPerSecond,
+                replayedElapsedNanos / nanosPerSecond, capturedElapsedNanos / nanosPerSecond);
+    }
+}
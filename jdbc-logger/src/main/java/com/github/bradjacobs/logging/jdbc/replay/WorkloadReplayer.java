@@ -0,0 +1,299 @@
+package com.github.bradjacobs.logging.jdbc.replay;
+
+import com.github.bradjacobs.logging.jdbc.listeners.file.CapturedStatement;
+import com.github.bradjacobs.logging.jdbc.param.MaskedValue;
+import com.github.bradjacobs.logging.jdbc.param.RawValue;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Re-executes a captured workload (see WorkloadCaptureListener) against a target DataSource.
+ *
+ * Every captured connection is replayed on its own connection, which is only opened once its first statement is due
+ *   and closed right after its last statement, so the original connection overlap is kept.
+ *   The number of connections replayed at the same time is capped by 'maxConnections' (a connection that doesn't
+ *   fit waits for another one to finish).
+ *   With a speed factor, each statement waits until its (scaled) original start offset before executing,
+ *   otherwise the statements are executed as fast as possible.
+ *
+ * Statements with a parameter value that was not captured as-is (a masked value, or a type that was only captured
+ *   as its string representation) are skipped rather than executed with a bogus value, see ReplayResult.getSkippedCount.
+ *
+ * NOTE: commits/rollbacks are not captured, thus the replay connections are left in their default (autoCommit) mode.
+ */
+public class WorkloadReplayer {
+    /** speed factor that ignores the captured timing and executes the statements back-to-back */
+    public static final double AS_FAST_AS_POSSIBLE = 0d;
+    public static final int DEFAULT_MAX_CONNECTIONS = 32;
+    static final int MAX_ERROR_MESSAGES = 100;
+
+    private final DataSource dataSource;
+    private final double speedFactor;
+    private final int maxConnections;
+
+    public WorkloadReplayer(DataSource dataSource) {
+        this(dataSource, AS_FAST_AS_POSSIBLE);
+    }
+
+    /**
+     * Constructor
+     * @param dataSource target dataSource to replay the statements against
+     * @param speedFactor 1.0 keeps the original pacing, 2.0 is twice as fast, etc.  (AS_FAST_AS_POSSIBLE to ignore pacing)
+     */
+    public WorkloadReplayer(DataSource dataSource, double speedFactor) {
+        this(dataSource, speedFactor, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * Constructor
+     * @param dataSource target dataSource to replay the statements against
+     * @param speedFactor 1.0 keeps the original pacing, 2.0 is twice as fast, etc.  (AS_FAST_AS_POSSIBLE to ignore pacing)
+     * @param maxConnections max number of connections (and threads) used at the same time
+     */
+    public WorkloadReplayer(DataSource dataSource, double speedFactor, int maxConnections) {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Must provide a dataSource.");
+        }
+        if (speedFactor < 0 || Double.isNaN(speedFactor) || Double.isInfinite(speedFactor)) {
+            throw new IllegalArgumentException("Invalid speed factor: " + speedFactor);
+        }
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("maxConnections must be greater than zero.");
+        }
+        this.dataSource = dataSource;
+        this.speedFactor = speedFactor;
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * Replays the statements, blocks until all of them have been executed.
+     * @param statements captured statements
+     * @return replay result
+     */
+    public ReplayResult replay(List<CapturedStatement> statements) throws InterruptedException {
+        List<List<CapturedStatement>> connections = new ArrayList<>(groupByConnection(statements).values());
+        int connectionCount = connections.size();
+        if (connectionCount == 0) {
+            return new ReplayResult(0, 0, 0, 0, 0, 0, 0, new ArrayList<>());
+        }
+        // in the order the connections were first used
+        connections.sort(Comparator.comparingLong(c -> c.get(0).getStartOffsetNanos()));
+
+        ReplayStats stats = new ReplayStats();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(connectionCount, maxConnections), r -> {
+            Thread thread = new Thread(r, "jdbc-logger-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long replayStartNanos = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(connectionCount);
+            for (List<CapturedStatement> connectionStatements : connections) {
+                // the connection is only handed to a worker (which opens it) once its first statement is due
+                awaitStartOffset(connectionStatements.get(0).getStartOffsetNanos(), replayStartNanos);
+                futures.add(executor.submit(() -> {
+                    replayConnection(connectionStatements, replayStartNanos, stats);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                }
+                catch (ExecutionException e) {
+                    stats.error(e.getCause());
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        long wallClockNanos = System.nanoTime() - replayStartNanos;
+        return new ReplayResult(connectionCount, stats.statementCount.sum(), stats.errorCount.sum(), stats.skippedCount.sum(),
+                stats.capturedElapsedNanos.sum(), stats.replayedElapsedNanos.sum(), wallClockNanos, stats.errorMessages);
+    }
+
+    private static Map<Long, List<CapturedStatement>> groupByConnection(List<CapturedStatement> statements) {
+        Map<Long, List<CapturedStatement>> statementsByConnection = new LinkedHashMap<>();
+        for (CapturedStatement statement : statements) {
+            statementsByConnection.computeIfAbsent(statement.getConnectionId(), k -> new ArrayList<>()).add(statement);
+        }
+        // statements are written when they get logged, which isn't necessarily their start order
+        //    (i.e. queries are logged when their ResultSet is closed).  NOTE: sort is stable, so batches keep their order.
+        for (List<CapturedStatement> connectionStatements : statementsByConnection.values()) {
+            connectionStatements.sort(Comparator.comparingLong(CapturedStatement::getStartOffsetNanos));
+        }
+        return statementsByConnection;
+    }
+
+    private void replayConnection(List<CapturedStatement> statements, long replayStartNanos, ReplayStats stats)
+            throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            int index = 0;
+            while (index < statements.size()) {
+                CapturedStatement statement = statements.get(index);
+                int groupSize = batchGroupSize(statements, index);
+                List<CapturedStatement> group = statements.subList(index, index + groupSize);
+                index += groupSize;
+                if (!isReplayable(group)) {
+                    stats.skippedCount.add(groupSize);
+                    continue;
+                }
+
+                awaitStartOffset(statement.getStartOffsetNanos(), replayStartNanos);
+                long startNanos = System.nanoTime();
+                try {
+                    if (statement.getBatchSize() > 0) {
+                        executeBatch(connection, group);
+                    }
+                    else {
+                        execute(connection, statement);
+                    }
+                }
+                catch (SQLException e) {
+                    stats.error(e);
+                }
+                stats.replayedElapsedNanos.add(System.nanoTime() - startNanos);
+                stats.statementCount.add(groupSize);
+                for (CapturedStatement groupStatement : group) {
+                    stats.capturedElapsedNanos.add(groupStatement.getElapsedNanos());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of statements that were executed together with the statement at the given index
+     */
+    private static int batchGroupSize(List<CapturedStatement> statements, int index) {
+        CapturedStatement first = statements.get(index);
+        if (first.getBatchSize() <= 0) {
+            return 1;
+        }
+        int size = 1;
+        while (size < first.getBatchSize() && index + size < statements.size()) {
+            CapturedStatement next = statements.get(index + size);
+            if (next.getBatchSize() != first.getBatchSize() || next.getStartOffsetNanos() != first.getStartOffsetNanos()) {
+                break;
+            }
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * @return false if any parameter value was not captured as-is (thus can't be bound to the statement)
+     */
+    private static boolean isReplayable(List<CapturedStatement> group) {
+        for (CapturedStatement statement : group) {
+            for (Object value : statement.getParams().values()) {
+                if (value instanceof MaskedValue || value instanceof RawValue) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void awaitStartOffset(long startOffsetNanos, long replayStartNanos) {
+        if (speedFactor == AS_FAST_AS_POSSIBLE) {
+            return;
+        }
+        long targetNanos = replayStartNanos + (long) (startOffsetNanos / speedFactor);
+        long remainingNanos;
+        while ((remainingNanos = targetNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remainingNanos);
+        }
+    }
+
+    private static void execute(Connection connection, CapturedStatement statement) throws SQLException {
+        if (statement.getParams().isEmpty()) {
+            try (Statement stmt = connection.createStatement()) {
+                if (stmt.execute(statement.getSql())) {
+                    drain(stmt.getResultSet());
+                }
+            }
+        }
+        else {
+            try (PreparedStatement stmt = connection.prepareStatement(statement.getSql())) {
+                setParameters(stmt, statement.getParams());
+                if (stmt.execute()) {
+                    drain(stmt.getResultSet());
+                }
+            }
+        }
+    }
+
+    private static void executeBatch(Connection connection, List<CapturedStatement> group) throws SQLException {
+        CapturedStatement first = group.get(0);
+        if (first.getParams().isEmpty()) {
+            try (Statement stmt = connection.createStatement()) {
+                for (CapturedStatement statement : group) {
+                    stmt.addBatch(statement.getSql());
+                }
+                stmt.executeBatch();
+            }
+        }
+        else {
+            try (PreparedStatement stmt = connection.prepareStatement(first.getSql())) {
+                for (CapturedStatement statement : group) {
+                    setParameters(stmt, statement.getParams());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    private static void setParameters(PreparedStatement stmt, Map<Integer, Object> params) throws SQLException {
+        for (Map.Entry<Integer, Object> entry : params.entrySet()) {
+            stmt.setObject(entry.getKey(), entry.getValue());
+        }
+    }
+
+    // fetch all the rows, to keep the replay load realistic.
+    private static void drain(ResultSet resultSet) throws SQLException {
+        if (resultSet != null) {
+            try (ResultSet rs = resultSet) {
+                while (rs.next()) {
+                    // consume
+                }
+            }
+        }
+    }
+
+    private static class ReplayStats {
+        private final LongAdder statementCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder skippedCount = new LongAdder();
+        private final LongAdder capturedElapsedNanos = new LongAdder();
+        private final LongAdder replayedElapsedNanos = new LongAdder();
+        private final List<String> errorMessages = new ArrayList<>();
+
+        private void error(Throwable error) {
+            errorCount.increment();
+            synchronized (errorMessages) {
+                if (errorMessages.size() < MAX_ERROR_MESSAGES) {
+                    errorMessages.add(String.valueOf(error));
+                }
+            }
+        }
+    }
+}
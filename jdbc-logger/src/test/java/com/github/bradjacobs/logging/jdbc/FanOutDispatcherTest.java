@@ -0,0 +1,237 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import com.github.bradjacobs.logging.jdbc.listeners.BatchLoggingListener;
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FanOutDispatcherTest {
+
+    @Test
+    public void testSlowListenerDoesNotDelayOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        LoggingListener blockedListener = sql -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        CaptureLoggingListener fastListener = new CaptureLoggingListener();
+
+        try (FanOutDispatcher dispatcher = new FanOutDispatcher(circuitBreakers(blockedListener, fastListener), 1024)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                dispatcher.publish(event("SELECT " + i));
+            }
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "publish should not block");
+
+            awaitConsumed(dispatcher.getConsumers().get(1), 100);
+            assertEquals(100, fastListener.getSqlStatements().size(), "fast listener should have all events");
+            assertEquals("SELECT 99", fastListener.getSqlStatements().get(99));
+            assertEquals(0, dispatcher.getConsumers().get(1).getLag(), "fast listener should not lag");
+            assertTrue(dispatcher.getConsumers().get(0).getLag() >= 99, "blocked listener should lag");
+
+            release.countDown();
+            awaitConsumed(dispatcher.getConsumers().get(0), 100);
+            assertEquals(0, dispatcher.getConsumers().get(0).getLag(), "mismatch expected lag");
+        }
+    }
+
+    @Test
+    public void testOverrunSkipsAhead() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> slowMessages = new CopyOnWriteArrayList<>();
+        LoggingListener slowListener = sql -> {
+            started.countDown();
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            slowMessages.add(sql);
+        };
+
+        try (FanOutDispatcher dispatcher = new FanOutDispatcher(circuitBreakers(slowListener), 16)) {
+            dispatcher.publish(event("SELECT 0"));
+            // wait for the consumer to be stuck on the first event.
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < 100; i++) {
+                dispatcher.publish(event("SELECT " + i));
+            }
+            release.countDown();
+
+            FanOutDispatcher.Consumer consumer = dispatcher.getConsumers().get(0);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (consumer.getLag() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertTrue(consumer.getDroppedCount() > 0, "expected dropped events");
+            assertEquals(100, consumer.getConsumedCount() + consumer.getDroppedCount(), "mismatch consumed + dropped");
+            assertEquals("SELECT 99", slowMessages.get(slowMessages.size() - 1), "expected the most recent event");
+        }
+    }
+
+    @Test
+    public void testBatchListener() throws Exception {
+        List<List<LoggingEvent>> batches = new CopyOnWriteArrayList<>();
+        BatchLoggingListener batchListener = new BatchLoggingListener() {
+            @Override
+            public void logBatch(List<LoggingEvent> events) {
+                batches.add(events);
+            }
+
+            @Override
+            public int getMaxBatchSize() {
+                return 4;
+            }
+
+            @Override
+            public Duration getMaxLinger() {
+                return Duration.ofMillis(200);
+            }
+
+            @Override
+            public void log(String sql) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        try (FanOutDispatcher dispatcher = new FanOutDispatcher(circuitBreakers(batchListener), 1024)) {
+            for (int i = 0; i < 10; i++) {
+                dispatcher.publish(event("SELECT " + i));
+            }
+            awaitConsumed(dispatcher.getConsumers().get(0), 10);
+            // the last partial batch is only delivered after lingering.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (countEvents(batches) < 10 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+        assertEquals(10, countEvents(batches), "mismatch expected event count");
+        assertTrue(batches.size() < 10, "expected events to be batched");
+        int index = 0;
+        for (List<LoggingEvent> batch : batches) {
+            assertTrue(batch.size() <= 4, "batch exceeds max batch size");
+            for (LoggingEvent event : batch) {
+                assertEquals("SELECT " + index++, event.getMessage(), "mismatch expected event order");
+            }
+        }
+    }
+
+    @Test
+    public void testConnectionFanOut() throws Exception {
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:fanOutDB", "SA", "");
+        LoggingConnection conn = LoggingConnection.builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .fanOutRingSize(256)
+                .build();
+        try (Statement stmt = conn.createStatement()) {
+            for (int i = 0; i < 10; i++) {
+                stmt.execute("VALUES (" + i + ")");
+            }
+        }
+        conn.close();
+        // close waits for the consumers to finish.
+        assertEquals(10, captureLoggingListener.getSqlStatements().size(), "mismatch expected statement count");
+    }
+
+    @Test
+    public void testConnectionsShareDispatcher() throws Exception {
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        LoggingConnection.Builder builder = LoggingConnection.builder(null)
+                .loggingListener(captureLoggingListener)
+                .fanOutRingSize(256);
+        LoggingConnection conn1 = builder.targetConnection(DriverManager.getConnection("jdbc:hsqldb:mem:fanOutDB", "SA", "")).build();
+        LoggingConnection conn2 = builder.targetConnection(DriverManager.getConnection("jdbc:hsqldb:mem:fanOutDB", "SA", "")).build();
+        FanOutDispatcher dispatcher = conn1.getConfiguration().getFanOutDispatcher();
+        assertSame(dispatcher, conn2.getConfiguration().getFanOutDispatcher(), "expected a single dispatcher");
+
+        // the dispatcher outlives the first connection
+        conn1.close();
+        try (Statement stmt = conn2.createStatement()) {
+            stmt.execute("VALUES (1)");
+        }
+        conn2.close();
+        assertEquals(1, captureLoggingListener.getSqlStatements().size(), "mismatch expected statement count");
+
+        // once all of them are closed, the next connection gets a new one
+        try (LoggingConnection conn3 = builder.targetConnection(
+                DriverManager.getConnection("jdbc:hsqldb:mem:fanOutDB", "SA", "")).build()) {
+            assertNotSame(dispatcher, conn3.getConfiguration().getFanOutDispatcher(), "expected a new dispatcher");
+        }
+    }
+
+    @Test
+    public void testDoubleCloseKeepsSharedDispatcher() throws Exception {
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        LoggingConnection.Builder builder = LoggingConnection.builder(null)
+                .loggingListener(captureLoggingListener)
+                .fanOutRingSize(256);
+        LoggingConnection conn1 = builder.targetConnection(DriverManager.getConnection("jdbc:hsqldb:mem:fanOutDB", "SA", "")).build();
+        LoggingConnection conn2 = builder.targetConnection(DriverManager.getConnection("jdbc:hsqldb:mem:fanOutDB", "SA", "")).build();
+
+        // closing an already closed connection is a no-op
+        conn1.close();
+        conn1.close();
+        try (Statement stmt = conn2.createStatement()) {
+            stmt.execute("VALUES (1)");
+        }
+        conn2.close();
+        assertEquals(Arrays.asList("VALUES (1)"), captureLoggingListener.getSqlStatements(), "mismatch expected statements");
+    }
+
+    private static List<ListenerCircuitBreaker> circuitBreakers(LoggingListener... listeners) {
+        List<ListenerCircuitBreaker> circuitBreakers = new ArrayList<>();
+        for (LoggingListener listener : Arrays.asList(listeners)) {
+            circuitBreakers.add(new ListenerCircuitBreaker(listener, 5, Duration.ZERO,
+                    ListenerCircuitBreaker.DEFAULT_OPEN_DURATION));
+        }
+        return circuitBreakers;
+    }
+
+    private static int countEvents(List<List<LoggingEvent>> batches) {
+        int count = 0;
+        for (List<LoggingEvent> batch : batches) {
+            count += batch.size();
+        }
+        return count;
+    }
+
+    private static void awaitConsumed(FanOutDispatcher.Consumer consumer, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (consumer.getConsumedCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static LoggingEvent event(String message) {
+        return new LoggingEvent() {
+            @Override
+            public String getMessage() {
+                return message;
+            }
+        };
+    }
+}
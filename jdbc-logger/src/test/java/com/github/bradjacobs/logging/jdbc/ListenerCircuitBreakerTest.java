@@ -0,0 +1,116 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.event.ListenerDisabledEvent;
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ListenerCircuitBreakerTest {
+    private static final LoggingEvent EVENT = new LoggingEvent() {
+        @Override
+        public String getMessage() {
+            return "SELECT 1";
+        }
+    };
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        LoggingListener listener = sql -> {
+            if (failing.get()) {
+                throw new IllegalStateException("appender is broken");
+            }
+        };
+        ListenerCircuitBreaker circuitBreaker =
+                new ListenerCircuitBreaker(listener, 3, Duration.ZERO, Duration.ofMillis(50));
+
+        assertFalse(circuitBreaker.log(EVENT));
+        assertFalse(circuitBreaker.log(EVENT));
+        assertTrue(circuitBreaker.log(EVENT), "expected third failure to open the circuit");
+        assertTrue(circuitBreaker.isOpen());
+
+        // disabled, so the listener does not get called.
+        circuitBreaker.log(EVENT);
+        circuitBreaker.log(EVENT);
+        assertEquals(3, circuitBreaker.getCallCount(), "mismatch expected call count");
+        assertEquals(3, circuitBreaker.getFailureCount(), "mismatch expected failure count");
+        assertEquals(2, circuitBreaker.getRejectedCount(), "mismatch expected rejected count");
+
+        // failed probe keeps it open
+        Thread.sleep(60);
+        assertFalse(circuitBreaker.log(EVENT));
+        assertTrue(circuitBreaker.isOpen());
+        assertEquals(4, circuitBreaker.getCallCount(), "mismatch expected call count");
+
+        // successful probe closes it again
+        failing.set(false);
+        Thread.sleep(60);
+        circuitBreaker.log(EVENT);
+        assertFalse(circuitBreaker.isOpen());
+        circuitBreaker.log(EVENT);
+        assertEquals(6, circuitBreaker.getCallCount(), "mismatch expected call count");
+        assertEquals(1, circuitBreaker.getOpenCount(), "mismatch expected open count");
+    }
+
+    @Test
+    public void testSlowCallsCountAsFailures() {
+        LoggingListener slowListener = sql -> {
+            try {
+                Thread.sleep(5);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ListenerCircuitBreaker circuitBreaker =
+                new ListenerCircuitBreaker(slowListener, 2, Duration.ofMillis(1), Duration.ofMinutes(1));
+        circuitBreaker.log(EVENT);
+        circuitBreaker.log(EVENT);
+        assertTrue(circuitBreaker.isOpen(), "expected slow calls to open the circuit");
+        assertEquals(2, circuitBreaker.getSlowCallCount(), "mismatch expected slow call count");
+        assertEquals(0, circuitBreaker.getFailureCount(), "mismatch expected failure count");
+        assertTrue(circuitBreaker.getLastFailure() instanceof TimeoutException,
+                "expected the slow call to be the last failure: " + circuitBreaker.getLastFailure());
+    }
+
+    @Test
+    public void testFailingListenerDoesNotFailStatement() throws Exception {
+        LoggingListener brokenListener = sql -> {
+            throw new IllegalStateException("appender is broken");
+        };
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:circuitBreakerDB", "SA", "");
+        try (LoggingConnection conn = LoggingConnection.builder(innerConn)
+                .loggingListeners(brokenListener, captureLoggingListener)
+                .listenerFailureThreshold(2)
+                .build();
+             Statement stmt = conn.createStatement()) {
+            for (int i = 0; i < 4; i++) {
+                stmt.execute("VALUES (" + i + ")");
+            }
+
+            List<ListenerDisabledEvent> disabledEvents = captureLoggingListener.getEvents(ListenerDisabledEvent.class);
+            assertEquals(1, disabledEvents.size(), "expected other listeners to be told about the disabled listener");
+            assertTrue(disabledEvents.get(0).getMessage().contains("appender is broken"));
+            assertEquals(4, captureLoggingListener.getSqlStatementStartingWith("VALUES").size());
+
+            ListenerCircuitBreaker circuitBreaker = conn.getListenerCircuitBreakers().get(0);
+            assertTrue(circuitBreaker.isOpen());
+            assertEquals(2, circuitBreaker.getFailureCount(), "mismatch expected failure count");
+            assertEquals(2, circuitBreaker.getRejectedCount(), "mismatch expected rejected count");
+        }
+    }
+}
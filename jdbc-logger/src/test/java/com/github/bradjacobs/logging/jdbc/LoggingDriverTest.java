@@ -0,0 +1,104 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoggingDriverTest {
+    private static final String CAPTURE_LISTENER = CaptureLoggingListener.class.getName();
+
+    @Test
+    public void testConnect() throws Exception {
+        String url = "jdbc:log:hsqldb:mem:driverDB;log.listener=" + CAPTURE_LISTENER;
+        CaptureLoggingListener captureLoggingListener;
+        try (Connection conn = DriverManager.getConnection(url, "SA", "")) {
+            assertTrue(conn instanceof LoggingConnection, "expected a LoggingConnection");
+            captureLoggingListener = (CaptureLoggingListener) ((LoggingConnection) conn).getLoggingListeners().get(0);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("VALUES (1)");
+            }
+        }
+        assertEquals("VALUES (1)", captureLoggingListener.getSqlStatements().get(0));
+
+        // same options share the same listener.
+        try (Connection conn = DriverManager.getConnection(url, "SA", "")) {
+            assertSame(captureLoggingListener, ((LoggingConnection) conn).getLoggingListeners().get(0));
+        }
+    }
+
+    @Test
+    public void testPropertyOptions() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("user", "SA");
+        properties.setProperty("password", "");
+        properties.setProperty("log.listener", CAPTURE_LISTENER);
+        properties.setProperty("log.sampleRate", "0");
+        try (Connection conn = DriverManager.getConnection("jdbc:log:hsqldb:mem:driverDB", properties)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("VALUES (1)");
+            }
+            CaptureLoggingListener captureLoggingListener =
+                    (CaptureLoggingListener) ((LoggingConnection) conn).getLoggingListeners().get(0);
+            assertTrue(captureLoggingListener.getSqlStatements().isEmpty(), "expected no statements w/ sampleRate 0");
+        }
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:log:hsqldb:mem:driverDB;log.enabled=false", "SA", "")) {
+            assertFalse(conn instanceof LoggingConnection, "expected the real connection");
+        }
+    }
+
+    @Test
+    public void testInvalidOption() {
+        assertThrows(SQLException.class, () ->
+                DriverManager.getConnection("jdbc:log:hsqldb:mem:driverDB;log.sampleRate=2", "SA", ""));
+    }
+
+    @Test
+    public void testInvalidZone() {
+        assertThrows(SQLException.class, () ->
+                DriverManager.getConnection("jdbc:log:hsqldb:mem:driverDB;log.zone=Not/AZone", "SA", ""));
+    }
+
+    @Test
+    public void testDbTypeResolvedPerUrl() throws Exception {
+        String options = ";log.listener=" + CAPTURE_LISTENER;
+        try (Connection conn = DriverManager.getConnection("jdbc:log:hsqldb:mem:driverDB" + options, "SA", "");
+             Connection oracleConn = DriverManager.getConnection("jdbc:log:hsqldb:mem:oracleDB" + options, "SA", "")) {
+            assertEquals(DatabaseType.DEFAULT, ((LoggingConnection) conn).getConfiguration().getDbType());
+            // same options, but the url identifies another kind of database
+            assertEquals(DatabaseType.ORACLE, ((LoggingConnection) oracleConn).getConfiguration().getDbType());
+        }
+    }
+
+    @Test
+    public void testExtractUrlOptions() {
+        TreeMap<String, String> options = new TreeMap<>();
+        assertEquals("jdbc:hsqldb:mem:x",
+                LoggingDriver.extractUrlOptions("jdbc:log:hsqldb:mem:x;log.listener=stdout;log.sampleRate=0.5", options));
+        assertEquals("stdout", options.get("listener"));
+        assertEquals("0.5", options.get("sampleRate"));
+
+        assertEquals("jdbc:postgresql://host/db?user=bob&ssl=true", LoggingDriver.extractUrlOptions(
+                "jdbc:log:postgresql://host/db?log.level=INFO&user=bob&log.zone=UTC&ssl=true", options));
+        assertEquals("INFO", options.get("level"));
+        assertEquals("UTC", options.get("zone"));
+
+        assertEquals("jdbc:postgresql://host/db", LoggingDriver.extractUrlOptions(
+                "jdbc:log:postgresql://host/db?log.level=INFO", options));
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import org.junit.jupiter.api.Test;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NamedParameterLoggingTest {
+
+    @Test
+    public void testNamedSetters() throws Exception {
+        String sql = "{call update_user(:id, :name, :status)}";
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        Connection innerConn = mock(Connection.class);
+        when(innerConn.prepareCall(anyString())).thenReturn(mock(CallableStatement.class));
+
+        try (Connection conn = LoggingConnection.builder(innerConn).loggingListener(captureLoggingListener).build();
+             CallableStatement cstmt = conn.prepareCall(sql)) {
+            cstmt.setString("name", "O'Brien");
+            cstmt.setInt(":ID", 5);
+            cstmt.registerOutParameter("status", Types.INTEGER);
+            cstmt.setString("unknown", "x");
+            cstmt.execute();
+        }
+        assertEquals("{call update_user(5, 'O''Brien', '{_OUT_INTEGER_}')}",
+                captureLoggingListener.getSqlStatements().get(0));
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ParameterMaskingTest {
+
+    @Test
+    public void testResolveParameterColumns() {
+        assertEquals(Arrays.asList("name", "password", "email", "name", "password", "email"),
+                ParameterMasking.resolveParameterColumns(
+                        "INSERT INTO app.users (name, \"PASSWORD\", email) VALUES (?, ?, lower(?)), (?, ?, ?)"));
+        assertEquals(Arrays.asList("password", "ssn", "id", "id"),
+                ParameterMasking.resolveParameterColumns(
+                        "UPDATE users SET password = ?, ssn=? WHERE u.id IN (?, ?) AND note = 'x = ?'"));
+        assertEquals(Arrays.asList("ssn", "ssn", null, "name"),
+                ParameterMasking.resolveParameterColumns(
+                        "SELECT * FROM users WHERE ssn NOT IN (?, ?) /* ? */ AND age > abs(?) AND ? = name"));
+        assertEquals(Arrays.asList(null, null),
+                ParameterMasking.resolveParameterColumns("{call change_password(?, ?)}"));
+    }
+
+    @Test
+    public void testMaskCachedOnTemplate() {
+        ParameterMasking masking = ParameterMasking.builder()
+                .columns("Password")
+                .parameters("{call change_password(?, ?)}", 2)
+                .build();
+        SqlTemplate template = new SqlTemplate(1, "UPDATE users SET password = ? WHERE id = ?");
+        assertEquals(BitSet.valueOf(new long[] {0b10}), masking.getMaskedIndexes(template));
+        ParameterMasking.Mask mask = template.parameterMask;
+        masking.getMaskedIndexes(template);
+        assertSame(mask, template.parameterMask, "expected the cached mask");
+
+        SqlTemplate callTemplate = new SqlTemplate(2, "{call change_password(?, ?)}");
+        assertEquals(BitSet.valueOf(new long[] {0b100}), masking.getMaskedIndexes(callTemplate));
+    }
+
+    @Test
+    public void testPlaceholderStyles() {
+        ParameterMasking masking = ParameterMasking.builder()
+                .columns("password")
+                .build();
+        assertEquals(BitSet.valueOf(new long[] {0b100}), masking.getMaskedIndexes(
+                new SqlTemplate(1, "UPDATE users SET name = ?, password = ? WHERE id = ?")));
+        assertEquals(BitSet.valueOf(new long[] {0b10}), masking.getMaskedIndexes(
+                new SqlTemplate(2, "UPDATE users SET name = $2, password = $1 WHERE id = $3")));
+        assertEquals(BitSet.valueOf(new long[] {0b10}), masking.getMaskedIndexes(
+                new SqlTemplate(3, "UPDATE users SET name = :2, password = :1 WHERE id = :3")));
+        assertEquals(BitSet.valueOf(new long[] {0b10}), masking.getMaskedIndexes(
+                new SqlTemplate(4, "UPDATE users SET name = @p2, password = @p1 WHERE id = @p3")));
+        // named: each distinct name gets the next slot (name=1, pwd=2, id=3)
+        assertEquals(BitSet.valueOf(new long[] {0b100}), masking.getMaskedIndexes(
+                new SqlTemplate(5, "UPDATE users SET name = :name, password = :pwd::text WHERE id = :id OR name = :name")));
+        assertEquals(BitSet.valueOf(new long[] {0b10}), masking.getMaskedIndexes(
+                new SqlTemplate(6, "INSERT INTO users (password, name) VALUES (@pwd, @name)")));
+    }
+
+    @Test
+    public void testValuePattern() {
+        ParameterMasking masking = ParameterMasking.builder()
+                .valuePattern("\\b\\d{4}-\\d{4}-\\d{4}-\\d{4}\\b")
+                .placeholder("'****'")
+                .build();
+        Map<Integer, Object> params = new HashMap<>();
+        params.put(1, "4111-1111-1111-1111");
+        params.put(2, 4111111111111111L);
+        params.put(3, "Bob");
+        masking.mask(new SqlTemplate(1, "INSERT INTO payments VALUES (?, ?, ?)"), params);
+        assertEquals("'****'", params.get(1).toString());
+        assertEquals(4111111111111111L, params.get(2), "only String values are checked");
+        assertEquals("Bob", params.get(3));
+    }
+
+    @Test
+    public void testMaskedConnection() throws Exception {
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:parameterMaskingDB", "SA", "");
+        try (Connection conn = LoggingConnection.builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .parameterMasking(ParameterMasking.builder().columns("password").build())
+                .build()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE masked_users (name VARCHAR(30), password VARCHAR(30))");
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO masked_users (name, password) VALUES (?, ?)")) {
+                pstmt.setString(1, "Bob");
+                pstmt.setString(2, "secret1");
+                pstmt.addBatch();
+                pstmt.setString(1, "Sue");
+                pstmt.setString(2, "secret2");
+                pstmt.addBatch();
+                pstmt.executeBatch();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM masked_users WHERE password = ?")) {
+                pstmt.setString(1, "secret1");
+                pstmt.executeQuery().close();
+            }
+        }
+        assertEquals(Arrays.asList(
+                "CREATE TABLE masked_users (name VARCHAR(30), password VARCHAR(30))",
+                "INSERT INTO masked_users (name, password) VALUES ('Bob', {_MASKED_})",
+                "INSERT INTO masked_users (name, password) VALUES ('Sue', {_MASKED_})",
+                "SELECT * FROM masked_users WHERE password = {_MASKED_}"),
+                captureLoggingListener.getSqlStatements());
+    }
+}
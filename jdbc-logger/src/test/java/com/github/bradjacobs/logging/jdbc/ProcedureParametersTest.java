@@ -0,0 +1,49 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProcedureParametersTest {
+
+    @Test
+    public void testToSearchPattern() {
+        assertEquals("users", ProcedureParameters.toSearchPattern("users", "\\"));
+        assertEquals("update\\_user\\%", ProcedureParameters.toSearchPattern("update_user%", "\\"));
+        assertEquals("a\\\\b\\_c", ProcedureParameters.toSearchPattern("a\\b_c", "\\"));
+        assertNull(ProcedureParameters.toSearchPattern("update_user", ""), "can't be escaped");
+    }
+
+    @Test
+    public void testUnderscoreNamesEscaped() throws Exception {
+        ResultSet columns = mock(ResultSet.class);
+        when(columns.next()).thenReturn(true, true, true, false);
+        // 'updateXuser' also matches the unescaped pattern 'update_user'
+        when(columns.getString("PROCEDURE_NAME")).thenReturn("UPDATE_USER", "UPDATEXUSER", "UPDATE_USER");
+        when(columns.getString("COLUMN_NAME")).thenReturn("ID", "NAME");
+        when(columns.getShort("COLUMN_TYPE")).thenReturn((short) DatabaseMetaData.procedureColumnIn);
+
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.storesUpperCaseIdentifiers()).thenReturn(true);
+        when(metaData.getSearchStringEscape()).thenReturn("\\");
+        when(metaData.getProcedureColumns(any(), eq("APP\\_SCHEMA"), eq("UPDATE\\_USER"), anyString())).thenReturn(columns);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+
+        Map<String, Integer> indexes = ProcedureParameters.resolve(connection, "{call app_schema.update_user(?, ?)}");
+        assertEquals(2, indexes.size(), "unexpected: " + indexes);
+        assertEquals(1, indexes.get("id"));
+        assertEquals(2, indexes.get("name"));
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class SqlFingerprintTest {
+
+    @Test
+    public void testNormalize() {
+        assertNormalized("SELECT * FROM tbl WHERE id = ?", "select * from tbl where id = ?");
+        assertNormalized("select *   from tbl\n\t where id = 42 ", "select * from tbl where id = ?");
+        assertNormalized("SELECT * FROM tbl WHERE name = 'O''Brien'", "select * from tbl where name = ?");
+        assertNormalized("SELECT * FROM tbl WHERE id IN (1, 2, 3)", "select * from tbl where id in (?)");
+        assertNormalized("SELECT * FROM tbl WHERE id IN (?,?)", "select * from tbl where id in (?)");
+        assertNormalized("SELECT col1 FROM tbl2 WHERE x = 1.5e3", "select col1 from tbl2 where x = ?");
+        assertNormalized("UPDATE tbl SET a = ?, b = ? WHERE id = ?", "update tbl set a = ?, b = ? where id = ?");
+        assertNormalized("SELECT \"MixedCase\" FROM tbl", "select \"MixedCase\" from tbl");
+    }
+
+    @Test
+    public void testTemplateFingerprint() {
+        SqlTemplate template1 = new SqlTemplate(1, "SELECT * FROM tbl WHERE id = ?");
+        SqlTemplate template2 = new SqlTemplate(2, "select * from tbl where id = 123");
+        SqlTemplate template3 = new SqlTemplate(3, "select * from tbl where name = 123");
+        assertEquals(template1.getFingerprint(), template2.getFingerprint(), "expected same fingerprint");
+        assertNotEquals(template1.getFingerprint(), template3.getFingerprint(), "expected different fingerprint");
+    }
+
+    private static void assertNormalized(String sql, String expected) {
+        assertEquals(expected, SqlFingerprint.normalize(sql), "mismatch normalized sql");
+    }
+}
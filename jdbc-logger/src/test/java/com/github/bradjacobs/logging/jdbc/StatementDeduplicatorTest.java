@@ -0,0 +1,92 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.event.RepeatSummaryEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.param.SqlTagFiller;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StatementDeduplicatorTest {
+    private static final SqlTagFiller SQL_TAG_FILLER = new SqlTagFiller(DatabaseType.DEFAULT, ZoneId.of("UTC"));
+    private static final String SELECT_SQL = "SELECT * FROM tbl WHERE id = ?";
+    private static final SqlTemplate SELECT_TEMPLATE = new SqlTemplate(1, SELECT_SQL);
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final List<LoggingEvent> outputEvents = new ArrayList<>();
+
+    @Test
+    public void testTemplateAndParamsCollapse() {
+        StatementDeduplicator deduplicator =
+                new StatementDeduplicator(DedupMode.TEMPLATE_AND_PARAMS, WINDOW_NANOS, outputEvents::add);
+        for (int i = 0; i < 5; i++) {
+            deduplicator.log(createEvent(1, 1000L));
+        }
+        deduplicator.log(createEvent(2, 1000L));
+        deduplicator.flush();
+
+        assertEquals(3, outputEvents.size(), "mismatch expected event count");
+        assertEquals("SELECT * FROM tbl WHERE id = 1", outputEvents.get(0).getMessage());
+        assertTrue(outputEvents.get(1) instanceof RepeatSummaryEvent, "expected a summary event");
+        assertEquals(4, ((RepeatSummaryEvent)outputEvents.get(1)).getRepeatCount());
+        assertEquals(4000L, ((RepeatSummaryEvent)outputEvents.get(1)).getTotalElapsedNanos());
+        assertEquals("SELECT * FROM tbl WHERE id = 2", outputEvents.get(2).getMessage());
+    }
+
+    @Test
+    public void testTemplateOnlyCollapse() {
+        StatementDeduplicator deduplicator =
+                new StatementDeduplicator(DedupMode.TEMPLATE_ONLY, WINDOW_NANOS, outputEvents::add);
+        for (int i = 0; i < 4812; i++) {
+            deduplicator.log(createEvent(i, 650_000L));
+        }
+        deduplicator.flush();
+
+        assertEquals(2, outputEvents.size(), "mismatch expected event count");
+        assertEquals("SELECT * FROM tbl WHERE id = 0", outputEvents.get(0).getMessage());
+        assertEquals("-- repeated 4,811 times, total 3.1s: " + SELECT_SQL, outputEvents.get(1).getMessage());
+    }
+
+    @Test
+    public void testExpiredWindow() {
+        // zero-length window means nothing ever gets collapsed.
+        StatementDeduplicator deduplicator =
+                new StatementDeduplicator(DedupMode.TEMPLATE_ONLY, 0L, outputEvents::add);
+        deduplicator.log(createEvent(1, 1000L));
+        deduplicator.log(createEvent(1, 1000L));
+        deduplicator.flush();
+
+        assertEquals(2, outputEvents.size(), "mismatch expected event count");
+        assertTrue(outputEvents.stream().allMatch(e -> e instanceof StatementEvent), "expected only statement events");
+    }
+
+    @Test
+    public void testSummaryFlushedOnWindowExpiry() throws Exception {
+        List<LoggingEvent> events = new CopyOnWriteArrayList<>();
+        StatementDeduplicator deduplicator =
+                new StatementDeduplicator(DedupMode.TEMPLATE_ONLY, TimeUnit.MILLISECONDS.toNanos(50), events::add);
+        for (int i = 0; i < 3; i++) {
+            deduplicator.log(createEvent(i, 1000L));
+        }
+        // no further statement arrives, the summary still has to show up once the window expires.
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (events.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(2, events.size(), "mismatch expected event count");
+        assertEquals(2, ((RepeatSummaryEvent)events.get(1)).getRepeatCount());
+    }
+
+    private StatementEvent createEvent(int id, long elapsedNanos) {
+        return new StatementEvent(SELECT_TEMPLATE, Collections.singletonMap(1, id), SQL_TAG_FILLER, elapsedNanos, 0);
+    }
+}
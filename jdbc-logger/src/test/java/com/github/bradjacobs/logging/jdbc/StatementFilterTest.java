@@ -0,0 +1,117 @@
+package com.github.bradjacobs.logging.jdbc;
+
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static com.github.bradjacobs.logging.jdbc.StatementType.CALL;
+import static com.github.bradjacobs.logging.jdbc.StatementType.DDL;
+import static com.github.bradjacobs.logging.jdbc.StatementType.DELETE;
+import static com.github.bradjacobs.logging.jdbc.StatementType.INSERT;
+import static com.github.bradjacobs.logging.jdbc.StatementType.OTHER;
+import static com.github.bradjacobs.logging.jdbc.StatementType.SELECT;
+import static com.github.bradjacobs.logging.jdbc.StatementType.UPDATE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StatementFilterTest {
+
+    @Test
+    public void testStatementType() {
+        assertEquals(SELECT, StatementType.of("select * from tbl"));
+        assertEquals(SELECT, StatementType.of("  /* hint */ (SELECT 1) UNION (SELECT 2)"));
+        assertEquals(SELECT, StatementType.of("-- comment\nWITH x AS (SELECT 1) SELECT * FROM x"));
+        assertEquals(INSERT, StatementType.of("INSERT INTO tbl VALUES (?)"));
+        assertEquals(UPDATE, StatementType.of("Update tbl SET a = ?"));
+        assertEquals(DELETE, StatementType.of("DELETE FROM tbl"));
+        assertEquals(DDL, StatementType.of("CREATE TABLE tbl (id INT)"));
+        assertEquals(CALL, StatementType.of("{? = call my_proc(?)}"));
+        assertEquals(OTHER, StatementType.of("COMMIT"));
+        assertEquals(OTHER, StatementType.of(null));
+    }
+
+    @Test
+    public void testTables() {
+        StatementFilter filter = StatementFilter.builder().tables("Orders").build();
+        assertTrue(filter.accept("SELECT * FROM orders WHERE id = ?"));
+        assertTrue(filter.accept("SELECT * FROM app.ORDERS o"));
+        assertTrue(filter.accept("SELECT * FROM customers c, orders o WHERE c.id = o.customer_id"));
+        assertTrue(filter.accept("SELECT * FROM customers c JOIN orders o ON c.id = o.customer_id"));
+        assertTrue(filter.accept("INSERT INTO orders (id) VALUES (?)"));
+        assertTrue(filter.accept("UPDATE orders SET status = ?"));
+        assertTrue(filter.accept("DROP TABLE IF EXISTS orders"));
+        assertFalse(filter.accept("SELECT orders FROM customers"));
+        assertFalse(filter.accept("SELECT * FROM order_items"));
+    }
+
+    @Test
+    public void testCombinedRules() {
+        // DML on the orders table, or any DDL (except for temp tables)
+        StatementFilter filter = StatementFilter.builder()
+                .statementTypes(INSERT, UPDATE, DELETE)
+                .tables("orders")
+                .build()
+                .or(StatementFilter.builder().statementTypes(DDL).exclude("(?i)\\btemp_").build());
+
+        assertTrue(filter.accept("DELETE FROM orders WHERE id = ?"));
+        assertTrue(filter.accept("ALTER TABLE customers ADD COLUMN x INT"));
+        assertFalse(filter.accept("SELECT * FROM orders"));
+        assertFalse(filter.accept("DELETE FROM customers WHERE id = ?"));
+        assertFalse(filter.accept("CREATE TABLE temp_orders (id INT)"));
+    }
+
+    @Test
+    public void testIncludeRegex() {
+        StatementFilter filter = StatementFilter.builder().include("(?i)for update").build();
+        assertTrue(filter.accept("SELECT * FROM orders FOR UPDATE"));
+        assertFalse(filter.accept("SELECT * FROM orders"));
+    }
+
+    @Test
+    public void testDecisionCachedOnTemplate() {
+        SqlTemplate template = new SqlTemplate(1, "SELECT * FROM orders");
+        StatementFilter filter = StatementFilter.builder().tables("orders").build();
+        assertTrue(filter.accept(template));
+        StatementFilter.Decision decision = template.filterDecision;
+        assertTrue(filter.accept(template));
+        assertSame(decision, template.filterDecision, "expected the cached decision");
+
+        // a different filter gets its own decision
+        StatementFilter otherFilter = StatementFilter.builder().tables("customers").build();
+        assertFalse(otherFilter.accept(template));
+    }
+
+    @Test
+    public void testFilteredConnection() throws Exception {
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:statementFilterDB", "SA", "");
+        try (Connection conn = LoggingConnection.builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .statementFilter(StatementFilter.builder().statementTypes(INSERT, DDL).build())
+                .build()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE filter_tbl (id INT)");
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO filter_tbl (id) VALUES (?)")) {
+                pstmt.setInt(1, 5);
+                pstmt.execute();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM filter_tbl WHERE id = ?")) {
+                pstmt.setInt(1, 5);
+                pstmt.executeQuery().close();
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DELETE FROM filter_tbl");
+            }
+        }
+        assertEquals(2, captureLoggingListener.getSqlStatements().size(), "mismatch statement count");
+        assertEquals("CREATE TABLE filter_tbl (id INT)", captureLoggingListener.getSqlStatements().get(0));
+        assertEquals("INSERT INTO filter_tbl (id) VALUES (5)", captureLoggingListener.getSqlStatements().get(1));
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.bradjacobs.logging.jdbc.hsql;
+
+import com.github.bradjacobs.logging.jdbc.ConnectionMetrics;
+import com.github.bradjacobs.logging.jdbc.LoggingDataSource;
+import com.github.bradjacobs.logging.jdbc.event.ConnectionLeakEvent;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConnectionTrackingTest {
+    private JDBCDataSource hsqlDataSource = null;
+    private CaptureLoggingListener captureLoggingListener = null;
+
+    @BeforeEach
+    public void setup() {
+        hsqlDataSource = new JDBCDataSource();
+        hsqlDataSource.setUrl("jdbc:hsqldb:mem:connTrackingDB");
+        hsqlDataSource.setUser("SA");
+        hsqlDataSource.setPassword("");
+        captureLoggingListener = new CaptureLoggingListener();
+    }
+
+    @Test
+    public void testAcquireAndHoldMetrics() throws Exception {
+        LoggingDataSource dataSource = LoggingDataSource.builder(hsqlDataSource)
+                .loggingListener(captureLoggingListener)
+                .connectionTracking(true)
+                .build();
+
+        Connection conn1 = dataSource.getConnection();
+        Connection conn2 = dataSource.getConnection();
+        ConnectionMetrics metrics = dataSource.getConnectionMetrics();
+        assertEquals(2, metrics.getAcquireCount());
+        assertEquals(2, metrics.getOpenCount());
+
+        conn1.close();
+        conn2.close();
+        assertEquals(2, metrics.getReleaseCount());
+        assertEquals(0, metrics.getOpenCount());
+        assertTrue(metrics.getHoldNanosMax() > 0, "expected a hold time");
+        assertTrue(metrics.getHoldNanosTotal() >= metrics.getHoldNanosMax(), "total hold time less than max hold time");
+    }
+
+    @Test
+    public void testTrackingDisabled() {
+        LoggingDataSource dataSource = LoggingDataSource.builder(hsqlDataSource)
+                .loggingListener(captureLoggingListener)
+                .build();
+        assertNull(dataSource.getConnectionMetrics());
+    }
+
+    @Test
+    public void testLeakDetection() throws Exception {
+        LoggingDataSource dataSource = LoggingDataSource.builder(hsqlDataSource)
+                .loggingListener(captureLoggingListener)
+                .leakDetectionThreshold(Duration.ofMillis(100))
+                .leakStackSampleRate(1)
+                .build();
+
+        try (Connection conn = dataSource.getConnection()) {
+            long deadline = System.currentTimeMillis() + 5000L;
+            while (getLeakEvents().isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50L);
+            }
+        }
+
+        List<ConnectionLeakEvent> leakEvents = getLeakEvents();
+        assertEquals(1, leakEvents.size(), "mismatch expected leak event count");
+        assertNotNull(leakEvents.get(0).getBorrowStack(), "expected sampled borrow stack");
+        assertTrue(leakEvents.get(0).getMessage().contains("testLeakDetection"), "expected the borrowing method in the stack trace");
+        assertEquals(1, dataSource.getConnectionMetrics().getLeakCount());
+    }
+
+    private List<ConnectionLeakEvent> getLeakEvents() {
+        return captureLoggingListener.getEvents(ConnectionLeakEvent.class);
+    }
+}
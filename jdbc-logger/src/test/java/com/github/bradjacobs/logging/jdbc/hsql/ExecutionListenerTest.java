@@ -0,0 +1,89 @@
+package com.github.bradjacobs.logging.jdbc.hsql;
+
+import com.github.bradjacobs.logging.jdbc.LoggingConnection;
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.listeners.ExecutionListener;
+import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ExecutionListenerTest {
+
+    @Test
+    public void testExecutionListenerCalledAroundExecution() throws Exception {
+        RecordingExecutionListener listener = new RecordingExecutionListener();
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:executionListenerDB", "SA", "");
+        try (Connection conn = LoggingConnection.builder(innerConn)
+                .loggingListener(listener)
+                .resultSetTracking(true)
+                .build()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE el_items (id INT)");
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO el_items (id) VALUES (?)")) {
+                pstmt.setInt(1, 1);
+                pstmt.addBatch();
+                pstmt.setInt(1, 2);
+                pstmt.addBatch();
+                pstmt.executeBatch();
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM el_items")) {
+                // the query ends once its ResultSet has finished
+                assertEquals(5, listener.calls.size(), "unexpected: " + listener.calls);
+                while (rs.next()) {
+                    rs.getInt(1);
+                }
+            }
+        }
+        assertEquals("started", listener.calls.get(0));
+        assertEquals("ended: CREATE TABLE el_items (id INT)", listener.calls.get(1));
+        assertEquals("started", listener.calls.get(2));
+        assertEquals("ended: INSERT INTO el_items (id) VALUES (?) x2", listener.calls.get(3));
+        assertEquals("started", listener.calls.get(4));
+        assertEquals("ended: SELECT * FROM el_items rows=2", listener.calls.get(5));
+        assertEquals(6, listener.calls.size(), "unexpected: " + listener.calls);
+    }
+
+    private static class RecordingExecutionListener implements LoggingListener, ExecutionListener {
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void log(String sql) {
+        }
+
+        @Override
+        public void log(LoggingEvent event) {
+        }
+
+        @Override
+        public Object executionStarted() {
+            calls.add("started");
+            return this;
+        }
+
+        @Override
+        public void executionEnded(Object context, StatementEvent event) {
+            String sql = event.getSqlTemplate().getSql();
+            if (event.getBatchSize() > 0) {
+                calls.add("ended: " + sql + " x" + event.getBatchSize());
+            }
+            else if (event.getRowCount() >= 0) {
+                calls.add("ended: " + sql + " rows=" + event.getRowCount());
+            }
+            else {
+                calls.add("ended: " + sql);
+            }
+        }
+    }
+}
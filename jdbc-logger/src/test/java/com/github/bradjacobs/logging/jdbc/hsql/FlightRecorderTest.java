@@ -0,0 +1,132 @@
+package com.github.bradjacobs.logging.jdbc.hsql;
+
+import com.github.bradjacobs.logging.jdbc.LoggingConnection;
+import com.github.bradjacobs.logging.jdbc.StatementFlightRecorder;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlightRecorderTest {
+    private static final String INSERT_SQL = "INSERT INTO fr_items (id) VALUES (?)";
+
+    private CaptureLoggingListener captureLoggingListener = null;
+    private CaptureLoggingListener dumpListener = null;
+    private StatementFlightRecorder flightRecorder = null;
+    private Connection conn = null;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        captureLoggingListener = new CaptureLoggingListener();
+        dumpListener = new CaptureLoggingListener();
+        flightRecorder = new StatementFlightRecorder(8, dumpListener, Duration.ofMinutes(1));
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:flightRecorderDB", "SA", "");
+        conn = LoggingConnection.builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .flightRecorder(flightRecorder)
+                .build();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE fr_items (id INT PRIMARY KEY)");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE fr_items IF EXISTS");
+        }
+        conn.close();
+    }
+
+    @Test
+    public void testRingBufferKeepsMostRecent() throws Exception {
+        insertRows(0, 20);
+
+        List<StatementEvent> events = flightRecorder.getRecentStatements();
+        assertEquals(8, events.size(), "mismatch expected recorded statement count");
+        assertEquals("INSERT INTO fr_items (id) VALUES (12)", events.get(0).getSql());
+        assertEquals("INSERT INTO fr_items (id) VALUES (19)", events.get(7).getSql());
+        assertEquals(21, flightRecorder.getRecordedCount(), "mismatch expected total recorded count");
+        assertEquals(0, dumpListener.getEvents().size(), "no dump expected");
+    }
+
+    @Test
+    public void testDumpOnDemand() throws Exception {
+        insertRows(0, 3);
+        flightRecorder.dump();
+
+        List<String> dumpLines = dumpListener.getSqlStatements();
+        assertEquals(6, dumpLines.size(), "mismatch expected dump line count");
+        assertTrue(dumpLines.get(0).startsWith("-- FLIGHT RECORDER DUMP (requested): last 4 statements"));
+        assertEquals("INSERT INTO fr_items (id) VALUES (2)", dumpLines.get(4));
+        assertEquals("-- END FLIGHT RECORDER DUMP", dumpLines.get(5));
+    }
+
+    @Test
+    public void testDumpOnError() throws Exception {
+        insertRows(0, 3);
+        // duplicate primary key
+        assertThrows(SQLException.class, () -> insertRows(1, 2));
+
+        // the dump is written by a background thread
+        List<String> dumpLines = awaitDump(dumpListener);
+        assertTrue(dumpLines.get(0).startsWith("-- FLIGHT RECORDER DUMP (statement failed: "), "unexpected: " + dumpLines.get(0));
+        assertEquals("INSERT INTO fr_items (id) VALUES (1)", dumpLines.get(dumpLines.size() - 2),
+                "expected the failed statement to be the last in the dump");
+
+        // second error within the interval does not dump again.
+        int dumpSize = dumpLines.size();
+        assertThrows(SQLException.class, () -> insertRows(1, 2));
+        assertEquals(dumpSize, dumpListener.getSqlStatements().size(), "no additional dump expected");
+    }
+
+    @Test
+    public void testFailingDumpListener() throws Exception {
+        CountDownLatch dumpAttempted = new CountDownLatch(1);
+        StatementFlightRecorder failingRecorder = new StatementFlightRecorder(8, sql -> {
+            dumpAttempted.countDown();
+            throw new IllegalStateException("dump failed");
+        }, Duration.ofMinutes(1));
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:flightRecorderDB", "SA", "");
+        try (Connection failingConn = LoggingConnection.builder(innerConn)
+                .loggingListener(captureLoggingListener).flightRecorder(failingRecorder).build();
+             Statement stmt = failingConn.createStatement()) {
+            // the statement's own exception is thrown, not the one of the dumpListener
+            SQLException e = assertThrows(SQLException.class, () -> stmt.execute("SELECT * FROM no_such_table"));
+            assertTrue(e.getMessage().contains("NO_SUCH_TABLE"), "unexpected: " + e.getMessage());
+        }
+        assertTrue(dumpAttempted.await(5, TimeUnit.SECONDS), "expected a dump attempt");
+    }
+
+    private static List<String> awaitDump(CaptureLoggingListener listener) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!listener.getSqlStatements().contains("-- END FLIGHT RECORDER DUMP") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return listener.getSqlStatements();
+    }
+
+    private void insertRows(int from, int to) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+            for (int i = from; i < to; i++) {
+                stmt.setInt(1, i);
+                stmt.executeUpdate();
+            }
+        }
+    }
+}
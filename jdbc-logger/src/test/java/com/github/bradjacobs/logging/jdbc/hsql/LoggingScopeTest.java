@@ -0,0 +1,104 @@
+package com.github.bradjacobs.logging.jdbc.hsql;
+
+import com.github.bradjacobs.logging.jdbc.LoggingConnection;
+import com.github.bradjacobs.logging.jdbc.LoggingScope;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoggingScopeTest {
+
+    @Test
+    public void testOnlyScopedStatementsLogged() throws Exception {
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        try (Connection conn = createConnection(captureLoggingListener);
+             PreparedStatement pstmt = conn.prepareStatement("VALUES (?)")) {
+            pstmt.setInt(1, 1);
+            pstmt.execute();
+
+            try (LoggingScope scope = LoggingScope.open()) {
+                pstmt.setInt(1, 2);
+                pstmt.execute();
+
+                // the scope only applies to the thread that opened it.
+                AtomicReference<Exception> error = new AtomicReference<>();
+                Thread thread = new Thread(() -> {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute("VALUES (3)");
+                    }
+                    catch (Exception e) {
+                        error.set(e);
+                    }
+                });
+                thread.start();
+                thread.join();
+                assertNull(error.get());
+            }
+
+            pstmt.setInt(1, 4);
+            pstmt.execute();
+        }
+        assertEquals(1, captureLoggingListener.getSqlStatements().size(), "mismatch statement count");
+        assertEquals("VALUES (2)", captureLoggingListener.getSqlStatements().get(0));
+    }
+
+    @Test
+    public void testParametersBoundOutsideScope() throws Exception {
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        try (Connection conn = createConnection(captureLoggingListener);
+             PreparedStatement pstmt = conn.prepareStatement("VALUES (?, ?)")) {
+            pstmt.setInt(1, 1);
+            try (LoggingScope scope = LoggingScope.open()) {
+                pstmt.setInt(2, 2);
+                pstmt.execute();
+
+                // re-bound inside the scope, thus captured
+                pstmt.setInt(1, 3);
+                pstmt.execute();
+
+                pstmt.clearParameters();
+                pstmt.setInt(1, 5);
+                pstmt.setInt(2, 6);
+                pstmt.execute();
+            }
+        }
+        assertEquals("VALUES ({_UNCAPTURED_}, 2)", captureLoggingListener.getSqlStatements().get(0),
+                "expected the value bound outside the scope to be marked as not captured");
+        assertEquals("VALUES (3, 2)", captureLoggingListener.getSqlStatements().get(1));
+        assertEquals("VALUES (5, 6)", captureLoggingListener.getSqlStatements().get(2));
+    }
+
+    @Test
+    public void testNestedScopes() {
+        assertFalse(LoggingScope.isActive());
+        try (LoggingScope outer = LoggingScope.open()) {
+            try (LoggingScope inner = LoggingScope.open()) {
+                assertTrue(LoggingScope.isActive());
+            }
+            assertTrue(LoggingScope.isActive(), "outer scope should still be active");
+            outer.close();
+            // closing twice is a no-op
+            outer.close();
+            assertFalse(LoggingScope.isActive());
+        }
+        assertFalse(LoggingScope.isActive());
+    }
+
+    private static Connection createConnection(CaptureLoggingListener captureLoggingListener) throws Exception {
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:scopeDB", "SA", "");
+        return LoggingConnection.builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .threadScopedLogging(true)
+                .build();
+    }
+}
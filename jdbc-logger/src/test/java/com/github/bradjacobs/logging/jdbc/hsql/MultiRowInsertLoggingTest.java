@@ -0,0 +1,107 @@
+package com.github.bradjacobs.logging.jdbc.hsql;
+
+import com.github.bradjacobs.logging.jdbc.DatabaseType;
+import com.github.bradjacobs.logging.jdbc.LoggingConnection;
+import com.github.bradjacobs.logging.jdbc.event.MultiRowInsertEvent;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.BloatedPojo;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.PojoDAO;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MultiRowInsertLoggingTest extends AbstractPojoLoggingTest {
+
+    @Test
+    public void testBatchLoggedAsMultiRowInserts() throws Exception {
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        PojoDAO dao = createDao(captureLoggingListener, 2);
+        try {
+            List<BloatedPojo> pojos = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                pojos.add(createDummyPojo("Multi_" + i));
+            }
+            dao.insertPojos(pojos, true);
+
+            List<MultiRowInsertEvent> events = captureLoggingListener.getEvents(MultiRowInsertEvent.class);
+            assertEquals(3, events.size(), "mismatch count of multi-row INSERT events");
+            assertEquals(2, events.get(0).getRows().size());
+            assertEquals(1, events.get(2).getRows().size());
+            assertEquals(2, events.get(0).getStatementEvents().size(), "expected the statement event of each row");
+            assertEquals(events.get(0).getRows().get(1), events.get(0).getStatementEvents().get(1).getParams());
+            assertEquals(5, events.get(2).getBatchSize());
+            assertEquals(3, captureLoggingListener.getSqlStatementStartingWith("INSERT").size());
+            assertTrue(events.get(0).getMessage().contains("'Multi_0'"));
+            assertTrue(events.get(0).getMessage().contains("),("));
+
+            // the logged statements can be replayed as-is
+            dao.executeSql("DELETE FROM pojos");
+            for (MultiRowInsertEvent event : events) {
+                dao.executeSql(event.getMessage());
+            }
+            List<BloatedPojo> replayedPojos = dao.getAllPojos();
+            assertEquals(5, replayedPojos.size());
+            for (int i = 0; i < 5; i++) {
+                assertPojoEqual(replayedPojos.get(i), pojos.get(i));
+            }
+        }
+        finally {
+            dao.close();
+        }
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        PojoDAO dao = createDao(captureLoggingListener, 0);
+        try {
+            dao.insertPojos(Arrays.asList(createDummyPojo("Rob"), createDummyPojo("Sue")), true);
+        }
+        finally {
+            dao.close();
+        }
+        assertEquals(0, captureLoggingListener.getEvents(MultiRowInsertEvent.class).size());
+        assertEquals(2, captureLoggingListener.getSqlStatementStartingWith("INSERT").size());
+    }
+
+    @Test
+    public void testNotAppliedForOracle() throws Exception {
+        // oracle has no multi-row VALUES syntax
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        PojoDAO dao = createDao(captureLoggingListener, 2, DatabaseType.ORACLE);
+        try {
+            dao.insertPojos(Arrays.asList(createDummyPojo("Rob"), createDummyPojo("Sue")), true);
+        }
+        finally {
+            dao.close();
+        }
+        assertEquals(0, captureLoggingListener.getEvents(MultiRowInsertEvent.class).size());
+        assertEquals(2, captureLoggingListener.getSqlStatementStartingWith("INSERT").size());
+    }
+
+    private PojoDAO createDao(CaptureLoggingListener captureLoggingListener, int multiRowInsertSize) throws Exception {
+        return createDao(captureLoggingListener, multiRowInsertSize, DatabaseType.DEFAULT);
+    }
+
+    private PojoDAO createDao(CaptureLoggingListener captureLoggingListener, int multiRowInsertSize,
+                              DatabaseType dbType) throws Exception {
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:multiRowInsertDB", "SA", "");
+        Connection dbcon = LoggingConnection
+                .builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .dbType(dbType)
+                .clobParamLogging(true)
+                .multiRowInsertSize(multiRowInsertSize)
+                .build();
+        PojoDAO pojoDao = new PojoDAO(dbcon);
+        pojoDao.init();
+        return pojoDao;
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.bradjacobs.logging.jdbc.hsql;
+
+import com.github.bradjacobs.logging.jdbc.LoggingConnection;
+import com.github.bradjacobs.logging.jdbc.SqlTemplateRegistry;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NPlusOneLoggingTest {
+    private static final String WARNING_PREFIX = "-- WARNING possible N+1 query";
+    private static final String SELECT_SQL = "SELECT * FROM n_plus_one WHERE id = ?";
+
+    private CaptureLoggingListener captureLoggingListener = null;
+    private Connection conn = null;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        captureLoggingListener = new CaptureLoggingListener();
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:nPlusOneDB", "SA", "");
+        conn = LoggingConnection.builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .nPlusOneThreshold(5)
+                .build();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE n_plus_one (id INT)");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE n_plus_one IF EXISTS");
+        }
+        conn.close();
+    }
+
+    @Test
+    public void testWarningOnCommit() throws Exception {
+        conn.setAutoCommit(false);
+        executeSelects(10, true);
+        assertEquals(0, getWarnings().size(), "warning should not be logged until the commit");
+
+        conn.commit();
+        List<String> warnings = getWarnings();
+        assertEquals(1, warnings.size(), "mismatch expected warning count");
+        assertTrue(warnings.get(0).contains("executed 10 times (10 with differing parameters)"), "unexpected warning: " + warnings.get(0));
+        assertTrue(warnings.get(0).endsWith(SELECT_SQL), "unexpected warning: " + warnings.get(0));
+        conn.setAutoCommit(true);
+    }
+
+    @Test
+    public void testUnderThreshold() throws Exception {
+        conn.setAutoCommit(false);
+        executeSelects(5, true);
+        conn.rollback();
+        executeSelects(5, true);
+        conn.rollback();
+        assertEquals(0, getWarnings().size(), "counters should reset on each rollback");
+        conn.setAutoCommit(true);
+    }
+
+    @Test
+    public void testSameParametersNotFlagged() throws Exception {
+        conn.setAutoCommit(false);
+        executeSelects(10, false);
+        conn.commit();
+        assertEquals(0, getWarnings().size(), "identical executions are not an N+1 pattern");
+        conn.setAutoCommit(true);
+    }
+
+    @Test
+    public void testUnregisteredTemplates() throws Exception {
+        // a full registry (no room for any template) must not turn off the detection.
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:nPlusOneDB", "SA", "");
+        Connection fullRegistryConn = LoggingConnection.builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .nPlusOneThreshold(5)
+                .sqlTemplateRegistry(new SqlTemplateRegistry(0))
+                .build();
+        try {
+            fullRegistryConn.setAutoCommit(false);
+            for (int i = 0; i < 10; i++) {
+                try (PreparedStatement stmt = fullRegistryConn.prepareStatement(SELECT_SQL)) {
+                    stmt.setInt(1, i);
+                    stmt.executeQuery().close();
+                }
+            }
+            fullRegistryConn.commit();
+        }
+        finally {
+            fullRegistryConn.close();
+        }
+        List<String> warnings = getWarnings();
+        assertEquals(1, warnings.size(), "mismatch expected warning count");
+        assertTrue(warnings.get(0).contains("executed 10 times"), "unexpected warning: " + warnings.get(0));
+    }
+
+    private void executeSelects(int count, boolean differingParams) throws Exception {
+        for (int i = 0; i < count; i++) {
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_SQL)) {
+                stmt.setInt(1, differingParams ? i : 1);
+                stmt.executeQuery().close();
+            }
+        }
+    }
+
+    private List<String> getWarnings() {
+        return captureLoggingListener.getSqlStatementStartingWith(WARNING_PREFIX);
+    }
+}
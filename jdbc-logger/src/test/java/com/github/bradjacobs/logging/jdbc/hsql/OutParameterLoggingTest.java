@@ -0,0 +1,105 @@
+package com.github.bradjacobs.logging.jdbc.hsql;
+
+import com.github.bradjacobs.logging.jdbc.LoggingConnection;
+import com.github.bradjacobs.logging.jdbc.event.OutParametersEvent;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.PojoDAO;
+import org.junit.jupiter.api.Test;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OutParameterLoggingTest extends AbstractPojoLoggingTest {
+
+    @Test
+    public void testOutValuesLogged() throws Exception {
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        PojoDAO dao = createDao(captureLoggingListener, true);
+        try {
+            dao.insertPojos(Arrays.asList(createDummyPojo("Rob"), createDummyPojo("Sue")), true);
+            dao.callStoredProcedure(1);
+            dao.callStoredProcedureByName(5);
+        }
+        finally {
+            dao.close();
+        }
+
+        List<OutParametersEvent> events = captureLoggingListener.getEvents(OutParametersEvent.class);
+        assertEquals(2, events.size(), "mismatch count of OUT events");
+        assertEquals(Boolean.TRUE, events.get(0).getValues().get(2));
+        assertEquals("-- OUT 2 = 1: CALL EXT_SAMPLE_PROC(?,?)", events.get(0).getMessage());
+        assertEquals("-- OUT 2 = 0: CALL EXT_SAMPLE_PROC(?,?)", events.get(1).getMessage());
+
+        // the OUT event follows its call
+        List<String> messages = captureLoggingListener.getSqlStatementStartingWith("CALL");
+        assertEquals("CALL EXT_SAMPLE_PROC(1,'{_OUT_BOOLEAN_}')", messages.get(0));
+    }
+
+    @Test
+    public void testNullAndBinaryOutValues() throws Exception {
+        CallableStatement innerStmt = mock(CallableStatement.class);
+        when(innerStmt.getInt(1)).thenReturn(0);
+        when(innerStmt.getLong(2)).thenReturn(7L);
+        when(innerStmt.getBytes(3)).thenReturn(new byte[] {1, 2, 3});
+        // read in the order: getInt(1), getLong(2), getBytes(3)
+        when(innerStmt.wasNull()).thenReturn(true, false);
+        Connection innerConn = mock(Connection.class);
+        when(innerConn.prepareCall(anyString())).thenReturn(innerStmt);
+
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        try (Connection conn = LoggingConnection.builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .outParameterLogging(true)
+                .build();
+             CallableStatement cstmt = conn.prepareCall("{call get_values(?, ?, ?)}")) {
+            cstmt.execute();
+            cstmt.getInt(1);
+            cstmt.getLong(2);
+            cstmt.getBytes(3);
+        }
+
+        List<OutParametersEvent> events = captureLoggingListener.getEvents(OutParametersEvent.class);
+        assertEquals(1, events.size(), "mismatch count of OUT events");
+        Map<Integer, Object> values = events.get(0).getValues();
+        assertTrue(values.containsKey(1), "expected the NULL value to be recorded");
+        assertNull(values.get(1), "expected a SQL NULL to be recorded as null, not 0");
+        assertEquals(7L, values.get(2));
+        assertEquals("{_BYTES_}", values.get(3), "expected a placeholder for the binary value");
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        PojoDAO dao = createDao(captureLoggingListener, false);
+        try {
+            dao.callStoredProcedure(1);
+        }
+        finally {
+            dao.close();
+        }
+        assertEquals(0, captureLoggingListener.getEvents(OutParametersEvent.class).size());
+    }
+
+    private PojoDAO createDao(CaptureLoggingListener captureLoggingListener, boolean outParameterLogging) throws Exception {
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:outParameterDB", "SA", "");
+        Connection dbcon = LoggingConnection
+                .builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .outParameterLogging(outParameterLogging)
+                .build();
+        PojoDAO pojoDao = new PojoDAO(dbcon);
+        pojoDao.init();
+        return pojoDao;
+    }
+}
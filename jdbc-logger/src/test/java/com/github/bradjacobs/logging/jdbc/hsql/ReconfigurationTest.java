@@ -0,0 +1,97 @@
+package com.github.bradjacobs.logging.jdbc.hsql;
+
+import com.github.bradjacobs.logging.jdbc.LoggingConfiguration;
+import com.github.bradjacobs.logging.jdbc.LoggingConnection;
+import com.github.bradjacobs.logging.jdbc.LoggingDataSource;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReconfigurationTest {
+    private JDBCDataSource hsqlDataSource = null;
+    private CaptureLoggingListener firstListener = null;
+    private CaptureLoggingListener secondListener = null;
+
+    @BeforeEach
+    public void setup() {
+        hsqlDataSource = new JDBCDataSource();
+        hsqlDataSource.setUrl("jdbc:hsqldb:mem:reconfigDB");
+        hsqlDataSource.setUser("SA");
+        hsqlDataSource.setPassword("");
+        firstListener = new CaptureLoggingListener();
+        secondListener = new CaptureLoggingListener();
+    }
+
+    @Test
+    public void testSwapListenersOnOpenConnection() throws Exception {
+        LoggingDataSource dataSource = LoggingDataSource.builder(hsqlDataSource)
+                .loggingListener(firstListener)
+                .build();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("VALUES (?)")) {
+            pstmt.setInt(1, 1);
+            pstmt.execute();
+
+            LoggingConfiguration configuration = dataSource.reconfigure(builder -> builder.loggingListeners(secondListener));
+            assertSame(configuration, ((LoggingConnection) conn).getConfiguration(), "connection should see the new configuration");
+
+            pstmt.setInt(1, 2);
+            pstmt.execute();
+        }
+        assertEquals(1, firstListener.getSqlStatements().size(), "mismatch first listener statement count");
+        assertEquals("VALUES (1)", firstListener.getSqlStatements().get(0));
+        assertEquals(1, secondListener.getSqlStatements().size(), "mismatch second listener statement count");
+        assertEquals("VALUES (2)", secondListener.getSqlStatements().get(0));
+    }
+
+    @Test
+    public void testDisableOpenConnection() throws Exception {
+        LoggingDataSource dataSource = LoggingDataSource.builder(hsqlDataSource)
+                .loggingListener(firstListener)
+                .build();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("VALUES (?)")) {
+            dataSource.setEnabled(false);
+            pstmt.setInt(1, 1);
+            pstmt.execute();
+            assertTrue(firstListener.getSqlStatements().isEmpty(), "expected no logging while disabled");
+
+            try (Connection rawConn = dataSource.getConnection()) {
+                assertFalse(rawConn instanceof LoggingConnection, "expected the original connection while disabled");
+            }
+
+            dataSource.setEnabled(true);
+            pstmt.setInt(1, 2);
+            pstmt.execute();
+        }
+        assertEquals(1, firstListener.getSqlStatements().size(), "mismatch statement count");
+        assertEquals("VALUES (2)", firstListener.getSqlStatements().get(0));
+    }
+
+    @Test
+    public void testSampleRateChange() throws Exception {
+        LoggingDataSource dataSource = LoggingDataSource.builder(hsqlDataSource)
+                .loggingListener(firstListener)
+                .build();
+        LoggingConfiguration initial = dataSource.getConfiguration();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("VALUES (1)")) {
+            dataSource.reconfigure(builder -> builder.sampleRate(0.0d));
+            for (int i = 0; i < 10; i++) {
+                pstmt.execute();
+            }
+        }
+        assertTrue(firstListener.getSqlStatements().isEmpty(), "expected no statements w/ sampleRate 0");
+        // listener settings did not change, so the circuit breakers are kept.
+        assertSame(initial.getListenerCircuitBreakers(), dataSource.getListenerCircuitBreakers());
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.bradjacobs.logging.jdbc.hsql;
+
+import com.github.bradjacobs.logging.jdbc.LoggingConnection;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResultSetTrackingTest {
+    private static final String SELECT_SQL = "SELECT * FROM rs_items WHERE id < ?";
+
+    private CaptureLoggingListener captureLoggingListener = null;
+    private Connection conn = null;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        captureLoggingListener = new CaptureLoggingListener();
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:resultSetDB", "SA", "");
+        conn = LoggingConnection.builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .resultSetTracking(true)
+                .build();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE rs_items (id INT)");
+            for (int i = 0; i < 10; i++) {
+                stmt.executeUpdate("INSERT INTO rs_items (id) VALUES (" + i + ")");
+            }
+        }
+        captureLoggingListener.getEvents().clear();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE rs_items IF EXISTS");
+        }
+        conn.close();
+    }
+
+    @Test
+    public void testRowCount() throws Exception {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_SQL)) {
+            stmt.setInt(1, 7);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertSame(stmt, rs.getStatement(), "expected the logging statement");
+                assertEquals(0, getStatementEvents().size(), "query should not be logged until ResultSet is closed");
+                while (rs.next()) {
+                    rs.getInt(1);
+                }
+            }
+        }
+
+        List<StatementEvent> events = getStatementEvents();
+        assertEquals(1, events.size(), "mismatch expected event count");
+        assertEquals(7, events.get(0).getRowCount());
+        assertTrue(events.get(0).getFetchNanos() >= 0, "expected a fetch time");
+        assertTrue(events.get(0).getMessage().startsWith("SELECT * FROM rs_items WHERE id < 7 -- 7 rows fetched in "),
+                "unexpected message: " + events.get(0).getMessage());
+    }
+
+    @Test
+    public void testStatementClosedFirst() throws Exception {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT * FROM rs_items");
+            rs.next();
+            rs.next();
+        }
+        List<StatementEvent> events = getStatementEvents();
+        assertEquals(1, events.size(), "closing the statement should log the open ResultSet");
+        assertEquals(2, events.get(0).getRowCount());
+    }
+
+    @Test
+    public void testReExecuteClosesPrevious() throws Exception {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_SQL)) {
+            stmt.setInt(1, 3);
+            stmt.executeQuery();
+            stmt.setInt(1, 5);
+            stmt.executeQuery();
+            assertEquals(1, getStatementEvents().size(), "re-executing should log the previous ResultSet");
+        }
+        assertEquals(2, getStatementEvents().size(), "mismatch expected event count");
+    }
+
+    private List<StatementEvent> getStatementEvents() {
+        return captureLoggingListener.getEvents(StatementEvent.class);
+    }
+}
@@ -61,6 +61,19 @@ public class StoredProcLoggingTest extends AbstractPojoLoggingTest {
         assertEquals(Boolean.TRUE, outParam);
     }
 
+    @Test
+    public void testCallStoredProcByName()  throws Exception {
+        dao.insertPojos(Arrays.asList(createDummyPojo("Rob"), createDummyPojo("Sue")), true);
+        Boolean outParam = dao.callStoredProcedureByName(1);
+        dao.callStoredProcedureByName(2);
+
+        List<String> callSqlStatements = this.captureLoggingListener.getSqlStatementStartingWith("CALL");
+        assertEquals(2, callSqlStatements.size(), "mismatch count of 'CALL' sql statements");
+        assertEquals("CALL EXT_SAMPLE_PROC(1,'{_OUT_BOOLEAN_}')", callSqlStatements.get(0));
+        assertEquals("CALL EXT_SAMPLE_PROC(2,'{_OUT_BOOLEAN_}')", callSqlStatements.get(1));
+        assertEquals(Boolean.TRUE, outParam);
+    }
+
     @Test
     public void testCallStoredProcAsBatch()  throws Exception {
         BloatedPojo inputPojo1 = createDummyPojo("Fredo");
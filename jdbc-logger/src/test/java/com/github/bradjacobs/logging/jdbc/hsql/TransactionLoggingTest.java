@@ -0,0 +1,169 @@
+package com.github.bradjacobs.logging.jdbc.hsql;
+
+import com.github.bradjacobs.logging.jdbc.LoggingConnection;
+import com.github.bradjacobs.logging.jdbc.SlowTransactionLog;
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.event.TransactionEvent;
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TransactionLoggingTest {
+    private static final String INSERT_SQL = "INSERT INTO tx_items (id) VALUES (?)";
+
+    private CaptureLoggingListener captureLoggingListener = null;
+    private LoggingConnection conn = null;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        captureLoggingListener = new CaptureLoggingListener();
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:transactionDB", "SA", "");
+        conn = LoggingConnection.builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .transactionTracking(true)
+                .slowTransactionLog(new SlowTransactionLog(2))
+                .build();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE tx_items (id INT)");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        conn.setAutoCommit(true);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE tx_items IF EXISTS");
+        }
+        conn.close();
+    }
+
+    @Test
+    public void testCommitEvents() throws Exception {
+        captureLoggingListener.getEvents().clear();
+        conn.setAutoCommit(false);
+        insertRows(3);
+        conn.commit();
+
+        List<LoggingEvent> events = captureLoggingListener.getEvents();
+        assertEquals(5, events.size(), "mismatch expected event count");
+        assertEquals(TransactionEvent.Type.BEGIN, ((TransactionEvent)events.get(0)).getType());
+        assertTrue(events.get(1) instanceof StatementEvent, "expected statement event");
+        assertTrue(events.get(3) instanceof StatementEvent, "expected statement event");
+
+        TransactionEvent commitEvent = (TransactionEvent)events.get(4);
+        assertEquals(TransactionEvent.Type.COMMIT, commitEvent.getType());
+        assertEquals(3, commitEvent.getStatementCount());
+        assertTrue(commitEvent.getDurationNanos() >= commitEvent.getStatementElapsedNanos(), "duration must include statement time");
+        assertEquals(1, commitEvent.getStatementBreakdown().size());
+        assertEquals(INSERT_SQL, commitEvent.getStatementBreakdown().get(0).getTemplate().getSql());
+        assertEquals(3, commitEvent.getStatementBreakdown().get(0).getExecutionCount());
+    }
+
+    @Test
+    public void testRollbackAndAutoCommitEvents() throws Exception {
+        conn.setAutoCommit(false);
+        insertRows(1);
+        conn.rollback();
+        insertRows(2);
+        conn.setAutoCommit(true);  // implicit commit
+        insertRows(1);             // autoCommit on, so no transaction
+
+        List<TransactionEvent> events = captureLoggingListener.getEvents(TransactionEvent.class);
+        assertEquals(4, events.size(), "mismatch expected transaction event count");
+        assertEquals(TransactionEvent.Type.ROLLBACK, events.get(1).getType());
+        assertEquals(1, events.get(1).getStatementCount());
+        assertEquals(TransactionEvent.Type.COMMIT, events.get(3).getType());
+        assertEquals(2, events.get(3).getStatementCount());
+
+        List<TransactionEvent> slowest = conn.getSlowTransactionLog().getSlowestTransactions();
+        assertEquals(2, slowest.size(), "mismatch expected slow transaction count");
+        assertTrue(slowest.get(0).getDurationNanos() >= slowest.get(1).getDurationNanos(), "expected slowest first");
+    }
+
+    @Test
+    public void testEmptyCommit() throws Exception {
+        conn.setAutoCommit(false);
+        conn.commit();
+        assertEquals(0, captureLoggingListener.getEvents(TransactionEvent.class).size(), "no statements means no transaction");
+    }
+
+    @Test
+    public void testFailedCommit() throws Exception {
+        Connection failingConnection = mock(Connection.class);
+        when(failingConnection.getAutoCommit()).thenReturn(false);
+        when(failingConnection.createStatement()).thenReturn(mock(Statement.class));
+        doThrow(new SQLException("commit failed")).when(failingConnection).commit();
+
+        LoggingConnection failingConn = LoggingConnection.builder(failingConnection)
+                .loggingListener(captureLoggingListener)
+                .transactionTracking(true)
+                .build();
+        captureLoggingListener.getEvents().clear();
+        try (Statement stmt = failingConn.createStatement()) {
+            stmt.execute("DELETE FROM tx_items");
+        }
+        assertThrows(SQLException.class, failingConn::commit);
+        assertEquals(1, captureLoggingListener.getEvents(TransactionEvent.class).size(), "a failed commit is not a COMMIT");
+
+        // the transaction is still open, and ends w/ the rollback.
+        failingConn.rollback();
+        List<TransactionEvent> events = captureLoggingListener.getEvents(TransactionEvent.class);
+        assertEquals(2, events.size(), "mismatch expected transaction event count");
+        assertEquals(TransactionEvent.Type.ROLLBACK, events.get(1).getType());
+        assertEquals(1, events.get(1).getStatementCount());
+    }
+
+    @Test
+    public void testResultSetOpenAcrossCommit() throws Exception {
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:transactionDB", "SA", "");
+        try (LoggingConnection trackingConn = LoggingConnection.builder(innerConn)
+                .loggingListener(captureLoggingListener)
+                .transactionTracking(true)
+                .resultSetTracking(true)
+                .build()) {
+            trackingConn.setAutoCommit(false);
+            captureLoggingListener.getEvents().clear();
+            try (Statement stmt = trackingConn.createStatement()) {
+                stmt.execute("INSERT INTO tx_items (id) VALUES (1)");
+                ResultSet rs = stmt.executeQuery("SELECT id FROM tx_items");
+                assertTrue(rs.next());
+                trackingConn.commit();
+                rs.close();
+            }
+            trackingConn.setAutoCommit(true);
+        }
+
+        // the query is counted in the transaction that ran it, not in a new one
+        List<TransactionEvent> events = captureLoggingListener.getEvents(TransactionEvent.class);
+        assertEquals(2, events.size(), "mismatch expected transaction event count");
+        assertEquals(TransactionEvent.Type.COMMIT, events.get(1).getType());
+        assertEquals(2, events.get(1).getStatementCount());
+        assertEquals(1, captureLoggingListener.getSqlStatementStartingWith("SELECT").size());
+    }
+
+    private void insertRows(int count) throws Exception {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < count; i++) {
+                stmt.setInt(1, i);
+                stmt.executeUpdate();
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.github.bradjacobs.logging.jdbc.hsql;
+
+import com.github.bradjacobs.logging.jdbc.LoggingDataSource;
+import com.github.bradjacobs.logging.jdbc.listeners.file.CapturedStatement;
+import com.github.bradjacobs.logging.jdbc.listeners.file.WorkloadCaptureListener;
+import com.github.bradjacobs.logging.jdbc.listeners.file.WorkloadCaptureReader;
+import com.github.bradjacobs.logging.jdbc.param.MaskedValue;
+import com.github.bradjacobs.logging.jdbc.param.RawValue;
+import com.github.bradjacobs.logging.jdbc.replay.ReplayResult;
+import com.github.bradjacobs.logging.jdbc.replay.WorkloadReplayer;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkloadReplayTest {
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE replay_items (id INT, name VARCHAR(50))";
+    private static final String INSERT_SQL = "INSERT INTO replay_items (id, name) VALUES (?, ?)";
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testCaptureAndReplay() throws Exception {
+        JDBCDataSource sourceDataSource = createHsqlDataSource("replaySourceDB");
+        executeSql(sourceDataSource, CREATE_TABLE_SQL);
+
+        File captureFile = new File(tempDir, "workload.cap");
+        try (WorkloadCaptureListener captureListener = new WorkloadCaptureListener(captureFile)) {
+            LoggingDataSource loggingDataSource = LoggingDataSource.builder(sourceDataSource)
+                    .loggingListener(captureListener)
+                    .build();
+
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                final int threadId = t;
+                threads.add(new Thread(() -> insertRows(loggingDataSource, threadId)));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        List<CapturedStatement> statements = WorkloadCaptureReader.read(captureFile);
+        // each thread: 5 single inserts, 5 batched inserts, 1 select
+        assertEquals(33, statements.size(), "mismatch expected captured statement count");
+        Set<Long> connectionIds = new HashSet<>();
+        Set<Long> threadIds = new HashSet<>();
+        for (CapturedStatement statement : statements) {
+            connectionIds.add(statement.getConnectionId());
+            threadIds.add(statement.getThreadId());
+        }
+        assertEquals(3, connectionIds.size(), "mismatch expected connection count");
+        assertEquals(3, threadIds.size(), "mismatch expected thread count");
+
+        JDBCDataSource targetDataSource = createHsqlDataSource("replayTargetDB");
+        executeSql(targetDataSource, CREATE_TABLE_SQL);
+
+        ReplayResult result = new WorkloadReplayer(targetDataSource).replay(statements);
+        assertEquals(3, result.getConnectionCount(), "mismatch expected connection count");
+        assertEquals(33, result.getStatementCount(), "mismatch expected replay statement count");
+        assertEquals(0, result.getErrorCount(), "unexpected errors: " + result.getErrorMessages());
+        assertEquals(countRows(sourceDataSource), countRows(targetDataSource), "mismatch row count after replay");
+        assertEquals(30, countRows(targetDataSource), "mismatch row count after replay");
+    }
+
+    @Test
+    public void testPacedReplay() throws Exception {
+        List<CapturedStatement> statements = new ArrayList<>();
+        statements.add(new CapturedStatement(0L, 1L, 1L, "VALUES (1)", new HashMap<>(), 0L, 0));
+        statements.add(new CapturedStatement(TimeUnit.MILLISECONDS.toNanos(200), 1L, 1L,
+                "VALUES (2)", new HashMap<>(), 0L, 0));
+
+        JDBCDataSource targetDataSource = createHsqlDataSource("replayPacedDB");
+        ReplayResult result = new WorkloadReplayer(targetDataSource, 2.0d).replay(statements);
+        assertEquals(0, result.getErrorCount(), "unexpected errors: " + result.getErrorMessages());
+        assertTrue(result.getWallClockNanos() >= TimeUnit.MILLISECONDS.toNanos(100),
+                "expected replay to keep the (scaled) pacing");
+    }
+
+    @Test
+    public void testMaskedAndRawValuesSkipped() throws Exception {
+        List<CapturedStatement> statements = new ArrayList<>();
+        statements.add(new CapturedStatement(0L, 1L, 1L, INSERT_SQL, params(1, "ok"), 0L, 0));
+        statements.add(new CapturedStatement(1L, 1L, 1L, INSERT_SQL, params(2, new MaskedValue("****")), 0L, 0));
+        statements.add(new CapturedStatement(2L, 1L, 1L, INSERT_SQL, params(3, new RawValue("raw")), 0L, 0));
+        // a batch is skipped as a whole
+        statements.add(new CapturedStatement(3L, 1L, 1L, INSERT_SQL, params(4, "ok"), 0L, 2));
+        statements.add(new CapturedStatement(3L, 1L, 1L, INSERT_SQL, params(5, new MaskedValue("****")), 0L, 2));
+
+        JDBCDataSource targetDataSource = createHsqlDataSource("replaySkippedDB");
+        executeSql(targetDataSource, CREATE_TABLE_SQL);
+
+        ReplayResult result = new WorkloadReplayer(targetDataSource).replay(statements);
+        assertEquals(0, result.getErrorCount(), "unexpected errors: " + result.getErrorMessages());
+        assertEquals(1, result.getStatementCount(), "mismatch expected replay statement count");
+        assertEquals(4, result.getSkippedCount(), "mismatch expected skipped statement count");
+        assertEquals(1, countRows(targetDataSource), "mismatch row count after replay");
+    }
+
+    @Test
+    public void testMaxConnections() throws Exception {
+        List<CapturedStatement> statements = new ArrayList<>();
+        for (long connectionId = 1; connectionId <= 4; connectionId++) {
+            statements.add(new CapturedStatement(0L, connectionId, connectionId, "VALUES (1)", new HashMap<>(), 0L, 0));
+            statements.add(new CapturedStatement(1L, connectionId, connectionId, "VALUES (2)", new HashMap<>(), 0L, 0));
+        }
+
+        AtomicInteger openConnections = new AtomicInteger();
+        AtomicInteger maxOpenConnections = new AtomicInteger();
+        DataSource targetDataSource = countingDataSource(
+                createHsqlDataSource("replayMaxConnectionsDB"), openConnections, maxOpenConnections);
+
+        ReplayResult result = new WorkloadReplayer(targetDataSource, WorkloadReplayer.AS_FAST_AS_POSSIBLE, 2).replay(statements);
+        assertEquals(0, result.getErrorCount(), "unexpected errors: " + result.getErrorMessages());
+        assertEquals(4, result.getConnectionCount(), "mismatch expected connection count");
+        assertEquals(8, result.getStatementCount(), "mismatch expected replay statement count");
+        assertEquals(0, openConnections.get(), "expected all replay connections to be closed");
+        assertTrue(maxOpenConnections.get() <= 2, "expected at most 2 open connections, was " + maxOpenConnections.get());
+    }
+
+    private static Map<Integer, Object> params(Object... values) {
+        Map<Integer, Object> params = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            params.put(i + 1, values[i]);
+        }
+        return params;
+    }
+
+    /**
+     * @return dataSource that keeps track of the number of connections that are open at the same time
+     */
+    private static DataSource countingDataSource(JDBCDataSource dataSource,
+                                                 AtomicInteger openConnections, AtomicInteger maxOpenConnections) {
+        return (DataSource) Proxy.newProxyInstance(WorkloadReplayTest.class.getClassLoader(),
+                new Class<?>[] {DataSource.class}, (dsProxy, dsMethod, dsArgs) -> {
+            Object result = invoke(dataSource, dsMethod, dsArgs);
+            if (!dsMethod.getName().equals("getConnection")) {
+                return result;
+            }
+            Connection connection = (Connection) result;
+            maxOpenConnections.accumulateAndGet(openConnections.incrementAndGet(), Math::max);
+            return Proxy.newProxyInstance(WorkloadReplayTest.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    openConnections.decrementAndGet();
+                }
+                return invoke(connection, method, args);
+            });
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void insertRows(LoggingDataSource dataSource, int threadId) {
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+                for (int i = 0; i < 5; i++) {
+                    stmt.setInt(1, threadId * 100 + i);
+                    stmt.setString(2, "single " + i);
+                    stmt.executeUpdate();
+                }
+                for (int i = 5; i < 10; i++) {
+                    stmt.setInt(1, threadId * 100 + i);
+                    stmt.setString(2, "batch " + i);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM replay_items")) {
+                while (rs.next()) {
+                    rs.getInt(1);
+                }
+            }
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static JDBCDataSource createHsqlDataSource(String dbName) {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:mem:" + dbName);
+        dataSource.setUser("SA");
+        dataSource.setPassword("");
+        return dataSource;
+    }
+
+    private static void executeSql(JDBCDataSource dataSource, String sql) throws Exception {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private static int countRows(JDBCDataSource dataSource) throws Exception {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM replay_items")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -1,22 +1,31 @@
 package com.github.bradjacobs.logging.jdbc.hsql.objects;
 
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
 import com.github.bradjacobs.logging.jdbc.listeners.LoggingListener;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
  * ONLY FOR UNITTESTS!
  */
 public class CaptureLoggingListener implements LoggingListener {
-    private final List<String> sqlStatementList = new ArrayList<>();
+    // thread-safe lists b/c some events are created by background threads.
+    private final List<String> sqlStatementList = new CopyOnWriteArrayList<>();
+    private final List<LoggingEvent> eventList = new CopyOnWriteArrayList<>();
 
     @Override
     public void log(String sql) {
         sqlStatementList.add(sql);
     }
 
+    @Override
+    public void log(LoggingEvent event) {
+        eventList.add(event);
+        log(event.getMessage());
+    }
+
     public List<String> getSqlStatementList() {
         return sqlStatementList;
     }
@@ -31,4 +40,15 @@ public class CaptureLoggingListener implements LoggingListener {
                 .filter(s -> s.toLowerCase().startsWith(lowerPrefix))
                 .collect(Collectors.toList());
     }
+
+    public List<LoggingEvent> getEvents() {
+        return eventList;
+    }
+
+    public <T extends LoggingEvent> List<T> getEvents(Class<T> eventClass) {
+        return eventList.stream()
+                .filter(eventClass::isInstance)
+                .map(eventClass::cast)
+                .collect(Collectors.toList());
+    }
 }
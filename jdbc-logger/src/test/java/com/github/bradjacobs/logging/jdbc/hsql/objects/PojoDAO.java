@@ -204,6 +204,21 @@ public class PojoDAO {
         return null;
     }
 
+    public Boolean callStoredProcedureByName(Integer input) {
+        if (conn != null) {
+            try (CallableStatement callableStatement = conn.prepareCall(CALL_STORED_PROC)) {
+                callableStatement.setInt("id_in", input);
+                callableStatement.registerOutParameter("STATUS_OUT", Types.BOOLEAN);
+                callableStatement.executeUpdate();
+                return callableStatement.getBoolean("status_out");
+            }
+            catch (SQLException e) {
+                throw new RuntimeException("Unable to call stored proc " + e.getMessage(), e);
+            }
+        }
+        return null;
+    }
+
     public void callStoredProcedureBatch(List<Integer> inputList) throws SQLException {
         if (conn != null) {
             boolean origAutoCommit = conn.getAutoCommit();
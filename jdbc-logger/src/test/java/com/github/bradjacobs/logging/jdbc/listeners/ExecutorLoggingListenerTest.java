@@ -0,0 +1,65 @@
+package com.github.bradjacobs.logging.jdbc.listeners;
+
+import com.github.bradjacobs.logging.jdbc.hsql.objects.CaptureLoggingListener;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ExecutorLoggingListenerTest {
+
+    @Test
+    public void testDelivery() {
+        CaptureLoggingListener captureLoggingListener = new CaptureLoggingListener();
+        ExecutorLoggingListener listener =
+                ExecutorLoggingListener.virtualThreads(captureLoggingListener, 16, Duration.ofSeconds(5));
+        for (int i = 0; i < 100; i++) {
+            listener.log("SELECT " + i);
+        }
+        listener.close();
+        assertEquals(100, captureLoggingListener.getSqlStatements().size(), "mismatch expected delivered count");
+        assertEquals(100, listener.getDeliveredCount(), "mismatch expected delivered count");
+        assertEquals(0, listener.getDroppedCount(), "mismatch expected dropped count");
+    }
+
+    @Test
+    public void testBackPressureDropsWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        LoggingListener blockedListener = sql -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ExecutorLoggingListener listener =
+                ExecutorLoggingListener.platformThreads(blockedListener, 2, 4, Duration.ofMillis(10));
+        for (int i = 0; i < 10; i++) {
+            listener.log("SELECT " + i);
+        }
+        assertEquals(4, listener.getInFlightCount(), "mismatch expected in-flight count");
+        assertEquals(6, listener.getDroppedCount(), "mismatch expected dropped count");
+
+        release.countDown();
+        listener.close();
+        assertEquals(4, listener.getDeliveredCount(), "mismatch expected delivered count");
+        assertEquals(0, listener.getInFlightCount(), "mismatch expected in-flight count");
+    }
+
+    @Test
+    public void testDelegateFailureIsCounted() {
+        LoggingListener brokenListener = sql -> {
+            throw new IllegalStateException("broken");
+        };
+        ExecutorLoggingListener listener =
+                ExecutorLoggingListener.platformThreads(brokenListener, 1, 8, Duration.ofSeconds(1));
+        listener.log("SELECT 1");
+        listener.close();
+        assertEquals(1, listener.getFailureCount(), "mismatch expected failure count");
+        assertEquals(0, listener.getDeliveredCount(), "mismatch expected delivered count");
+    }
+}
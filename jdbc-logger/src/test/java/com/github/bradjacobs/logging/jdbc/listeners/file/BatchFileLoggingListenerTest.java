@@ -0,0 +1,77 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import com.github.bradjacobs.logging.jdbc.LoggingConnection;
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BatchFileLoggingListenerTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testWriteBatch() throws Exception {
+        File file = new File(tempDir, "batch.log");
+        try (BatchFileLoggingListener listener = new BatchFileLoggingListener(file)) {
+            listener.logBatch(Arrays.asList(event("SELECT 1"), event("SELECT 2"), event("SELECT 3")));
+            listener.log("SELECT 4");
+        }
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList("SELECT 1", "SELECT 2", "SELECT 3", "SELECT 4"), lines);
+    }
+
+    @Test
+    public void testConnectionFanOut() throws Exception {
+        File file = new File(tempDir, "fanout.log");
+        BatchFileLoggingListener listener = new BatchFileLoggingListener(file, 16, Duration.ofMillis(5));
+        Connection innerConn = DriverManager.getConnection("jdbc:hsqldb:mem:batchFileDB", "SA", "");
+        LoggingConnection conn = LoggingConnection.builder(innerConn)
+                .loggingListener(listener)
+                .fanOutRingSize(256)
+                .build();
+        List<String> expected = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("VALUES (?)")) {
+            for (int i = 0; i < 50; i++) {
+                pstmt.setInt(1, i);
+                pstmt.execute();
+                expected.add("VALUES (" + i + ")");
+            }
+        }
+        // close waits for the consumers to finish.
+        conn.close();
+        listener.close();
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(expected, lines);
+    }
+
+    @Test
+    public void testInvalidBatchSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchFileLoggingListener(new File(tempDir, "x.log"), 0, Duration.ZERO));
+    }
+
+    private static LoggingEvent event(String message) {
+        return new LoggingEvent() {
+            @Override
+            public String getMessage() {
+                return message;
+            }
+        };
+    }
+}
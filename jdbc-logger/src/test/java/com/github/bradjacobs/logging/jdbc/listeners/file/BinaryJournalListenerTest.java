@@ -0,0 +1,152 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import com.github.bradjacobs.logging.jdbc.DatabaseType;
+import com.github.bradjacobs.logging.jdbc.SqlTemplate;
+import com.github.bradjacobs.logging.jdbc.event.MultiRowInsertEvent;
+import com.github.bradjacobs.logging.jdbc.event.NPlusOneEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.param.MaskedValue;
+import com.github.bradjacobs.logging.jdbc.param.SqlTagFiller;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BinaryJournalListenerTest {
+    private static final SqlTagFiller SQL_TAG_FILLER = new SqlTagFiller(DatabaseType.DEFAULT, ZoneId.of("UTC"));
+    private static final String UUID_STRING = "6f1c2b1e-0d4a-4c3b-9a57-1b2c3d4e5f60";
+    private static final SqlTemplate SELECT_TEMPLATE = new SqlTemplate(1, "SELECT * FROM tbl WHERE id = ? AND name = ?");
+    private static final SqlTemplate INSERT_TEMPLATE = new SqlTemplate(SqlTemplate.UNREGISTERED_ID,
+            "INSERT INTO tbl (a, b, c, d, e, f) VALUES (?, ?, ?, ?, ?, ?)");
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        List<StatementEvent> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            events.add(createEvent(SELECT_TEMPLATE, i, "O'Brien " + i));
+        }
+        events.add(createEvent(INSERT_TEMPLATE, null, true, 12345678901L, new BigDecimal("12.50"),
+                Timestamp.valueOf("2021-03-04 05:06:07"), 1.5d));
+
+        File journalFile = new File(tempDir, "journal.bin");
+        try (BinaryJournalListener listener = new BinaryJournalListener(journalFile)) {
+            events.forEach(listener::log);
+        }
+
+        List<String> decoded = decode(journalFile);
+        assertEquals(events.size(), decoded.size(), "mismatch expected record count");
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(events.get(i).getSql(), decoded.get(i), "mismatch decoded sql");
+        }
+    }
+
+    @Test
+    public void testMaskedAndOtherValues() throws Exception {
+        // rendered unquoted by the param converter, the decoded sql has to match that.
+        StatementEvent event = createEvent(SELECT_TEMPLATE, new MaskedValue("{_MASKED_}"), UUID.fromString(UUID_STRING));
+        File journalFile = new File(tempDir, "journal.bin");
+        try (BinaryJournalListener listener = new BinaryJournalListener(journalFile)) {
+            listener.log(event);
+        }
+        assertEquals("SELECT * FROM tbl WHERE id = {_MASKED_} AND name = " + UUID_STRING, decode(journalFile).get(0));
+        assertEquals(event.getSql(), decode(journalFile).get(0));
+    }
+
+    @Test
+    public void testTemplateDictionaryCapped() throws Exception {
+        // i.e. plain Statements w/ inlined literals, every sql string is a new 'template'
+        int statementCount = TemplateDictionary.DEFAULT_MAX_TEMPLATES + 10;
+        File journalFile = new File(tempDir, "journal.bin");
+        try (BinaryJournalListener listener = new BinaryJournalListener(journalFile)) {
+            for (int i = 0; i < statementCount; i++) {
+                listener.log(createEvent(new SqlTemplate(SqlTemplate.UNREGISTERED_ID, "SELECT " + i)));
+            }
+        }
+        List<String> decoded = decode(journalFile);
+        assertEquals(statementCount, decoded.size(), "mismatch expected record count");
+        assertEquals("SELECT " + (statementCount - 1), decoded.get(statementCount - 1));
+        assertEquals("SELECT " + (statementCount - 2), decoded.get(statementCount - 2));
+    }
+
+    @Test
+    public void testTemplateWrittenOnce() throws Exception {
+        File journalFile = new File(tempDir, "journal.bin");
+        try (BinaryJournalListener listener = new BinaryJournalListener(journalFile)) {
+            listener.log(createEvent(SELECT_TEMPLATE, 1, "a"));
+        }
+        long singleStatementSize = journalFile.length();
+
+        try (BinaryJournalListener listener = new BinaryJournalListener(journalFile)) {
+            for (int i = 0; i < 100; i++) {
+                listener.log(createEvent(SELECT_TEMPLATE, 1, "a"));
+            }
+        }
+        long sqlTextSize = createEvent(SELECT_TEMPLATE, 1, "a").getSql().length() * 100L;
+        assertTrue(journalFile.length() < sqlTextSize, "expected journal smaller than the rendered sql");
+        assertTrue(journalFile.length() < singleStatementSize * 100, "expected template only written once");
+        assertEquals(100, decode(journalFile).size(), "mismatch expected record count");
+    }
+
+    @Test
+    public void testNonStatementEvents() throws Exception {
+        File journalFile = new File(tempDir, "journal.bin");
+        NPlusOneEvent nPlusOneEvent = new NPlusOneEvent(SELECT_TEMPLATE, 20, 20, 1000L);
+        try (BinaryJournalListener listener = new BinaryJournalListener(journalFile)) {
+            listener.log("-- plain message");
+            listener.log(nPlusOneEvent);
+        }
+        List<String> decoded = decode(journalFile);
+        assertEquals(2, decoded.size(), "mismatch expected record count");
+        assertEquals("-- plain message", decoded.get(0));
+        assertEquals(nPlusOneEvent.getMessage(), decoded.get(1));
+    }
+
+    @Test
+    public void testMultiRowInsertJournaledPerRow() throws Exception {
+        List<StatementEvent> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(createEvent(INSERT_TEMPLATE, i, "b" + i, true, (long) i, new BigDecimal("1.5"), null));
+        }
+        File journalFile = new File(tempDir, "journal.bin");
+        try (BinaryJournalListener listener = new BinaryJournalListener(journalFile)) {
+            listener.log(new MultiRowInsertEvent(INSERT_TEMPLATE, new ArrayList<>(rows), SQL_TAG_FILLER, 3, 0));
+        }
+        List<String> decoded = decode(journalFile);
+        assertEquals(rows.size(), decoded.size(), "mismatch expected record count");
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(rows.get(i).getSql(), decoded.get(i), "mismatch decoded sql");
+        }
+    }
+
+    private static StatementEvent createEvent(SqlTemplate template, Object... values) {
+        Map<Integer, Object> params = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            params.put(i + 1, values[i]);
+        }
+        return new StatementEvent(template, params, SQL_TAG_FILLER, 1000L, 0);
+    }
+
+    private static List<String> decode(File journalFile) throws Exception {
+        List<String> decoded = new ArrayList<>();
+        try (InputStream inputStream = new FileInputStream(journalFile)) {
+            new BinaryJournalDecoder(SQL_TAG_FILLER).decode(inputStream, (timestamp, sql) -> decoded.add(sql));
+        }
+        return decoded;
+    }
+}
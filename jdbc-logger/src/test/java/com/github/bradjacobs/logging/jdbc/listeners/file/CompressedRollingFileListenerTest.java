@@ -0,0 +1,94 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import com.github.bradjacobs.logging.jdbc.DatabaseType;
+import com.github.bradjacobs.logging.jdbc.SqlTemplate;
+import com.github.bradjacobs.logging.jdbc.event.LoggingEvent;
+import com.github.bradjacobs.logging.jdbc.event.StatementEvent;
+import com.github.bradjacobs.logging.jdbc.param.SqlTagFiller;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompressedRollingFileListenerTest {
+    private static final SqlTagFiller SQL_TAG_FILLER = new SqlTagFiller(DatabaseType.DEFAULT, ZoneId.of("UTC"));
+    private static final SqlTemplate SELECT_TEMPLATE = new SqlTemplate(1,
+            "SELECT id, name, created_at, status FROM customer_orders WHERE customer_id = ? AND status = ?");
+    private static final SqlTemplate UPDATE_TEMPLATE = new SqlTemplate(2,
+            "UPDATE customer_orders SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?");
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        List<String> expected = new ArrayList<>();
+        CompressedRollingFileListener listener = new CompressedRollingFileListener(tempDir, "sql");
+        List<LoggingEvent> batch = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            StatementEvent event = (i % 3 == 0)
+                    ? createEvent(UPDATE_TEMPLATE, "SHIPPED", i)
+                    : createEvent(SELECT_TEMPLATE, i % 97, "OPEN");
+            expected.add(event.getMessage());
+            batch.add(event);
+            if (batch.size() == 100) {
+                listener.logBatch(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        listener.log("-- plain message");
+        expected.add("-- plain message");
+        listener.close();
+
+        assertEquals(expected, readAll());
+        long ratio = listener.getRawByteCount() / listener.getCompressedByteCount();
+        assertTrue(ratio >= 10, "expected a high compression ratio, but was " + ratio);
+    }
+
+    @Test
+    public void testRollBySize() throws Exception {
+        List<String> expected = new ArrayList<>();
+        CompressedRollingFileListener listener = new CompressedRollingFileListener(tempDir, "sql",
+                1024, Duration.ofHours(1), 512, Duration.ZERO);
+        for (int i = 0; i < 2000; i++) {
+            StatementEvent event = createEvent(SELECT_TEMPLATE, i, "OPEN");
+            expected.add(event.getMessage());
+            listener.log(event);
+        }
+        listener.close();
+
+        long[] sequences = MappedSegmentFormat.existingSequences(tempDir, "sql", CompressedSegmentFormat.FILE_SUFFIX);
+        assertTrue(sequences.length > 1, "expected multiple segments");
+        assertEquals(expected, readAll());
+
+        // a new listener continues after the existing segments.
+        CompressedRollingFileListener nextListener = new CompressedRollingFileListener(tempDir, "sql");
+        nextListener.log("-- next");
+        nextListener.close();
+        expected.add("-- next");
+        assertEquals(expected, readAll());
+    }
+
+    private List<String> readAll() throws Exception {
+        List<String> messages = new ArrayList<>();
+        new CompressedLogReader(tempDir, "sql").readAll((timestamp, message) -> messages.add(message));
+        return messages;
+    }
+
+    private static StatementEvent createEvent(SqlTemplate template, Object... values) {
+        Map<Integer, Object> params = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            params.put(i + 1, values[i]);
+        }
+        return new StatementEvent(template, params, SQL_TAG_FILLER, 1000L, 0);
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.bradjacobs.logging.jdbc.listeners.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedFileLoggingListenerTest {
+    private static final String PREFIX = "sql";
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        try (MappedFileLoggingListener listener = new MappedFileLoggingListener(tempDir, PREFIX)) {
+            listener.log("SELECT 1");
+            listener.log("SELECT '\u00fcn\u00efc\u00f6d\u00e9'");
+        }
+        List<String> messages = readAll();
+        assertEquals(2, messages.size(), "mismatch expected message count");
+        assertEquals("SELECT 1", messages.get(0));
+        assertEquals("SELECT '\u00fcn\u00efc\u00f6d\u00e9'", messages.get(1));
+    }
+
+    @Test
+    public void testConcurrentWritersWithRollover() throws Exception {
+        int threadCount = 8;
+        int messagesPerThread = 2000;
+        // small segments to force lots of rollovers
+        try (MappedFileLoggingListener listener =
+                     new MappedFileLoggingListener(tempDir, PREFIX, 16 * 1024, Duration.ZERO)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                final int threadId = t;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < messagesPerThread; i++) {
+                        listener.log("UPDATE tbl SET x = " + i + " WHERE thread = " + threadId);
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        List<String> messages = readAll();
+        assertEquals(threadCount * messagesPerThread, messages.size(), "mismatch expected message count");
+        Set<String> uniqueMessages = new HashSet<>(messages);
+        assertEquals(threadCount * messagesPerThread, uniqueMessages.size(), "expected no duplicate/corrupt messages");
+        assertTrue(MappedSegmentFormat.existingSequences(tempDir, PREFIX).length > 1, "expected multiple segments");
+    }
+
+    @Test
+    public void testNewListenerStartsNewSegment() throws Exception {
+        try (MappedFileLoggingListener listener = new MappedFileLoggingListener(tempDir, PREFIX)) {
+            listener.log("SELECT 1");
+        }
+        try (MappedFileLoggingListener listener = new MappedFileLoggingListener(tempDir, PREFIX)) {
+            listener.log("SELECT 2");
+        }
+        assertEquals(2, MappedSegmentFormat.existingSequences(tempDir, PREFIX).length, "mismatch expected segment count");
+        assertEquals(2, readAll().size(), "mismatch expected message count");
+    }
+
+    @Test
+    public void testUnwrittenRecordNotSkippedRightAway() throws Exception {
+        // segment 1: "SELECT 1", then a reserved slot that is not written yet, segment 2: "SELECT 3"
+        int segmentSize = 1024;
+        ByteBuffer segment1 = ByteBuffer.allocate(segmentSize);
+        int holePosition = putRecord(segment1, 0, "SELECT 1");
+        segment1.putInt(holePosition + MappedSegmentFormat.HEADER_SIZE + 8, MappedSegmentFormat.END_MARKER);
+        writeSegment(1, segment1);
+        ByteBuffer segment2 = ByteBuffer.allocate(segmentSize);
+        putRecord(segment2, 0, "SELECT 3");
+        writeSegment(2, segment2);
+
+        List<String> messages = new ArrayList<>();
+        MappedFileReader reader = new MappedFileReader(tempDir, PREFIX, Duration.ofMillis(200));
+        assertEquals(1, reader.readAvailable((timestamp, message) -> messages.add(message)));
+
+        // the in-flight record gets written after the roll, it must not be lost.
+        putRecord(segment1, holePosition, "SELECT 2");
+        writeSegment(1, segment1);
+        assertEquals(2, reader.readAvailable((timestamp, message) -> messages.add(message)));
+        assertEquals(Arrays.asList("SELECT 1", "SELECT 2", "SELECT 3"), messages);
+    }
+
+    @Test
+    public void testHoleSkippedAfterTimeout() throws Exception {
+        int segmentSize = 1024;
+        ByteBuffer segment1 = ByteBuffer.allocate(segmentSize);
+        int holePosition = putRecord(segment1, 0, "SELECT 1");
+        segment1.putInt(holePosition + MappedSegmentFormat.HEADER_SIZE + 8, MappedSegmentFormat.END_MARKER);
+        writeSegment(1, segment1);
+        ByteBuffer segment2 = ByteBuffer.allocate(segmentSize);
+        putRecord(segment2, 0, "SELECT 3");
+        writeSegment(2, segment2);
+
+        List<String> messages = new ArrayList<>();
+        MappedFileReader reader = new MappedFileReader(tempDir, PREFIX, Duration.ofMillis(100));
+        assertEquals(1, reader.readAvailable((timestamp, message) -> messages.add(message)));
+        Thread.sleep(150L);
+        assertEquals(1, reader.readAvailable((timestamp, message) -> messages.add(message)));
+        assertEquals(Arrays.asList("SELECT 1", "SELECT 3"), messages);
+    }
+
+    private static int putRecord(ByteBuffer segment, int position, String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        segment.putLong(position + Integer.BYTES, 0L);
+        for (int i = 0; i < bytes.length; i++) {
+            segment.put(position + MappedSegmentFormat.HEADER_SIZE + i, bytes[i]);
+        }
+        segment.putInt(position, bytes.length);
+        return position + MappedSegmentFormat.HEADER_SIZE + bytes.length;
+    }
+
+    private void writeSegment(long sequence, ByteBuffer segment) throws Exception {
+        Files.write(MappedSegmentFormat.segmentFile(tempDir, PREFIX, sequence).toPath(), segment.array());
+    }
+
+    private List<String> readAll() throws Exception {
+        List<String> messages = new ArrayList<>();
+        new MappedFileReader(tempDir, PREFIX).readAvailable((timestamp, message) -> messages.add(message));
+        return messages;
+    }
+}
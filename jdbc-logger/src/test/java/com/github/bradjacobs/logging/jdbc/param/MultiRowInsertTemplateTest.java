@@ -0,0 +1,52 @@
+package com.github.bradjacobs.logging.jdbc.param;
+
+import com.github.bradjacobs.logging.jdbc.AbstractLoggingBuilder;
+import com.github.bradjacobs.logging.jdbc.DatabaseType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class MultiRowInsertTemplateTest {
+    private static final SqlTagFiller SQL_TAG_FILLER =
+            new SqlTagFiller(DatabaseType.DEFAULT, AbstractLoggingBuilder.DEFAULT_ZONE);
+
+    @Test
+    public void testRender() {
+        MultiRowInsertTemplate template = MultiRowInsertTemplate.parse(
+                "INSERT INTO tbl (id, name, created) VALUES (?, ?, CURRENT_TIMESTAMP);");
+        assertNotNull(template);
+        assertEquals("(?, ?, CURRENT_TIMESTAMP)", template.getRow().getSql());
+        assertEquals("INSERT INTO tbl (id, name, created) VALUES (1, 'a', CURRENT_TIMESTAMP),(2, 'b', CURRENT_TIMESTAMP);",
+                template.render(Arrays.asList(params(1, "a"), params(2, "b")), SQL_TAG_FILLER));
+
+        template = MultiRowInsertTemplate.parse("insert into tbl values(:id, coalesce(:name, 'x)')) on conflict do nothing");
+        assertNotNull(template);
+        assertEquals("insert into tbl values(1, coalesce('a', 'x)')),(2, coalesce(null, 'x)')) on conflict do nothing",
+                template.render(Arrays.asList(params(1, "a"), params(2, null)), SQL_TAG_FILLER));
+    }
+
+    @Test
+    public void testNotApplicable() {
+        assertNull(MultiRowInsertTemplate.parse(null));
+        assertNull(MultiRowInsertTemplate.parse("UPDATE tbl SET name = ? WHERE id = ?"));
+        assertNull(MultiRowInsertTemplate.parse("INSERT INTO tbl (id, name) SELECT id, name FROM other WHERE id = ?"));
+        assertNull(MultiRowInsertTemplate.parse("INSERT INTO tbl (id, name) VALUES (1, 'values')"));
+        assertNull(MultiRowInsertTemplate.parse("INSERT INTO tbl (id, name) VALUES (?, ?), (?, ?)"));
+        assertNull(MultiRowInsertTemplate.parse("INSERT INTO tbl (id, name) VALUES (?, ?) RETURNING ?"));
+        assertNull(MultiRowInsertTemplate.parse("INSERT INTO tbl /* values (?) */ (id, name) SELECT ?, name FROM other"));
+    }
+
+    private static Map<Integer, Object> params(Object... values) {
+        Map<Integer, Object> paramMap = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            paramMap.put(i + 1, values[i]);
+        }
+        return paramMap;
+    }
+}
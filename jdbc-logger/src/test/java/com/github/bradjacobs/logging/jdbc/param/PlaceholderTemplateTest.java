@@ -0,0 +1,83 @@
+package com.github.bradjacobs.logging.jdbc.param;
+
+import com.github.bradjacobs.logging.jdbc.AbstractLoggingBuilder;
+import com.github.bradjacobs.logging.jdbc.DatabaseType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PlaceholderTemplateTest {
+    private static final SqlTagFiller SQL_TAG_FILLER =
+            new SqlTagFiller(DatabaseType.DEFAULT, AbstractLoggingBuilder.DEFAULT_ZONE);
+
+    @Test
+    public void testNumberedPlaceholders() {
+        Map<Integer, Object> paramMap = params("Cat", 34);
+        assertEquals("SELECT * FROM tbl WHERE a = 34 AND b = 'Cat' OR c = 34",
+                SQL_TAG_FILLER.replace("SELECT * FROM tbl WHERE a = $2 AND b = $1 OR c = $2", paramMap));
+        assertEquals("SELECT * FROM tbl WHERE a = 'Cat' AND b = 34",
+                SQL_TAG_FILLER.replace("SELECT * FROM tbl WHERE a = :1 AND b = :2", paramMap));
+        assertEquals("EXEC my_proc 'Cat', 34",
+                SQL_TAG_FILLER.replace("EXEC my_proc @P1, @p2", paramMap));
+    }
+
+    @Test
+    public void testNamedPlaceholders() {
+        PlaceholderTemplate template = PlaceholderTemplate.parse(
+                "UPDATE tbl SET name = :name, created = :created::timestamp WHERE id = :id AND name <> :NAME");
+        assertEquals(4, template.getPlaceholderCount());
+        assertEquals(1, template.getSlot("name"));
+        assertEquals(1, template.getSlot(":Name"));
+        assertEquals(2, template.getSlot("created"));
+        assertEquals(3, template.getSlot("@id"));
+        assertEquals(-1, template.getSlot("timestamp"));
+        assertEquals("UPDATE tbl SET name = 'Bob', created = '2021-01-02'::timestamp WHERE id = 7 AND name <> 'Bob'",
+                SQL_TAG_FILLER.fill(template, params("Bob", "2021-01-02", 7)));
+
+        assertEquals(1, PlaceholderTemplate.parse("SELECT @@version, @name").getSlot("name"));
+    }
+
+    @Test
+    public void testIgnoredPlaceholders() {
+        // placeholders in literals, quoted identifiers and comments are just sql text
+        PlaceholderTemplate template = PlaceholderTemplate.parse(
+                "SELECT ':a', \"$1\" /* :b */ FROM tbl -- @c\n WHERE x = :d AND t = '12:30'");
+        assertEquals(1, template.getPlaceholderCount());
+        assertEquals(1, template.getSlot("d"));
+
+        // w/ any '?' the other syntaxes are not placeholders
+        template = PlaceholderTemplate.parse("SELECT * FROM tbl WHERE a = ? AND b = :b AND note = 'why?' AND c = ?");
+        assertEquals(2, template.getPlaceholderCount());
+        assertEquals(-1, template.getSlot("b"));
+        assertEquals("SELECT * FROM tbl WHERE a = 1 AND b = :b AND note = 'why?' AND c = 2",
+                SQL_TAG_FILLER.fill(template, params(1, 2)));
+    }
+
+    @Test
+    public void testEscapedQuotes() {
+        Map<Integer, Object> paramMap = params(7);
+        // backslash escaped quote (i.e. mysql default mode)
+        assertEquals("SELECT * FROM tbl WHERE name = 'O\\'Brien' AND id = 7",
+                SQL_TAG_FILLER.replace("SELECT * FROM tbl WHERE name = 'O\\'Brien' AND id = ?", paramMap));
+        assertEquals("SELECT 'a\\'b', 7, 'c\\'d'", SQL_TAG_FILLER.replace("SELECT 'a\\'b', ?, 'c\\'d'", paramMap));
+        // postgres escape string
+        assertEquals("SELECT E'it\\'s ?', 7", SQL_TAG_FILLER.replace("SELECT E'it\\'s ?', ?", paramMap));
+        // doubled quote, and a trailing backslash in a standard literal
+        assertEquals("SELECT 'it''s ?', 7", SQL_TAG_FILLER.replace("SELECT 'it''s ?', ?", paramMap));
+        assertEquals("SELECT 'C:\\', 7", SQL_TAG_FILLER.replace("SELECT 'C:\\', ?", paramMap));
+
+        // an unterminated literal falls back to every '?' in order
+        assertEquals("SELECT 'abc, 7", SQL_TAG_FILLER.replace("SELECT 'abc, ?", paramMap));
+    }
+
+    private static Map<Integer, Object> params(Object... values) {
+        Map<Integer, Object> paramMap = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            paramMap.put(i + 1, values[i]);
+        }
+        return paramMap;
+    }
+}